@@ -0,0 +1,64 @@
+package com.sap.scimono.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.scimono.api.Bulk;
+import com.sap.scimono.benchmarks.fixture.BenchmarkApplication;
+import com.sap.scimono.benchmarks.fixture.BenchmarkFixtures;
+
+/**
+ * Measures the bulk endpoint end to end, excluding only the HTTP container: request deserialization, validation and preprocessing of
+ * every operation, the (no-op) bulk callback, the rebuilding of the response with locations and its serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkRequestBenchmark {
+
+  @Param({"100", "1000"})
+  public int operationsCount;
+
+  private BenchmarkApplication application;
+  private byte[] request;
+
+  @Setup
+  public void setUp() {
+    application = new BenchmarkApplication();
+    request = BenchmarkFixtures.bulkRequestJson(operationsCount).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * The bulk resource is request-scoped, so it is created for every request as the container would do. The request body is read from a
+   * new stream on every invocation, as it is parsed while it is read.
+   */
+  @Benchmark
+  public Response handleBulkRequest() throws IOException {
+    return new Bulk(application, null).handleBulkRequest(null, new ByteArrayInputStream(request), null);
+  }
+
+  @Benchmark
+  public String deserializeHandleAndSerializeBulkRequest() throws IOException {
+    Response response = new Bulk(application, null).handleBulkRequest(null, new ByteArrayInputStream(request), null);
+    return BenchmarkFixtures.toJson(response.getEntity());
+  }
+}
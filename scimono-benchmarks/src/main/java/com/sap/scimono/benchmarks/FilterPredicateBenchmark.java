@@ -0,0 +1,67 @@
+package com.sap.scimono.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.scimono.benchmarks.fixture.BenchmarkFixtures;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.filter.predicate.FilterPredicates;
+
+/**
+ * Measures filtering of users held in memory with compiled filter predicates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterPredicateBenchmark {
+
+  // @formatter:off
+  @Param({
+      "userName eq \"user.4242\"",
+      "emails[type eq \"work\" and value co \"4242@example\"]",
+      "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:costCenter eq \"CC-42\" and active eq true"
+  })
+  // @formatter:on
+  public String filter;
+
+  @Param({"10000", "50000"})
+  public int usersCount;
+
+  private final List<User> users = new ArrayList<>();
+  private Predicate<User> predicate;
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < usersCount; i++) {
+      users.add(BenchmarkFixtures.user(i));
+    }
+    predicate = FilterPredicates.forUsers(filter);
+  }
+
+  @Benchmark
+  public long filterUsers() {
+    return users.stream().filter(predicate).count();
+  }
+
+  @Benchmark
+  public long compileAndFilterUsers() {
+    return users.stream().filter(FilterPredicates.forUsers(filter)).count();
+  }
+}
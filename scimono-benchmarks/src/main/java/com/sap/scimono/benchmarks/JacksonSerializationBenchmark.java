@@ -0,0 +1,87 @@
+package com.sap.scimono.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.scimono.api.helper.ObjectMapperFactory;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
+import com.sap.scimono.api.helper.SerializationProfile;
+import com.sap.scimono.benchmarks.fixture.BenchmarkFixtures;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.User;
+
+/**
+ * Measures (de)serialization of resources with the shared object mappers the server uses for requests and responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+  @Param({"PRETTY", "COMPACT"})
+  public SerializationProfile profile;
+
+  private ObjectMapper mapper;
+
+  private User user;
+  private String userJson;
+
+  private Group largeGroup;
+  private String largeGroupJson;
+
+  @Setup
+  public void setUp() throws IOException {
+    mapper = ObjectMapperRegistry.forProfile(profile).getObjectMapper();
+
+    user = BenchmarkFixtures.user(1);
+    userJson = mapper.writeValueAsString(user);
+
+    largeGroup = BenchmarkFixtures.group(BenchmarkFixtures.LARGE_GROUP_MEMBERS_COUNT);
+    largeGroupJson = mapper.writeValueAsString(largeGroup);
+  }
+
+  @Benchmark
+  public String serializeUser() throws IOException {
+    return mapper.writeValueAsString(user);
+  }
+
+  @Benchmark
+  public User deserializeUser() throws IOException {
+    return mapper.readValue(userJson, User.class);
+  }
+
+  /**
+   * Serializes with a newly created mapper, showing the cost of not sharing mappers between requests.
+   */
+  @Benchmark
+  public String createMapperAndSerializeUser() throws IOException {
+    return ObjectMapperFactory.createObjectMapper(profile).writeValueAsString(user);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String serializeLargeGroup() throws IOException {
+    return mapper.writeValueAsString(largeGroup);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Group deserializeLargeGroup() throws IOException {
+    return mapper.readValue(largeGroupJson, Group.class);
+  }
+}
@@ -0,0 +1,66 @@
+package com.sap.scimono.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.scimono.benchmarks.fixture.BenchmarkApplication;
+import com.sap.scimono.benchmarks.fixture.BenchmarkFixtures;
+import com.sap.scimono.callback.resourcetype.ResourceTypesCallback;
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.callback.users.UsersCallback;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.validation.patch.PatchValidationFramework;
+
+/**
+ * Measures validation of a user PATCH request touching simple, complex, multi-valued, value-filtered and extension attributes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatchValidationBenchmark {
+  private SchemasCallback schemasAPI;
+  private ResourceTypesCallback resourceTypesAPI;
+  private UsersCallback usersAPI;
+
+  private PatchValidationFramework framework;
+  private PatchBody patchBody;
+
+  @Setup
+  public void setUp() {
+    BenchmarkApplication application = new BenchmarkApplication();
+    schemasAPI = application.getSchemasCallback();
+    resourceTypesAPI = application.getResourceTypesCallback();
+    usersAPI = application.getUsersCallback();
+
+    framework = PatchValidationFramework.usersFramework(schemasAPI, resourceTypesAPI, usersAPI);
+    patchBody = BenchmarkFixtures.userPatch();
+  }
+
+  @Benchmark
+  public PatchBody validate() {
+    framework.validate(patchBody);
+    return patchBody;
+  }
+
+  /**
+   * Mirrors the request-scoped usage in the Users endpoint where the framework is created for every PATCH request.
+   */
+  @Benchmark
+  public PatchBody createFrameworkAndValidate() {
+    PatchValidationFramework.usersFramework(schemasAPI, resourceTypesAPI, usersAPI).validate(patchBody);
+    return patchBody;
+  }
+}
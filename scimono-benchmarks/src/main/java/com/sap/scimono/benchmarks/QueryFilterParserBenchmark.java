@@ -0,0 +1,91 @@
+package com.sap.scimono.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.scimono.SCIMFilterBaseVisitor;
+import com.sap.scimono.filter.QueryFilterCompiler;
+import com.sap.scimono.filter.QueryFilterParser;
+import com.sap.scimono.filter.expression.FilterExpression;
+
+/**
+ * Measures lexing, parsing and a full traversal of filter expressions typically sent by provisioning clients, as well as their compilation
+ * with and without the compiled filter cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryFilterParserBenchmark {
+
+  // @formatter:off
+  @Param({
+      "userName eq \"bjensen\"",
+      "emails[type eq \"work\" and value co \"@example.com\"]",
+      "meta.lastModified gt \"2011-05-13T04:42:34Z\" and (title pr or userType eq \"Employee\")",
+      "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:department eq \"Identity\" or not (active eq false)",
+      "userName sw \"a\" or userName sw \"b\" or userName sw \"c\" or userName sw \"d\" or userName sw \"e\" or userName sw \"f\""
+  })
+  // @formatter:on
+  public String filter;
+
+  private final QueryFilterCompiler uncachedCompiler = new QueryFilterCompiler(0, false);
+  private final QueryFilterCompiler uncachedTwoStageCompiler = new QueryFilterCompiler(0, true);
+  private final QueryFilterCompiler cachingCompiler = new QueryFilterCompiler(QueryFilterCompiler.DEFAULT_CACHE_SIZE, false);
+
+  @Benchmark
+  public Integer parse() {
+    return QueryFilterParser.parse(filter, new TerminalCountingVisitor());
+  }
+
+  @Benchmark
+  public Integer parseTwoStage() {
+    return QueryFilterParser.parse(filter, new TerminalCountingVisitor(), true);
+  }
+
+  @Benchmark
+  public FilterExpression compileUncached() {
+    return uncachedCompiler.compile(filter);
+  }
+
+  @Benchmark
+  public FilterExpression compileUncachedTwoStage() {
+    return uncachedTwoStageCompiler.compile(filter);
+  }
+
+  @Benchmark
+  public FilterExpression compileCached() {
+    return cachingCompiler.compile(filter);
+  }
+
+  private static class TerminalCountingVisitor extends SCIMFilterBaseVisitor<Integer> {
+
+    @Override
+    protected Integer defaultResult() {
+      return 0;
+    }
+
+    @Override
+    protected Integer aggregateResult(Integer aggregate, Integer nextResult) {
+      return aggregate + nextResult;
+    }
+
+    @Override
+    public Integer visitTerminal(TerminalNode node) {
+      return 1;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.sap.scimono.benchmarks;
+
+import static com.sap.scimono.api.API.GROUPS;
+import static com.sap.scimono.api.API.USERS;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.scimono.benchmarks.fixture.BenchmarkApplication;
+import com.sap.scimono.benchmarks.fixture.BenchmarkFixtures;
+import com.sap.scimono.callback.config.SCIMConfigurationCallback;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.helper.ResourceLocationService;
+
+/**
+ * Measures how expensive it is to stamp resource locations and $ref values on outgoing resources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceLocationBenchmark {
+  private ResourceLocationService usersLocationService;
+  private ResourceLocationService groupsLocationService;
+
+  private User user;
+  private Group largeGroup;
+
+  @Setup
+  public void setUp() {
+    SCIMConfigurationCallback configuration = new BenchmarkApplication().getConfigurationCallback();
+    usersLocationService = new ResourceLocationService(null, configuration, USERS);
+    groupsLocationService = new ResourceLocationService(null, configuration, GROUPS);
+
+    user = BenchmarkFixtures.user(1);
+    largeGroup = BenchmarkFixtures.group(BenchmarkFixtures.LARGE_GROUP_MEMBERS_COUNT);
+  }
+
+  @Benchmark
+  public User addUserLocation() {
+    return usersLocationService.addLocation(user, user.getId());
+  }
+
+  @Benchmark
+  public User addRelationalEntitiesLocation() {
+    return usersLocationService.addRelationalEntitiesLocation(usersLocationService.addLocation(user, user.getId()));
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Group addLargeGroupMembersLocation() {
+    return groupsLocationService.addMembersLocation(groupsLocationService.addLocation(largeGroup, largeGroup.getId()));
+  }
+}
@@ -0,0 +1,67 @@
+package com.sap.scimono.benchmarks;
+
+import static com.sap.scimono.api.API.GROUPS;
+import static com.sap.scimono.api.API.USERS;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.scimono.api.preprocessor.ResourcePreProcessor;
+import com.sap.scimono.benchmarks.fixture.BenchmarkApplication;
+import com.sap.scimono.benchmarks.fixture.BenchmarkFixtures;
+import com.sap.scimono.callback.config.SCIMConfigurationCallback;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.helper.ResourceLocationService;
+
+/**
+ * Measures the preparation of resources before they are handed to the create callbacks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourcePreProcessorBenchmark {
+  private ResourcePreProcessor<User> userPreProcessor;
+  private ResourcePreProcessor<Group> groupPreProcessor;
+
+  private User newUser;
+  private Group newLargeGroup;
+
+  @Setup
+  public void setUp() {
+    BenchmarkApplication application = new BenchmarkApplication();
+    SCIMConfigurationCallback configuration = application.getConfigurationCallback();
+
+    userPreProcessor = ResourcePreProcessor.forUsers(new ResourceLocationService(null, configuration, USERS), application.getUsersCallback(),
+        application.getResourceTypesCallback(), application.getSchemasCallback());
+    groupPreProcessor = ResourcePreProcessor.forGroups(new ResourceLocationService(null, configuration, GROUPS), application.getGroupsCallback(),
+        application.getResourceTypesCallback(), application.getSchemasCallback());
+
+    newUser = BenchmarkFixtures.newUser(1);
+    newLargeGroup = new Group.Builder(BenchmarkFixtures.group(BenchmarkFixtures.LARGE_GROUP_MEMBERS_COUNT)).setId(null).build();
+  }
+
+  @Benchmark
+  public User prepareUserForCreate() {
+    return userPreProcessor.prepareForCreate(newUser);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Group prepareLargeGroupForCreate() {
+    return groupPreProcessor.prepareForCreate(newLargeGroup);
+  }
+}
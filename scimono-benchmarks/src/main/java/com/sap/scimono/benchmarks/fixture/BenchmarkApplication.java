@@ -0,0 +1,112 @@
+package com.sap.scimono.benchmarks.fixture;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.callback.bulk.BulkRequestCallback;
+import com.sap.scimono.callback.config.DefaultSCIMConfigurationCallback;
+import com.sap.scimono.callback.config.SCIMConfigurationCallback;
+import com.sap.scimono.callback.groups.DefaultGroupsCallback;
+import com.sap.scimono.callback.groups.GroupsCallback;
+import com.sap.scimono.callback.schemas.DefaultSchemasCallback;
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.callback.users.DefaultUsersCallback;
+import com.sap.scimono.callback.users.UsersCallback;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.entity.config.BulkSetting;
+import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.entity.schema.resources.SchemaCSVReader;
+
+/**
+ * SCIM application whose callbacks do no work of their own, so that benchmarks measure only the library code.
+ */
+public class BenchmarkApplication extends SCIMApplication {
+  public static final URI API_ROOT = URI.create("https://scim.example.com/scim/v2");
+
+  private static final int MAX_BULK_PAYLOAD_SIZE = 1024 * 1024 * 1024;
+
+  @Override
+  public UsersCallback getUsersCallback() {
+    return new DefaultUsersCallback() {
+      @Override
+      public Optional<String> generateId() {
+        return Optional.of(UUID.randomUUID().toString());
+      }
+    };
+  }
+
+  @Override
+  public GroupsCallback getGroupsCallback() {
+    return new DefaultGroupsCallback() {
+      @Override
+      public Optional<String> generateId() {
+        return Optional.of(UUID.randomUUID().toString());
+      }
+    };
+  }
+
+  @Override
+  public SchemasCallback getSchemasCallback() {
+    return new DefaultSchemasCallback() {
+      @Override
+      public Schema getCustomSchema(String schemaId) {
+        // the enterprise extension is not a core schema by URN, so it is served from here like any other extension schema
+        return SchemaCSVReader.getImportedSchemasFromCSVs().get(schemaId);
+      }
+
+      @Override
+      public List<Schema> getCustomSchemas() {
+        return Collections.emptyList();
+      }
+
+      @Override
+      public boolean isValidSchemaName(String schemaName) {
+        return true;
+      }
+    };
+  }
+
+  @Override
+  public BulkRequestCallback getBulkRequestCallback() {
+    return BenchmarkApplication::acceptAll;
+  }
+
+  @Override
+  public SCIMConfigurationCallback getConfigurationCallback() {
+    return new DefaultSCIMConfigurationCallback() {
+      @Override
+      public BulkSetting getBulkSetting() {
+        return new BulkSetting(true, BenchmarkFixtures.BULK_OPERATIONS_COUNT, MAX_BULK_PAYLOAD_SIZE);
+      }
+
+      @Override
+      public boolean getPatchSupportedSetting() {
+        return true;
+      }
+
+      @Override
+      public URI getRedirectApiRoot() {
+        return API_ROOT;
+      }
+    };
+  }
+
+  private static BulkBody<ResponseOperation> acceptAll(final BulkBody<RequestOperation> request) {
+    // @formatter:off
+    List<ResponseOperation> responseOperations = request.getOperations().stream()
+        .map(operation -> operation.hasValidationError()
+            ? operation.errorResponseFromExistingValidationError().build()
+            : operation.successfulResponse().build())
+        .collect(Collectors.toList());
+    // @formatter:on
+
+    return BulkBody.forResponse(responseOperations);
+  }
+}
@@ -0,0 +1,180 @@
+package com.sap.scimono.benchmarks.fixture;
+
+import static com.sap.scimono.api.API.GROUPS;
+import static com.sap.scimono.api.API.USERS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.scimono.api.helper.ObjectMapperFactory;
+import com.sap.scimono.entity.Email;
+import com.sap.scimono.entity.EnterpriseExtension;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.GroupRef;
+import com.sap.scimono.entity.Manager;
+import com.sap.scimono.entity.MemberRef;
+import com.sap.scimono.entity.Name;
+import com.sap.scimono.entity.PhoneNumber;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.patch.PatchOperation;
+import com.sap.scimono.exception.InternalScimonoException;
+
+/**
+ * Builds the payloads used by the benchmarks. The shapes follow what provisioning clients send in practice: users carrying many
+ * multi-valued attributes and an enterprise extension, large groups, and bulk requests mixing creates, replaces, patches and deletes.
+ */
+public final class BenchmarkFixtures {
+  public static final int USER_EMAILS_COUNT = 20;
+  public static final int USER_GROUPS_COUNT = 20;
+  public static final int LARGE_GROUP_MEMBERS_COUNT = 50_000;
+  public static final int BULK_OPERATIONS_COUNT = 1000;
+
+  private static final ObjectMapper MAPPER = ObjectMapperFactory.createObjectMapper();
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+  private BenchmarkFixtures() {
+  }
+
+  public static User user(final int index) {
+    String userName = "user." + index;
+
+    User.Builder builder = new User.Builder(userName)
+        .setId(UUID.randomUUID().toString())
+        .setExternalId("ext-" + index)
+        .setDisplayName("User " + index)
+        .setNickName("nick" + index)
+        .setTitle("Engineer")
+        .setUserType("Employee")
+        .setPreferredLanguage("en-US")
+        .setLocale("en-US")
+        .setTimezone("Europe/Berlin")
+        .setActive(true)
+        .setName(new Name.Builder().setGivenName("Given" + index).setFamilyName("Family" + index).setFormatted("Given" + index + " Family" + index)
+            .build());
+
+    for (int i = 0; i < USER_EMAILS_COUNT; i++) {
+      builder.addEmail(new Email.Builder().setValue(userName + "." + i + "@example.com").setType(i == 0 ? Email.Type.WORK : Email.Type.OTHER)
+          .setPrimary(i == 0).build());
+    }
+
+    builder.addPhoneNumber(new PhoneNumber.Builder().setValue("+49 6227 7" + index).setType(PhoneNumber.Type.WORK).build());
+    builder.addPhoneNumber(new PhoneNumber.Builder().setValue("+49 6227 8" + index).setType(PhoneNumber.Type.FAX).build());
+
+    List<GroupRef> groups = new ArrayList<>();
+    for (int i = 0; i < USER_GROUPS_COUNT; i++) {
+      groups.add(new GroupRef.Builder().setValue("group-" + i).setDisplay("Group " + i).setType(GroupRef.Type.DIRECT).build());
+    }
+    builder.addGroups(groups);
+
+    builder.addExtension(new EnterpriseExtension.Builder()
+        .setEmployeeNumber(String.valueOf(index))
+        .setCostCenter("CC-" + (index % 100))
+        .setOrganization("SAP")
+        .setDivision("Cloud")
+        .setDepartment("Identity")
+        .setManager(new Manager.Builder().setValue("manager-" + (index % 10)).setDisplayName("Manager " + (index % 10)).build())
+        .build());
+
+    return builder.build();
+  }
+
+  /**
+   * @return a user as sent by a client on create - no id and no meta
+   */
+  public static User newUser(final int index) {
+    User user = user(index);
+    return new User.Builder(user).setId(null).build();
+  }
+
+  public static Group group(final int membersCount) {
+    Group.Builder builder = new Group.Builder("Group with " + membersCount + " members").setId(UUID.randomUUID().toString()).setExternalId(
+        "group-ext");
+    for (int i = 0; i < membersCount; i++) {
+      builder.addMember(new MemberRef.Builder().setValue("member-" + i).setDisplay("Member " + i)
+          .setType(i % 10 == 0 ? MemberRef.Type.GROUP : MemberRef.Type.USER).build());
+    }
+    return builder.build();
+  }
+
+  public static PatchBody userPatch() {
+    ArrayNode newEmails = NODES.arrayNode();
+    newEmails.addObject().put("value", "new.address@example.com").put("type", "home");
+
+    ObjectNode name = NODES.objectNode().put("givenName", "Patched").put("familyName", "User");
+
+    return new PatchBody.Builder()
+        .addOperation(operation(PatchOperation.Type.REPLACE, "displayName", NODES.textNode("Patched User")))
+        .addOperation(operation(PatchOperation.Type.REPLACE, "name", name))
+        .addOperation(operation(PatchOperation.Type.ADD, "emails", newEmails))
+        .addOperation(operation(PatchOperation.Type.REPLACE, "emails[type eq \"work\"].value", NODES.textNode("changed@example.com")))
+        .addOperation(operation(PatchOperation.Type.REMOVE, "phoneNumbers[type eq \"fax\"]", null))
+        .addOperation(operation(PatchOperation.Type.REPLACE, EnterpriseExtension.ENTERPRISE_URN + ":department", NODES.textNode("Security")))
+        .addOperation(operation(PatchOperation.Type.REPLACE, "active", NODES.booleanNode(false)))
+        .build();
+  }
+
+  private static PatchOperation operation(final PatchOperation.Type type, final String path, final JsonNode value) {
+    return new PatchOperation.Builder().setOp(type).setPath(path).setValue(value).build();
+  }
+
+  /**
+   * Creates a bulk request with the given number of operations. Operations are distributed as 40% user creates, 20% user replaces, 20%
+   * user patches, 10% group creates and 10% deletes, which mirrors a typical initial-load-plus-delta provisioning run.
+   */
+  public static String bulkRequestJson(final int operationsCount) {
+    ObjectNode body = NODES.objectNode();
+    body.putArray("schemas").add(BulkBody.BULK_REQUEST_SCHEMA);
+    body.put("failOnErrors", operationsCount);
+
+    ArrayNode operations = body.putArray("Operations");
+    for (int i = 0; i < operationsCount; i++) {
+      ObjectNode operation = operations.addObject();
+      switch (i % 10) {
+        case 0:
+        case 1:
+        case 2:
+        case 3:
+          operation.put("method", RequestMethod.POST.name()).put("bulkId", "bulk-" + i).put("path", "/" + USERS);
+          operation.set("data", MAPPER.valueToTree(newUser(i)));
+          break;
+        case 4:
+        case 5:
+          operation.put("method", RequestMethod.PUT.name()).put("path", "/" + USERS + "/" + UUID.randomUUID());
+          operation.set("data", MAPPER.valueToTree(newUser(i)));
+          break;
+        case 6:
+        case 7:
+          operation.put("method", RequestMethod.PATCH.name()).put("path", "/" + USERS + "/" + UUID.randomUUID());
+          operation.set("data", MAPPER.valueToTree(userPatch()));
+          break;
+        case 8:
+          operation.put("method", RequestMethod.POST.name()).put("bulkId", "bulk-" + i).put("path", "/" + GROUPS);
+          operation.set("data", MAPPER.valueToTree(new Group.Builder(group(100)).setId(null).build()));
+          break;
+        default:
+          operation.put("method", RequestMethod.DELETE.name()).put("path", "/" + USERS + "/" + UUID.randomUUID());
+          break;
+      }
+    }
+
+    return toJson(body);
+  }
+
+  public static String toJson(final Object value) {
+    try {
+      return MAPPER.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new InternalScimonoException("Fixture could not be serialized", e);
+    }
+  }
+}
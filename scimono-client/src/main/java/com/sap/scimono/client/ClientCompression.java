@@ -0,0 +1,95 @@
+package com.sap.scimono.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import com.sap.scimono.api.helper.ContentEncoding;
+
+/**
+ * Accepts gzip and deflate compressed responses and decompresses them, and optionally compresses the request bodies with gzip, e.g. for
+ * large bulk requests. Request compression has to be supported by the service provider, a SCIMono service provider supports it if
+ * compression is enabled in its application.
+ */
+@Priority(Priorities.ENTITY_CODER)
+public class ClientCompression implements ClientRequestFilter, ReaderInterceptor, WriterInterceptor {
+  private static final String ACCEPTED_ENCODINGS = Arrays.stream(ContentEncoding.values()).map(ContentEncoding::getToken)
+      .collect(Collectors.joining(", "));
+
+  private final boolean compressRequests;
+
+  /**
+   * @param compressRequests whether the request bodies are compressed
+   */
+  public ClientCompression(boolean compressRequests) {
+    this.compressRequests = compressRequests;
+  }
+
+  @Override
+  public void filter(ClientRequestContext requestContext) {
+    if (!requestContext.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+      requestContext.getHeaders().putSingle(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+    }
+  }
+
+  @Override
+  public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+    String contentEncoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    Optional<ContentEncoding> encoding = contentEncoding == null ? Optional.empty() : getEncoding(contentEncoding);
+    if (!encoding.isPresent()) {
+      return context.proceed();
+    }
+
+    context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+    InputStream originalInput = context.getInputStream();
+    context.setInputStream(encoding.get().decompress(originalInput));
+    try {
+      return context.proceed();
+    } finally {
+      context.setInputStream(originalInput);
+    }
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    if (!compressRequests || context.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+      context.proceed();
+      return;
+    }
+
+    context.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, ContentEncoding.GZIP.getToken());
+    context.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+    OutputStream originalOutput = context.getOutputStream();
+    DeflaterOutputStream compressingOutput = ContentEncoding.GZIP.compress(originalOutput, Deflater.DEFAULT_COMPRESSION);
+    context.setOutputStream(compressingOutput);
+    try {
+      context.proceed();
+      compressingOutput.finish();
+    } finally {
+      context.setOutputStream(originalOutput);
+    }
+  }
+
+  private static Optional<ContentEncoding> getEncoding(String contentEncoding) {
+    try {
+      return ContentEncoding.fromContentEncoding(contentEncoding);
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+}
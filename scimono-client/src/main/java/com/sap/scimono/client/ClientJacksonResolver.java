@@ -15,20 +15,24 @@ import com.sap.scimono.entity.User;
 @Consumes(APPLICATION_JSON_SCIM)
 @Produces(APPLICATION_JSON_SCIM)
 public class ClientJacksonResolver implements ContextResolver<ObjectMapper> {
-  private final boolean isUserNameOptional;
+  private final ObjectMapper mapper;
   
   public ClientJacksonResolver(boolean isUserNameOptional) {
-    this.isUserNameOptional = isUserNameOptional;
+    this.mapper = createObjectMapper(isUserNameOptional);
   }
 
   @Override
   public ObjectMapper getContext(Class<?> type) {
+    return mapper;
+  }
+
+  private static ObjectMapper createObjectMapper(boolean isUserNameOptional) {
     ObjectMapper mapper = ObjectMapperFactory.createObjectMapper();
     mapper.addMixIn(User.class, UserWithSerializablePassword.class);
     if (isUserNameOptional) {
       mapper.addMixIn(User.class, UserWithUserNameOptionalMixIn.class);
     }
-    
+
     return mapper;
   }
 
@@ -86,6 +86,7 @@ public class SCIMClientService {
     private final Map<String, Object> properties = new HashMap<>();
 
     private TargetSystemAuthenticator.Builder<?> targetSystemAuthenticator;
+    private ClientCompression compression;
     private URI serviceUrl;
 
     private Builder(URI serviceUrl) {
@@ -107,6 +108,16 @@ public class SCIMClientService {
       return this;
     }
     
+    /**
+     * Accepts gzip and deflate compressed responses.
+     *
+     * @param compressRequests whether the request bodies are compressed with gzip as well, which the service provider has to support
+     */
+    public Builder enableCompression(boolean compressRequests) {
+      this.compression = new ClientCompression(compressRequests);
+      return this;
+    }
+
     public Builder setUserPropertiesConfiguration(UserAttributesConfiguration userPropertiesConfiguration) {
       this.userPropertiesConfiguration = userPropertiesConfiguration;
       return this;
@@ -121,6 +132,10 @@ public class SCIMClientService {
         client.register(targetSystemAuthenticator.build());
       }
 
+      if (compression != null) {
+        client.register(compression);
+      }
+
       registerResolvers(client);
       properties.forEach(client::property);
       return new SCIMClientService(client.target(serviceUrl));
@@ -3,8 +3,12 @@ package com.sap.scimono.client.query;
 import javax.ws.rs.client.WebTarget;
 
 import static com.sap.scimono.api.API.COUNT_PARAM;
+import static com.sap.scimono.api.API.SORT_BY_PARAM;
+import static com.sap.scimono.api.API.SORT_ORDER_PARAM;
 import static com.sap.scimono.api.API.START_INDEX_PARAM;
 
+import com.sap.scimono.entity.paging.SortOrder;
+
 public class IndexPageQuery implements SCIMQuery {
   private ResourcePageQuery resourcePageQuery;
 
@@ -23,6 +27,18 @@ public class IndexPageQuery implements SCIMQuery {
     return this;
   }
 
+  /**
+   * Requests the resources sorted by an attribute, if the service provider supports sorting.
+   *
+   * @param sortBy the attribute path, e.g. {@code name.familyName}
+   * @param sortOrder the direction
+   */
+  public IndexPageQuery sortedBy(String sortBy, SortOrder sortOrder) {
+    resourcePageQuery.addQueryParam(SORT_BY_PARAM, sortBy);
+    resourcePageQuery.addQueryParam(SORT_ORDER_PARAM, sortOrder.getValue());
+    return this;
+  }
+
   @Override
   public WebTarget apply(WebTarget target) {
     return resourcePageQuery.apply(target);
@@ -0,0 +1,157 @@
+package com.sap.scimono.filter.sql;
+
+import static java.util.Locale.ROOT;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.sap.scimono.filter.expression.AttributePath;
+
+/**
+ * {@link ColumnMapping} built from a fixed list of attributes. Attributes are registered per schema; attributes referenced in a filter
+ * without a schema URN are looked up in the core schema first and then in the extension schemas in the order of registration, as
+ * done when filtering in memory. Attribute names are matched case insensitively.
+ * <p>
+ * Example for a {@code users} table aliased as {@code u}:
+ *
+ * <pre>
+ * new AttributeColumnMapping.Builder(User.SCHEMA)
+ *     .addColumn("id", SqlColumn.string("u.id"))
+ *     .addColumn("userName", SqlColumn.lowerCaseString("u.user_name_lc"))
+ *     .addColumn("name.familyName", SqlColumn.caseIgnoringString("u.family_name"))
+ *     .addTable("emails", emailsTable)
+ *     .addColumn(EnterpriseExtension.ENTERPRISE_URN, "employeeNumber", SqlColumn.string("u.employee_number"))
+ *     .build();
+ * </pre>
+ */
+public final class AttributeColumnMapping implements ColumnMapping {
+  private final String coreSchemaId;
+  private final List<String> extensionSchemaIds;
+  private final Map<String, SqlColumn> columns;
+  private final Map<String, SqlTable> tables;
+  private final ColumnMapping fallback;
+
+  private AttributeColumnMapping(final Builder builder) {
+    this.coreSchemaId = builder.coreSchemaId;
+    this.extensionSchemaIds = Collections.unmodifiableList(new ArrayList<>(builder.extensionSchemaIds));
+    this.columns = Collections.unmodifiableMap(new HashMap<>(builder.columns));
+    this.tables = Collections.unmodifiableMap(new HashMap<>(builder.tables));
+    this.fallback = builder.fallback;
+  }
+
+  @Override
+  public SqlColumn getColumn(final AttributePath attributePath) {
+    String attribute = attributePath.getAttributeName();
+    if (attributePath.hasSubAttribute()) {
+      attribute += "." + attributePath.getSubAttributeName();
+    }
+
+    SqlColumn column = lookup(columns, attributePath.getSchema(), attribute);
+    if (column == null && fallback != null) {
+      return fallback.getColumn(attributePath);
+    }
+    return column;
+  }
+
+  @Override
+  public SqlTable getTable(final AttributePath attributePath) {
+    SqlTable table = lookup(tables, attributePath.getSchema(), attributePath.getAttributeName());
+    if (table == null && fallback != null) {
+      return fallback.getTable(attributePath);
+    }
+    return table;
+  }
+
+  private <T> T lookup(final Map<String, T> mappings, final String schemaId, final String attribute) {
+    if (schemaId != null) {
+      return mappings.get(key(schemaId, attribute));
+    }
+
+    T mapping = mappings.get(key(coreSchemaId, attribute));
+    for (int i = 0; mapping == null && i < extensionSchemaIds.size(); i++) {
+      mapping = mappings.get(key(extensionSchemaIds.get(i), attribute));
+    }
+    return mapping;
+  }
+
+  private static String key(final String schemaId, final String attribute) {
+    return (schemaId + ":" + attribute).toLowerCase(ROOT);
+  }
+
+  public static class Builder {
+    private final String coreSchemaId;
+    private final Set<String> extensionSchemaIds = new LinkedHashSet<>();
+    private final Map<String, SqlColumn> columns = new HashMap<>();
+    private final Map<String, SqlTable> tables = new HashMap<>();
+    private ColumnMapping fallback;
+
+    /**
+     * @param coreSchemaId the core schema of the resource type, e.g. {@code urn:ietf:params:scim:schemas:core:2.0:User}
+     */
+    public Builder(final String coreSchemaId) {
+      this.coreSchemaId = Objects.requireNonNull(coreSchemaId, "coreSchemaId must not be null");
+    }
+
+    /**
+     * @param attribute attribute of the core schema, a sub-attribute is appended with a dot, e.g. {@code name.givenName}
+     * @param column column holding the attribute
+     */
+    public Builder addColumn(final String attribute, final SqlColumn column) {
+      return addColumn(coreSchemaId, attribute, column);
+    }
+
+    /**
+     * @param schemaId schema defining the attribute, e.g. the enterprise or a custom extension
+     * @param attribute attribute of the schema, a sub-attribute is appended with a dot, e.g. {@code manager.value}
+     * @param column column holding the attribute
+     */
+    public Builder addColumn(final String schemaId, final String attribute, final SqlColumn column) {
+      registerSchema(schemaId);
+      columns.put(key(schemaId, attribute), Objects.requireNonNull(column, "column must not be null"));
+      return this;
+    }
+
+    /**
+     * @param attribute multi-valued attribute of the core schema, e.g. {@code emails}
+     * @param table table holding the values of the attribute
+     */
+    public Builder addTable(final String attribute, final SqlTable table) {
+      return addTable(coreSchemaId, attribute, table);
+    }
+
+    /**
+     * @param schemaId schema defining the attribute
+     * @param attribute multi-valued attribute of the schema
+     * @param table table holding the values of the attribute
+     */
+    public Builder addTable(final String schemaId, final String attribute, final SqlTable table) {
+      registerSchema(schemaId);
+      tables.put(key(schemaId, attribute), Objects.requireNonNull(table, "table must not be null"));
+      return this;
+    }
+
+    /**
+     * @param fallback mapping consulted for attributes which are not registered in this builder
+     */
+    public Builder setFallback(final ColumnMapping fallback) {
+      this.fallback = fallback;
+      return this;
+    }
+
+    public AttributeColumnMapping build() {
+      return new AttributeColumnMapping(this);
+    }
+
+    private void registerSchema(final String schemaId) {
+      if (!coreSchemaId.equalsIgnoreCase(Objects.requireNonNull(schemaId, "schemaId must not be null"))) {
+        extensionSchemaIds.add(schemaId);
+      }
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.sap.scimono.filter.sql;
+
+import com.sap.scimono.filter.expression.AttributePath;
+
+/**
+ * Tells where the attributes referenced by a filter are stored. {@link AttributeColumnMapping} covers statically known schemas, custom
+ * implementations can resolve attributes dynamically, e.g. custom extension attributes kept in a key-value table.
+ */
+public interface ColumnMapping {
+
+  /**
+   * @param attributePath attribute or sub-attribute referenced by the filter
+   * @return the column holding the referenced value or null if the attribute is not stored in a column of the resource table
+   */
+  SqlColumn getColumn(AttributePath attributePath);
+
+  /**
+   * @param attributePath attribute referenced by the filter, its sub-attribute is resolved through {@link SqlTable#getColumn(String)}
+   * @return the table holding the values of the multi-valued attribute or null if the attribute is not stored in a separate table
+   */
+  SqlTable getTable(AttributePath attributePath);
+}
@@ -0,0 +1,86 @@
+package com.sap.scimono.filter.sql;
+
+import java.util.Objects;
+
+/**
+ * Column (or any other SQL expression) holding the values of an attribute.
+ * <p>
+ * How strings are compared depends on how the column is declared:
+ * <ul>
+ * <li>{@link #string(String)} - values are compared as they are. Use it for case exact attributes like {@code id} and
+ * {@code externalId}.</li>
+ * <li>{@link #lowerCaseString(String)} - the column holds the values in lower case, typically as a generated column next to the original
+ * one. Filter values are converted to lower case, so a plain index on the column can be used. This is the preferred mapping for case
+ * insensitive attributes like {@code userName}.</li>
+ * <li>{@link #caseIgnoringString(String)} - the column is wrapped in {@code LOWER(...)}. An index on the column can be used only if the
+ * database supports function based indexes and one is created for {@code LOWER(column)}.</li>
+ * </ul>
+ */
+public final class SqlColumn {
+
+  public enum Type {
+    STRING, NUMBER, BOOLEAN, DATE_TIME
+  }
+
+  enum CaseMode {
+    EXACT, LOWER_CASE_VALUES, IGNORE
+  }
+
+  private final String name;
+  private final Type type;
+  private final CaseMode caseMode;
+
+  private SqlColumn(final String name, final Type type, final CaseMode caseMode) {
+    this.name = Objects.requireNonNull(name, "name must not be null");
+    this.type = type;
+    this.caseMode = caseMode;
+  }
+
+  public static SqlColumn string(final String name) {
+    return new SqlColumn(name, Type.STRING, CaseMode.EXACT);
+  }
+
+  public static SqlColumn lowerCaseString(final String name) {
+    return new SqlColumn(name, Type.STRING, CaseMode.LOWER_CASE_VALUES);
+  }
+
+  public static SqlColumn caseIgnoringString(final String name) {
+    return new SqlColumn(name, Type.STRING, CaseMode.IGNORE);
+  }
+
+  public static SqlColumn number(final String name) {
+    return new SqlColumn(name, Type.NUMBER, CaseMode.EXACT);
+  }
+
+  public static SqlColumn bool(final String name) {
+    return new SqlColumn(name, Type.BOOLEAN, CaseMode.EXACT);
+  }
+
+  public static SqlColumn dateTime(final String name) {
+    return new SqlColumn(name, Type.DATE_TIME, CaseMode.EXACT);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  CaseMode getCaseMode() {
+    return caseMode;
+  }
+
+  /**
+   * @return the same column prefixed with the given table alias
+   */
+  SqlColumn qualify(final String tableAlias) {
+    return new SqlColumn(tableAlias + "." + name, type, caseMode);
+  }
+
+  @Override
+  public String toString() {
+    return name + " (" + type + ")";
+  }
+}
@@ -0,0 +1,65 @@
+package com.sap.scimono.filter.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL condition translated from a SCIM filter, to be used in the {@code WHERE} clause of a prepared statement. Filter values are never
+ * inlined in the condition, they are passed as bind parameters in the order of their placeholders.
+ */
+public final class SqlFilter {
+  private static final SqlFilter MATCH_ALL = new SqlFilter("1 = 1", Collections.emptyList());
+
+  private final String condition;
+  private final List<Object> parameters;
+
+  SqlFilter(final String condition, final List<Object> parameters) {
+    this.condition = condition;
+    this.parameters = Collections.unmodifiableList(new ArrayList<>(parameters));
+  }
+
+  /**
+   * @return a condition matching all rows, used when no filter is provided
+   */
+  public static SqlFilter matchAll() {
+    return MATCH_ALL;
+  }
+
+  /**
+   * @return the condition with a {@code ?} placeholder for each parameter
+   */
+  public String getCondition() {
+    return condition;
+  }
+
+  /**
+   * @return the values of the placeholders - {@link String}, {@link java.math.BigDecimal}, {@link Boolean} or {@link java.sql.Timestamp}
+   */
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Binds the parameters of the condition to a statement.
+   *
+   * @param statement the statement containing the condition
+   * @param firstParameterIndex index of the first placeholder of the condition within the statement
+   * @return the index of the first placeholder following the condition
+   * @throws SQLException if a parameter cannot be bound
+   */
+  public int bind(final PreparedStatement statement, final int firstParameterIndex) throws SQLException {
+    int parameterIndex = firstParameterIndex;
+    for (Object parameter : parameters) {
+      statement.setObject(parameterIndex++, parameter);
+    }
+    return parameterIndex;
+  }
+
+  @Override
+  public String toString() {
+    return condition + " " + parameters;
+  }
+}
@@ -0,0 +1,66 @@
+package com.sap.scimono.filter.sql;
+
+import java.util.Objects;
+
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.filter.QueryFilter;
+import com.sap.scimono.filter.QueryFilterCompiler;
+import com.sap.scimono.filter.expression.FilterExpression;
+
+/**
+ * Translates SCIM filters into SQL conditions over the columns and tables described by a {@link ColumnMapping}. A translator is
+ * immutable and can be shared by all requests.
+ * <p>
+ * The generated conditions can use plain indexes: equality and ordering compare the column directly, {@code sw} becomes a
+ * {@code LIKE 'prefix%'} and case insensitive attributes can be mapped to a lower case column (see {@link SqlColumn}).
+ *
+ * <pre>
+ * SqlFilter sqlFilter = translator.translate(queryFilter);
+ * PreparedStatement statement = connection.prepareStatement("SELECT u.* FROM users u WHERE " + sqlFilter.getCondition());
+ * sqlFilter.bind(statement, 1);
+ * </pre>
+ */
+public class SqlFilterTranslator {
+  private final ColumnMapping columnMapping;
+  private final QueryFilterCompiler filterCompiler;
+
+  public SqlFilterTranslator(final ColumnMapping columnMapping) {
+    this(columnMapping, QueryFilterCompiler.getDefault());
+  }
+
+  /**
+   * @param columnMapping location of the attributes
+   * @param filterCompiler compiler used to compile filters given as text
+   */
+  public SqlFilterTranslator(final ColumnMapping columnMapping, final QueryFilterCompiler filterCompiler) {
+    this.columnMapping = Objects.requireNonNull(columnMapping, "columnMapping must not be null");
+    this.filterCompiler = Objects.requireNonNull(filterCompiler, "filterCompiler must not be null");
+  }
+
+  /**
+   * @param filter the filter query parameter or null
+   * @return the SQL condition, matching all rows if no filter is provided
+   * @throws InvalidFilterException if the filter is invalid or references attributes which are not mapped
+   */
+  public SqlFilter translate(final String filter) {
+    return filter == null ? SqlFilter.matchAll() : translate(filterCompiler.compile(filter));
+  }
+
+  /**
+   * @param filter the filter as handed to the callbacks or null
+   * @return the SQL condition, matching all rows if no filter is provided
+   * @throws InvalidFilterException if the filter is invalid or references attributes which are not mapped
+   */
+  public SqlFilter translate(final QueryFilter filter) {
+    return filter == null ? SqlFilter.matchAll() : translate(filter.getExpression());
+  }
+
+  /**
+   * @param expression a compiled filter or null
+   * @return the SQL condition, matching all rows if no filter is provided
+   * @throws InvalidFilterException if the filter references attributes which are not mapped
+   */
+  public SqlFilter translate(final FilterExpression expression) {
+    return expression == null ? SqlFilter.matchAll() : new WhereClauseWriter(columnMapping).write(expression);
+  }
+}
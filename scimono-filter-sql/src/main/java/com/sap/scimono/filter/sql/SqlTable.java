@@ -0,0 +1,94 @@
+package com.sap.scimono.filter.sql;
+
+import static java.util.Locale.ROOT;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Table holding the values of a multi-valued attribute, one row per value, e.g. the emails of a user. Conditions on the attribute are
+ * translated into {@code EXISTS} sub-queries correlated through the join column, so that they match if any value of the attribute
+ * matches.
+ * <p>
+ * Example - a table {@code user_emails} referencing the {@code id} column of a {@code users} table aliased as {@code u}:
+ *
+ * <pre>
+ * new SqlTable.Builder("user_emails", "user_id", "u.id")
+ *     .addColumn("value", SqlColumn.lowerCaseString("value_lc"))
+ *     .addColumn("type", SqlColumn.string("type"))
+ *     .addColumn("primary", SqlColumn.bool("is_primary"))
+ *     .build();
+ * </pre>
+ */
+public final class SqlTable {
+  private final String name;
+  private final String joinColumn;
+  private final String ownerColumn;
+  private final Map<String, SqlColumn> columns;
+
+  private SqlTable(final Builder builder) {
+    this.name = builder.name;
+    this.joinColumn = builder.joinColumn;
+    this.ownerColumn = builder.ownerColumn;
+    this.columns = Collections.unmodifiableMap(new HashMap<>(builder.columns));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the column of this table referencing the resource
+   */
+  public String getJoinColumn() {
+    return joinColumn;
+  }
+
+  /**
+   * @return the (qualified) column of the outer query identifying the resource
+   */
+  public String getOwnerColumn() {
+    return ownerColumn;
+  }
+
+  /**
+   * @param subAttributeName name of a sub-attribute, e.g. {@code value} or {@code type}
+   * @return the unqualified column holding the sub-attribute or null if the sub-attribute is not mapped
+   */
+  public SqlColumn getColumn(final String subAttributeName) {
+    return columns.get(subAttributeName.toLowerCase(ROOT));
+  }
+
+  public static class Builder {
+    private final String name;
+    private final String joinColumn;
+    private final String ownerColumn;
+    private final Map<String, SqlColumn> columns = new HashMap<>();
+
+    /**
+     * @param name name of the table
+     * @param joinColumn column of the table referencing the resource
+     * @param ownerColumn qualified column of the outer query identifying the resource
+     */
+    public Builder(final String name, final String joinColumn, final String ownerColumn) {
+      this.name = Objects.requireNonNull(name, "name must not be null");
+      this.joinColumn = Objects.requireNonNull(joinColumn, "joinColumn must not be null");
+      this.ownerColumn = Objects.requireNonNull(ownerColumn, "ownerColumn must not be null");
+    }
+
+    /**
+     * @param subAttributeName name of the sub-attribute, matched case insensitively
+     * @param column unqualified column holding the sub-attribute
+     */
+    public Builder addColumn(final String subAttributeName, final SqlColumn column) {
+      columns.put(subAttributeName.toLowerCase(ROOT), Objects.requireNonNull(column, "column must not be null"));
+      return this;
+    }
+
+    public SqlTable build() {
+      return new SqlTable(this);
+    }
+  }
+}
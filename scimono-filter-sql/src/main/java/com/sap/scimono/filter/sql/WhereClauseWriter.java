@@ -0,0 +1,312 @@
+package com.sap.scimono.filter.sql;
+
+import static java.util.Locale.ROOT;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.filter.expression.AttributePath;
+import com.sap.scimono.filter.expression.ComparisonExpression;
+import com.sap.scimono.filter.expression.ComparisonOperator;
+import com.sap.scimono.filter.expression.FilterExpression;
+import com.sap.scimono.filter.expression.FilterExpressionVisitor;
+import com.sap.scimono.filter.expression.LogicalExpression;
+import com.sap.scimono.filter.expression.NotExpression;
+import com.sap.scimono.filter.expression.PresentExpression;
+import com.sap.scimono.filter.expression.ValuePathExpression;
+
+/**
+ * Writes the SQL condition of a filter expression.
+ * <p>
+ * SQL comparisons against {@code NULL} are neither true nor false, while a SCIM filter on a missing attribute is false. Both agree as long
+ * as the comparison is not negated, so comparisons below a {@code not} are guarded with {@code IS NOT NULL}. Conditions on multi-valued
+ * attributes are {@code EXISTS} sub-queries, which are never {@code NULL}.
+ */
+class WhereClauseWriter implements FilterExpressionVisitor<Void> {
+  private static final char LIKE_ESCAPE = '!';
+  private static final String DEFAULT_SUB_ATTRIBUTE = "value";
+
+  private final ColumnMapping columnMapping;
+  private final StringBuilder condition = new StringBuilder();
+  private final List<Object> parameters = new ArrayList<>();
+
+  private int tablesCount;
+  private SqlTable valuePathTable;
+  private String valuePathAlias;
+  private boolean negated;
+
+  WhereClauseWriter(final ColumnMapping columnMapping) {
+    this.columnMapping = columnMapping;
+  }
+
+  SqlFilter write(final FilterExpression expression) {
+    expression.accept(this);
+    return new SqlFilter(condition.toString(), parameters);
+  }
+
+  @Override
+  public Void visitComparison(final ComparisonExpression expression) {
+    AttributePath attributePath = expression.getAttributePath();
+    ComparisonOperator operator = expression.getOperator();
+    Object value = expression.getValue();
+
+    SqlColumn column = getColumn(attributePath);
+    if (column != null) {
+      writeComparison(column, operator, value, negated);
+      return null;
+    }
+
+    SqlTable table = getTable(attributePath);
+    SqlColumn valueColumn = getTableColumn(table, attributePath);
+    if (operator == ComparisonOperator.NE) {
+      condition.append("NOT ");
+      writeExists(table, alias -> writeComparison(valueColumn.qualify(alias), ComparisonOperator.EQ, value, false));
+    } else {
+      writeExists(table, alias -> writeComparison(valueColumn.qualify(alias), operator, value, false));
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitPresent(final PresentExpression expression) {
+    AttributePath attributePath = expression.getAttributePath();
+
+    SqlColumn column = getColumn(attributePath);
+    if (column != null) {
+      condition.append(column.getName()).append(" IS NOT NULL");
+      return null;
+    }
+
+    SqlTable table = getTable(attributePath);
+    if (!attributePath.hasSubAttribute()) {
+      writeExists(table, null);
+      return null;
+    }
+    SqlColumn valueColumn = getTableColumn(table, attributePath);
+    writeExists(table, alias -> condition.append(alias).append('.').append(valueColumn.getName()).append(" IS NOT NULL"));
+    return null;
+  }
+
+  @Override
+  public Void visitLogical(final LogicalExpression expression) {
+    condition.append('(');
+    expression.getLeft().accept(this);
+    condition.append(' ').append(expression.getOperator().name()).append(' ');
+    expression.getRight().accept(this);
+    condition.append(')');
+    return null;
+  }
+
+  @Override
+  public Void visitNot(final NotExpression expression) {
+    boolean outerNegated = negated;
+    negated = !negated;
+
+    condition.append("NOT (");
+    expression.getExpression().accept(this);
+    condition.append(')');
+
+    negated = outerNegated;
+    return null;
+  }
+
+  @Override
+  public Void visitValuePath(final ValuePathExpression expression) {
+    if (valuePathTable != null) {
+      throw new InvalidFilterException("Value paths can not be nested");
+    }
+
+    AttributePath attributePath = expression.getAttributePath();
+    SqlTable table = columnMapping.getTable(attributePath);
+    if (table == null) {
+      throw unsupportedAttribute(attributePath);
+    }
+
+    FilterExpression valueFilter = expression.getValueFilter();
+    if (valueFilter == null) {
+      writeExists(table, null);
+      return null;
+    }
+
+    writeExists(table, alias -> {
+      boolean outerNegated = negated;
+      valuePathTable = table;
+      valuePathAlias = alias;
+      negated = false;
+
+      valueFilter.accept(this);
+
+      valuePathTable = null;
+      valuePathAlias = null;
+      negated = outerNegated;
+    });
+    return null;
+  }
+
+  private SqlColumn getColumn(final AttributePath attributePath) {
+    if (valuePathTable == null) {
+      return columnMapping.getColumn(attributePath);
+    }
+
+    if (attributePath.hasSubAttribute()) {
+      throw unsupportedAttribute(attributePath);
+    }
+    SqlColumn column = valuePathTable.getColumn(attributePath.getAttributeName());
+    if (column == null) {
+      throw unsupportedAttribute(attributePath);
+    }
+    return column.qualify(valuePathAlias);
+  }
+
+  private SqlTable getTable(final AttributePath attributePath) {
+    SqlTable table = columnMapping.getTable(attributePath);
+    if (table == null) {
+      throw unsupportedAttribute(attributePath);
+    }
+    return table;
+  }
+
+  private static SqlColumn getTableColumn(final SqlTable table, final AttributePath attributePath) {
+    SqlColumn column = table.getColumn(attributePath.hasSubAttribute() ? attributePath.getSubAttributeName() : DEFAULT_SUB_ATTRIBUTE);
+    if (column == null) {
+      throw unsupportedAttribute(attributePath);
+    }
+    return column;
+  }
+
+  private void writeExists(final SqlTable table, final TableConditionWriter tableConditionWriter) {
+    String alias = "mv" + ++tablesCount;
+
+    // @formatter:off
+    condition.append("EXISTS (SELECT 1 FROM ").append(table.getName()).append(' ').append(alias)
+        .append(" WHERE ").append(alias).append('.').append(table.getJoinColumn()).append(" = ").append(table.getOwnerColumn());
+    // @formatter:on
+
+    if (tableConditionWriter != null) {
+      condition.append(" AND ");
+      tableConditionWriter.write(alias);
+    }
+    condition.append(')');
+  }
+
+  private void writeComparison(final SqlColumn column, final ComparisonOperator operator, final Object value, final boolean guardNull) {
+    String columnExpression = column.getCaseMode() == SqlColumn.CaseMode.IGNORE ? "LOWER(" + column.getName() + ")" : column.getName();
+    Object parameter = toParameter(column, operator, value);
+
+    if (operator == ComparisonOperator.NE) {
+      condition.append('(').append(column.getName()).append(" IS NULL OR ").append(columnExpression).append(" <> ?)");
+      parameters.add(parameter);
+      return;
+    }
+
+    if (guardNull) {
+      condition.append('(').append(column.getName()).append(" IS NOT NULL AND ");
+    }
+    condition.append(columnExpression);
+    switch (operator) {
+      case EQ:
+        condition.append(" = ?");
+        break;
+      case CO:
+        condition.append(" LIKE ? ESCAPE '").append(LIKE_ESCAPE).append('\'');
+        parameter = "%" + escapeLikePattern((String) parameter) + "%";
+        break;
+      case SW:
+        condition.append(" LIKE ? ESCAPE '").append(LIKE_ESCAPE).append('\'');
+        parameter = escapeLikePattern((String) parameter) + "%";
+        break;
+      case EW:
+        condition.append(" LIKE ? ESCAPE '").append(LIKE_ESCAPE).append('\'');
+        parameter = "%" + escapeLikePattern((String) parameter);
+        break;
+      case GT:
+        condition.append(" > ?");
+        break;
+      case GE:
+        condition.append(" >= ?");
+        break;
+      case LT:
+        condition.append(" < ?");
+        break;
+      case LE:
+        condition.append(" <= ?");
+        break;
+      default:
+        throw unsupportedOperator(operator, column);
+    }
+    if (guardNull) {
+      condition.append(')');
+    }
+    parameters.add(parameter);
+  }
+
+  private static Object toParameter(final SqlColumn column, final ComparisonOperator operator, final Object value) {
+    switch (column.getType()) {
+      case STRING:
+        if (!(value instanceof String)) {
+          throw unsupportedOperator(operator, column);
+        }
+        return column.getCaseMode() == SqlColumn.CaseMode.EXACT ? value : ((String) value).toLowerCase(ROOT);
+      case NUMBER:
+        if (!(value instanceof BigDecimal) || isSubstringOperator(operator)) {
+          throw unsupportedOperator(operator, column);
+        }
+        return value;
+      case BOOLEAN:
+        if (!(value instanceof Boolean) || (operator != ComparisonOperator.EQ && operator != ComparisonOperator.NE)) {
+          throw unsupportedOperator(operator, column);
+        }
+        return value;
+      case DATE_TIME:
+        if (!(value instanceof String) || isSubstringOperator(operator)) {
+          throw unsupportedOperator(operator, column);
+        }
+        return toTimestamp((String) value);
+      default:
+        throw unsupportedOperator(operator, column);
+    }
+  }
+
+  private static boolean isSubstringOperator(final ComparisonOperator operator) {
+    return operator == ComparisonOperator.CO || operator == ComparisonOperator.SW || operator == ComparisonOperator.EW;
+  }
+
+  private static Timestamp toTimestamp(final String literal) {
+    try {
+      return Timestamp.from(Instant.parse(literal));
+    } catch (DateTimeParseException e) {
+      throw new InvalidFilterException(String.format("Invalid dateTime value '%s'", literal));
+    }
+  }
+
+  private static String escapeLikePattern(final String value) {
+    StringBuilder pattern = new StringBuilder(value.length() + 2);
+    for (int i = 0; i < value.length(); i++) {
+      char current = value.charAt(i);
+      if (current == '%' || current == '_' || current == LIKE_ESCAPE) {
+        pattern.append(LIKE_ESCAPE);
+      }
+      pattern.append(current);
+    }
+    return pattern.toString();
+  }
+
+  private static InvalidFilterException unsupportedAttribute(final AttributePath attributePath) {
+    return new InvalidFilterException(String.format("Attribute '%s' is not supported in filters", attributePath));
+  }
+
+  private static InvalidFilterException unsupportedOperator(final ComparisonOperator operator, final SqlColumn column) {
+    return new InvalidFilterException(String.format("Operator '%s' is not supported for the value compared to column '%s'", operator,
+        column.getName()));
+  }
+
+  @FunctionalInterface
+  private interface TableConditionWriter {
+    void write(String alias);
+  }
+}
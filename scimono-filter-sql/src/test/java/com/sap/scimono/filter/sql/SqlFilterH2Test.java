@@ -0,0 +1,108 @@
+package com.sap.scimono.filter.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs translated filters against an embedded H2 database.
+ */
+class SqlFilterH2Test {
+  private final SqlFilterTranslator translator = new SqlFilterTranslator(UserTables.mapping());
+  private Connection connection;
+
+  @BeforeEach
+  void createTables() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:scim;DB_CLOSE_DELAY=0");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(UserTables.CREATE_USERS);
+      statement.execute(UserTables.CREATE_USER_EMAILS);
+      statement.execute("CREATE INDEX users_user_name_lc ON users (user_name_lc)");
+      statement.execute("CREATE INDEX user_emails_value_lc ON user_emails (value_lc)");
+
+      statement.execute("INSERT INTO users VALUES ('1', 'BJensen', 'bjensen', 'ext-1', 'Jensen', TRUE, TIMESTAMP '2020-01-15 10:00:00', "
+          + "'701984', 7)");
+      statement.execute("INSERT INTO users VALUES ('2', 'JSmith', 'jsmith', 'ext-2', 'Smith', FALSE, TIMESTAMP '2021-06-01 08:30:00', "
+          + "NULL, 12)");
+      statement.execute("INSERT INTO users VALUES ('3', 'j_doe', 'j_doe', NULL, NULL, TRUE, TIMESTAMP '2022-03-10 12:00:00', NULL, NULL)");
+
+      statement.execute("INSERT INTO user_emails VALUES ('1', 'bjensen@example.com', 'work', TRUE)");
+      statement.execute("INSERT INTO user_emails VALUES ('1', 'babs@jensen.org', 'home', FALSE)");
+      statement.execute("INSERT INTO user_emails VALUES ('2', 'john.smith@example.com', 'home', TRUE)");
+    }
+  }
+
+  @AfterEach
+  void closeConnection() throws SQLException {
+    connection.close();
+  }
+
+  @Test
+  void testStringComparisons() throws SQLException {
+    assertEquals(ids("1"), query("userName eq \"BJENSEN\""));
+    assertEquals(ids("2"), query("externalId eq \"ext-2\""));
+    assertEquals(ids(), query("externalId eq \"EXT-2\""));
+    assertEquals(ids("1", "2"), query("name.familyName co \"S\" or name.familyName sw \"jen\""));
+  }
+
+  @Test
+  void testLikeWildcardsAreMatchedLiterally() throws SQLException {
+    assertEquals(ids("3"), query("userName sw \"j_\""));
+    assertEquals(ids(), query("userName co \"%\""));
+  }
+
+  @Test
+  void testTypedComparisons() throws SQLException {
+    assertEquals(ids("1", "3"), query("active eq true"));
+    assertEquals(ids("2", "3"), query("meta.created gt \"2020-06-01T00:00:00Z\""));
+    assertEquals(ids("2"), query("badge ge 10"));
+  }
+
+  @Test
+  void testNegationsMatchMissingValues() throws SQLException {
+    assertEquals(ids("2", "3"), query("externalId ne \"ext-1\""));
+    assertEquals(ids("2", "3"), query("not (externalId eq \"ext-1\")"));
+    assertEquals(ids("2", "3"), query("not (employeeNumber pr)"));
+    assertEquals(ids("1", "3"), query("not (badge gt 10 and active eq false)"));
+  }
+
+  @Test
+  void testMultiValuedAttributes() throws SQLException {
+    assertEquals(ids("1"), query("emails eq \"BABS@jensen.org\""));
+    assertEquals(ids("1", "2"), query("emails pr"));
+    assertEquals(ids("2", "3"), query("emails.type ne \"work\""));
+    assertEquals(ids("1"), query("emails[type eq \"work\" and value ew \"example.com\"]"));
+    assertEquals(ids(), query("emails[type eq \"home\" and primary eq true and value co \"jensen\"]"));
+  }
+
+  private Set<String> query(final String filter) throws SQLException {
+    SqlFilter sqlFilter = translator.translate(filter);
+
+    try (PreparedStatement statement = connection.prepareStatement("SELECT u.id FROM users u WHERE " + sqlFilter.getCondition())) {
+      sqlFilter.bind(statement, 1);
+      Set<String> ids = new TreeSet<>();
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          ids.add(resultSet.getString(1));
+        }
+      }
+      return ids;
+    }
+  }
+
+  private static Set<String> ids(final String... ids) {
+    return new TreeSet<>(Arrays.asList(ids));
+  }
+}
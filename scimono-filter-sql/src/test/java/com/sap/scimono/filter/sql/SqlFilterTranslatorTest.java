@@ -0,0 +1,103 @@
+package com.sap.scimono.filter.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.exception.InvalidFilterException;
+
+class SqlFilterTranslatorTest {
+  private final SqlFilterTranslator translator = new SqlFilterTranslator(UserTables.mapping());
+
+  @Test
+  void testMissingFilterMatchesAll() {
+    assertSame(SqlFilter.matchAll(), translator.translate((String) null));
+  }
+
+  @Test
+  void testCaseInsensitiveAttributeUsesLowerCaseColumn() {
+    SqlFilter sqlFilter = translator.translate("userName eq \"BJensen\"");
+
+    assertEquals("u.user_name_lc = ?", sqlFilter.getCondition());
+    assertEquals(Collections.singletonList("bjensen"), sqlFilter.getParameters());
+  }
+
+  @Test
+  void testCaseExactAndCaseIgnoringColumns() {
+    assertEquals("u.external_id = ?", translator.translate("externalId eq \"Ext-1\"").getCondition());
+    assertEquals(Collections.singletonList("Ext-1"), translator.translate("externalId eq \"Ext-1\"").getParameters());
+
+    SqlFilter sqlFilter = translator.translate("name.familyName gt \"Jensen\"");
+    assertEquals("LOWER(u.family_name) > ?", sqlFilter.getCondition());
+    assertEquals(Collections.singletonList("jensen"), sqlFilter.getParameters());
+  }
+
+  @Test
+  void testSubstringOperatorsEscapeLikePattern() {
+    SqlFilter sqlFilter = translator.translate("userName sw \"j_s%\" or externalId co \"a!b\" or externalId ew \"z\"");
+
+    assertEquals("((u.user_name_lc LIKE ? ESCAPE '!' OR u.external_id LIKE ? ESCAPE '!') OR u.external_id LIKE ? ESCAPE '!')",
+        sqlFilter.getCondition());
+    assertEquals(Arrays.asList("j!_s!%%", "%a!!b%", "%z"), sqlFilter.getParameters());
+  }
+
+  @Test
+  void testTypedValues() {
+    SqlFilter sqlFilter = translator.translate("active eq true and meta.created ge \"2020-01-15T10:00:00Z\" and badge lt 10");
+
+    assertEquals("((u.active = ? AND u.created >= ?) AND u.badge < ?)", sqlFilter.getCondition());
+    assertEquals(Arrays.asList(Boolean.TRUE, Timestamp.from(Instant.parse("2020-01-15T10:00:00Z")), new BigDecimal("10")),
+        sqlFilter.getParameters());
+  }
+
+  @Test
+  void testNegationsMatchMissingValues() {
+    assertEquals("(u.external_id IS NULL OR u.external_id <> ?)", translator.translate("externalId ne \"ext\"").getCondition());
+    assertEquals("NOT ((u.external_id IS NOT NULL AND u.external_id = ?))", translator.translate("not (externalId eq \"ext\")")
+        .getCondition());
+  }
+
+  @Test
+  void testMultiValuedAttributeBecomesExistsSubQuery() {
+    assertEquals("EXISTS (SELECT 1 FROM user_emails mv1 WHERE mv1.user_id = u.id AND mv1.value_lc = ?)", translator.translate(
+        "emails eq \"bjensen@example.com\"").getCondition());
+    assertEquals("NOT EXISTS (SELECT 1 FROM user_emails mv1 WHERE mv1.user_id = u.id AND mv1.type = ?)", translator.translate(
+        "emails.type ne \"work\"").getCondition());
+    assertEquals("EXISTS (SELECT 1 FROM user_emails mv1 WHERE mv1.user_id = u.id)", translator.translate("emails pr").getCondition());
+  }
+
+  @Test
+  void testValuePathMatchesWithinOneValue() {
+    SqlFilter sqlFilter = translator.translate("emails[type eq \"work\" and value co \"@example.com\"]");
+
+    assertEquals("EXISTS (SELECT 1 FROM user_emails mv1 WHERE mv1.user_id = u.id AND (mv1.type = ? AND mv1.value_lc LIKE ? ESCAPE '!'))",
+        sqlFilter.getCondition());
+    assertEquals(Arrays.asList("work", "%@example.com%"), sqlFilter.getParameters());
+  }
+
+  @Test
+  void testExtensionAttributes() {
+    assertEquals("u.employee_number = ?", translator.translate("employeeNumber eq \"701984\"").getCondition());
+    assertEquals("u.employee_number IS NOT NULL", translator.translate(
+        "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:employeeNumber pr").getCondition());
+    assertEquals("u.badge = ?", translator.translate(UserTables.CUSTOM_EXTENSION_URN + ":badge eq 7").getCondition());
+  }
+
+  @Test
+  void testUnsupportedFilters() {
+    assertThrows(InvalidFilterException.class, () -> translator.translate("nickName eq \"babs\""));
+    assertThrows(InvalidFilterException.class, () -> translator.translate("emails[display eq \"work\"]"));
+    assertThrows(InvalidFilterException.class, () -> translator.translate("active gt true"));
+    assertThrows(InvalidFilterException.class, () -> translator.translate("badge co 7"));
+    assertThrows(InvalidFilterException.class, () -> translator.translate("userName eq 7"));
+    assertThrows(InvalidFilterException.class, () -> translator.translate("meta.created gt \"yesterday\""));
+  }
+}
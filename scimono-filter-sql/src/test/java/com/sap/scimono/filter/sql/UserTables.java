@@ -0,0 +1,43 @@
+package com.sap.scimono.filter.sql;
+
+import com.sap.scimono.entity.EnterpriseExtension;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.schema.Schema;
+
+/**
+ * Mapping of users to a {@code users} table aliased as {@code u} and a {@code user_emails} table, shared by the tests.
+ */
+final class UserTables {
+  static final String CUSTOM_EXTENSION_URN = Schema.EXTENSION_SCHEMA_URN + "Custom";
+
+  static final String CREATE_USERS = "CREATE TABLE users (id VARCHAR(36) PRIMARY KEY, user_name VARCHAR(255) NOT NULL, "
+      + "user_name_lc VARCHAR(255) NOT NULL, external_id VARCHAR(255), family_name VARCHAR(255), active BOOLEAN, created TIMESTAMP, "
+      + "employee_number VARCHAR(255), badge INT)";
+  static final String CREATE_USER_EMAILS = "CREATE TABLE user_emails (user_id VARCHAR(36) NOT NULL, value_lc VARCHAR(255) NOT NULL, "
+      + "type VARCHAR(32), is_primary BOOLEAN)";
+
+  private UserTables() {
+  }
+
+  static ColumnMapping mapping() {
+    // @formatter:off
+    SqlTable emails = new SqlTable.Builder("user_emails", "user_id", "u.id")
+        .addColumn("value", SqlColumn.lowerCaseString("value_lc"))
+        .addColumn("type", SqlColumn.string("type"))
+        .addColumn("primary", SqlColumn.bool("is_primary"))
+        .build();
+
+    return new AttributeColumnMapping.Builder(User.SCHEMA)
+        .addColumn("id", SqlColumn.string("u.id"))
+        .addColumn("userName", SqlColumn.lowerCaseString("u.user_name_lc"))
+        .addColumn("externalId", SqlColumn.string("u.external_id"))
+        .addColumn("name.familyName", SqlColumn.caseIgnoringString("u.family_name"))
+        .addColumn("active", SqlColumn.bool("u.active"))
+        .addColumn("meta.created", SqlColumn.dateTime("u.created"))
+        .addTable("emails", emails)
+        .addColumn(EnterpriseExtension.ENTERPRISE_URN, "employeeNumber", SqlColumn.string("u.employee_number"))
+        .addColumn(CUSTOM_EXTENSION_URN, "badge", SqlColumn.number("u.badge"))
+        .build();
+    // @formatter:on
+  }
+}
@@ -0,0 +1,171 @@
+package com.sap.scimono.store.inmemory;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.sap.scimono.api.request.RequestedResourceAttributes;
+import com.sap.scimono.callback.groups.GroupsCallback;
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.MemberRef;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.ResourceCount;
+import com.sap.scimono.entity.paging.SortInfo;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.filter.QueryFilter;
+import com.sap.scimono.filter.QueryFilterCompiler;
+import com.sap.scimono.filter.expression.FilterExpression;
+import com.sap.scimono.filter.predicate.FilterPredicates;
+import com.sap.scimono.filter.predicate.SortComparators;
+
+/**
+ * {@link GroupsCallback} keeping the groups in memory, e.g. as a cache in front of another store, in integration tests or in benchmarks.
+ * <p>
+ * Filters with an equality on {@code displayName}, {@code externalId} or {@code members.value} are answered through hash indexes, any
+ * other filter is evaluated against all groups. Groups are listed ordered by id, unless a sort order is requested. Paging with
+ * a cursor continues after the last listed resource, resources created after the first page are skipped.
+ */
+public class InMemoryGroupsCallback implements GroupsCallback {
+  private final ResourceIndex<Group> membersIndex = ResourceIndex.ofValues("members",
+      group -> group.getMembers().stream().map(MemberRef::getValue).collect(Collectors.toList()));
+  // @formatter:off
+  private final ResourceStore<Group> store = new ResourceStore<>(Group.RESOURCE_TYPE_GROUP, Group.SCHEMA,
+      ResourceIndex.of("displayName", Group::getDisplayName),
+      ResourceIndex.of("externalId", Group::getExternalId),
+      membersIndex);
+  // @formatter:on
+  private final PatchApplier<Group> patchApplier = new PatchApplier<>(Group.class, Group.SCHEMA);
+  private final SchemasCallback schemasCallback;
+  private final QueryFilterCompiler filterCompiler;
+
+  public InMemoryGroupsCallback() {
+    this(null);
+  }
+
+  /**
+   * @param schemasCallback provides the custom schema extensions referenced in filters, or null to support only the schemas shipped
+   *          with the library
+   */
+  public InMemoryGroupsCallback(final SchemasCallback schemasCallback) {
+    this(schemasCallback, QueryFilterCompiler.getDefault());
+  }
+
+  /**
+   * @param schemasCallback provides the custom schema extensions referenced in filters, or null to support only the schemas shipped
+   *          with the library
+   * @param filterCompiler compiles filters passed as text
+   */
+  public InMemoryGroupsCallback(final SchemasCallback schemasCallback, final QueryFilterCompiler filterCompiler) {
+    this.schemasCallback = schemasCallback;
+    this.filterCompiler = filterCompiler;
+  }
+
+  @Override
+  public Group getGroup(final String groupId) {
+    return store.get(groupId);
+  }
+
+  @Override
+  public PagedResult<Group> getGroups(final PageInfo pageInfo, final String filter) {
+    return query(pageInfo, filter == null ? null : filterCompiler.compile(filter));
+  }
+
+  @Override
+  public StreamedResult<Group> streamGroups(final PageInfo pageInfo, final QueryFilter filter,
+      final RequestedResourceAttributes additionalAttributes) {
+    return StreamedResult.of(query(pageInfo, filter == null ? null : filter.getExpression()));
+  }
+
+  @Override
+  public ResourceCount countGroups(final QueryFilter filter) {
+    FilterExpression expression = filter == null ? null : filter.getExpression();
+    return ResourceCount.exact(store.count(expression, predicate(expression)));
+  }
+
+  @Override
+  public Group createGroup(final Group group) {
+    Group newGroup = group.getId() == null ? group.builder().setId(generateId().get()).build() : group;
+    return store.create(newGroup);
+  }
+
+  @Override
+  public Group updateGroup(final Group group) {
+    return store.update(group);
+  }
+
+  @Override
+  public void patchGroup(final String groupId, final PatchBody patchBody, final Meta groupMeta) {
+    store.update(groupId, group -> {
+      Group patchedGroup = patchApplier.apply(group, patchBody);
+      return patchedGroup.builder().setMeta(ResourceStore.mergeMeta(group.getMeta(), groupMeta)).build();
+    });
+  }
+
+  @Override
+  public void deleteGroup(final String groupId) {
+    store.delete(groupId);
+  }
+
+  @Override
+  public Optional<String> generateId() {
+    return Optional.of(UUID.randomUUID().toString());
+  }
+
+  /**
+   * Removes a deleted user or group from all groups it is a member of.
+   *
+   * @param memberId id of the member
+   */
+  public void removeMember(final String memberId) {
+    for (Group group : store.findByIndex(membersIndex, memberId)) {
+      store.update(group.getId(), current -> {
+        Group.Builder builder = new Group.Builder(current);
+        current.getMembers().stream().filter(member -> memberId.equals(member.getValue())).forEach(builder::removeMember);
+        return builder.build();
+      });
+    }
+  }
+
+  /**
+   * @return the number of stored groups
+   */
+  public int getGroupsCount() {
+    return store.size();
+  }
+
+  /**
+   * Deletes all groups.
+   */
+  public void clear() {
+    store.clear();
+  }
+
+  private PagedResult<Group> query(final PageInfo pageInfo, final FilterExpression filter) {
+    Predicate<Group> predicate = predicate(filter);
+    SortInfo sortInfo = pageInfo.getSortInfo().orElse(null);
+    Comparator<Group> comparator = sortInfo == null ? null : comparator(sortInfo);
+    Predicate<Group> afterCursor = pageInfo.getCursor()
+        .map(cursor -> SortComparators.after(cursor, sortInfo, sortInfo == null ? null : sortValues(sortInfo))).orElse(null);
+    return store.query(pageInfo, filter, predicate, comparator, afterCursor);
+  }
+
+  private Predicate<Group> predicate(final FilterExpression filter) {
+    return schemasCallback == null ? FilterPredicates.forGroups(filter) : FilterPredicates.forGroups(filter, schemasCallback);
+  }
+
+  private Comparator<Group> comparator(final SortInfo sortInfo) {
+    return schemasCallback == null ? SortComparators.forGroups(sortInfo) : SortComparators.forGroups(sortInfo, schemasCallback);
+  }
+
+  private Function<Group, Object> sortValues(final SortInfo sortInfo) {
+    return schemasCallback == null ? SortComparators.sortValuesOfGroups(sortInfo)
+        : SortComparators.sortValuesOfGroups(sortInfo, schemasCallback);
+  }
+}
@@ -0,0 +1,165 @@
+package com.sap.scimono.store.inmemory;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.sap.scimono.api.request.RequestedResourceAttributes;
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.callback.users.UsersCallback;
+import com.sap.scimono.entity.Email;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.ResourceCount;
+import com.sap.scimono.entity.paging.SortInfo;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.filter.QueryFilter;
+import com.sap.scimono.filter.QueryFilterCompiler;
+import com.sap.scimono.filter.expression.FilterExpression;
+import com.sap.scimono.filter.predicate.FilterPredicates;
+import com.sap.scimono.filter.predicate.SortComparators;
+
+/**
+ * {@link UsersCallback} keeping the users in memory, e.g. as a cache in front of another store, in integration tests or in benchmarks.
+ * <p>
+ * The {@code userName} is unique (case insensitive), creating or renaming a user to a taken name fails with a {@code uniqueness} error.
+ * Filters with an equality on {@code userName}, {@code externalId} or {@code emails.value} are answered through hash indexes, any other
+ * filter is evaluated against all users. Users are listed ordered by id, unless a sort order is requested. Paging with
+ * a cursor continues after the last listed resource, resources created after the first page are skipped.
+ */
+public class InMemoryUsersCallback implements UsersCallback {
+  private final ResourceIndex<User> userNameIndex = ResourceIndex.unique("userName", User::getUserName);
+  // @formatter:off
+  private final ResourceStore<User> store = new ResourceStore<>(User.RESOURCE_TYPE_USER, User.SCHEMA,
+      userNameIndex,
+      ResourceIndex.of("externalId", User::getExternalId),
+      ResourceIndex.ofValues("emails", user -> user.getEmails().stream().map(Email::getValue).collect(Collectors.toList())));
+  // @formatter:on
+  private final PatchApplier<User> patchApplier = new PatchApplier<>(User.class, User.SCHEMA);
+  private final SchemasCallback schemasCallback;
+  private final QueryFilterCompiler filterCompiler;
+
+  public InMemoryUsersCallback() {
+    this(null);
+  }
+
+  /**
+   * @param schemasCallback provides the custom schema extensions referenced in filters, or null to support only the schemas shipped
+   *          with the library
+   */
+  public InMemoryUsersCallback(final SchemasCallback schemasCallback) {
+    this(schemasCallback, QueryFilterCompiler.getDefault());
+  }
+
+  /**
+   * @param schemasCallback provides the custom schema extensions referenced in filters, or null to support only the schemas shipped
+   *          with the library
+   * @param filterCompiler compiles filters passed as text
+   */
+  public InMemoryUsersCallback(final SchemasCallback schemasCallback, final QueryFilterCompiler filterCompiler) {
+    this.schemasCallback = schemasCallback;
+    this.filterCompiler = filterCompiler;
+  }
+
+  @Override
+  public User getUserByUsername(final String userName) {
+    if (userName == null) {
+      return null;
+    }
+    return store.findByIndex(userNameIndex, userName).stream().filter(user -> userName.equalsIgnoreCase(user.getUserName())).findFirst()
+        .orElse(null);
+  }
+
+  @Override
+  public User getUser(final String userId) {
+    return store.get(userId);
+  }
+
+  @Override
+  public PagedResult<User> getUsers(final PageInfo pageInfo, final String filter) {
+    return query(pageInfo, filter == null ? null : filterCompiler.compile(filter));
+  }
+
+  @Override
+  public StreamedResult<User> streamUsers(final PageInfo pageInfo, final QueryFilter filter,
+      final RequestedResourceAttributes additionalAttributes) {
+    return StreamedResult.of(query(pageInfo, filter == null ? null : filter.getExpression()));
+  }
+
+  @Override
+  public ResourceCount countUsers(final QueryFilter filter) {
+    FilterExpression expression = filter == null ? null : filter.getExpression();
+    return ResourceCount.exact(store.count(expression, predicate(expression)));
+  }
+
+  @Override
+  public User createUser(final User user) {
+    User newUser = user.getId() == null ? user.builder().setId(generateId().get()).build() : user;
+    return store.create(newUser);
+  }
+
+  @Override
+  public User updateUser(final User user) {
+    return store.update(user);
+  }
+
+  @Override
+  public void patchUser(final String userId, final PatchBody patchBody, final Meta userMeta) {
+    store.update(userId, user -> {
+      User patchedUser = patchApplier.apply(user, patchBody);
+      return patchedUser.builder().setMeta(ResourceStore.mergeMeta(user.getMeta(), userMeta)).build();
+    });
+  }
+
+  @Override
+  public void deleteUser(final String userId) {
+    store.delete(userId);
+  }
+
+  @Override
+  public Optional<String> generateId() {
+    return Optional.of(UUID.randomUUID().toString());
+  }
+
+  /**
+   * @return the number of stored users
+   */
+  public int getUsersCount() {
+    return store.size();
+  }
+
+  /**
+   * Deletes all users.
+   */
+  public void clear() {
+    store.clear();
+  }
+
+  private PagedResult<User> query(final PageInfo pageInfo, final FilterExpression filter) {
+    Predicate<User> predicate = predicate(filter);
+    SortInfo sortInfo = pageInfo.getSortInfo().orElse(null);
+    Comparator<User> comparator = sortInfo == null ? null : comparator(sortInfo);
+    Predicate<User> afterCursor = pageInfo.getCursor()
+        .map(cursor -> SortComparators.after(cursor, sortInfo, sortInfo == null ? null : sortValues(sortInfo))).orElse(null);
+    return store.query(pageInfo, filter, predicate, comparator, afterCursor);
+  }
+
+  private Predicate<User> predicate(final FilterExpression filter) {
+    return schemasCallback == null ? FilterPredicates.forUsers(filter) : FilterPredicates.forUsers(filter, schemasCallback);
+  }
+
+  private Comparator<User> comparator(final SortInfo sortInfo) {
+    return schemasCallback == null ? SortComparators.forUsers(sortInfo) : SortComparators.forUsers(sortInfo, schemasCallback);
+  }
+
+  private Function<User, Object> sortValues(final SortInfo sortInfo) {
+    return schemasCallback == null ? SortComparators.sortValuesOfUsers(sortInfo)
+        : SortComparators.sortValuesOfUsers(sortInfo, schemasCallback);
+  }
+}
@@ -0,0 +1,103 @@
+package com.sap.scimono.store.inmemory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.sap.scimono.filter.expression.AttributePath;
+import com.sap.scimono.filter.expression.ComparisonExpression;
+import com.sap.scimono.filter.expression.ComparisonOperator;
+import com.sap.scimono.filter.expression.FilterExpressionVisitor;
+import com.sap.scimono.filter.expression.LogicalExpression;
+import com.sap.scimono.filter.expression.LogicalOperator;
+import com.sap.scimono.filter.expression.NotExpression;
+import com.sap.scimono.filter.expression.PresentExpression;
+import com.sap.scimono.filter.expression.ValuePathExpression;
+
+/**
+ * Narrows down the resources which can match a filter using the indexes. Equality on an indexed attribute is looked up directly,
+ * {@code and} uses the smaller side and {@code or} the union of both sides. Any other expression cannot be narrowed down and makes the
+ * lookup return null, meaning that all resources need to be checked.
+ */
+class IndexLookup<T> implements FilterExpressionVisitor<Set<String>> {
+  private final List<ResourceIndex<T>> indexes;
+  private final String coreSchemaId;
+  private final String valuePathAttributeName;
+
+  IndexLookup(final List<ResourceIndex<T>> indexes, final String coreSchemaId) {
+    this(indexes, coreSchemaId, null);
+  }
+
+  private IndexLookup(final List<ResourceIndex<T>> indexes, final String coreSchemaId, final String valuePathAttributeName) {
+    this.indexes = indexes;
+    this.coreSchemaId = coreSchemaId;
+    this.valuePathAttributeName = valuePathAttributeName;
+  }
+
+  @Override
+  public Set<String> visitComparison(final ComparisonExpression expression) {
+    if (expression.getOperator() != ComparisonOperator.EQ || !(expression.getValue() instanceof String)) {
+      return null;
+    }
+
+    ResourceIndex<T> index = findIndex(expression.getAttributePath());
+    return index == null ? null : index.get((String) expression.getValue());
+  }
+
+  @Override
+  public Set<String> visitPresent(final PresentExpression expression) {
+    return null;
+  }
+
+  @Override
+  public Set<String> visitLogical(final LogicalExpression expression) {
+    Set<String> left = expression.getLeft().accept(this);
+    Set<String> right = expression.getRight().accept(this);
+
+    if (expression.getOperator() == LogicalOperator.AND) {
+      if (left == null) {
+        return right;
+      }
+      return right == null || left.size() <= right.size() ? left : right;
+    }
+
+    if (left == null || right == null) {
+      return null;
+    }
+    Set<String> union = new HashSet<>(left);
+    union.addAll(right);
+    return union;
+  }
+
+  @Override
+  public Set<String> visitNot(final NotExpression expression) {
+    return null;
+  }
+
+  @Override
+  public Set<String> visitValuePath(final ValuePathExpression expression) {
+    AttributePath attributePath = expression.getAttributePath();
+    if (valuePathAttributeName != null || expression.getValueFilter() == null || !isCoreAttribute(attributePath)) {
+      return null;
+    }
+    return expression.getValueFilter().accept(new IndexLookup<>(indexes, coreSchemaId, attributePath.getAttributeName()));
+  }
+
+  private ResourceIndex<T> findIndex(final AttributePath attributePath) {
+    if (valuePathAttributeName == null && !isCoreAttribute(attributePath)) {
+      return null;
+    }
+
+    for (ResourceIndex<T> index : indexes) {
+      boolean covers = valuePathAttributeName == null ? index.covers(attributePath) : index.covers(valuePathAttributeName, attributePath);
+      if (covers) {
+        return index;
+      }
+    }
+    return null;
+  }
+
+  private boolean isCoreAttribute(final AttributePath attributePath) {
+    return !attributePath.hasSchema() || coreSchemaId.equalsIgnoreCase(attributePath.getSchema());
+  }
+}
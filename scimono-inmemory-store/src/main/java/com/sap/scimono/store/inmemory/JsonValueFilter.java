@@ -0,0 +1,134 @@
+package com.sap.scimono.store.inmemory;
+
+import static java.util.Locale.ROOT;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.filter.expression.AttributePath;
+import com.sap.scimono.filter.expression.ComparisonExpression;
+import com.sap.scimono.filter.expression.ComparisonOperator;
+import com.sap.scimono.filter.expression.FilterExpressionVisitor;
+import com.sap.scimono.filter.expression.LogicalExpression;
+import com.sap.scimono.filter.expression.LogicalOperator;
+import com.sap.scimono.filter.expression.NotExpression;
+import com.sap.scimono.filter.expression.PresentExpression;
+import com.sap.scimono.filter.expression.ValuePathExpression;
+
+/**
+ * Compiles the filter of a PATCH value path, e.g. {@code type eq "work"} in {@code emails[type eq "work"].value}, into a predicate over
+ * the JSON representation of a value. Sub-attribute names and string values are compared case insensitively.
+ */
+class JsonValueFilter implements FilterExpressionVisitor<Predicate<JsonNode>> {
+
+  @Override
+  public Predicate<JsonNode> visitComparison(final ComparisonExpression expression) {
+    AttributePath path = expression.getAttributePath();
+    ComparisonOperator operator = expression.getOperator();
+    Object value = expression.getValue();
+
+    if (operator == ComparisonOperator.NE) {
+      return node -> !compare(read(node, path), ComparisonOperator.EQ, value);
+    }
+    return node -> compare(read(node, path), operator, value);
+  }
+
+  @Override
+  public Predicate<JsonNode> visitPresent(final PresentExpression expression) {
+    AttributePath path = expression.getAttributePath();
+    return node -> {
+      JsonNode attribute = read(node, path);
+      return attribute != null && !attribute.isNull() && !(attribute.isTextual() && attribute.textValue().isEmpty());
+    };
+  }
+
+  @Override
+  public Predicate<JsonNode> visitLogical(final LogicalExpression expression) {
+    Predicate<JsonNode> left = expression.getLeft().accept(this);
+    Predicate<JsonNode> right = expression.getRight().accept(this);
+    return expression.getOperator() == LogicalOperator.AND ? left.and(right) : left.or(right);
+  }
+
+  @Override
+  public Predicate<JsonNode> visitNot(final NotExpression expression) {
+    return expression.getExpression().accept(this).negate();
+  }
+
+  @Override
+  public Predicate<JsonNode> visitValuePath(final ValuePathExpression expression) {
+    throw new InvalidFilterException("Value paths can not be nested");
+  }
+
+  static JsonNode getField(final JsonNode node, final String name) {
+    if (node == null || !node.isObject()) {
+      return null;
+    }
+    JsonNode field = node.get(name);
+    if (field != null) {
+      return field;
+    }
+    Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> candidate = fields.next();
+      if (candidate.getKey().equalsIgnoreCase(name)) {
+        return candidate.getValue();
+      }
+    }
+    return null;
+  }
+
+  private static JsonNode read(final JsonNode node, final AttributePath path) {
+    JsonNode attribute = getField(node, path.getAttributeName());
+    return path.hasSubAttribute() ? getField(attribute, path.getSubAttributeName()) : attribute;
+  }
+
+  private static boolean compare(final JsonNode attribute, final ComparisonOperator operator, final Object value) {
+    if (attribute == null || attribute.isNull()) {
+      return false;
+    }
+
+    if (value instanceof Boolean) {
+      return operator == ComparisonOperator.EQ && attribute.isBoolean() && attribute.booleanValue() == (Boolean) value;
+    }
+    if (value instanceof BigDecimal) {
+      return attribute.isNumber() && matchesOrder(attribute.decimalValue().compareTo((BigDecimal) value), operator);
+    }
+    if (!attribute.isTextual()) {
+      return false;
+    }
+
+    String actual = attribute.textValue().toLowerCase(ROOT);
+    String expected = ((String) value).toLowerCase(ROOT);
+    switch (operator) {
+      case CO:
+        return actual.contains(expected);
+      case SW:
+        return actual.startsWith(expected);
+      case EW:
+        return actual.endsWith(expected);
+      default:
+        return matchesOrder(actual.compareTo(expected), operator);
+    }
+  }
+
+  private static boolean matchesOrder(final int comparison, final ComparisonOperator operator) {
+    switch (operator) {
+      case EQ:
+        return comparison == 0;
+      case GT:
+        return comparison > 0;
+      case GE:
+        return comparison >= 0;
+      case LT:
+        return comparison < 0;
+      case LE:
+        return comparison <= 0;
+      default:
+        return false;
+    }
+  }
+}
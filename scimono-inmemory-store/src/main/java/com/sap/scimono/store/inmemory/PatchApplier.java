@@ -0,0 +1,324 @@
+package com.sap.scimono.store.inmemory;
+
+import static com.sap.scimono.entity.definition.ResourceConstants.SCHEMAS_FIELD;
+import static com.sap.scimono.store.inmemory.JsonValueFilter.getField;
+import static java.util.Locale.ROOT;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.Response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.patch.PatchOperation;
+import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.entity.schema.resources.SchemaCSVReader;
+import com.sap.scimono.exception.InvalidInputException;
+import com.sap.scimono.exception.SCIMException;
+import com.sap.scimono.filter.QueryFilterCompiler;
+import com.sap.scimono.filter.expression.AttributePath;
+import com.sap.scimono.filter.expression.FilterExpression;
+import com.sap.scimono.filter.expression.ValuePathExpression;
+
+/**
+ * Applies the operations of a PATCH request (RFC 7644, section 3.5.2) to the JSON representation of a resource. The request is expected
+ * to be validated already, see {@link com.sap.scimono.entity.validation.patch.PatchValidationFramework}.
+ */
+class PatchApplier<T extends Resource<T>> {
+  private static final String URN_PREFIX = "urn:";
+  private static final String DEFAULT_SUB_ATTRIBUTE = "value";
+
+  private final Class<T> resourceClass;
+  private final String coreSchemaId;
+  private final ObjectMapper mapper = ObjectMapperRegistry.getDefault().getObjectMapper();
+  private final QueryFilterCompiler filterCompiler = QueryFilterCompiler.getDefault();
+  private final Set<String> multiValuedAttributes;
+
+  PatchApplier(final Class<T> resourceClass, final String coreSchemaId) {
+    this.resourceClass = resourceClass;
+    this.coreSchemaId = coreSchemaId;
+
+    Schema coreSchema = SchemaCSVReader.getImportedSchemasFromCSVs().get(coreSchemaId);
+    // @formatter:off
+    this.multiValuedAttributes = coreSchema == null ? Collections.emptySet() : coreSchema.getAttributes().stream()
+        .filter(Attribute::isMultiValued)
+        .map(attribute -> attribute.getName().toLowerCase(ROOT))
+        .collect(Collectors.toSet());
+    // @formatter:on
+  }
+
+  /**
+   * @return the patched resource, with the id and meta of the given resource
+   * @throws SCIMException if an operation cannot be applied
+   */
+  T apply(final T resource, final PatchBody patchBody) {
+    ObjectNode root = mapper.valueToTree(resource);
+    for (PatchOperation operation : patchBody.getOperations()) {
+      apply(root, operation);
+    }
+
+    try {
+      T patched = mapper.treeToValue(root, resourceClass);
+      return patched.builder().setId(resource.getId()).setMeta(resource.getMeta()).build();
+    } catch (JsonProcessingException | IllegalArgumentException e) {
+      throw new InvalidInputException(String.format("Patched %s is not valid: %s", resourceClass.getSimpleName(), e.getMessage()));
+    }
+  }
+
+  private void apply(final ObjectNode root, final PatchOperation operation) {
+    String op = operation.getOp().getValue();
+    String path = operation.getPath();
+    JsonNode value = operation.getValue();
+
+    if (path == null || path.isEmpty()) {
+      if (value == null || !value.isObject()) {
+        throw new InvalidInputException("The value of a patch operation without path must be an object");
+      }
+      applyToAttributes(root, op, (ObjectNode) value);
+    } else if (path.indexOf('[') >= 0) {
+      applyToValuePath(root, op, parseValuePath(path), value);
+    } else {
+      applyToAttributePath(root, op, parseAttributePath(path), value);
+    }
+  }
+
+  private void applyToAttributes(final ObjectNode root, final String op, final ObjectNode attributes) {
+    Iterator<Map.Entry<String, JsonNode>> fields = attributes.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      String name = field.getKey();
+
+      if (isCoreSchema(name) && field.getValue().isObject()) {
+        applyToAttributes(root, op, (ObjectNode) field.getValue());
+      } else if (name.regionMatches(true, 0, URN_PREFIX, 0, URN_PREFIX.length()) && field.getValue().isObject()) {
+        ObjectNode extension = getContainer(root, name, true);
+        field.getValue().fields().forEachRemaining(attribute -> setAttribute(extension, op, attribute.getKey(), attribute.getValue()));
+      } else {
+        setAttribute(root, op, name, field.getValue());
+      }
+    }
+  }
+
+  private void applyToAttributePath(final ObjectNode root, final String op, final AttributePath path, final JsonNode value) {
+    boolean remove = isRemove(op);
+    ObjectNode container = getContainer(root, path.getSchema(), !remove);
+    if (container == null) {
+      return;
+    }
+
+    if (!path.hasSubAttribute()) {
+      if (remove) {
+        removeAttribute(container, path.getAttributeName(), value);
+      } else {
+        setAttribute(container, op, path.getAttributeName(), value);
+      }
+      return;
+    }
+
+    JsonNode parent = getField(container, path.getAttributeName());
+    if (parent != null && parent.isArray()) {
+      for (JsonNode element : parent) {
+        if (element.isObject()) {
+          updateSubAttribute((ObjectNode) element, op, path.getSubAttributeName(), value);
+        }
+      }
+    } else if (parent != null && parent.isObject()) {
+      updateSubAttribute((ObjectNode) parent, op, path.getSubAttributeName(), value);
+    } else if (!remove) {
+      ObjectNode complex = container.putObject(fieldName(container, path.getAttributeName()));
+      complex.set(path.getSubAttributeName(), value);
+    }
+  }
+
+  private void applyToValuePath(final ObjectNode root, final String op, final ValuePathExpression valuePath, final JsonNode value) {
+    AttributePath path = valuePath.getAttributePath();
+    ObjectNode container = getContainer(root, path.getSchema(), false);
+    JsonNode values = container == null ? null : getField(container, path.getAttributeName());
+    Predicate<JsonNode> valueFilter = valuePath.getValueFilter() == null ? node -> true
+        : valuePath.getValueFilter().accept(new JsonValueFilter());
+
+    List<Integer> matchingIndexes = new ArrayList<>();
+    if (values != null && values.isArray()) {
+      for (int i = 0; i < values.size(); i++) {
+        if (valueFilter.test(values.get(i))) {
+          matchingIndexes.add(i);
+        }
+      }
+    }
+    if (matchingIndexes.isEmpty()) {
+      if (isAdd(op)) {
+        return;
+      }
+      throw new SCIMException(SCIMException.Type.NO_TARGET, String.format("No value of attribute '%s' matches the filter", path),
+          Response.Status.BAD_REQUEST);
+    }
+
+    ArrayNode array = (ArrayNode) values;
+    String subAttributeName = valuePath.getSubAttributeName();
+    for (int i = matchingIndexes.size() - 1; i >= 0; i--) {
+      int index = matchingIndexes.get(i);
+      JsonNode element = array.get(index);
+
+      if (subAttributeName != null) {
+        if (element.isObject()) {
+          updateSubAttribute((ObjectNode) element, op, subAttributeName, value);
+        }
+      } else if (isRemove(op)) {
+        array.remove(index);
+      } else if (isAdd(op) && element.isObject() && value != null && value.isObject()) {
+        ((ObjectNode) element).setAll((ObjectNode) value);
+      } else {
+        array.set(index, value);
+      }
+    }
+  }
+
+  private void setAttribute(final ObjectNode container, final String op, final String name, final JsonNode value) {
+    String fieldName = fieldName(container, name);
+    JsonNode existing = container.get(fieldName);
+
+    if (existing != null && existing.isObject() && value != null && value.isObject()) {
+      ((ObjectNode) existing).setAll((ObjectNode) value);
+    } else if (isAdd(op) && existing != null && existing.isArray()) {
+      ArrayNode array = (ArrayNode) existing;
+      for (JsonNode element : value.isArray() ? value : mapper.createArrayNode().add(value)) {
+        if (!contains(array, element)) {
+          array.add(element);
+        }
+      }
+    } else if (isAdd(op) && value != null && !value.isArray() && isMultiValued(name)) {
+      container.putArray(fieldName).add(value);
+    } else {
+      container.set(fieldName, value);
+    }
+  }
+
+  private void updateSubAttribute(final ObjectNode parent, final String op, final String name, final JsonNode value) {
+    if (isRemove(op)) {
+      parent.remove(fieldName(parent, name));
+    } else {
+      setAttribute(parent, op, name, value);
+    }
+  }
+
+  /**
+   * Removes an attribute, or only the given values of a multi-valued attribute, as sent by some clients to remove group members:
+   * {@code {"op": "remove", "path": "members", "value": [{"value": "2819c223"}]}}.
+   */
+  private void removeAttribute(final ObjectNode container, final String name, final JsonNode value) {
+    String fieldName = fieldName(container, name);
+    JsonNode existing = container.get(fieldName);
+
+    if (existing == null || !existing.isArray() || value == null || !value.isArray()) {
+      container.remove(fieldName);
+      return;
+    }
+
+    Iterator<JsonNode> elements = existing.elements();
+    while (elements.hasNext()) {
+      JsonNode element = elements.next();
+      for (JsonNode toRemove : value) {
+        JsonNode removedValue = getField(toRemove, DEFAULT_SUB_ATTRIBUTE);
+        JsonNode elementValue = getField(element, DEFAULT_SUB_ATTRIBUTE);
+        if (removedValue != null && removedValue.equals(elementValue)) {
+          elements.remove();
+          break;
+        }
+      }
+    }
+  }
+
+  private ObjectNode getContainer(final ObjectNode root, final String schemaId, final boolean create) {
+    if (schemaId == null || isCoreSchema(schemaId)) {
+      return root;
+    }
+
+    JsonNode extension = getField(root, schemaId);
+    if (extension != null && extension.isObject()) {
+      return (ObjectNode) extension;
+    }
+    if (!create) {
+      return null;
+    }
+
+    JsonNode schemas = root.get(SCHEMAS_FIELD);
+    if (schemas != null && schemas.isArray() && !contains((ArrayNode) schemas, mapper.getNodeFactory().textNode(schemaId))) {
+      ((ArrayNode) schemas).add(schemaId);
+    }
+    return root.putObject(schemaId);
+  }
+
+  private ValuePathExpression parseValuePath(final String path) {
+    FilterExpression expression = filterCompiler.compile(path);
+    if (!(expression instanceof ValuePathExpression)) {
+      throw new SCIMException(SCIMException.Type.INVALID_PATH, String.format("Invalid patch path '%s'", path), Response.Status.BAD_REQUEST);
+    }
+    return (ValuePathExpression) expression;
+  }
+
+  private static AttributePath parseAttributePath(final String path) {
+    String schemaId = null;
+    String attribute = path;
+    if (path.regionMatches(true, 0, URN_PREFIX, 0, URN_PREFIX.length())) {
+      int schemaEnd = path.lastIndexOf(':');
+      schemaId = path.substring(0, schemaEnd);
+      attribute = path.substring(schemaEnd + 1);
+    }
+
+    int subAttributeStart = attribute.indexOf('.');
+    if (subAttributeStart < 0) {
+      return new AttributePath(schemaId, attribute, null);
+    }
+    return new AttributePath(schemaId, attribute.substring(0, subAttributeStart), attribute.substring(subAttributeStart + 1));
+  }
+
+  private boolean isCoreSchema(final String schemaId) {
+    return coreSchemaId.equalsIgnoreCase(schemaId);
+  }
+
+  private boolean isMultiValued(final String name) {
+    return multiValuedAttributes.contains(name.toLowerCase(ROOT));
+  }
+
+  private static String fieldName(final ObjectNode container, final String name) {
+    Iterator<String> fieldNames = container.fieldNames();
+    while (fieldNames.hasNext()) {
+      String fieldName = fieldNames.next();
+      if (fieldName.equalsIgnoreCase(name)) {
+        return fieldName;
+      }
+    }
+    return name;
+  }
+
+  private static boolean contains(final ArrayNode array, final JsonNode element) {
+    for (JsonNode existing : array) {
+      if (existing.equals(element)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isAdd(final String op) {
+    return PatchOperation.Type.ADD.getValue().equalsIgnoreCase(op);
+  }
+
+  private static boolean isRemove(final String op) {
+    return PatchOperation.Type.REMOVE.getValue().equalsIgnoreCase(op);
+  }
+}
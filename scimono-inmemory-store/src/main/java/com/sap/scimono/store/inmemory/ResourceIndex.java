@@ -0,0 +1,152 @@
+package com.sap.scimono.store.inmemory;
+
+import static java.util.Locale.ROOT;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.ws.rs.core.Response;
+
+import com.sap.scimono.exception.SCIMException;
+import com.sap.scimono.filter.expression.AttributePath;
+
+/**
+ * Hash index from the (lower case) values of an attribute to the ids of the resources having them. Keys are always compared case
+ * insensitively, so the index returns a superset of the matching resources for case exact attributes and the store re-checks every
+ * candidate against the filter.
+ */
+final class ResourceIndex<T> {
+  private static final String DEFAULT_SUB_ATTRIBUTE = "value";
+
+  private final String attributeName;
+  private final String subAttributeName;
+  private final Function<T, Collection<String>> valuesReader;
+  private final boolean unique;
+  private final ConcurrentHashMap<String, Set<String>> ids = new ConcurrentHashMap<>();
+
+  private ResourceIndex(final String attributeName, final String subAttributeName, final Function<T, Collection<String>> valuesReader,
+      final boolean unique) {
+    this.attributeName = attributeName;
+    this.subAttributeName = subAttributeName;
+    this.valuesReader = valuesReader;
+    this.unique = unique;
+  }
+
+  static <T> ResourceIndex<T> unique(final String attributeName, final Function<T, String> valueReader) {
+    return new ResourceIndex<>(attributeName, null, resource -> Collections.singleton(valueReader.apply(resource)), true);
+  }
+
+  static <T> ResourceIndex<T> of(final String attributeName, final Function<T, String> valueReader) {
+    return new ResourceIndex<>(attributeName, null, resource -> Collections.singleton(valueReader.apply(resource)), false);
+  }
+
+  /**
+   * @param attributeName multi-valued attribute, e.g. {@code emails}
+   * @param valuesReader reads the {@code value} sub-attribute of all values
+   */
+  static <T> ResourceIndex<T> ofValues(final String attributeName, final Function<T, Collection<String>> valuesReader) {
+    return new ResourceIndex<>(attributeName, DEFAULT_SUB_ATTRIBUTE, valuesReader, false);
+  }
+
+  /**
+   * @param path an attribute path of a filter, relative to the resource
+   * @return whether the index holds the values referenced by the path
+   */
+  boolean covers(final AttributePath path) {
+    if (!attributeName.equalsIgnoreCase(path.getAttributeName())) {
+      return false;
+    }
+    if (subAttributeName == null) {
+      return !path.hasSubAttribute();
+    }
+    return !path.hasSubAttribute() || subAttributeName.equalsIgnoreCase(path.getSubAttributeName());
+  }
+
+  /**
+   * @param valuePathAttributeName attribute of a value path, e.g. {@code emails}
+   * @param path an attribute path within the filter of the value path
+   * @return whether the index holds the values referenced by the path
+   */
+  boolean covers(final String valuePathAttributeName, final AttributePath path) {
+    return subAttributeName != null && attributeName.equalsIgnoreCase(valuePathAttributeName) && !path.hasSubAttribute()
+        && subAttributeName.equalsIgnoreCase(path.getAttributeName());
+  }
+
+  /**
+   * @return the ids of the resources having the value, or of some more resources differing only in case
+   */
+  Set<String> get(final String value) {
+    Set<String> resourceIds = ids.get(value.toLowerCase(ROOT));
+    return resourceIds == null ? Collections.emptySet() : resourceIds;
+  }
+
+  /**
+   * Adds the values of a resource, failing if a value of a unique index is already taken by another resource. On failure the index is
+   * left unchanged.
+   *
+   * @throws SCIMException if a value of a unique index is taken
+   */
+  void add(final String id, final T resource) {
+    Set<String> added = new HashSet<>();
+    try {
+      for (String key : keys(resource)) {
+        ids.compute(key, (value, resourceIds) -> {
+          if (resourceIds == null) {
+            resourceIds = ConcurrentHashMap.newKeySet();
+          } else if (unique && !resourceIds.contains(id)) {
+            throw new SCIMException(SCIMException.Type.UNIQUENESS, String.format("%s '%s' is already taken", attributeName, value),
+                Response.Status.CONFLICT);
+          }
+          if (resourceIds.add(id)) {
+            added.add(key);
+          }
+          return resourceIds;
+        });
+      }
+    } catch (SCIMException e) {
+      added.forEach(key -> removeKey(key, id));
+      throw e;
+    }
+  }
+
+  /**
+   * Removes the values of a resource, except for those which are still held by its new state.
+   */
+  void remove(final String id, final T resource, final T newResource) {
+    Set<String> keys = keys(resource);
+    if (newResource != null) {
+      keys.removeAll(keys(newResource));
+    }
+    keys.forEach(key -> removeKey(key, id));
+  }
+
+  void clear() {
+    ids.clear();
+  }
+
+  private void removeKey(final String key, final String id) {
+    ids.computeIfPresent(key, (value, resourceIds) -> {
+      resourceIds.remove(id);
+      return resourceIds.isEmpty() ? null : resourceIds;
+    });
+  }
+
+  private Set<String> keys(final T resource) {
+    Set<String> keys = new HashSet<>();
+    for (String value : valuesReader.apply(resource)) {
+      if (value != null) {
+        keys.add(value.toLowerCase(ROOT));
+      }
+    }
+    return keys;
+  }
+
+  @Override
+  public String toString() {
+    return subAttributeName == null ? attributeName : attributeName + "." + subAttributeName;
+  }
+}
@@ -0,0 +1,259 @@
+package com.sap.scimono.store.inmemory;
+
+import static com.sap.scimono.entity.paging.PagedByIdentitySearchResult.PAGINATION_BY_ID_START_PARAM;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import javax.ws.rs.core.Response.Status;
+
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.TopKSorter;
+import com.sap.scimono.exception.ResourceNotFoundException;
+import com.sap.scimono.exception.SCIMException;
+import com.sap.scimono.filter.expression.FilterExpression;
+
+/**
+ * Thread-safe storage of resources of one type.
+ * <p>
+ * Resources are immutable, so reads go straight to a {@link ConcurrentHashMap} without locking. Writes are serialized per resource id
+ * through a fixed set of lock stripes, which keeps the primary map and the secondary indexes of a resource consistent while writes to
+ * different resources proceed in parallel. The ids are additionally kept in a sorted set, which gives list requests the stable order needed
+ * for paging by index as well as by id.
+ */
+class ResourceStore<T extends Resource<T>> {
+  private static final int LOCK_STRIPES_COUNT = 64;
+  private static final Comparator<Resource<?>> BY_ID = Comparator.comparing(Resource::getId);
+
+  private final String resourceType;
+  private final String coreSchemaId;
+  private final Map<String, T> resources = new ConcurrentHashMap<>();
+  private final NavigableSet<String> sortedIds = new ConcurrentSkipListSet<>();
+  private final List<ResourceIndex<T>> indexes;
+  private final Object[] lockStripes = new Object[LOCK_STRIPES_COUNT];
+
+  @SafeVarargs
+  ResourceStore(final String resourceType, final String coreSchemaId, final ResourceIndex<T>... indexes) {
+    this.resourceType = resourceType;
+    this.coreSchemaId = coreSchemaId;
+    this.indexes = Collections.unmodifiableList(Arrays.asList(indexes));
+    for (int i = 0; i < LOCK_STRIPES_COUNT; i++) {
+      lockStripes[i] = new Object();
+    }
+  }
+
+  T get(final String id) {
+    return id == null ? null : resources.get(id);
+  }
+
+  /**
+   * @return the resources whose indexed attribute has the value, compared case insensitively
+   */
+  List<T> findByIndex(final ResourceIndex<T> index, final String value) {
+    List<T> found = new ArrayList<>();
+    for (String id : index.get(value)) {
+      T resource = resources.get(id);
+      if (resource != null) {
+        found.add(resource);
+      }
+    }
+    return found;
+  }
+
+  int size() {
+    return resources.size();
+  }
+
+  T create(final T resource) {
+    String id = resource.getId();
+    synchronized (lockFor(id)) {
+      if (resources.containsKey(id)) {
+        throw new SCIMException(SCIMException.Type.UNIQUENESS, String.format("%s %s already exists", resourceType, id), Status.CONFLICT);
+      }
+      addToIndexes(id, resource, null);
+      resources.put(id, resource);
+      sortedIds.add(id);
+    }
+    return resource;
+  }
+
+  /**
+   * Replaces a resource, keeping its creation time.
+   *
+   * @throws ResourceNotFoundException if the resource does not exist
+   */
+  T update(final T resource) {
+    return update(resource.getId(), existing -> resource.builder().setMeta(mergeMeta(existing.getMeta(), resource.getMeta())).build());
+  }
+
+  /**
+   * Replaces a resource with the result of the update function, which is called while holding the write lock of the resource.
+   *
+   * @throws ResourceNotFoundException if the resource does not exist
+   */
+  T update(final String id, final UnaryOperator<T> update) {
+    synchronized (lockFor(id)) {
+      T existing = resources.get(id);
+      if (existing == null) {
+        throw new ResourceNotFoundException(resourceType, id);
+      }
+
+      T updated = update.apply(existing);
+      addToIndexes(id, updated, existing);
+      resources.put(id, updated);
+      return updated;
+    }
+  }
+
+  /**
+   * @throws ResourceNotFoundException if the resource does not exist
+   */
+  void delete(final String id) {
+    synchronized (lockFor(id)) {
+      T existing = resources.remove(id);
+      if (existing == null) {
+        throw new ResourceNotFoundException(resourceType, id);
+      }
+      sortedIds.remove(id);
+      indexes.forEach(index -> index.remove(id, existing, null));
+    }
+  }
+
+  void clear() {
+    for (String id : sortedIds) {
+      synchronized (lockFor(id)) {
+        T existing = resources.remove(id);
+        sortedIds.remove(id);
+        if (existing != null) {
+          indexes.forEach(index -> index.remove(id, existing, null));
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a page of the resources matching the filter, ordered by id or, when paging by index or with a cursor, in the requested sort
+   * order. When paging with a cursor, resources created after the first page was requested are skipped, so that the pages and the total
+   * count stay consistent while resources are added.
+   *
+   * @param pageInfo paging by index or by id; when paging by id one resource more than requested is returned, its id is sent to the
+   *          client as nextId
+   * @param filter the compiled filter, used to look up candidates in the indexes, or null
+   * @param predicate the compiled filter, checked for every candidate
+   * @param comparator the requested sort order, or null to order by id
+   * @param afterCursor selects the resources after the cursor when paging with a cursor, or null
+   */
+  PagedResult<T> query(final PageInfo pageInfo, final FilterExpression filter, final Predicate<? super T> predicate,
+      final Comparator<? super T> comparator, final Predicate<? super T> afterCursor) {
+    NavigableSet<String> ids = candidateIds(filter);
+
+    if (pageInfo.isCursorPaging()) {
+      Instant snapshot = pageInfo.getCursor().get().getSnapshot();
+      Iterator<T> candidates = ids.stream().map(resources::get)
+          .filter(resource -> resource != null && isCreatedBefore(resource, snapshot) && predicate.test(resource)).iterator();
+      return TopKSorter.pageAfter(candidates, comparator == null ? BY_ID : comparator, afterCursor, pageInfo.getEntityCount());
+    }
+
+    if (pageInfo.isStandardPaging() && comparator != null) {
+      Iterator<T> candidates = ids.stream().map(resources::get).filter(resource -> resource != null && predicate.test(resource)).iterator();
+      return TopKSorter.page(candidates, comparator, Math.max(pageInfo.getStartIndex(), 0), pageInfo.getEntityCount());
+    }
+    if (pageInfo.isStandardPaging()) {
+      return page(ids, Math.max(pageInfo.getStartIndex(), 0), null, pageInfo.getEntityCount(), predicate);
+    }
+    String startId = PAGINATION_BY_ID_START_PARAM.equalsIgnoreCase(pageInfo.getStartId()) ? null : pageInfo.getStartId();
+    return page(ids, 0, startId, pageInfo.getEntityCount() + 1, predicate);
+  }
+
+  /**
+   * @return the number of resources matching the filter, counted without building a page
+   */
+  int count(final FilterExpression filter, final Predicate<? super T> predicate) {
+    int matchingCount = 0;
+    for (String id : candidateIds(filter)) {
+      T resource = resources.get(id);
+      if (resource != null && predicate.test(resource)) {
+        matchingCount++;
+      }
+    }
+    return matchingCount;
+  }
+
+  private NavigableSet<String> candidateIds(final FilterExpression filter) {
+    Collection<String> candidateIds = filter == null ? null : filter.accept(new IndexLookup<>(indexes, coreSchemaId));
+    return candidateIds == null ? sortedIds : new TreeSet<>(candidateIds);
+  }
+
+  private PagedResult<T> page(final NavigableSet<String> ids, final int startIndex, final String startId, final int pageSize,
+      final Predicate<? super T> predicate) {
+    List<T> page = new ArrayList<>(Math.min(pageSize, resources.size()));
+    int matchingCount = 0;
+    for (String id : ids) {
+      T resource = resources.get(id);
+      if (resource == null || !predicate.test(resource)) {
+        continue;
+      }
+      boolean onPage = startId == null ? matchingCount >= startIndex : id.compareTo(startId) >= 0;
+      if (onPage && page.size() < pageSize) {
+        page.add(resource);
+      }
+      matchingCount++;
+    }
+    return new PagedResult<>(matchingCount, page);
+  }
+
+  private static boolean isCreatedBefore(final Resource<?> resource, final Instant snapshot) {
+    Meta meta = resource.getMeta();
+    return meta == null || meta.getCreated() == null || !meta.getCreated().isAfter(snapshot);
+  }
+
+  private void addToIndexes(final String id, final T resource, final T previous) {
+    List<ResourceIndex<T>> updatedIndexes = new ArrayList<>(indexes.size());
+    try {
+      for (ResourceIndex<T> index : indexes) {
+        index.add(id, resource);
+        updatedIndexes.add(index);
+      }
+    } catch (RuntimeException e) {
+      updatedIndexes.forEach(index -> index.remove(id, resource, previous));
+      throw e;
+    }
+
+    if (previous != null) {
+      indexes.forEach(index -> index.remove(id, previous, resource));
+    }
+  }
+
+  private Object lockFor(final String id) {
+    return lockStripes[(id.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES_COUNT];
+  }
+
+  static Meta mergeMeta(final Meta existing, final Meta changed) {
+    if (existing == null || changed == null) {
+      return changed;
+    }
+    Meta.Builder meta = new Meta.Builder(existing.getCreated(), changed.getLastModified()).setVersion(changed.getVersion())
+        .setResourceType(changed.getResourceType() == null ? existing.getResourceType() : changed.getResourceType());
+    String location = changed.getLocation() == null ? existing.getLocation() : changed.getLocation();
+    if (location != null) {
+      meta.setLocation(location);
+    }
+    return meta.build();
+  }
+}
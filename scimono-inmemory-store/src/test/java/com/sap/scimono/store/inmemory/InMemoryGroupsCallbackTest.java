@@ -0,0 +1,91 @@
+package com.sap.scimono.store.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.MemberRef;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.patch.PatchOperation;
+
+class InMemoryGroupsCallbackTest {
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+  private InMemoryGroupsCallback groups;
+
+  @BeforeEach
+  void createGroups() {
+    groups = new InMemoryGroupsCallback();
+    groups.createGroup(group("group-1", "Admins", "user-1", "user-2"));
+    groups.createGroup(group("group-2", "Developers", "user-2", "user-3"));
+    groups.createGroup(group("group-3", "admins", "user-3"));
+  }
+
+  @Test
+  void testFilterByIndexedAttributes() {
+    assertEquals(Arrays.asList("group-1", "group-3"), ids(groups.getGroups(firstPage(), "displayName eq \"ADMINS\"")));
+    assertEquals(Arrays.asList("group-1", "group-2"), ids(groups.getGroups(firstPage(), "members[value eq \"user-2\"]")));
+    assertEquals(Arrays.asList("group-2"), ids(groups.getGroups(firstPage(), "members eq \"user-3\" and displayName sw \"dev\"")));
+  }
+
+  @Test
+  void testPatchMembers() {
+    ArrayNode removedMembers = NODES.arrayNode();
+    removedMembers.addObject().put("value", "user-1");
+    ArrayNode addedMembers = NODES.arrayNode();
+    addedMembers.addObject().put("value", "user-4");
+
+    // @formatter:off
+    PatchBody patch = new PatchBody.Builder()
+        .addOperation(new PatchOperation.Builder().setOp(PatchOperation.Type.REMOVE).setPath("members").setValue(removedMembers).build())
+        .addOperation(new PatchOperation.Builder().setOp(PatchOperation.Type.ADD).setPath("members").setValue(addedMembers).build())
+        .addOperation(new PatchOperation.Builder().setOp(PatchOperation.Type.REMOVE).setPath("members[value eq \"user-2\"]").build())
+        .build();
+    // @formatter:on
+    groups.patchGroup("group-1", patch, new Meta.Builder().setVersion("v2").build());
+
+    assertEquals(Arrays.asList("user-4"), memberIds(groups.getGroup("group-1")));
+    assertEquals(Arrays.asList("group-2"), ids(groups.getGroups(firstPage(), "members eq \"user-2\"")));
+    assertEquals(Arrays.asList("group-1"), ids(groups.getGroups(firstPage(), "members eq \"user-4\"")));
+  }
+
+  @Test
+  void testRemoveMemberFromAllGroups() {
+    groups.removeMember("user-3");
+
+    assertEquals(Arrays.asList("user-2"), memberIds(groups.getGroup("group-2")));
+    assertEquals(Arrays.asList(), memberIds(groups.getGroup("group-3")));
+    assertEquals(0, groups.getGroups(firstPage(), "members eq \"user-3\"").getTotalResourceCount());
+  }
+
+  private static Group group(final String id, final String displayName, final String... memberIds) {
+    Group.Builder builder = new Group.Builder(displayName).setId(id).setMeta(new Meta.Builder().setVersion("v1").build());
+    for (String memberId : memberIds) {
+      builder.addMember(new MemberRef.Builder().setValue(memberId).setType(MemberRef.Type.USER).build());
+    }
+    return builder.build();
+  }
+
+  private static PageInfo firstPage() {
+    return PageInfo.getInstance(10, 0, null);
+  }
+
+  private static List<String> ids(final PagedResult<Group> page) {
+    return page.getResources().stream().map(Group::getId).collect(Collectors.toList());
+  }
+
+  private static List<String> memberIds(final Group group) {
+    return group.getMembers().stream().map(MemberRef::getValue).sorted().collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,220 @@
+package com.sap.scimono.store.inmemory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.sap.scimono.callback.schemas.SchemaAttributeIndex;
+import com.sap.scimono.entity.Email;
+import com.sap.scimono.entity.EnterpriseExtension;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PageCursor;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.SortInfo;
+import com.sap.scimono.entity.paging.SortOrder;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.patch.PatchOperation;
+import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.exception.ResourceNotFoundException;
+import com.sap.scimono.exception.SCIMException;
+import com.sap.scimono.filter.QueryFilter;
+
+class InMemoryUsersCallbackTest {
+  private static final Instant CREATED = Instant.parse("2020-01-15T10:00:00Z");
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+  private InMemoryUsersCallback users;
+
+  @BeforeEach
+  void createUsers() {
+    users = new InMemoryUsersCallback();
+    for (int i = 0; i < 5; i++) {
+      users.createUser(user("id-" + i, "user" + i));
+    }
+  }
+
+  @Test
+  void testGetUserByUsernameIgnoresCase() {
+    assertEquals("id-2", users.getUserByUsername("USER2").getId());
+    assertNull(users.getUserByUsername("user9"));
+  }
+
+  @Test
+  void testUserNameIsUnique() {
+    SCIMException exception = assertThrows(SCIMException.class, () -> users.createUser(user("id-9", "User1")));
+    assertEquals(SCIMException.Type.UNIQUENESS.toJson(), exception.getScimType());
+    assertEquals(5, users.getUsersCount());
+
+    assertThrows(SCIMException.class, () -> users.updateUser(user("id-2", "user1")));
+    assertEquals("user2", users.getUser("id-2").getUserName());
+  }
+
+  @Test
+  void testRenamedUserIsFoundByNewNameOnly() {
+    users.updateUser(user("id-2", "renamed"));
+
+    assertNull(users.getUserByUsername("user2"));
+    assertEquals("id-2", users.getUserByUsername("renamed").getId());
+    users.createUser(user("id-9", "user2"));
+  }
+
+  @Test
+  void testUpdateKeepsCreationTime() {
+    User changed = new User.Builder(user("id-1", "user1")).setMeta(new Meta.Builder().setVersion("v2").build()).build();
+
+    User updated = users.updateUser(changed);
+
+    assertEquals(CREATED, updated.getMeta().getCreated());
+    assertEquals("v2", updated.getMeta().getVersion());
+  }
+
+  @Test
+  void testFilterUsesIndexesAndChecksCandidates() {
+    assertEquals(Arrays.asList("id-3"), ids(users.getUsers(firstPage(10), "userName eq \"USER3\"")));
+    assertEquals(Arrays.asList("id-3"), ids(users.getUsers(firstPage(10), "emails[value eq \"user3@example.com\"]")));
+    assertEquals(Arrays.asList(), ids(users.getUsers(firstPage(10), "externalId eq \"EXT-3\"")));
+    assertEquals(Arrays.asList("id-1", "id-3"), ids(users.getUsers(firstPage(10),
+        "externalId eq \"ext-3\" or emails eq \"user1@example.com\"")));
+    assertEquals(Arrays.asList("id-0", "id-2", "id-4"), ids(users.getUsers(firstPage(10),
+        "not (userName eq \"user1\" or userName eq \"user3\")")));
+  }
+
+  @Test
+  void testPagingByIndex() {
+    PagedResult<User> page = users.getUsers(PageInfo.getInstance(2, 1, null), null);
+
+    assertEquals(5, page.getTotalResourceCount());
+    assertEquals(Arrays.asList("id-1", "id-2"), ids(page));
+  }
+
+  @Test
+  void testPagingInSortOrder() {
+    users.createUser(user("id-5", "a-user"));
+    List<Attribute> userName = SchemaAttributeIndex.core().getAttributePath(User.SCHEMA + ":userName");
+    PagedResult<User> page = users.getUsers(PageInfo.getInstance(3, 1, null, new SortInfo(User.SCHEMA, userName, SortOrder.DESCENDING)),
+        "userName ne \"user4\"");
+
+    assertEquals(5, page.getTotalResourceCount());
+    assertEquals(Arrays.asList("id-2", "id-1", "id-0"), ids(page));
+  }
+
+  @Test
+  void testPagingWithCursorContinuesAfterLastUser() {
+    List<Attribute> userName = SchemaAttributeIndex.core().getAttributePath(User.SCHEMA + ":userName");
+    SortInfo sortInfo = new SortInfo(User.SCHEMA, userName, SortOrder.ASCENDING);
+    PageCursor cursor = PageCursor.initial(Instant.now());
+    PagedResult<User> page = users.getUsers(PageInfo.getInstance(2, cursor, sortInfo), null);
+    assertEquals(Arrays.asList("id-0", "id-1"), ids(page));
+
+    users.deleteUser("id-2");
+    users.createUser(user("id-10", "user1a").builder()
+        .setMeta(new Meta.Builder(Instant.now().plusSeconds(60), Instant.now().plusSeconds(60)).setVersion("v1").build()).build());
+    page = users.getUsers(PageInfo.getInstance(2, cursor.after("id-1", "user1"), sortInfo), null);
+
+    assertEquals(4, page.getTotalResourceCount());
+    assertEquals(Arrays.asList("id-3", "id-4"), ids(page));
+    assertEquals(Arrays.asList("id-3", "id-4"), ids(users.getUsers(PageInfo.getInstance(5, cursor.after("id-1", null), null), null)));
+  }
+
+  @Test
+  void testCountUsers() {
+    assertEquals(5, users.countUsers(null).getValue());
+    assertEquals(1, users.countUsers(QueryFilter.of("emails.value eq \"user3@example.com\"")).getValue());
+    assertEquals(4, users.countUsers(QueryFilter.of("userName ne \"user3\"")).getValue());
+  }
+
+  @Test
+  void testPagingByIdReturnsOneMoreUser() {
+    assertEquals(Arrays.asList("id-0", "id-1", "id-2"), ids(users.getUsers(PageInfo.getInstance(2, 0, "initial"), null)));
+
+    PagedResult<User> page = users.getUsers(PageInfo.getInstance(2, 0, "id-3"), null);
+    assertEquals(5, page.getTotalResourceCount());
+    assertEquals(Arrays.asList("id-3", "id-4"), ids(page));
+  }
+
+  @Test
+  void testDeleteRemovesUserFromIndexes() {
+    users.deleteUser("id-1");
+
+    assertNull(users.getUser("id-1"));
+    assertNull(users.getUserByUsername("user1"));
+    assertEquals(0, users.getUsers(firstPage(10), "emails eq \"user1@example.com\"").getTotalResourceCount());
+    assertThrows(ResourceNotFoundException.class, () -> users.deleteUser("id-1"));
+  }
+
+  @Test
+  void testPatchUser() {
+    JsonNode newEmails = NODES.arrayNode().add(NODES.objectNode().put("value", "new@example.com"));
+    String departmentPath = EnterpriseExtension.ENTERPRISE_URN + ":department";
+    // @formatter:off
+    PatchBody patch = new PatchBody.Builder()
+        .addOperation(operation(PatchOperation.Type.REPLACE, "userName", NODES.textNode("patched")))
+        .addOperation(operation(PatchOperation.Type.ADD, "emails", newEmails))
+        .addOperation(operation(PatchOperation.Type.REPLACE, "emails[type eq \"work\"].primary", NODES.booleanNode(false)))
+        .addOperation(operation(PatchOperation.Type.REPLACE, departmentPath, NODES.textNode("Security")))
+        .addOperation(operation(PatchOperation.Type.REMOVE, "displayName", null))
+        .build();
+    // @formatter:on
+
+    users.patchUser("id-1", patch, new Meta.Builder(null, Instant.now()).setVersion("v2").build());
+
+    User patched = users.getUser("id-1");
+    assertEquals("patched", patched.getUserName());
+    assertNull(patched.getDisplayName());
+    assertEquals(Arrays.asList("user1@example.com", "new@example.com"), patched.getEmails().stream().map(Email::getValue)
+        .collect(Collectors.toList()));
+    assertEquals(Boolean.FALSE, patched.getEmails().get(0).isPrimary());
+    assertEquals("Security", ((EnterpriseExtension) patched.getExtension(EnterpriseExtension.ENTERPRISE_URN)).getDepartment());
+    assertEquals(CREATED, patched.getMeta().getCreated());
+    assertEquals("v2", patched.getMeta().getVersion());
+    assertEquals("id-1", users.getUserByUsername("patched").getId());
+    assertTrue(ids(users.getUsers(firstPage(10), "emails eq \"new@example.com\"")).contains("id-1"));
+  }
+
+  @Test
+  void testPatchWithUnmatchedFilterFails() {
+    PatchBody patch = new PatchBody.Builder().addOperation(operation(PatchOperation.Type.REPLACE, "emails[type eq \"home\"].value",
+        NODES.textNode("home@example.com"))).build();
+
+    SCIMException exception = assertThrows(SCIMException.class, () -> users.patchUser("id-1", patch, new Meta.Builder().build()));
+    assertEquals(SCIMException.Type.NO_TARGET.toJson(), exception.getScimType());
+  }
+
+  private static User user(final String id, final String userName) {
+    // @formatter:off
+    return new User.Builder(userName)
+        .setId(id)
+        .setExternalId("ext-" + id.substring(id.indexOf('-') + 1))
+        .setDisplayName("User " + userName)
+        .addEmail(new Email.Builder().setValue(userName + "@example.com").setType(Email.Type.WORK).setPrimary(true).build())
+        .addExtension(new EnterpriseExtension.Builder().setDepartment("Identity").build())
+        .setMeta(new Meta.Builder(CREATED, CREATED).setVersion("v1").setResourceType(User.RESOURCE_TYPE_USER).build())
+        .build();
+    // @formatter:on
+  }
+
+  private static PatchOperation operation(final PatchOperation.Type type, final String path, final JsonNode value) {
+    return new PatchOperation.Builder().setOp(type).setPath(path).setValue(value).build();
+  }
+
+  private static PageInfo firstPage(final int count) {
+    return PageInfo.getInstance(count, 0, null);
+  }
+
+  private static List<String> ids(final PagedResult<User> page) {
+    return page.getResources().stream().map(User::getId).collect(Collectors.toList());
+  }
+}
@@ -6,39 +6,55 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import javax.ws.rs.core.Application;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.sap.scimono.api.AsyncGroups;
+import com.sap.scimono.api.AsyncUsers;
+import com.sap.scimono.api.AttributeProjectionInterceptor;
 import com.sap.scimono.api.Bulk;
+import com.sap.scimono.api.ConditionalRequestFilter;
 import com.sap.scimono.api.Groups;
+import com.sap.scimono.api.ResourceLocationInterceptor;
 import com.sap.scimono.api.ResourceTypes;
 import com.sap.scimono.api.Schemas;
 import com.sap.scimono.api.ServiceProviderConfiguration;
 import com.sap.scimono.api.ServletRequestProviderFilter;
 import com.sap.scimono.api.Users;
+import com.sap.scimono.api.helper.CompressionInterceptor;
+import com.sap.scimono.api.helper.CompressionSettings;
+import com.sap.scimono.api.helper.CursorSettings;
 import com.sap.scimono.api.helper.InternalExceptionMapper;
 import com.sap.scimono.api.helper.JacksonResolver;
 import com.sap.scimono.api.helper.JsonParseExceptionMapper;
 import com.sap.scimono.api.helper.JsonMappingExceptionMapper;
 import com.sap.scimono.api.helper.JsonProcessingExceptionMapper;
 import com.sap.scimono.api.helper.ScimExceptionMapper;
+import com.sap.scimono.api.helper.SerializationProfile;
 import com.sap.scimono.api.helper.ValidationExceptionMapper;
+import com.sap.scimono.callback.bulk.BulkJobService;
 import com.sap.scimono.callback.bulk.BulkRequestCallback;
 import com.sap.scimono.callback.bulk.DefaultBulkRequestCallback;
 import com.sap.scimono.callback.config.DefaultSCIMConfigurationCallback;
 import com.sap.scimono.callback.config.SCIMConfigurationCallback;
+import com.sap.scimono.callback.groups.AsyncGroupsCallback;
 import com.sap.scimono.callback.groups.DefaultGroupsCallback;
 import com.sap.scimono.callback.groups.GroupsCallback;
 import com.sap.scimono.callback.resourcetype.DefaultResourceTypesCallback;
 import com.sap.scimono.callback.resourcetype.ResourceTypesCallback;
 import com.sap.scimono.callback.schemas.DefaultSchemasCallback;
+import com.sap.scimono.callback.schemas.SchemaAttributeIndex;
 import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.callback.users.AsyncUsersCallback;
 import com.sap.scimono.callback.users.DefaultUsersCallback;
 import com.sap.scimono.callback.users.UsersCallback;
 import com.sap.scimono.entity.schema.validation.CustomInputValidator;
+import com.sap.scimono.entity.validation.patch.PatchValidationFrameworkCache;
+import com.sap.scimono.filter.QueryFilterCompiler;
 
 public abstract class SCIMApplication extends Application {
   private static final Logger logger = LoggerFactory.getLogger(SCIMApplication.class);
@@ -60,8 +76,8 @@ public abstract class SCIMApplication extends Application {
     Set<Class<?>> scimResources = new HashSet<>();
 
     // public API
-    scimResources.add(Users.class);
-    scimResources.add(Groups.class);
+    scimResources.add(overrides("getAsyncUsersCallback") ? AsyncUsers.class : Users.class);
+    scimResources.add(overrides("getAsyncGroupsCallback") ? AsyncGroups.class : Groups.class);
     scimResources.add(Schemas.class);
     scimResources.add(ResourceTypes.class);
     scimResources.add(ServiceProviderConfiguration.class);
@@ -72,17 +88,32 @@ public abstract class SCIMApplication extends Application {
     // internal providers
     scimResources.add(InternalExceptionMapper.class);
     scimResources.add(JacksonResolver.class);
+    scimResources.add(CompressionInterceptor.class);
     scimResources.add(JsonMappingExceptionMapper.class);
     scimResources.add(JsonParseExceptionMapper.class);
     scimResources.add(JsonProcessingExceptionMapper.class);
     scimResources.add(ScimExceptionMapper.class);
 
     scimResources.add(ServletRequestProviderFilter.class);
+    scimResources.add(ResourceLocationInterceptor.class);
+    scimResources.add(AttributeProjectionInterceptor.class);
+    scimResources.add(ConditionalRequestFilter.class);
+
+    // load the core schemas during startup instead of with the first request
+    SchemaAttributeIndex.core();
 
     logger.info("Initializing SCIM resource providers {}", scimResources);
     return scimResources;
   }
 
+  private boolean overrides(final String callbackGetter) {
+    try {
+      return getClass().getMethod(callbackGetter).getDeclaringClass() != SCIMApplication.class;
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   @Override
   public Set<Object> getSingletons() {
     return Collections.singleton(new ValidationExceptionMapper());
@@ -113,6 +144,36 @@ public abstract class SCIMApplication extends Application {
   }
 
   /**
+   * Enables asynchronous calls of the users callback, e.g. through a non-blocking client of a remote service. Requests to /Users are then
+   * suspended until the returned stages complete, instead of blocking a container thread. The default is null, which calls the
+   * {@link #getUsersCallback()} on the request thread. The synchronous callback is still used for the generation of ids, the evaluation of
+   * conditional requests and bulk requests.
+   * <p>
+   * Overriding this method registers the suspended resource methods of {@link AsyncUsers} instead of {@link Users}. They require a
+   * container supporting asynchronous processing, e.g. a servlet with {@code async-supported} enabled. A null callback returned for a
+   * request calls the {@link #getUsersCallback()} on the request thread.
+   *
+   * @return a request-scoped AsyncUsersCallback implementation, or null.
+   */
+  public AsyncUsersCallback getAsyncUsersCallback() {
+    return null;
+  }
+
+  /**
+   * Enables asynchronous calls of the groups callback, see {@link #getAsyncUsersCallback()}. The default is null, which calls the
+   * {@link #getGroupsCallback()} on the request thread. Overriding this method registers {@link AsyncGroups} instead of {@link Groups},
+   * which requires a container supporting asynchronous processing.
+   *
+   * @return a request-scoped AsyncGroupsCallback implementation, or null.
+   */
+  public AsyncGroupsCallback getAsyncGroupsCallback() {
+    return null;
+  }
+
+  /**
+   * Wrap the implementation in a {@link com.sap.scimono.callback.schemas.CachingSchemasCallback} in order to index the schemas once instead
+   * of on every lookup of an attribute.
+   *
    * @return a request-scoped SchemasCallback implementation.
    */
   public SchemasCallback getSchemasCallback() {
@@ -120,12 +181,42 @@ public abstract class SCIMApplication extends Application {
   }
   
   /**
+   * A {@link com.sap.scimono.callback.bulk.ParallelBulkRequestCallback} executes independent bulk operations concurrently, e.g. with a
+   * {@link com.sap.scimono.callback.bulk.CallbackBulkOperationHandler} over the users and groups callbacks.
+   * Wrap it into a {@link com.sap.scimono.callback.bulk.CoalescingBulkRequestCallback} in order to merge consecutive PATCH operations on
+   * the same resource and to skip updates of resources deleted later in the request.
+   *
    * @return a request-scoped BulkRequestCallback implementation.
    */
   public BulkRequestCallback getBulkRequestCallback() {
     return new DefaultBulkRequestCallback();
   }
 
+  /**
+   * Enables the asynchronous execution of bulk requests sent with the header {@code Prefer: respond-async}. Such requests are answered
+   * with status 202 and the location of a job, which can be polled under {@code /Bulk/<jobId>} by the same user principal. The default is
+   * null, which disables asynchronous bulk requests. The service holds the state of the jobs, so the same instance has to be returned for
+   * all requests.
+   *
+   * @return a BulkJobService instance shared by all requests, or null.
+   */
+  public BulkJobService getBulkJobService() {
+    return null;
+  }
+
+  /**
+   * Returns the executor on which the operations of a bulk request are parsed and validated before they are passed to the
+   * {@link BulkRequestCallback}. The default is null, which processes the operations one after another on the request thread. With an
+   * executor, e.g. a fixed thread pool with one thread per core, the operations are processed in parallel. The users, groups, schemas and
+   * resource types callbacks of the request are then called from the executor threads, with the servlet request bound to the
+   * {@link com.sap.scimono.api.ContextResolver}, and must be thread safe.
+   *
+   * @return an Executor shared by all requests, or null.
+   */
+  public Executor getBulkPreprocessingExecutor() {
+    return null;
+  }
+
   /**
    * @return a request-scoped ResourceTypesCallback implementation.
    */
@@ -152,4 +243,60 @@ public abstract class SCIMApplication extends Application {
   public Map<CustomInputValidator.Type, CustomInputValidator> getCustomConstraintValidators() {
     return Collections.emptyMap();
   }
+
+  /**
+   * Returns the profile used for writing JSON responses. The default is {@link SerializationProfile#PRETTY}, override to return
+   * {@link SerializationProfile#COMPACT} in order to omit the indentation of the responses.
+   *
+   * @return
+   */
+  public SerializationProfile getSerializationProfile() {
+    return SerializationProfile.PRETTY;
+  }
+
+  /**
+   * Enables the compression of responses with gzip or deflate, as accepted by the Accept-Encoding header of the request, and the
+   * decompression of requests sent with a Content-Encoding header. The default is null, which disables both, e.g. because a proxy in front
+   * of the application compresses already.
+   *
+   * @return
+   */
+  public CompressionSettings getCompressionSettings() {
+    return null;
+  }
+
+  /**
+   * Enables the paging of list responses with the {@code cursor} parameter. Every page returns a signed {@code nextCursor}, which is
+   * passed to the {@link UsersCallback} and {@link GroupsCallback} as {@link com.sap.scimono.entity.paging.PageInfo#getCursor()} of the
+   * following page. The default is null, which rejects requests with a cursor, since the callbacks have to support the continuation after
+   * the position of the cursor.
+   *
+   * @return
+   */
+  public CursorSettings getCursorSettings() {
+    return null;
+  }
+
+  /**
+   * Returns the compiler of the filters passed to {@link UsersCallback} and {@link GroupsCallback}. The default compiler caches
+   * {@link QueryFilterCompiler#DEFAULT_CACHE_SIZE} filter structures and parses with LL prediction only, override to change the cache size
+   * or to enable two-stage SLL/LL parsing.
+   *
+   * @return
+   */
+  public QueryFilterCompiler getQueryFilterCompiler() {
+    return QueryFilterCompiler.getDefault();
+  }
+
+  /**
+   * Returns the cache of the frameworks validating PATCH requests, which are prepared once per version of the schemas and shared between
+   * requests. The default cache keeps {@link PatchValidationFrameworkCache#DEFAULT_CACHE_SIZE} frameworks, override to change the size.
+   * Frameworks are only reused if the {@link #getSchemasCallback()} keeps its attribute index between requests, see
+   * {@link com.sap.scimono.callback.schemas.CachingSchemasCallback}.
+   *
+   * @return a PatchValidationFrameworkCache shared by all requests
+   */
+  public PatchValidationFrameworkCache getPatchValidationFrameworkCache() {
+    return PatchValidationFrameworkCache.getDefault();
+  }
 }
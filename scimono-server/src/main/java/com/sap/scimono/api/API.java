@@ -14,5 +14,8 @@ public interface API {
   String START_INDEX_PARAM = "startIndex";
   String START_ID_PARAM = "startId";
   String COUNT_PARAM = "count";
+  String SORT_BY_PARAM = "sortBy";
+  String SORT_ORDER_PARAM = "sortOrder";
+  String CURSOR_PARAM = "cursor";
   String APPLICATION_JSON_SCIM = "application/scim+json";
 }
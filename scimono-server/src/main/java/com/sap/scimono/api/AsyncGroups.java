@@ -0,0 +1,119 @@
+
+package com.sap.scimono.api;
+
+import static com.sap.scimono.api.API.APPLICATION_JSON_SCIM;
+import static com.sap.scimono.api.API.ATTRIBUTES_PARAM;
+import static com.sap.scimono.api.API.COUNT_PARAM;
+import static com.sap.scimono.api.API.CURSOR_PARAM;
+import static com.sap.scimono.api.API.EXCLUDED_ATTRIBUTES_PARAM;
+import static com.sap.scimono.api.API.FILTER_PARAM;
+import static com.sap.scimono.api.API.SORT_BY_PARAM;
+import static com.sap.scimono.api.API.SORT_ORDER_PARAM;
+import static com.sap.scimono.api.API.GROUPS;
+import static com.sap.scimono.api.API.START_ID_PARAM;
+import static com.sap.scimono.api.API.START_INDEX_PARAM;
+import static com.sap.scimono.entity.paging.PagedByIndexSearchResult.DEFAULT_COUNT;
+import static com.sap.scimono.entity.paging.PagedByIndexSearchResult.DEFAULT_START_INDEX;
+
+import javax.validation.Valid;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.UriInfo;
+
+import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.api.patch.PATCH;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.schema.validation.ValidStartId;
+
+/**
+ * The groups resource registered instead of {@link Groups} when the application provides
+ * {@link SCIMApplication#getAsyncGroupsCallback()}. Requests are suspended until the callback completes, which requires a container
+ * supporting asynchronous processing, e.g. a servlet with {@code async-supported} enabled.
+ */
+@Path(GROUPS)
+@Produces(APPLICATION_JSON_SCIM)
+@Consumes(APPLICATION_JSON_SCIM)
+@ServletRequestProvider
+public class AsyncGroups {
+  private final Groups groups;
+
+  public AsyncGroups(@Context Application appContext, @Context UriInfo uriInfo) {
+    SCIMApplication scimApplication = SCIMApplication.from(appContext);
+    groups = new Groups(scimApplication, uriInfo, scimApplication.getAsyncGroupsCallback());
+  }
+
+  @GET
+  @Path("{id}")
+  @ConditionalRequestProvider
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
+  // @formatter:off
+  public void getGroup(@PathParam("id") final String groupId,
+                       @QueryParam(ATTRIBUTES_PARAM) final String attributes,
+                       @QueryParam(FILTER_PARAM) final String filter,
+                       @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes,
+                       @Suspended final AsyncResponse asyncResponse) {
+    // @formatter:on
+    AsyncResponses.resume(asyncResponse, () -> groups.getGroupAsync(groupId, attributes, filter, excludedAttributes));
+  }
+
+  @GET
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
+  // @formatter:off
+  public void getGroups(@QueryParam(START_INDEX_PARAM) @DefaultValue(DEFAULT_START_INDEX) String startIndexParam,
+                        @QueryParam(COUNT_PARAM) @DefaultValue(DEFAULT_COUNT) String countParam,
+                        @QueryParam(START_ID_PARAM) @ValidStartId String startId,
+                        @QueryParam(FILTER_PARAM) final String filter,
+                        @QueryParam(ATTRIBUTES_PARAM) final String attributes,
+                        @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes,
+                        @QueryParam(SORT_BY_PARAM) final String sortBy,
+                        @QueryParam(SORT_ORDER_PARAM) final String sortOrder,
+                        @QueryParam(CURSOR_PARAM) final String cursor,
+                        @Suspended final AsyncResponse asyncResponse) {
+    // @formatter:on
+    AsyncResponses.resume(asyncResponse, () -> groups.getGroupsAsync(startIndexParam, countParam, startId, filter, attributes,
+        excludedAttributes, sortBy, sortOrder, cursor));
+  }
+
+  @POST
+  @ResourceLocationProvider
+  public void createGroup(@Valid Group newGroup, @Suspended final AsyncResponse asyncResponse) {
+    AsyncResponses.resume(asyncResponse, () -> groups.createGroupAsync(newGroup));
+  }
+
+  @PUT
+  @Path("{id}")
+  @ConditionalRequestProvider
+  @ResourceLocationProvider
+  public void updateGroup(@PathParam("id") final String groupId, @Valid Group groupToUpdate, @Suspended final AsyncResponse asyncResponse) {
+    AsyncResponses.resume(asyncResponse, () -> groups.updateGroupAsync(groupId, groupToUpdate));
+  }
+
+  @DELETE
+  @Path("{id}")
+  @ConditionalRequestProvider
+  public void deleteGroup(@PathParam("id") final String groupId, @Suspended final AsyncResponse asyncResponse) {
+    AsyncResponses.resume(asyncResponse, () -> groups.deleteGroupAsync(groupId));
+  }
+
+  @PATCH
+  @Path("{id}")
+  @ConditionalRequestProvider
+  public void patchGroup(@PathParam("id") final String groupId, final PatchBody patchBody, @Suspended final AsyncResponse asyncResponse) {
+    AsyncResponses.resume(asyncResponse, () -> groups.patchGroupAsync(groupId, patchBody));
+  }
+}
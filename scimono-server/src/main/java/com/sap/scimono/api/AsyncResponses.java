@@ -0,0 +1,120 @@
+package com.sap.scimono.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+
+/**
+ * Builds the responses of resource methods from the results of asynchronous callbacks, and resumes suspended requests with them.
+ */
+class AsyncResponses {
+
+  private AsyncResponses() {
+  }
+
+  /**
+   * Builds the response once the stage completes. If the response builder fails, a result holding resources, e.g. a
+   * {@link com.sap.scimono.entity.paging.StreamedResult}, is closed before the stage completes exceptionally.
+   *
+   * @param result the result of the callback
+   * @param responseBuilder builds the response from the result, called on the thread completing the stage
+   * @return the stage completing with the response, or with the exception the result or the response builder failed with
+   */
+  static <T> CompletionStage<Response> respond(final CompletionStage<T> result, final Function<? super T, Response> responseBuilder) {
+    return result.thenApply(value -> {
+      try {
+        return responseBuilder.apply(value);
+      } catch (RuntimeException | Error e) {
+        closeQuietly(value, e);
+        throw e;
+      }
+    });
+  }
+
+  /**
+   * Waits for the response of a synchronous resource method. Exceptions the stage failed with are rethrown as they are, so that they
+   * are mapped to error responses by the exception mappers of the application.
+   *
+   * @param response the response built by {@link #respond(CompletionStage, Function)}
+   * @return the response
+   */
+  static Response join(final CompletionStage<Response> response) {
+    try {
+      return response.toCompletableFuture().join();
+    } catch (CompletionException e) {
+      Throwable failure = unwrap(e);
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Resumes the suspended request once the response of the resource method is built, or with the exception the resource method failed
+   * with. Exceptions are mapped to error responses by the exception mappers of the application, in the same way as exceptions thrown by
+   * a synchronous resource method.
+   * <p>
+   * The servlet request bound by {@link ServletRequestProviderFilter} is removed from the request thread when the resource method
+   * returns, and bound to the thread resuming the request until the response is written, so that the response filters can read it.
+   *
+   * @param asyncResponse the suspended request
+   * @param resourceMethod starts building the response, called on the request thread
+   */
+  static void resume(final AsyncResponse asyncResponse, final Supplier<CompletionStage<Response>> resourceMethod) {
+    HttpServletRequest servletRequest = ContextResolver.resolve(request -> request);
+    CompletionStage<Response> response;
+    try {
+      response = resourceMethod.get();
+    } catch (RuntimeException e) {
+      CompletableFuture<Response> failedResponse = new CompletableFuture<>();
+      failedResponse.completeExceptionally(e);
+      response = failedResponse;
+    } finally {
+      // the response filters run on the resuming thread, so the binding would otherwise stay on the request thread
+      ContextResolver.remove();
+    }
+
+    response.whenComplete((builtResponse, failure) -> {
+      HttpServletRequest callerRequest = ContextResolver.resolve(request -> request);
+      ContextResolver.bind(servletRequest);
+      try {
+        if (failure == null) {
+          asyncResponse.resume(builtResponse);
+        } else {
+          asyncResponse.resume(unwrap(failure));
+        }
+      } finally {
+        if (callerRequest == null) {
+          ContextResolver.remove();
+        } else {
+          ContextResolver.bind(callerRequest);
+        }
+      }
+    });
+  }
+
+  private static void closeQuietly(final Object value, final Throwable failure) {
+    if (!(value instanceof AutoCloseable)) {
+      return;
+    }
+    try {
+      ((AutoCloseable) value).close();
+    } catch (Exception e) {
+      failure.addSuppressed(e);
+    }
+  }
+
+  private static Throwable unwrap(final Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+  }
+}
@@ -0,0 +1,135 @@
+
+package com.sap.scimono.api;
+
+import static com.sap.scimono.api.API.APPLICATION_JSON_SCIM;
+import static com.sap.scimono.api.API.ATTRIBUTES_PARAM;
+import static com.sap.scimono.api.API.COUNT_PARAM;
+import static com.sap.scimono.api.API.CURSOR_PARAM;
+import static com.sap.scimono.api.API.EXCLUDED_ATTRIBUTES_PARAM;
+import static com.sap.scimono.api.API.FILTER_PARAM;
+import static com.sap.scimono.api.API.SORT_BY_PARAM;
+import static com.sap.scimono.api.API.SORT_ORDER_PARAM;
+import static com.sap.scimono.api.API.START_ID_PARAM;
+import static com.sap.scimono.api.API.START_INDEX_PARAM;
+import static com.sap.scimono.api.API.USERS;
+import static com.sap.scimono.entity.paging.PagedByIndexSearchResult.DEFAULT_COUNT;
+import static com.sap.scimono.entity.paging.PagedByIndexSearchResult.DEFAULT_START_INDEX;
+
+import javax.validation.Valid;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.UriInfo;
+
+import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.api.patch.PATCH;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.schema.validation.ValidStartId;
+
+/**
+ * The users resource registered instead of {@link Users} when the application provides
+ * {@link SCIMApplication#getAsyncUsersCallback()}. Requests are suspended until the callback completes, which requires a container
+ * supporting asynchronous processing, e.g. a servlet with {@code async-supported} enabled.
+ */
+@Path(USERS)
+@Produces(APPLICATION_JSON_SCIM)
+@Consumes(APPLICATION_JSON_SCIM)
+@ServletRequestProvider
+public class AsyncUsers {
+  private final Users users;
+
+  public AsyncUsers(@Context final Application appContext, @Context final UriInfo uriInfo) {
+    SCIMApplication scimApplication = SCIMApplication.from(appContext);
+    users = new Users(scimApplication, uriInfo, scimApplication.getAsyncUsersCallback());
+  }
+
+  @GET
+  @Path("/Me")
+  public void getMe(@Context final SecurityContext sec, @Suspended final AsyncResponse asyncResponse) {
+    AsyncResponses.resume(asyncResponse, () -> users.getMeAsync(sec));
+  }
+
+  @GET
+  @Path("{id}")
+  @ConditionalRequestProvider
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
+  // @formatter:off
+  public void getUser(@PathParam("id")  final String userId,
+                      @QueryParam(FILTER_PARAM) final String filter,
+                      @QueryParam(ATTRIBUTES_PARAM) final String attributes,
+                      @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes,
+                      @Suspended final AsyncResponse asyncResponse) {
+    // @formatter:on
+    AsyncResponses.resume(asyncResponse, () -> users.getUserAsync(userId, filter, attributes, excludedAttributes));
+  }
+
+  @GET
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
+  // @formatter:off
+  public void getUsers(@QueryParam(START_INDEX_PARAM) @DefaultValue(DEFAULT_START_INDEX)  String startIndexParam,
+                       @QueryParam(COUNT_PARAM) @DefaultValue(DEFAULT_COUNT) String countParam,
+                       @QueryParam(START_ID_PARAM) @ValidStartId final String startId,
+                       @QueryParam(FILTER_PARAM) final String filter,
+                       @QueryParam(ATTRIBUTES_PARAM) final String attributes,
+                       @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes,
+                       @QueryParam(SORT_BY_PARAM) final String sortBy,
+                       @QueryParam(SORT_ORDER_PARAM) final String sortOrder,
+                       @QueryParam(CURSOR_PARAM) final String cursor,
+                       @Suspended final AsyncResponse asyncResponse) {
+    // @formatter:on
+    AsyncResponses.resume(asyncResponse, () -> users.getUsersAsync(startIndexParam, countParam, startId, filter, attributes,
+        excludedAttributes, sortBy, sortOrder, cursor));
+  }
+
+  @POST
+  @ResourceLocationProvider
+  public void createUser(@Valid final User newUser, @Suspended final AsyncResponse asyncResponse) {
+    AsyncResponses.resume(asyncResponse, () -> users.createUserAsync(newUser));
+  }
+
+  @PUT
+  @Path("{id}")
+  @ConditionalRequestProvider
+  @ResourceLocationProvider
+  public void updateUser(@PathParam("id") final String userId, @Valid final User userToUpdate,
+      @Suspended final AsyncResponse asyncResponse) {
+    AsyncResponses.resume(asyncResponse, () -> users.updateUserAsync(userId, userToUpdate));
+  }
+
+  @DELETE
+  @Path("{id}")
+  @ConditionalRequestProvider
+  public void deleteUser(@PathParam("id") final String userId, @Suspended final AsyncResponse asyncResponse) {
+    AsyncResponses.resume(asyncResponse, () -> users.deleteUserAsync(userId));
+  }
+
+  @PATCH
+  @Path("{id}")
+  @ConditionalRequestProvider
+  public void patchUser(@PathParam("id") final String userId, final PatchBody patchBody, @Suspended final AsyncResponse asyncResponse) {
+    AsyncResponses.resume(asyncResponse, () -> users.patchUserAsync(userId, patchBody));
+  }
+
+  @POST
+  @Path(".query")
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
+  public void queryUsers(@Suspended final AsyncResponse asyncResponse) {
+    getUsers("0", "0", null, null, null, null, null, null, null, asyncResponse);
+  }
+}
@@ -0,0 +1,45 @@
+package com.sap.scimono.api;
+
+import static com.sap.scimono.api.API.ATTRIBUTES_PARAM;
+import static com.sap.scimono.api.API.EXCLUDED_ATTRIBUTES_PARAM;
+
+import java.io.IOException;
+
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import com.sap.scimono.api.request.AttributeProjections;
+
+/**
+ * Binds the {@link AttributeProjections} of the request to the thread writing the response, so that only the requested attributes of the
+ * written users and groups are serialized, even if the callbacks return complete resources.
+ */
+@Provider
+@AttributeProjectionProvider
+public class AttributeProjectionInterceptor implements WriterInterceptor {
+
+  @Context
+  private UriInfo uriInfo;
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    MultivaluedMap<String, String> queryParameters = uriInfo.getQueryParameters();
+    String attributes = queryParameters.getFirst(ATTRIBUTES_PARAM);
+    String excludedAttributes = queryParameters.getFirst(EXCLUDED_ATTRIBUTES_PARAM);
+    if (attributes == null && excludedAttributes == null) {
+      context.proceed();
+      return;
+    }
+
+    AttributeProjections.bind(new AttributeProjections(attributes, excludedAttributes));
+    try {
+      context.proceed();
+    } finally {
+      AttributeProjections.remove();
+    }
+  }
+}
@@ -7,27 +7,36 @@ import static com.sap.scimono.api.API.GROUPS;
 import static com.sap.scimono.api.API.USERS;
 import static com.sap.scimono.entity.Group.RESOURCE_TYPE_GROUP;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sap.scimono.SCIMApplication;
-import com.sap.scimono.api.helper.ObjectMapperFactory;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
 import com.sap.scimono.api.helper.ScimErrorResponseParser;
 import com.sap.scimono.api.preprocessor.ResourcePreProcessor;
+import com.sap.scimono.callback.bulk.BulkJobService;
 import com.sap.scimono.callback.bulk.BulkRequestCallback;
+import com.sap.scimono.callback.bulk.StreamingBulkRequestCallback;
 import com.sap.scimono.callback.config.SCIMConfigurationCallback;
 import com.sap.scimono.callback.groups.GroupsCallback;
 import com.sap.scimono.callback.resourcetype.ResourceTypesCallback;
@@ -37,14 +46,17 @@ import com.sap.scimono.entity.Group;
 import com.sap.scimono.entity.Meta;
 import com.sap.scimono.entity.User;
 import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.BulkJob;
+import com.sap.scimono.entity.bulk.BulkRequestReader;
 import com.sap.scimono.entity.bulk.BulkResponseOperationLocationService;
 import com.sap.scimono.entity.bulk.RequestOperation;
 import com.sap.scimono.entity.bulk.ResponseOperation;
 import com.sap.scimono.entity.bulk.validation.BulkOperationsValidator;
-import com.sap.scimono.entity.bulk.validation.ValidBulkRequest;
 import com.sap.scimono.entity.patch.PatchBody;
 import com.sap.scimono.entity.validation.patch.PatchValidationFramework;
+import com.sap.scimono.entity.validation.patch.PatchValidationFrameworkCache;
 import com.sap.scimono.exception.InternalScimonoException;
+import com.sap.scimono.exception.ResourceNotFoundException;
 import com.sap.scimono.helper.ResourceLocationService;
 
 @Path(BULK)
@@ -53,8 +65,16 @@ import com.sap.scimono.helper.ResourceLocationService;
 @ServletRequestProvider
 public class Bulk {
 
-  private static final ObjectMapper JSON_OBJECT_MAPPER = ObjectMapperFactory.createObjectMapper();
+  private static final ObjectMapperRegistry JSON_MAPPERS = ObjectMapperRegistry.getDefault();
+  private static final String PREFER_HEADER = "Prefer";
+  private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
+  private static final String RESPOND_ASYNC_PREFERENCE = "respond-async";
+  private static final String RESOURCE_TYPE_BULK_JOB = "Bulk job";
+
   private final BulkRequestCallback bulkAPI;
+  private final BulkJobService bulkJobService;
+  private final Executor preprocessingExecutor;
+  private final UriInfo uriInfo;
 
   private final ResourcePreProcessor<User> userPreProcessor;
   private final ResourcePreProcessor<Group> groupPreProcessor;
@@ -66,11 +86,16 @@ public class Bulk {
   private final ResourceLocationService groupsLocationService;
 
   private final SCIMConfigurationCallback scimConfigurationCallback;
+  private final ObjectMapperRegistry responseMappers;
 
   public Bulk(@Context final Application appContext, @Context final UriInfo uriInfo) {
     SCIMApplication scimApplication = SCIMApplication.from(appContext);
     bulkAPI = scimApplication.getBulkRequestCallback();
+    bulkJobService = scimApplication.getBulkJobService();
+    preprocessingExecutor = scimApplication.getBulkPreprocessingExecutor();
+    this.uriInfo = uriInfo;
     scimConfigurationCallback = scimApplication.getConfigurationCallback();
+    responseMappers = ObjectMapperRegistry.forProfile(scimApplication.getSerializationProfile());
 
     usersLocationService = new ResourceLocationService(uriInfo, scimConfigurationCallback, USERS);
     groupsLocationService = new ResourceLocationService(uriInfo, scimConfigurationCallback, GROUPS);
@@ -84,39 +109,104 @@ public class Bulk {
     userPreProcessor = ResourcePreProcessor.forUsers(usersLocationService, usersAPI, resourceTypesAPI, schemasAPI);
     groupPreProcessor = ResourcePreProcessor.forGroups(groupsLocationService, groupsAPI, resourceTypesAPI, schemasAPI);
 
-    userPatchValidator = PatchValidationFramework.usersFramework(schemasAPI, resourceTypesAPI, usersAPI);
-    groupPatchValidator = PatchValidationFramework.groupsFramework(schemasAPI, resourceTypesAPI, groupsAPI);
+    PatchValidationFrameworkCache patchValidationFrameworks = scimApplication.getPatchValidationFrameworkCache();
+    userPatchValidator = patchValidationFrameworks.getUsersFramework(schemasAPI, resourceTypesAPI, usersAPI);
+    groupPatchValidator = patchValidationFrameworks.getGroupsFramework(schemasAPI, resourceTypesAPI, groupsAPI);
   }
 
   @POST
-  public Response handleBulkRequest(@ValidBulkRequest BulkBody<RequestOperation> bulkRequest) {
+  public Response handleBulkRequest(@HeaderParam(PREFER_HEADER) String prefer, InputStream requestBody,
+      @Context SecurityContext securityContext) throws IOException {
     BulkOperationsValidator operationsValidator = new BulkOperationsValidator(scimConfigurationCallback);
     BulkResponseOperationLocationService responseService = new BulkResponseOperationLocationService(usersLocationService, groupsLocationService);
-    List<RequestOperation> validatedOperations = operationsValidator.getValidBulkOperations(bulkRequest);
-    List<RequestOperation> formattedBulkOperations = normalizeRequestOperations(validatedOperations);
+    BulkRequestReader requestReader = new BulkRequestReader(JSON_MAPPERS.getObjectMapper(), operationsValidator);
+
+    BulkBody<RequestOperation> bulkRequest = preprocessingExecutor == null
+        ? requestReader.read(requestBody, this::normalizeRequestOperation)
+        : requestReader.read(requestBody, inRequestContext(this::normalizeRequestOperation), preprocessingExecutor);
+    if (bulkJobService != null && isAsyncPreferred(prefer)) {
+      BulkJob bulkJob = bulkJobService.submit(bulkRequest, bulkAPI, getPrincipalName(securityContext));
+      return Response.accepted(bulkJob).location(uriInfo.getAbsolutePathBuilder().path(bulkJob.getId()).build())
+          .header(PREFERENCE_APPLIED_HEADER, RESPOND_ASYNC_PREFERENCE).build();
+    }
+
+    if (bulkAPI instanceof StreamingBulkRequestCallback) {
+      HttpServletRequest servletRequest = ContextResolver.resolve(request -> request);
+      return Response.ok(new BulkResponseStreamingOutput((StreamingBulkRequestCallback) bulkAPI, bulkRequest, responseService::withLocation,
+          responseMappers.getStreamingWriter(), servletRequest)).build();
+    }
 
-    bulkRequest = BulkBody.forRequest(bulkRequest.getFailOnErrors(), formattedBulkOperations);
     BulkBody<ResponseOperation> bulkResponse = bulkAPI.handleBulkRequest(bulkRequest);
 
     bulkResponse = responseService.rebuildWithLocations(bulkResponse);
     return Response.ok().entity(bulkResponse).build();
   }
 
-  private List<RequestOperation> normalizeRequestOperations(List<RequestOperation> requestOperations) {
-    return requestOperations.stream().map(operation -> {
-      if (!operation.hasValidationError()) {
-        String resourceType = operation.getResourceType();
-        if (User.RESOURCE_TYPE_USER.equalsIgnoreCase(resourceType)) {
-          return prepareUserBulkOperation(operation);
-        }
+  @GET
+  @Path("{jobId}")
+  public Response getBulkJob(@PathParam("jobId") String jobId, @Context SecurityContext securityContext) {
+    BulkJob bulkJob = bulkJobService == null ? null : bulkJobService.getJob(jobId, getPrincipalName(securityContext));
+    if (bulkJob == null) {
+      throw new ResourceNotFoundException(RESOURCE_TYPE_BULK_JOB, jobId);
+    }
+
+    BulkResponseOperationLocationService responseService = new BulkResponseOperationLocationService(usersLocationService,
+        groupsLocationService);
+    List<ResponseOperation> operations = bulkJob.getResponse().getOperations().stream().map(responseService::withLocation)
+        .collect(Collectors.toList());
+    return Response.ok(bulkJob.withOperations(operations)).build();
+  }
+
+  private static String getPrincipalName(SecurityContext securityContext) {
+    return securityContext.getUserPrincipal() == null ? null : securityContext.getUserPrincipal().getName();
+  }
 
-        if (RESOURCE_TYPE_GROUP.equalsIgnoreCase(resourceType)) {
-          return prepareGroupBulkOperation(operation);
+  private static boolean isAsyncPreferred(String prefer) {
+    if (prefer == null) {
+      return false;
+    }
+    for (String preference : prefer.split(",")) {
+      if (RESPOND_ASYNC_PREFERENCE.equalsIgnoreCase(preference.trim())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static UnaryOperator<RequestOperation> inRequestContext(UnaryOperator<RequestOperation> operationProcessor) {
+    HttpServletRequest servletRequest = ContextResolver.resolve(request -> request);
+    return operation -> {
+      // the executor may run the operation on the request thread, which keeps its own binding
+      HttpServletRequest callerRequest = ContextResolver.resolve(request -> request);
+      ContextResolver.bind(servletRequest);
+      try {
+        return operationProcessor.apply(operation);
+      } finally {
+        if (callerRequest == null) {
+          ContextResolver.remove();
+        } else {
+          ContextResolver.bind(callerRequest);
         }
       }
+    };
+  }
 
+  private RequestOperation normalizeRequestOperation(RequestOperation operation) {
+    if (operation.hasValidationError()) {
       return operation;
-    }).collect(Collectors.toList());
+    }
+
+    String resourceType = operation.getResourceType();
+    RequestOperation normalizedOperation = operation;
+    if (User.RESOURCE_TYPE_USER.equalsIgnoreCase(resourceType)) {
+      normalizedOperation = prepareUserBulkOperation(operation);
+    } else if (RESOURCE_TYPE_GROUP.equalsIgnoreCase(resourceType)) {
+      normalizedOperation = prepareGroupBulkOperation(operation);
+    }
+
+    // the parsed data replaces the JSON tree of the operation
+    return normalizedOperation.getData() == normalizedOperation.getRawData() ? normalizedOperation
+        : normalizedOperation.builder().setRawData(null).build();
   }
 
   private RequestOperation prepareUserBulkOperation(RequestOperation operation) {
@@ -162,15 +252,15 @@ public class Bulk {
   }
 
   private Object parseAndPreprocessGroupData(PreProcessorExecutor<Group> preProcessor, RequestOperation reqOp) {
-    return parseAndPreprocessData(preProcessor, () -> JSON_OBJECT_MAPPER.treeToValue(reqOp.getRawData(), Group.class));
+    return parseAndPreprocessData(preProcessor, () -> JSON_MAPPERS.readerFor(Group.class).readValue(reqOp.getRawData()));
   }
 
   private Object parseAndPreprocessUserData(PreProcessorExecutor<User> preProcessor, RequestOperation reqOp) {
-    return parseAndPreprocessData(preProcessor, () -> JSON_OBJECT_MAPPER.treeToValue(reqOp.getRawData(), User.class));
+    return parseAndPreprocessData(preProcessor, () -> JSON_MAPPERS.readerFor(User.class).readValue(reqOp.getRawData()));
   }
 
   private Object parseAndPreprocessPatchData(PreProcessorExecutor<PatchBody> preProcessor, RequestOperation reqOp) {
-    return parseAndPreprocessData(preProcessor, () -> JSON_OBJECT_MAPPER.treeToValue(reqOp.getRawData(), PatchBody.class));
+    return parseAndPreprocessData(preProcessor, () -> JSON_MAPPERS.readerFor(PatchBody.class).readValue(reqOp.getRawData()));
   }
 
   private <T> Object parseAndPreprocessData(PreProcessorExecutor<T> preProcessor, JsonMappingExecutor<T> resourceMapping) {
@@ -202,6 +292,6 @@ public class Bulk {
   @FunctionalInterface
   private interface JsonMappingExecutor<T> {
 
-    T execute() throws JsonProcessingException;
+    T execute() throws IOException;
   }
 }
\ No newline at end of file
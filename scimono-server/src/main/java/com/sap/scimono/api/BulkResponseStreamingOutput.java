@@ -0,0 +1,104 @@
+package com.sap.scimono.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.UnaryOperator;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sap.scimono.callback.bulk.StreamingBulkRequestCallback;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+
+/**
+ * Executes a bulk request with a {@link StreamingBulkRequestCallback} while writing the bulk response. Every operation is decorated
+ * (e.g. with its location) and flushed as soon as the callback reports it, so the client receives the response in chunks and only the
+ * operations in progress are held in memory. The produced JSON has the same content as a {@link BulkBody} response, with the operations
+ * in the order of completion.
+ * <p>
+ * Since the response status is committed before the operations are executed, a failure of the callback results in an incomplete
+ * response body.
+ */
+class BulkResponseStreamingOutput implements StreamingOutput {
+  private static final String SCHEMAS_FIELD = "schemas";
+  private static final String OPERATIONS_FIELD = "Operations";
+
+  private final StreamingBulkRequestCallback bulkAPI;
+  private final BulkBody<RequestOperation> bulkRequest;
+  private final UnaryOperator<ResponseOperation> operationDecorator;
+  private final ObjectWriter objectWriter;
+  private final HttpServletRequest servletRequest;
+
+  /**
+   * @param servletRequest the request bound to the {@link ContextResolver} during the execution, the response filters remove it before
+   *          the response is written
+   */
+  BulkResponseStreamingOutput(StreamingBulkRequestCallback bulkAPI, BulkBody<RequestOperation> bulkRequest,
+      UnaryOperator<ResponseOperation> operationDecorator, ObjectWriter objectWriter, HttpServletRequest servletRequest) {
+    this.bulkAPI = bulkAPI;
+    this.bulkRequest = bulkRequest;
+    this.operationDecorator = operationDecorator;
+    this.objectWriter = objectWriter;
+    this.servletRequest = servletRequest;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    ContextResolver.bind(servletRequest);
+    try (JsonGenerator generator = objectWriter.createGenerator(output)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+      generator.writeStartObject();
+      generator.writeArrayFieldStart(SCHEMAS_FIELD);
+      generator.writeString(BulkBody.BULK_RESPONSE_SCHEMA);
+      generator.writeEndArray();
+      generator.flush();
+
+      OperationsWriter operationsWriter = new OperationsWriter(generator);
+      bulkAPI.handleBulkRequest(bulkRequest, (response, index) -> operationsWriter.write(response));
+      operationsWriter.close();
+
+      generator.writeEndObject();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      ContextResolver.remove();
+    }
+  }
+
+  /**
+   * Writes the operations array, which is omitted when there are no operations, in the same way as in {@link BulkBody}.
+   */
+  private class OperationsWriter {
+    private final JsonGenerator generator;
+    private int writtenOperations;
+
+    private OperationsWriter(JsonGenerator generator) {
+      this.generator = generator;
+    }
+
+    private void write(ResponseOperation operation) {
+      try {
+        if (writtenOperations == 0) {
+          generator.writeArrayFieldStart(OPERATIONS_FIELD);
+        }
+        objectWriter.writeValue(generator, operationDecorator.apply(operation));
+        generator.flush();
+        writtenOperations++;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private void close() throws IOException {
+      if (writtenOperations > 0) {
+        generator.writeEndArray();
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.sap.scimono.api;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.Provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.exception.SCIMException;
+
+/**
+ * Evaluates the If-None-Match header of reads and the If-Match header of modifications of a single user or group against the version of
+ * the resource, if ETags are supported, see
+ * {@link com.sap.scimono.callback.config.SCIMConfigurationCallback#getETagSupportedSetting()}. The version is read with
+ * {@link com.sap.scimono.callback.users.UsersCallback#getUserVersion(String)} or
+ * {@link com.sap.scimono.callback.groups.GroupsCallback#getGroupVersion(String)}, before the resource method is called:
+ * <ul>
+ * <li>a read with a matching If-None-Match header is answered with 304 (Not Modified), without reading the resource</li>
+ * <li>a modification with an If-Match header which does not match is rejected with 412 (Precondition Failed)</li>
+ * </ul>
+ * As defined by RFC 7232, If-None-Match uses the weak comparison, which compares the opaque values only, and If-Match uses the strong
+ * comparison, so a weak entity tag never matches a modification. If the resource does not exist, the request is passed to the resource
+ * method. Callbacks which need to protect against modifications between the check and the update have to compare the versions in their
+ * data source as well.
+ */
+@Provider
+@ConditionalRequestProvider
+public class ConditionalRequestFilter implements ContainerRequestFilter {
+  private static final Logger logger = LoggerFactory.getLogger(ConditionalRequestFilter.class);
+
+  private static final String ID_PARAM = "id";
+  private static final String ANY_ENTITY_TAG = "*";
+  private static final String WEAK_ENTITY_TAG_PREFIX = "W/";
+  private static final Pattern ENTITY_TAG_PATTERN = Pattern.compile("\\s*(?:(W/)?\"([^\"]*)\"|(\\*))\\s*(?:,|$)");
+
+  @Context
+  Application application;
+
+  @Context
+  UriInfo uriInfo;
+
+  @Context
+  ResourceInfo resourceInfo;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) throws IOException {
+    SCIMApplication scimApplication = SCIMApplication.from(application);
+    if (!scimApplication.getConfigurationCallback().getETagSupportedSetting()) {
+      return;
+    }
+
+    boolean isRead = HttpMethod.GET.equals(requestContext.getMethod()) || HttpMethod.HEAD.equals(requestContext.getMethod());
+    String entityTags = requestContext.getHeaderString(isRead ? HttpHeaders.IF_NONE_MATCH : HttpHeaders.IF_MATCH);
+    if (entityTags == null) {
+      return;
+    }
+
+    String resourceId = uriInfo.getPathParameters().getFirst(ID_PARAM);
+    Optional<String> version = getVersion(scimApplication, resourceInfo.getResourceClass(), resourceId);
+    if (!version.isPresent()) {
+      return;
+    }
+
+    boolean matches = matches(entityTags, version.get(), isRead);
+    if (isRead && matches) {
+      logger.trace("Resource {} is not modified, version is {}", resourceId, version.get());
+      requestContext.abortWith(Response.notModified(new EntityTag(version.get())).build());
+    } else if (!isRead && !matches) {
+      logger.trace("Resource {} was modified, version is {}", resourceId, version.get());
+      String message = String.format("The If-Match header does not match the current version %s of the resource %s by strong comparison",
+          new EntityTag(version.get()), resourceId);
+      throw new SCIMException(SCIMException.Type.INVALID_VERSION, message, Response.Status.PRECONDITION_FAILED);
+    }
+  }
+
+  private static Optional<String> getVersion(final SCIMApplication scimApplication, final Class<?> resourceClass, final String resourceId) {
+    if (resourceId == null) {
+      return Optional.empty();
+    }
+    if (Users.class.equals(resourceClass) || AsyncUsers.class.equals(resourceClass)) {
+      return scimApplication.getUsersCallback().getUserVersion(resourceId);
+    }
+    if (Groups.class.equals(resourceClass) || AsyncGroups.class.equals(resourceClass)) {
+      return scimApplication.getGroupsCallback().getGroupVersion(resourceId);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * @param entityTags value of an If-None-Match or If-Match header, a list of entity tags or {@code *}
+   * @param version the current version of the resource, a strong entity tag
+   * @param weakComparison whether weak entity tags may match, false for the strong comparison of If-Match
+   * @return whether one of the entity tags matches the version, false if the header is malformed
+   */
+  static boolean matches(final String entityTags, final String version, final boolean weakComparison) {
+    Matcher matcher = ENTITY_TAG_PATTERN.matcher(entityTags);
+    int end = 0;
+    boolean matches = false;
+    while (end < entityTags.length() && matcher.find(end) && matcher.start() == end) {
+      boolean comparable = weakComparison || !WEAK_ENTITY_TAG_PREFIX.equals(matcher.group(1));
+      matches |= ANY_ENTITY_TAG.equals(matcher.group(3)) || comparable && version.equals(matcher.group(2));
+      end = matcher.end();
+    }
+    return matches && end == entityTags.length();
+  }
+}
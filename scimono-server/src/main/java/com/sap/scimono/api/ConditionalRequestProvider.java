@@ -0,0 +1,19 @@
+package com.sap.scimono.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.ws.rs.NameBinding;
+
+/**
+ * Marks the resource methods on a single user or group which evaluate the If-None-Match and If-Match headers before the resource is
+ * read or modified, see {@link ConditionalRequestFilter}.
+ */
+@NameBinding
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface ConditionalRequestProvider {
+
+}
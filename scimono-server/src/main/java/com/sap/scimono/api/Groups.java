@@ -4,8 +4,11 @@ package com.sap.scimono.api;
 import static com.sap.scimono.api.API.APPLICATION_JSON_SCIM;
 import static com.sap.scimono.api.API.ATTRIBUTES_PARAM;
 import static com.sap.scimono.api.API.COUNT_PARAM;
+import static com.sap.scimono.api.API.CURSOR_PARAM;
 import static com.sap.scimono.api.API.EXCLUDED_ATTRIBUTES_PARAM;
 import static com.sap.scimono.api.API.FILTER_PARAM;
+import static com.sap.scimono.api.API.SORT_BY_PARAM;
+import static com.sap.scimono.api.API.SORT_ORDER_PARAM;
 import static com.sap.scimono.api.API.GROUPS;
 import static com.sap.scimono.api.API.START_ID_PARAM;
 import static com.sap.scimono.api.API.START_INDEX_PARAM;
@@ -14,9 +17,11 @@ import static com.sap.scimono.entity.paging.PagedByIndexSearchResult.DEFAULT_COU
 import static com.sap.scimono.entity.paging.PagedByIndexSearchResult.DEFAULT_START_INDEX;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import javax.validation.Valid;
 import javax.ws.rs.Consumes;
@@ -38,23 +43,33 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
 import com.sap.scimono.api.patch.PATCH;
 import com.sap.scimono.api.preprocessor.ResourcePreProcessor;
+import com.sap.scimono.api.request.RequestedResourceAttributes;
 import com.sap.scimono.api.request.RequestedResourceAttributesParser;
 import com.sap.scimono.callback.config.SCIMConfigurationCallback;
+import com.sap.scimono.callback.groups.AsyncGroupsCallback;
 import com.sap.scimono.callback.groups.GroupsCallback;
 import com.sap.scimono.callback.resourcetype.ResourceTypesCallback;
 import com.sap.scimono.callback.schemas.SchemasCallback;
 import com.sap.scimono.entity.Group;
 import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.paging.PageCursor;
 import com.sap.scimono.entity.paging.PageInfo;
-import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.SortInfo;
+import com.sap.scimono.entity.paging.StreamedResult;
 import com.sap.scimono.entity.patch.PatchBody;
 import com.sap.scimono.entity.schema.validation.ValidStartId;
 import com.sap.scimono.entity.validation.patch.PatchValidationFramework;
+import com.sap.scimono.entity.validation.patch.PatchValidationFrameworkCache;
 import com.sap.scimono.exception.InvalidInputException;
 import com.sap.scimono.exception.ResourceNotFoundException;
+import com.sap.scimono.filter.QueryFilter;
+import com.sap.scimono.filter.QueryFilterCompiler;
+import com.sap.scimono.filter.predicate.SortComparators;
 import com.sap.scimono.helper.ResourceLocationService;
+import com.sap.scimono.helper.Strings;
 
 @Path(API.GROUPS)
 @Produces(APPLICATION_JSON_SCIM)
@@ -64,54 +79,89 @@ public class Groups {
   private static final Logger logger = LoggerFactory.getLogger(Groups.class);
 
   private final GroupsCallback groupAPI;
+  private final AsyncGroupsCallback asyncGroupAPI;
   private final SchemasCallback schemaAPI;
   private final ResourceTypesCallback resourceTypesAPI;
   private final SCIMConfigurationCallback scimConfig;
   private final ResourceLocationService resourceLocationService;
   private final ResourcePreProcessor<Group> groupPreProcessor;
+  private final ObjectMapperRegistry jsonMappers;
+  private final QueryFilterCompiler filterCompiler;
+  private final PageCursorCodec cursorCodec;
+  private final PatchValidationFrameworkCache patchValidationFrameworks;
 
   private static final String NOT_VALID_INPUTS = "One of the request inputs is not valid.";
 
   public Groups(@Context Application appContext, @Context UriInfo uriInfo) {
-    SCIMApplication scimApplication = SCIMApplication.from(appContext);
+    this(SCIMApplication.from(appContext), uriInfo, null);
+  }
 
+  /**
+   * @param asyncGroupsCallback the callback of {@link AsyncGroups}, or null to call the groups callback of the application
+   */
+  Groups(SCIMApplication scimApplication, UriInfo uriInfo, AsyncGroupsCallback asyncGroupsCallback) {
     groupAPI = scimApplication.getGroupsCallback();
+    asyncGroupAPI = asyncGroupsCallback == null ? AsyncGroupsCallback.of(groupAPI) : asyncGroupsCallback;
     schemaAPI = scimApplication.getSchemasCallback();
     resourceTypesAPI = scimApplication.getResourceTypesCallback();
     scimConfig = scimApplication.getConfigurationCallback();
     resourceLocationService = new ResourceLocationService(uriInfo, scimConfig, GROUPS);
     groupPreProcessor = ResourcePreProcessor.forGroups(resourceLocationService, groupAPI, resourceTypesAPI, schemaAPI);
+    jsonMappers = ObjectMapperRegistry.forProfile(scimApplication.getSerializationProfile());
+    filterCompiler = scimApplication.getQueryFilterCompiler();
+    cursorCodec = PageCursorCodec.of(scimApplication.getCursorSettings());
+    patchValidationFrameworks = scimApplication.getPatchValidationFrameworkCache();
   }
 
   @GET
   @Path("{id}")
+  @ConditionalRequestProvider
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
   // @formatter:off
   public Response getGroup(@PathParam("id") final String groupId,
                            @QueryParam(ATTRIBUTES_PARAM) final String attributes,
                            @QueryParam(FILTER_PARAM) final String filter,
                            @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes) {
     // @formatter:on
+    return AsyncResponses.join(getGroupAsync(groupId, attributes, filter, excludedAttributes));
+  }
+
+  CompletionStage<Response> getGroupAsync(final String groupId, final String attributes, final String filter,
+      final String excludedAttributes) {
     logger.trace("Reading group {}", groupId);
-    Group groupFromDb = groupAPI.getGroup(groupId, RequestedResourceAttributesParser.parse(attributes, excludedAttributes), filter);
+    RequestedResourceAttributes requestedAttributes = RequestedResourceAttributesParser.parse(Group.SCHEMA, attributes, excludedAttributes);
 
-    if (groupFromDb == null) {
-      throw new ResourceNotFoundException(RESOURCE_TYPE_GROUP, groupId);
-    }
+    return AsyncResponses.respond(asyncGroupAPI.getGroup(groupId, requestedAttributes, filter), groupFromDb -> {
+      if (groupFromDb == null) {
+        throw new ResourceNotFoundException(RESOURCE_TYPE_GROUP, groupId);
+      }
 
-    Group group = resourceLocationService.addLocation(groupFromDb, groupId);
-    group = resourceLocationService.addMembersLocation(group);
-    return Response.ok(group).tag(group.getMeta().getVersion()).location(resourceLocationService.getLocation(groupId)).build();
+      return Response.ok(groupFromDb).tag(getVersion(groupFromDb)).location(resourceLocationService.getLocation(groupId)).build();
+    });
   }
 
   @GET
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
   // @formatter:off
   public Response getGroups(@QueryParam(START_INDEX_PARAM) @DefaultValue(DEFAULT_START_INDEX) String startIndexParam,
                             @QueryParam(COUNT_PARAM) @DefaultValue(DEFAULT_COUNT) String countParam,
                             @QueryParam(START_ID_PARAM) @ValidStartId String startId,
                             @QueryParam(FILTER_PARAM) final String filter,
                             @QueryParam(ATTRIBUTES_PARAM) final String attributes,
-                            @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes) {
+                            @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes,
+                            @QueryParam(SORT_BY_PARAM) final String sortBy,
+                            @QueryParam(SORT_ORDER_PARAM) final String sortOrder,
+                           @QueryParam(CURSOR_PARAM) final String cursor) {
     // @formatter:on
+    return AsyncResponses.join(getGroupsAsync(startIndexParam, countParam, startId, filter, attributes, excludedAttributes, sortBy,
+        sortOrder, cursor));
+  }
+
+  CompletionStage<Response> getGroupsAsync(final String startIndexParam, final String countParam, final String startId,
+      final String filter, final String attributes, final String excludedAttributes, final String sortBy, final String sortOrder,
+      final String cursor) {
     logger.trace("Reading groups with paging parameters startIndex {} startId {} count {}", startIndexParam, startId, countParam);
 
     int startIndex = PagingParamsParser.parseStartIndex(startIndexParam);
@@ -123,87 +173,157 @@ public class Groups {
       count = maxCount;
     }
 
-    PageInfo pageInfo = PageInfo.getInstance(count, startIndex - 1, startId);
-    PagedResult<Group> groups = groupAPI.getGroups(pageInfo, filter, RequestedResourceAttributesParser.parse(attributes, excludedAttributes));
+    SortInfo sortInfo = null;
+    if (scimConfig.getSortSupportedSetting()) {
+      sortInfo = SortParamsParser.parse(Group.SCHEMA, sortBy, sortOrder, schemaAPI);
+    }
 
-    List<Group> groupsToReturn = new ArrayList<>();
-    for (Group group : groups.getResources()) {
-      group = resourceLocationService.addLocation(group, group.getId());
-      group = resourceLocationService.addMembersLocation(group);
-      groupsToReturn.add(group);
+    if (cursor != null) {
+      return getGroupsPage(cursor, startId, count, filter, sortInfo, attributes, excludedAttributes);
     }
+    if (count == 0 && Strings.isNullOrEmpty(startId)) {
+      return getGroupsCount(filter, startIndex);
+    }
+
+    int requestedCount = count;
+    PageInfo pageInfo = PageInfo.getInstance(count, startIndex - 1, startId, sortInfo);
+    CompletionStage<StreamedResult<Group>> page = asyncGroupAPI.streamGroups(pageInfo, QueryFilter.of(filter, filterCompiler),
+        RequestedResourceAttributesParser.parse(Group.SCHEMA, attributes, excludedAttributes));
+
+    return AsyncResponses.respond(page,
+        groups -> ListResponseBuilder.forGroups(groups, UnaryOperator.identity(), jsonMappers.getStreamingWriter())
+            .withPagingStartParameters(startId, startIndex)
+            .withRequestedCount(PagingParamsParser.getExtendedCountOrDefault(groups.getCount(), requestedCount))
+            .withTotalResultsCount(groups.getTotalResourceCount(), groups.getTotalResultsAccuracy())
+            .build());
+  }
+
+  private CompletionStage<Response> getGroupsCount(final String filter, final int startIndex) {
+    return AsyncResponses.respond(asyncGroupAPI.countGroups(QueryFilter.of(filter, filterCompiler)), count -> {
+      // an estimated count is answered as it is, there are no listed resources to correct it with
+      int totalResults = count.getValue();
+      StreamedResult<Group> noGroups = new StreamedResult<>(totalResults, Stream.empty());
+
+      return ListResponseBuilder.forGroups(noGroups, UnaryOperator.identity(), jsonMappers.getStreamingWriter())
+          .withPagingStartParameters(null, startIndex)
+          .withRequestedCount(0)
+          .withTotalResultsCount(totalResults)
+          .build();
+    });
+  }
+
+  private CompletionStage<Response> getGroupsPage(final String cursor, final String startId, final int count, final String filter,
+      final SortInfo sortInfo, final String attributes, final String excludedAttributes) {
+    if (cursorCodec == null) {
+      throw new InvalidInputException("Paging with a cursor is not supported");
+    }
+    if (!Strings.isNullOrEmpty(startId)) {
+      throw new InvalidInputException("The parameters cursor and startId must not be combined");
+    }
+
+    String query = PageCursorCodec.describeQuery(RESOURCE_TYPE_GROUP, filter, sortInfo);
+    PageCursor pageCursor = cursorCodec.decode(cursor, query);
+    Function<Group, Object> sortValues = sortInfo == null ? group -> null : SortComparators.sortValuesOfGroups(sortInfo, schemaAPI);
+
+    PageInfo pageInfo = PageInfo.getInstance(count, pageCursor, sortInfo);
+    CompletionStage<StreamedResult<Group>> page = asyncGroupAPI.streamGroups(pageInfo, QueryFilter.of(filter, filterCompiler),
+        RequestedResourceAttributesParser.parse(Group.SCHEMA, attributes, excludedAttributes));
 
-    return ListResponseBuilder.forGroups(groupsToReturn)
-        .withPagingStartParameters(startId, startIndex)
-        .withRequestedCount(PagingParamsParser.getExtendedCountOrDefault(groups.getCount(), count))
-        .withTotalResultsCount(groups.getTotalResourceCount())
-        .build();
+    return AsyncResponses.respond(page,
+        groups -> ListResponseBuilder.forGroups(groups, UnaryOperator.identity(), jsonMappers.getStreamingWriter())
+            .withCursor(lastGroup -> cursorCodec.encode(pageCursor.after(lastGroup.getId(), sortValues.apply(lastGroup)), query))
+            .withRequestedCount(PagingParamsParser.getExtendedCountOrDefault(groups.getCount(), count))
+            .withTotalResultsCount(groups.getTotalResourceCount(), groups.getTotalResultsAccuracy())
+            .build());
   }
 
   @POST
+  @ResourceLocationProvider
   public Response createGroup(@Valid Group newGroup) {
+    return AsyncResponses.join(createGroupAsync(newGroup));
+  }
+
+  CompletionStage<Response> createGroupAsync(final Group newGroup) {
     if (newGroup == null) {
       throw new InvalidInputException(NOT_VALID_INPUTS);
     }
 
     Group preparedGroup = groupPreProcessor.prepareForCreate(newGroup);
-    Group createdGroup = groupAPI.createGroup(preparedGroup);
-
-    createdGroup = resourceLocationService.addMembersLocation(createdGroup);
-    createdGroup = resourceLocationService.addLocation(createdGroup, createdGroup.getId());
-
     String version = preparedGroup.getMeta().getVersion();
-    logger.trace("Created group {} with version {}", createdGroup.getId(), version);
-    return Response.created(resourceLocationService.getLocation(createdGroup.getId())).tag(version).entity(createdGroup).build();
+
+    return AsyncResponses.respond(asyncGroupAPI.createGroup(preparedGroup), createdGroup -> {
+      logger.trace("Created group {} with version {}", createdGroup.getId(), version);
+      return Response.created(resourceLocationService.getLocation(createdGroup.getId())).tag(version).entity(createdGroup).build();
+    });
   }
 
   @PUT
   @Path("{id}")
+  @ConditionalRequestProvider
+  @ResourceLocationProvider
   public Response updateGroup(@PathParam("id") final String groupId, @Valid Group groupToUpdate) {
+    return AsyncResponses.join(updateGroupAsync(groupId, groupToUpdate));
+  }
+
+  CompletionStage<Response> updateGroupAsync(final String groupId, final Group groupToUpdate) {
     if (groupToUpdate == null) {
       throw new InvalidInputException(NOT_VALID_INPUTS);
     }
     Group preparedGroup = groupPreProcessor.prepareForUpdate(groupToUpdate, groupId);
-
-    Group updatedGroup = groupAPI.updateGroup(preparedGroup);
-
-    updatedGroup = resourceLocationService.addMembersLocation(updatedGroup);
-    updatedGroup = resourceLocationService.addLocation(updatedGroup, updatedGroup.getId());
-
     String version = preparedGroup.getMeta().getVersion();
-    logger.trace("Updated group {}, new version is {}", groupId, version);
-    return Response.ok(updatedGroup).tag(version).location(resourceLocationService.getLocation(groupId)).build();
+
+    return AsyncResponses.respond(asyncGroupAPI.updateGroup(preparedGroup), updatedGroup -> {
+      logger.trace("Updated group {}, new version is {}", groupId, version);
+      return Response.ok(updatedGroup).tag(version).location(resourceLocationService.getLocation(groupId)).build();
+    });
   }
 
   @DELETE
   @Path("{id}")
+  @ConditionalRequestProvider
   public void deleteGroup(@PathParam("id") final String groupId) {
-    groupAPI.deleteGroup(groupId);
+    AsyncResponses.join(deleteGroupAsync(groupId));
+  }
 
-    logger.trace("Deleted group {}", groupId);
-    Response.noContent().build();
+  CompletionStage<Response> deleteGroupAsync(final String groupId) {
+    return AsyncResponses.respond(asyncGroupAPI.deleteGroup(groupId), deleted -> {
+      logger.trace("Deleted group {}", groupId);
+      return Response.noContent().build();
+    });
   }
 
   @PATCH
   @Path("{id}")
+  @ConditionalRequestProvider
   public Response patchGroup(@PathParam("id") final String groupId, final PatchBody patchBody) {
+    return AsyncResponses.join(patchGroupAsync(groupId, patchBody));
+  }
+
+  CompletionStage<Response> patchGroupAsync(final String groupId, final PatchBody patchBody) {
     if (patchBody == null) {
       throw new InvalidInputException(NOT_VALID_INPUTS);
     }
 
-    Group groupFromDb = groupAPI.getGroup(groupId);
+    String newVersion = UUID.randomUUID().toString();
+    CompletionStage<Void> patched = asyncGroupAPI.getGroup(groupId).thenCompose(groupFromDb -> {
+      if (groupFromDb == null) {
+        throw new ResourceNotFoundException(RESOURCE_TYPE_GROUP, groupId);
+      }
 
-    if (groupFromDb == null) {
-      throw new ResourceNotFoundException(RESOURCE_TYPE_GROUP, groupId);
-    }
+      PatchValidationFramework validationFramework = patchValidationFrameworks.getGroupsFramework(schemaAPI, resourceTypesAPI, groupAPI);
+      validationFramework.validate(patchBody);
 
-    PatchValidationFramework validationFramework = PatchValidationFramework.groupsFramework(schemaAPI, resourceTypesAPI, groupAPI);
-    validationFramework.validate(patchBody);
+      Meta meta = new Meta.Builder(null, Instant.now()).setVersion(newVersion).build();
+      return asyncGroupAPI.patchGroup(groupId, patchBody, meta);
+    });
 
-    Meta meta = new Meta.Builder(null, Instant.now()).setVersion(UUID.randomUUID().toString()).build();
-    groupAPI.patchGroup(groupId, patchBody, meta);
+    return AsyncResponses.respond(patched, nothing -> {
+      logger.trace("Updated group {}, new version is {}", groupId, newVersion);
+      return Response.status(Response.Status.NO_CONTENT).tag(newVersion).build();
+    });
+  }
 
-    logger.trace("Updated group {}", groupId);
-    return Response.status(Response.Status.NO_CONTENT).build();
+  private static String getVersion(final Group group) {
+    return group.getMeta() == null ? null : group.getMeta().getVersion();
   }
 }
@@ -4,35 +4,79 @@ import static com.sap.scimono.entity.paging.PagedByIdentitySearchResult.PAGINATI
 import static com.sap.scimono.helper.Strings.isNullOrEmpty;
 
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 import javax.ws.rs.core.Response;
 
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.sap.scimono.entity.Group;
 import com.sap.scimono.entity.Resource;
 import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PagedByCursorSearchResult;
 import com.sap.scimono.entity.paging.PagedByIdentitySearchResult;
 import com.sap.scimono.entity.paging.PagedByIndexSearchResult;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.paging.TotalResultsAccuracy;
 
-public class ListResponseBuilder<T extends Resource<T>> implements PagingStartParametersSetter, RequestedCountSetter, TotalResultsCountSetter, ResponseBuilder {
+public class ListResponseBuilder<T extends Resource<T>> implements PagingStartParametersSetter<T>, RequestedCountSetter, TotalResultsCountSetter, ResponseBuilder {
   private final List<T> resources;
 
+  private final StreamedResult<T> streamedResources;
+  private final UnaryOperator<T> resourceDecorator;
+  private final ObjectWriter objectWriter;
+
   private Supplier<Response> responseSupplier;
   private int requestedCount;
   private int totalResultsCount;
+  private TotalResultsAccuracy totalResultsAccuracy = TotalResultsAccuracy.EXACT;
 
   private ListResponseBuilder(List<T> resources) {
     this.resources = resources;
+    this.streamedResources = null;
+    this.resourceDecorator = null;
+    this.objectWriter = null;
+  }
+
+  private ListResponseBuilder(StreamedResult<T> streamedResources, UnaryOperator<T> resourceDecorator, ObjectWriter objectWriter) {
+    this.resources = null;
+    this.streamedResources = streamedResources;
+    this.resourceDecorator = resourceDecorator;
+    this.objectWriter = objectWriter;
   }
 
-  public static PagingStartParametersSetter forUsers(List<User> users) {
+  public static PagingStartParametersSetter<User> forUsers(List<User> users) {
     return new ListResponseBuilder<>(users);
   }
 
-  public static PagingStartParametersSetter forGroups(List<Group> groups) {
+  public static PagingStartParametersSetter<Group> forGroups(List<Group> groups) {
     return new ListResponseBuilder<>(groups);
   }
 
+  /**
+   * Creates a list response which is written while the users are pulled from the stream.
+   *
+   * @param users         the streamed page of users
+   * @param userDecorator applied to every user right before it is written, e.g. to add its location
+   * @param objectWriter  the writer used for the response
+   */
+  public static PagingStartParametersSetter<User> forUsers(StreamedResult<User> users, UnaryOperator<User> userDecorator, ObjectWriter objectWriter) {
+    return new ListResponseBuilder<>(users, userDecorator, objectWriter);
+  }
+
+  /**
+   * Creates a list response which is written while the groups are pulled from the stream.
+   *
+   * @param groups         the streamed page of groups
+   * @param groupDecorator applied to every group right before it is written, e.g. to add its location
+   * @param objectWriter   the writer used for the response
+   */
+  public static PagingStartParametersSetter<Group> forGroups(StreamedResult<Group> groups, UnaryOperator<Group> groupDecorator,
+      ObjectWriter objectWriter) {
+    return new ListResponseBuilder<>(groups, groupDecorator, objectWriter);
+  }
+
   @Override
   public RequestedCountSetter withPagingStartParameters(String startId, int startIndex) {
     if(isNullOrEmpty(startId)) {
@@ -44,6 +88,12 @@ public class ListResponseBuilder<T extends Resource<T>> implements PagingStartPa
     return this;
   }
 
+  @Override
+  public RequestedCountSetter withCursor(Function<? super T, String> nextCursorEncoder) {
+    setCursorResponseSupplier(nextCursorEncoder);
+    return this;
+  }
+
   @Override
   public TotalResultsCountSetter withRequestedCount(int count) {
     this.requestedCount = count;
@@ -52,7 +102,13 @@ public class ListResponseBuilder<T extends Resource<T>> implements PagingStartPa
 
   @Override
   public ResponseBuilder withTotalResultsCount(int count) {
+    return withTotalResultsCount(count, TotalResultsAccuracy.EXACT);
+  }
+
+  @Override
+  public ResponseBuilder withTotalResultsCount(int count, TotalResultsAccuracy accuracy) {
     this.totalResultsCount = count;
+    this.totalResultsAccuracy = accuracy;
     return this;
   }
 
@@ -61,29 +117,71 @@ public class ListResponseBuilder<T extends Resource<T>> implements PagingStartPa
     return responseSupplier.get();
   }
 
+  private boolean isStreamed() {
+    return streamedResources != null;
+  }
+
   private void setStartIdResponseSupplier(String startId) {
     this.responseSupplier = () -> {
+      if (isStreamed()) {
+        return Response.ok(ListResponseStreamingOutput.pagedByIdentity(streamedResources, resourceDecorator, objectWriter, totalResultsCount,
+            requestedCount, startId).withTotalResultsAccuracy(totalResultsAccuracy)).build();
+      }
+
       if (resources.size() <= requestedCount) {
-        return Response.ok(new PagedByIdentitySearchResult<>(resources, totalResultsCount, requestedCount, startId, PAGINATION_BY_ID_END_PARAM))
+        int totalResults = totalResultsAccuracy.toTotalResults(totalResultsCount, 0, resources.size(), false);
+        return Response.ok(new PagedByIdentitySearchResult<>(resources, totalResults, requestedCount, startId, PAGINATION_BY_ID_END_PARAM))
             .build();
       }
 
       int indexOfLastResource = resources.size() - 1;
       Resource<?> nextResource = resources.remove(indexOfLastResource);
 
-      return Response.ok(new PagedByIdentitySearchResult<>(resources, totalResultsCount, requestedCount, startId, nextResource.getId())).build();
+      int totalResults = totalResultsAccuracy.toTotalResults(totalResultsCount, 0, resources.size(), true);
+      return Response.ok(new PagedByIdentitySearchResult<>(resources, totalResults, requestedCount, startId, nextResource.getId())).build();
 
     };
   }
 
+  private void setCursorResponseSupplier(Function<? super T, String> nextCursorEncoder) {
+    this.responseSupplier = () -> {
+      if (isStreamed()) {
+        return Response.ok(ListResponseStreamingOutput.pagedByCursor(streamedResources, resourceDecorator, objectWriter, totalResultsCount,
+            requestedCount, nextCursorEncoder).withTotalResultsAccuracy(totalResultsAccuracy)).build();
+      }
+
+      List<T> page = resources.size() > requestedCount ? resources.subList(0, requestedCount) : resources;
+      boolean fullPage = !page.isEmpty() && page.size() == requestedCount;
+      String nextCursor = fullPage ? nextCursorEncoder.apply(page.get(page.size() - 1)) : null;
+      int totalResults = totalResultsAccuracy.toTotalResults(totalResultsCount, 0, page.size(), fullPage);
+      return Response.ok(new PagedByCursorSearchResult<>(page, totalResults, requestedCount, nextCursor)).build();
+    };
+  }
+
   private void setStartIndexResponseSupplier(int startIndex) {
-    this.responseSupplier = () ->
-        Response.ok(new PagedByIndexSearchResult<>(resources, totalResultsCount, requestedCount, startIndex)).build();
+    this.responseSupplier = () -> {
+      if (isStreamed()) {
+        return Response.ok(ListResponseStreamingOutput.pagedByIndex(streamedResources, resourceDecorator, objectWriter, totalResultsCount,
+            requestedCount, startIndex).withTotalResultsAccuracy(totalResultsAccuracy)).build();
+      }
+
+      boolean fullPage = !resources.isEmpty() && resources.size() >= requestedCount;
+      int totalResults = totalResultsAccuracy.toTotalResults(totalResultsCount, startIndex - 1, resources.size(), fullPage);
+      return Response.ok(new PagedByIndexSearchResult<>(resources, totalResults, requestedCount, startIndex)).build();
+    };
   }
 }
 
-interface PagingStartParametersSetter {
+interface PagingStartParametersSetter<T> {
   RequestedCountSetter withPagingStartParameters(String startId, int startIndex);
+
+  /**
+   * Pages with a cursor. The resources are the page following the cursor of the request, the cursor of the next page is built from the
+   * last resource if the page is full.
+   *
+   * @param nextCursorEncoder returns the cursor of the page following the given resource
+   */
+  RequestedCountSetter withCursor(Function<? super T, String> nextCursorEncoder);
 }
 
 interface RequestedCountSetter {
@@ -92,6 +190,13 @@ interface RequestedCountSetter {
 
 interface TotalResultsCountSetter {
   ResponseBuilder withTotalResultsCount(int count);
+
+  /**
+   * @param count the total count returned by the callback
+   * @param accuracy how the count was determined, the {@code totalResults} of the response are derived from the listed resources unless
+   *          the count is exact
+   */
+  ResponseBuilder withTotalResultsCount(int count, TotalResultsAccuracy accuracy);
 }
 
 interface ResponseBuilder {
@@ -0,0 +1,171 @@
+package com.sap.scimono.api;
+
+import static com.sap.scimono.entity.paging.PagedByIdentitySearchResult.PAGINATION_BY_ID_END_PARAM;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.paging.PagedByIndexSearchResult;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.paging.TotalResultsAccuracy;
+
+/**
+ * Writes a list response while pulling its resources from a {@link StreamedResult}. Every resource is decorated (e.g. with its location) right
+ * before it is written, so only one resource at a time is held in memory. The produced JSON has the same content as
+ * {@link PagedByIndexSearchResult}, {@link com.sap.scimono.entity.paging.PagedByIdentitySearchResult} and
+ * {@link com.sap.scimono.entity.paging.PagedByCursorSearchResult}.
+ * <p>
+ * Since the response status is committed before the resources are pulled, a failure of the underlying stream results in an incomplete
+ * response body.
+ */
+class ListResponseStreamingOutput<T extends Resource<T>> implements StreamingOutput {
+  private static final String SCHEMAS_FIELD = "schemas";
+  private static final String TOTAL_RESULTS_FIELD = "totalResults";
+  private static final String ITEMS_PER_PAGE_FIELD = "itemsPerPage";
+  private static final String START_INDEX_FIELD = "startIndex";
+  private static final String START_ID_FIELD = "startId";
+  private static final String NEXT_ID_FIELD = "nextId";
+  private static final String NEXT_CURSOR_FIELD = "nextCursor";
+  private static final String RESOURCES_FIELD = "Resources";
+
+  private final StreamedResult<T> resources;
+  private final UnaryOperator<T> resourceDecorator;
+  private final ObjectWriter objectWriter;
+  private final int totalResults;
+  private final int itemsPerPage;
+  private final Integer startIndex;
+  private final String startId;
+  private final Function<? super T, String> nextCursorEncoder;
+  private TotalResultsAccuracy totalResultsAccuracy = TotalResultsAccuracy.EXACT;
+
+  private ListResponseStreamingOutput(StreamedResult<T> resources, UnaryOperator<T> resourceDecorator, ObjectWriter objectWriter, int totalResults,
+      int itemsPerPage, Integer startIndex, String startId, Function<? super T, String> nextCursorEncoder) {
+    this.resources = resources;
+    this.resourceDecorator = resourceDecorator;
+    this.objectWriter = objectWriter;
+    this.totalResults = totalResults;
+    this.itemsPerPage = itemsPerPage;
+    this.startIndex = startIndex;
+    this.startId = startId;
+    this.nextCursorEncoder = nextCursorEncoder;
+  }
+
+  static <T extends Resource<T>> ListResponseStreamingOutput<T> pagedByIndex(StreamedResult<T> resources, UnaryOperator<T> resourceDecorator,
+      ObjectWriter objectWriter, int totalResults, int itemsPerPage, int startIndex) {
+    return new ListResponseStreamingOutput<>(resources, resourceDecorator, objectWriter, totalResults, itemsPerPage, startIndex, null,
+        null);
+  }
+
+  static <T extends Resource<T>> ListResponseStreamingOutput<T> pagedByIdentity(StreamedResult<T> resources, UnaryOperator<T> resourceDecorator,
+      ObjectWriter objectWriter, int totalResults, int itemsPerPage, String startId) {
+    return new ListResponseStreamingOutput<>(resources, resourceDecorator, objectWriter, totalResults, itemsPerPage, null, startId,
+        null);
+  }
+
+  static <T extends Resource<T>> ListResponseStreamingOutput<T> pagedByCursor(StreamedResult<T> resources, UnaryOperator<T> resourceDecorator,
+      ObjectWriter objectWriter, int totalResults, int itemsPerPage, Function<? super T, String> nextCursorEncoder) {
+    return new ListResponseStreamingOutput<>(resources, resourceDecorator, objectWriter, totalResults, itemsPerPage, null, null,
+        nextCursorEncoder);
+  }
+
+  /**
+   * @param accuracy how the total count of the resources was determined, {@link TotalResultsAccuracy#EXACT} by default
+   */
+  ListResponseStreamingOutput<T> withTotalResultsAccuracy(TotalResultsAccuracy accuracy) {
+    this.totalResultsAccuracy = accuracy;
+    return this;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    try (StreamedResult<T> streamedResources = resources; JsonGenerator generator = objectWriter.createGenerator(output)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // the page is not delivered progressively, closing the generator must not flush a small page past the compression threshold
+      generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+      generator.writeStartObject();
+      generator.writeArrayFieldStart(SCHEMAS_FIELD);
+      generator.writeString(PagedByIndexSearchResult.SCHEMA);
+      generator.writeEndArray();
+      if (totalResultsAccuracy == TotalResultsAccuracy.EXACT) {
+        generator.writeNumberField(TOTAL_RESULTS_FIELD, totalResults);
+      }
+      generator.writeNumberField(ITEMS_PER_PAGE_FIELD, itemsPerPage);
+      if (isPagedByIdentity()) {
+        generator.writeStringField(START_ID_FIELD, startId);
+      } else if (!isPagedByCursor()) {
+        generator.writeNumberField(START_INDEX_FIELD, startIndex);
+      }
+
+      WrittenPage<T> page = writeResources(generator, streamedResources.getResources().iterator());
+
+      if (totalResultsAccuracy != TotalResultsAccuracy.EXACT) {
+        // the total is derived from the written resources, so it follows them
+        int listedBefore = startIndex == null ? 0 : startIndex - 1;
+        boolean fullPage = isPagedByIdentity() ? page.nextResource != null : page.isFull(itemsPerPage);
+        generator.writeNumberField(TOTAL_RESULTS_FIELD,
+            totalResultsAccuracy.toTotalResults(totalResults, listedBefore, page.writtenResources, fullPage));
+      }
+      if (isPagedByIdentity()) {
+        generator.writeStringField(NEXT_ID_FIELD, page.nextResource == null ? PAGINATION_BY_ID_END_PARAM : page.nextResource.getId());
+      } else if (isPagedByCursor() && page.isFull(itemsPerPage)) {
+        generator.writeStringField(NEXT_CURSOR_FIELD, nextCursorEncoder.apply(page.lastResource));
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Writes the resources array, which is omitted when there are no resources, in the same way as in {@link PagedByIndexSearchResult}.
+   * When paging by id or with a cursor, the resources after the requested page are not written.
+   */
+  private WrittenPage<T> writeResources(JsonGenerator generator, Iterator<T> resourcesIterator) throws IOException {
+    WrittenPage<T> page = new WrittenPage<>();
+
+    while (resourcesIterator.hasNext()) {
+      T resource = resourcesIterator.next();
+      if ((isPagedByIdentity() || isPagedByCursor()) && page.writtenResources == itemsPerPage) {
+        page.nextResource = resource;
+        break;
+      }
+
+      if (page.writtenResources == 0) {
+        generator.writeArrayFieldStart(RESOURCES_FIELD);
+      }
+      objectWriter.writeValue(generator, resourceDecorator.apply(resource));
+      page.lastResource = resource;
+      page.writtenResources++;
+    }
+
+    if (page.writtenResources > 0) {
+      generator.writeEndArray();
+    }
+    return page;
+  }
+
+  private boolean isPagedByIdentity() {
+    return startId != null;
+  }
+
+  private boolean isPagedByCursor() {
+    return nextCursorEncoder != null;
+  }
+
+  private static class WrittenPage<T> {
+    private int writtenResources;
+    private T lastResource;
+    private T nextResource;
+
+    private boolean isFull(int itemsPerPage) {
+      return writtenResources > 0 && writtenResources == itemsPerPage;
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package com.sap.scimono.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.ws.rs.core.Response.Status;
+
+import com.sap.scimono.api.helper.CursorSettings;
+import com.sap.scimono.entity.paging.PageCursor;
+import com.sap.scimono.entity.paging.SortInfo;
+import com.sap.scimono.exception.SCIMException;
+import com.sap.scimono.helper.Strings;
+
+/**
+ * Encodes page cursors into opaque tokens and decodes them again.
+ * <p>
+ * A token is the base64url encoded position of the cursor, followed by an HMAC-SHA256 signature of the length prefixed position and of
+ * the query the cursor was issued for. Tokens which were changed by the client, or which are sent with another resource type, filter or
+ * sort order, are rejected with the error {@code invalidCursor}, tokens older than the time to live with the error {@code expiredCursor}.
+ */
+class PageCursorCodec {
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int SIGNATURE_LENGTH = 32;
+  private static final byte VERSION = 1;
+
+  private static final byte NULL_VALUE = 0;
+  private static final byte STRING_VALUE = 1;
+  private static final byte DECIMAL_VALUE = 2;
+  private static final byte BOOLEAN_VALUE = 3;
+  private static final byte INSTANT_VALUE = 4;
+
+  private final SecretKeySpec signingKey;
+  private final Duration timeToLive;
+  private final Clock clock;
+
+  PageCursorCodec(final CursorSettings settings) {
+    this(settings, Clock.systemUTC());
+  }
+
+  PageCursorCodec(final CursorSettings settings, final Clock clock) {
+    this.signingKey = new SecretKeySpec(settings.getSigningKey(), ALGORITHM);
+    this.timeToLive = settings.getTimeToLive();
+    this.clock = clock;
+  }
+
+  /**
+   * @return the codec configured by the application, or null if paging with cursors is disabled
+   */
+  static PageCursorCodec of(final CursorSettings settings) {
+    return settings == null ? null : new PageCursorCodec(settings);
+  }
+
+  /**
+   * Describes the query a cursor is bound to, so that a cursor can not be used to continue a different query.
+   *
+   * @param resourceType the listed resource type
+   * @param filter the filter of the request or null
+   * @param sortInfo the sort order of the request or null
+   */
+  static String describeQuery(final String resourceType, final String filter, final SortInfo sortInfo) {
+    return resourceType + '\n' + (filter == null ? "" : filter) + '\n' + (sortInfo == null ? "" : sortInfo.toString());
+  }
+
+  /**
+   * @param token the cursor sent by the client, an empty token requests the first page
+   * @param query the description of the query, see {@link #describeQuery(String, String, SortInfo)}
+   * @throws SCIMException with status 400 if the token is not valid for the query or has expired
+   */
+  PageCursor decode(final String token, final String query) {
+    Instant now = clock.instant();
+    if (Strings.isNullOrEmpty(token)) {
+      return PageCursor.initial(now.truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(token.trim());
+    } catch (IllegalArgumentException e) {
+      throw invalidCursor();
+    }
+    if (bytes.length <= SIGNATURE_LENGTH) {
+      throw invalidCursor();
+    }
+
+    byte[] payload = Arrays.copyOf(bytes, bytes.length - SIGNATURE_LENGTH);
+    byte[] signature = Arrays.copyOfRange(bytes, payload.length, bytes.length);
+    if (!MessageDigest.isEqual(signature, sign(payload, query))) {
+      throw invalidCursor();
+    }
+
+    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+      if (input.readByte() != VERSION) {
+        throw invalidCursor();
+      }
+      Instant issued = Instant.ofEpochMilli(input.readLong());
+      if (issued.plus(timeToLive).isBefore(now)) {
+        throw new SCIMException(SCIMException.Type.EXPIRED_CURSOR, "The cursor has expired", Status.BAD_REQUEST);
+      }
+      Instant snapshot = Instant.ofEpochMilli(input.readLong());
+      String lastId = input.readUTF();
+      Object lastSortValue = readSortValue(input);
+      if (input.available() != 0) {
+        throw invalidCursor();
+      }
+      return new PageCursor(snapshot, lastId, lastSortValue);
+    } catch (IOException | DateTimeException | IllegalArgumentException e) {
+      throw invalidCursor();
+    }
+  }
+
+  /**
+   * @param cursor the position after the last resource of a page
+   * @param query the description of the query, see {@link #describeQuery(String, String, SortInfo)}
+   * @return the signed token, which is sent to the client as {@code nextCursor}
+   */
+  String encode(final PageCursor cursor, final String query) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(bytes)) {
+      output.writeByte(VERSION);
+      output.writeLong(clock.millis());
+      output.writeLong(cursor.getSnapshot().toEpochMilli());
+      output.writeUTF(cursor.getLastId());
+      writeSortValue(output, cursor.getLastSortValue());
+      output.write(sign(bytes.toByteArray(), query));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+  }
+
+  private static void writeSortValue(final DataOutputStream output, final Object value) throws IOException {
+    if (value == null) {
+      output.writeByte(NULL_VALUE);
+    } else if (value instanceof BigDecimal) {
+      output.writeByte(DECIMAL_VALUE);
+      output.writeUTF(value.toString());
+    } else if (value instanceof Boolean) {
+      output.writeByte(BOOLEAN_VALUE);
+      output.writeBoolean((Boolean) value);
+    } else if (value instanceof Instant) {
+      output.writeByte(INSTANT_VALUE);
+      output.writeLong(((Instant) value).getEpochSecond());
+      output.writeInt(((Instant) value).getNano());
+    } else {
+      output.writeByte(STRING_VALUE);
+      output.writeUTF(value.toString());
+    }
+  }
+
+  private static Object readSortValue(final DataInputStream input) throws IOException {
+    byte type = input.readByte();
+    switch (type) {
+      case NULL_VALUE:
+        return null;
+      case STRING_VALUE:
+        return input.readUTF();
+      case DECIMAL_VALUE:
+        return new BigDecimal(input.readUTF());
+      case BOOLEAN_VALUE:
+        return input.readBoolean();
+      case INSTANT_VALUE:
+        return Instant.ofEpochSecond(input.readLong(), input.readInt());
+      default:
+        throw new IOException("Unknown sort value type " + type);
+    }
+  }
+
+  private byte[] sign(final byte[] payload, final String query) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(signingKey);
+      mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(payload.length).array());
+      mac.update(payload);
+      return mac.doFinal(query.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(ALGORITHM + " is not available", e);
+    }
+  }
+
+  private static SCIMException invalidCursor() {
+    return new SCIMException(SCIMException.Type.INVALID_CURSOR, "The cursor is not valid for this request", Status.BAD_REQUEST);
+  }
+}
@@ -0,0 +1,42 @@
+package com.sap.scimono.api;
+
+import java.io.IOException;
+
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.helper.ResourceLocationService;
+import com.sap.scimono.helper.ResourceLocations;
+
+/**
+ * Binds the {@link ResourceLocations} of the request to the thread writing the response, so that the locations of the written users
+ * and groups and the URIs of their references are added by the serializer instead of copying the resources before.
+ */
+@Provider
+@ResourceLocationProvider
+public class ResourceLocationInterceptor implements WriterInterceptor {
+
+  @Context
+  private Application application;
+
+  @Context
+  private UriInfo uriInfo;
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    SCIMApplication scimApplication = SCIMApplication.from(application);
+    ResourceLocationService locationService = new ResourceLocationService(uriInfo, scimApplication.getConfigurationCallback(), "");
+
+    ResourceLocations.bind(locationService.getResourceLocations());
+    try {
+      context.proceed();
+    } finally {
+      ResourceLocations.remove();
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.sap.scimono.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.ws.rs.NameBinding;
+
+/**
+ * Marks the resource methods whose users and groups get their locations and reference URIs while the response is written, see
+ * {@link ResourceLocationInterceptor}.
+ */
+@NameBinding
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface ResourceLocationProvider {
+
+}
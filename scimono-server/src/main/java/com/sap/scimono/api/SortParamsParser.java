@@ -0,0 +1,118 @@
+package com.sap.scimono.api;
+
+import static com.sap.scimono.callback.schemas.SchemasCallback.COMPLEX_ATTRIBUTE_DELIMETER;
+import static com.sap.scimono.callback.schemas.SchemasCallback.SCHEMA_URN_DELIMETER;
+import static com.sap.scimono.callback.schemas.SchemasCallback.addSchemaToPathIfNotExist;
+import static com.sap.scimono.entity.definition.ResourceConstants.EXTERNAL_ID_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.ID_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.META_CREATED_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.META_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.META_LAST_MODIFIED_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.META_LOCATION_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.META_RESOURCE_TYPE_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.META_VERSION_FIELD;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.entity.paging.SortInfo;
+import com.sap.scimono.entity.paging.SortOrder;
+import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.entity.schema.AttributeDataType;
+import com.sap.scimono.exception.InvalidInputException;
+import com.sap.scimono.helper.Strings;
+
+public class SortParamsParser {
+  private static final Map<String, List<Attribute>> COMMON_ATTRIBUTES = createCommonAttributes();
+
+  private SortParamsParser() {
+
+  }
+
+  /**
+   * Resolves the {@code sortBy} attribute against the schemas.
+   *
+   * @param resourceSchemaId the core schema of the listed resources, used for attributes given without schema
+   * @param sortBy the attribute to sort by or null
+   * @param sortOrder {@code ascending}, {@code descending} or null for ascending
+   * @param schemasCallback provides the definitions of custom schemas
+   * @return the sort order, or null if no sort attribute is given
+   * @throws InvalidInputException if the attribute does not exist or the sort order is not valid
+   */
+  public static SortInfo parse(final String resourceSchemaId, final String sortBy, final String sortOrder,
+      final SchemasCallback schemasCallback) {
+    if (Strings.isNullOrEmpty(sortBy)) {
+      return null;
+    }
+
+    String attributeNotation = addSchemaToPathIfNotExist(sortBy.trim(), resourceSchemaId);
+    List<Attribute> commonAttributePath = getCommonAttributePath(attributeNotation, resourceSchemaId);
+    if (commonAttributePath != null) {
+      return new SortInfo(resourceSchemaId, commonAttributePath, parseSortOrder(sortOrder));
+    }
+
+    List<Attribute> attributePath = schemasCallback.getComplexAttributePath(attributeNotation);
+    if (attributePath.isEmpty() || attributePath.size() > 2) {
+      throw new InvalidInputException(String.format("The sortBy attribute '%s' does not exist", sortBy));
+    }
+    String schemaId = schemasCallback.getSchemaIdFromAttributeNotation(attributeNotation);
+
+    return new SortInfo(schemaId, attributePath, parseSortOrder(sortOrder));
+  }
+
+  /**
+   * @return the definitions of an attribute common to all resources, which is not part of the resource schema, or null
+   */
+  private static List<Attribute> getCommonAttributePath(final String attributeNotation, final String resourceSchemaId) {
+    String schemaPrefix = resourceSchemaId + SCHEMA_URN_DELIMETER;
+    if (!attributeNotation.regionMatches(true, 0, schemaPrefix, 0, schemaPrefix.length())) {
+      return null;
+    }
+    return COMMON_ATTRIBUTES.get(attributeNotation.substring(schemaPrefix.length()).toLowerCase(Locale.ROOT));
+  }
+
+  private static SortOrder parseSortOrder(final String sortOrder) {
+    if (Strings.isNullOrEmpty(sortOrder)) {
+      return SortOrder.ASCENDING;
+    }
+
+    try {
+      return SortOrder.fromValue(sortOrder.trim());
+    } catch (IllegalArgumentException e) {
+      throw new InvalidInputException("SortOrder must be either ascending or descending.");
+    }
+  }
+
+  private static Map<String, List<Attribute>> createCommonAttributes() {
+    Map<String, List<Attribute>> commonAttributes = new HashMap<>();
+    addCommonAttribute(commonAttributes, null, attribute(ID_FIELD, AttributeDataType.STRING, true));
+    addCommonAttribute(commonAttributes, null, attribute(EXTERNAL_ID_FIELD, AttributeDataType.STRING, true));
+
+    Attribute meta = attribute(META_FIELD, AttributeDataType.COMPLEX, false);
+    addCommonAttribute(commonAttributes, meta, attribute(META_RESOURCE_TYPE_FIELD, AttributeDataType.STRING, true));
+    addCommonAttribute(commonAttributes, meta, attribute(META_CREATED_FIELD, AttributeDataType.DATE_TIME, false));
+    addCommonAttribute(commonAttributes, meta, attribute(META_LAST_MODIFIED_FIELD, AttributeDataType.DATE_TIME, false));
+    addCommonAttribute(commonAttributes, meta, attribute(META_LOCATION_FIELD, AttributeDataType.REFERENCE, true));
+    addCommonAttribute(commonAttributes, meta, attribute(META_VERSION_FIELD, AttributeDataType.STRING, true));
+    return Collections.unmodifiableMap(commonAttributes);
+  }
+
+  private static void addCommonAttribute(final Map<String, List<Attribute>> commonAttributes, final Attribute parent,
+      final Attribute attribute) {
+    if (parent == null) {
+      commonAttributes.put(attribute.getName().toLowerCase(Locale.ROOT), Collections.singletonList(attribute));
+    } else {
+      String path = parent.getName() + COMPLEX_ATTRIBUTE_DELIMETER + attribute.getName();
+      commonAttributes.put(path.toLowerCase(Locale.ROOT), Arrays.asList(parent, attribute));
+    }
+  }
+
+  private static Attribute attribute(final String name, final AttributeDataType type, final boolean caseExact) {
+    return new Attribute.Builder().name(name).type(type.toString()).caseExact(caseExact).build();
+  }
+}
@@ -4,8 +4,11 @@ package com.sap.scimono.api;
 import static com.sap.scimono.api.API.APPLICATION_JSON_SCIM;
 import static com.sap.scimono.api.API.ATTRIBUTES_PARAM;
 import static com.sap.scimono.api.API.COUNT_PARAM;
+import static com.sap.scimono.api.API.CURSOR_PARAM;
 import static com.sap.scimono.api.API.EXCLUDED_ATTRIBUTES_PARAM;
 import static com.sap.scimono.api.API.FILTER_PARAM;
+import static com.sap.scimono.api.API.SORT_BY_PARAM;
+import static com.sap.scimono.api.API.SORT_ORDER_PARAM;
 import static com.sap.scimono.api.API.START_ID_PARAM;
 import static com.sap.scimono.api.API.START_INDEX_PARAM;
 import static com.sap.scimono.api.API.USERS;
@@ -14,9 +17,12 @@ import static com.sap.scimono.entity.paging.PagedByIndexSearchResult.DEFAULT_COU
 import static com.sap.scimono.entity.paging.PagedByIndexSearchResult.DEFAULT_START_INDEX;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import javax.validation.Valid;
 import javax.ws.rs.Consumes;
@@ -42,23 +48,33 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
 import com.sap.scimono.api.patch.PATCH;
 import com.sap.scimono.api.preprocessor.ResourcePreProcessor;
+import com.sap.scimono.api.request.RequestedResourceAttributes;
 import com.sap.scimono.api.request.RequestedResourceAttributesParser;
 import com.sap.scimono.callback.config.SCIMConfigurationCallback;
 import com.sap.scimono.callback.resourcetype.ResourceTypesCallback;
 import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.callback.users.AsyncUsersCallback;
 import com.sap.scimono.callback.users.UsersCallback;
 import com.sap.scimono.entity.Meta;
 import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PageCursor;
 import com.sap.scimono.entity.paging.PageInfo;
-import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.SortInfo;
+import com.sap.scimono.entity.paging.StreamedResult;
 import com.sap.scimono.entity.patch.PatchBody;
 import com.sap.scimono.entity.schema.validation.ValidStartId;
 import com.sap.scimono.entity.validation.patch.PatchValidationFramework;
+import com.sap.scimono.entity.validation.patch.PatchValidationFrameworkCache;
 import com.sap.scimono.exception.InvalidInputException;
 import com.sap.scimono.exception.ResourceNotFoundException;
+import com.sap.scimono.filter.QueryFilter;
+import com.sap.scimono.filter.QueryFilterCompiler;
+import com.sap.scimono.filter.predicate.SortComparators;
 import com.sap.scimono.helper.ResourceLocationService;
+import com.sap.scimono.helper.Strings;
 
 @Path(USERS)
 @Produces(APPLICATION_JSON_SCIM)
@@ -69,79 +85,118 @@ public class Users {
 
   private final UriInfo uriInfo;
   private final UsersCallback usersAPI;
+  private final AsyncUsersCallback asyncUsersAPI;
   private final SchemasCallback schemaAPI;
   private final ResourceTypesCallback resourceTypesAPI;
   private final SCIMConfigurationCallback scimConfig;
   private final ResourceLocationService resourceLocationService;
   private final ResourcePreProcessor<User> userPreProcessor;
+  private final ObjectMapperRegistry jsonMappers;
+  private final QueryFilterCompiler filterCompiler;
+  private final PageCursorCodec cursorCodec;
+  private final PatchValidationFrameworkCache patchValidationFrameworks;
 
   private static final String NOT_VALID_INPUTS = "One of the request inputs is not valid.";
 
   public Users(@Context final Application appContext, @Context final UriInfo uriInfo) {
+    this(SCIMApplication.from(appContext), uriInfo, null);
+  }
+
+  /**
+   * @param asyncUsersCallback the callback of {@link AsyncUsers}, or null to call the users callback of the application
+   */
+  Users(final SCIMApplication scimApplication, final UriInfo uriInfo, final AsyncUsersCallback asyncUsersCallback) {
     this.uriInfo = uriInfo;
-    SCIMApplication scimApplication = SCIMApplication.from(appContext);
 
     usersAPI = scimApplication.getUsersCallback();
+    asyncUsersAPI = asyncUsersCallback == null ? AsyncUsersCallback.of(usersAPI) : asyncUsersCallback;
     schemaAPI = scimApplication.getSchemasCallback();
     resourceTypesAPI = scimApplication.getResourceTypesCallback();
     scimConfig = scimApplication.getConfigurationCallback();
     resourceLocationService = new ResourceLocationService(uriInfo, scimConfig, USERS);
     userPreProcessor = ResourcePreProcessor.forUsers(resourceLocationService, usersAPI, resourceTypesAPI, schemaAPI);
+    jsonMappers = ObjectMapperRegistry.forProfile(scimApplication.getSerializationProfile());
+    filterCompiler = scimApplication.getQueryFilterCompiler();
+    cursorCodec = PageCursorCodec.of(scimApplication.getCursorSettings());
+    patchValidationFrameworks = scimApplication.getPatchValidationFrameworkCache();
   }
 
   @GET
   @Path("/Me")
   public Response getMe(@Context final SecurityContext sec) {
+    return AsyncResponses.join(getMeAsync(sec));
+  }
+
+  CompletionStage<Response> getMeAsync(final SecurityContext sec) {
     String userName = sec.getUserPrincipal().getName();
     logger.trace("Reading data for current user {}", userName);
 
-    User userFromDb = usersAPI.getUserByUsername(userName);
+    return AsyncResponses.respond(asyncUsersAPI.getUserByUsername(userName), userFromDb -> {
+      if (userFromDb == null) {
+        throw new ResourceNotFoundException(RESOURCE_TYPE_USER, userName);
+      }
 
-    if (userFromDb == null) {
-      throw new ResourceNotFoundException(RESOURCE_TYPE_USER, userName);
-    }
+      UriBuilder location = uriInfo.getBaseUriBuilder();
+      List<PathSegment> pathSegments = uriInfo.getPathSegments(false);
+      for (int i = 0; i < pathSegments.size() - 1; ++i) {
+        location.path(pathSegments.get(i).toString());
+      }
+      location.path(userFromDb.getId());
 
-    UriBuilder location = uriInfo.getBaseUriBuilder();
-    List<PathSegment> pathSegments = uriInfo.getPathSegments(false);
-    for (int i = 0; i < pathSegments.size() - 1; ++i) {
-      location.path(pathSegments.get(i).toString());
-    }
-    location.path(userFromDb.getId());
-
-    User user = resourceLocationService.addLocation(userFromDb, location.build());
-    user = resourceLocationService.addRelationalEntitiesLocation(user);
-    return Response.ok(user).tag(user.getMeta().getVersion()).location(location.build()).build();
+      User user = resourceLocationService.addLocation(userFromDb, location.build());
+      user = resourceLocationService.addRelationalEntitiesLocation(user);
+      return Response.ok(user).tag(user.getMeta().getVersion()).location(location.build()).build();
+    });
   }
 
   @GET
   @Path("{id}")
+  @ConditionalRequestProvider
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
   // @formatter:off
   public Response getUser(@PathParam("id")  final String userId,
                           @QueryParam(FILTER_PARAM) final String filter,
                           @QueryParam(ATTRIBUTES_PARAM) final String attributes,
                           @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes) {
     // @formatter:on
+    return AsyncResponses.join(getUserAsync(userId, filter, attributes, excludedAttributes));
+  }
+
+  CompletionStage<Response> getUserAsync(final String userId, final String filter, final String attributes,
+      final String excludedAttributes) {
     logger.trace("Reading user {}", userId);
-    User userFromDb = usersAPI.getUser(userId, RequestedResourceAttributesParser.parse(attributes, excludedAttributes), filter);
+    RequestedResourceAttributes requestedAttributes = RequestedResourceAttributesParser.parse(User.SCHEMA, attributes, excludedAttributes);
 
-    if (userFromDb == null) {
-      throw new ResourceNotFoundException(RESOURCE_TYPE_USER, userId);
-    }
+    return AsyncResponses.respond(asyncUsersAPI.getUser(userId, requestedAttributes, filter), userFromDb -> {
+      if (userFromDb == null) {
+        throw new ResourceNotFoundException(RESOURCE_TYPE_USER, userId);
+      }
 
-    User user = resourceLocationService.addLocation(userFromDb, userId);
-    user = resourceLocationService.addRelationalEntitiesLocation(user);
-    return Response.ok(user).tag(user.getMeta().getVersion()).location(resourceLocationService.getLocation(userId)).build();
+      return Response.ok(userFromDb).tag(getVersion(userFromDb)).location(resourceLocationService.getLocation(userId)).build();
+    });
   }
 
   @GET
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
   // @formatter:off
   public Response getUsers(@QueryParam(START_INDEX_PARAM) @DefaultValue(DEFAULT_START_INDEX)  String startIndexParam,
                            @QueryParam(COUNT_PARAM) @DefaultValue(DEFAULT_COUNT) String countParam,
                            @QueryParam(START_ID_PARAM) @ValidStartId final String startId,
                            @QueryParam(FILTER_PARAM) final String filter,
                            @QueryParam(ATTRIBUTES_PARAM) final String attributes,
-                           @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes) {
+                           @QueryParam(EXCLUDED_ATTRIBUTES_PARAM) final String excludedAttributes,
+                           @QueryParam(SORT_BY_PARAM) final String sortBy,
+                           @QueryParam(SORT_ORDER_PARAM) final String sortOrder,
+                           @QueryParam(CURSOR_PARAM) final String cursor) {
     // @formatter:on
+    return AsyncResponses.join(getUsersAsync(startIndexParam, countParam, startId, filter, attributes, excludedAttributes, sortBy,
+        sortOrder, cursor));
+  }
+
+  CompletionStage<Response> getUsersAsync(final String startIndexParam, final String countParam, final String startId, final String filter,
+      final String attributes, final String excludedAttributes, final String sortBy, final String sortOrder, final String cursor) {
     logger.trace("Reading users with paging parameters startIndex {} startId {} count {}", startIndexParam, startId, countParam);
 
     int startIndex = PagingParamsParser.parseStartIndex(startIndexParam);
@@ -153,94 +208,165 @@ public class Users {
       count = maxCount;
     }
 
-    PageInfo pageInfo = PageInfo.getInstance(count, startIndex - 1, startId);
-    PagedResult<User> users = usersAPI.getUsers(pageInfo, filter, RequestedResourceAttributesParser.parse(attributes, excludedAttributes));
+    SortInfo sortInfo = null;
+    if (scimConfig.getSortSupportedSetting()) {
+      sortInfo = SortParamsParser.parse(User.SCHEMA, sortBy, sortOrder, schemaAPI);
+    }
 
-    List<User> usersToReturn = new ArrayList<>();
-    for (User user : users.getResources()) {
-      user = resourceLocationService.addLocation(user, user.getId());
-      user = resourceLocationService.addRelationalEntitiesLocation(user);
-      usersToReturn.add(user);
+    if (cursor != null) {
+      return getUsersPage(cursor, startId, count, filter, sortInfo, attributes, excludedAttributes);
+    }
+    if (count == 0 && Strings.isNullOrEmpty(startId)) {
+      return getUsersCount(filter, startIndex);
+    }
+
+    int requestedCount = count;
+    PageInfo pageInfo = PageInfo.getInstance(count, startIndex - 1, startId, sortInfo);
+    CompletionStage<StreamedResult<User>> page = asyncUsersAPI.streamUsers(pageInfo, QueryFilter.of(filter, filterCompiler),
+        RequestedResourceAttributesParser.parse(User.SCHEMA, attributes, excludedAttributes));
+
+    return AsyncResponses.respond(page,
+        users -> ListResponseBuilder.forUsers(users, UnaryOperator.identity(), jsonMappers.getStreamingWriter())
+            .withPagingStartParameters(startId, startIndex)
+            .withRequestedCount(requestedCount)
+            .withTotalResultsCount(users.getTotalResourceCount(), users.getTotalResultsAccuracy())
+            .build());
+  }
+
+  private CompletionStage<Response> getUsersCount(final String filter, final int startIndex) {
+    return AsyncResponses.respond(asyncUsersAPI.countUsers(QueryFilter.of(filter, filterCompiler)), count -> {
+      // an estimated count is answered as it is, there are no listed resources to correct it with
+      int totalResults = count.getValue();
+      StreamedResult<User> noUsers = new StreamedResult<>(totalResults, Stream.empty());
+
+      return ListResponseBuilder.forUsers(noUsers, UnaryOperator.identity(), jsonMappers.getStreamingWriter())
+          .withPagingStartParameters(null, startIndex)
+          .withRequestedCount(0)
+          .withTotalResultsCount(totalResults)
+          .build();
+    });
+  }
+
+  private CompletionStage<Response> getUsersPage(final String cursor, final String startId, final int count, final String filter,
+      final SortInfo sortInfo, final String attributes, final String excludedAttributes) {
+    if (cursorCodec == null) {
+      throw new InvalidInputException("Paging with a cursor is not supported");
     }
+    if (!Strings.isNullOrEmpty(startId)) {
+      throw new InvalidInputException("The parameters cursor and startId must not be combined");
+    }
+
+    String query = PageCursorCodec.describeQuery(RESOURCE_TYPE_USER, filter, sortInfo);
+    PageCursor pageCursor = cursorCodec.decode(cursor, query);
+    Function<User, Object> sortValues = sortInfo == null ? user -> null : SortComparators.sortValuesOfUsers(sortInfo, schemaAPI);
+
+    PageInfo pageInfo = PageInfo.getInstance(count, pageCursor, sortInfo);
+    CompletionStage<StreamedResult<User>> page = asyncUsersAPI.streamUsers(pageInfo, QueryFilter.of(filter, filterCompiler),
+        RequestedResourceAttributesParser.parse(User.SCHEMA, attributes, excludedAttributes));
 
-    return ListResponseBuilder.forUsers(usersToReturn)
-        .withPagingStartParameters(startId, startIndex)
-        .withRequestedCount(count)
-        .withTotalResultsCount(users.getTotalResourceCount())
-        .build();
+    return AsyncResponses.respond(page,
+        users -> ListResponseBuilder.forUsers(users, UnaryOperator.identity(), jsonMappers.getStreamingWriter())
+            .withCursor(lastUser -> cursorCodec.encode(pageCursor.after(lastUser.getId(), sortValues.apply(lastUser)), query))
+            .withRequestedCount(count)
+            .withTotalResultsCount(users.getTotalResourceCount(), users.getTotalResultsAccuracy())
+            .build());
   }
 
   @POST
+  @ResourceLocationProvider
   public Response createUser(@Valid final User newUser) {
+    return AsyncResponses.join(createUserAsync(newUser));
+  }
+
+  CompletionStage<Response> createUserAsync(final User newUser) {
     if (newUser == null) {
       throw new InvalidInputException(NOT_VALID_INPUTS);
     }
 
     User preparedUser = userPreProcessor.prepareForCreate(newUser);
-    User createdUser = usersAPI.createUser(preparedUser);
-
-    createdUser = resourceLocationService.addLocation(createdUser, createdUser.getId());
-    createdUser = resourceLocationService.addRelationalEntitiesLocation(createdUser);
-
     String version = preparedUser.getMeta().getVersion();
-    logger.trace("Created user {} with version {}", createdUser.getId(), version);
-    return Response.created(resourceLocationService.getLocation(createdUser.getId())).tag(version).entity(createdUser).build();
+
+    return AsyncResponses.respond(asyncUsersAPI.createUser(preparedUser), createdUser -> {
+      logger.trace("Created user {} with version {}", createdUser.getId(), version);
+      return Response.created(resourceLocationService.getLocation(createdUser.getId())).tag(version).entity(createdUser).build();
+    });
   }
 
   @PUT
   @Path("{id}")
+  @ConditionalRequestProvider
+  @ResourceLocationProvider
   public Response updateUser(@PathParam("id") final String userId, @Valid final User userToUpdate) {
+    return AsyncResponses.join(updateUserAsync(userId, userToUpdate));
+  }
+
+  CompletionStage<Response> updateUserAsync(final String userId, final User userToUpdate) {
     if (userToUpdate == null) {
       throw new InvalidInputException(NOT_VALID_INPUTS);
     }
     User preparedUser = userPreProcessor.prepareForUpdate(userToUpdate, userId);
-
-    User updatedUser = usersAPI.updateUser(preparedUser);
-
-    updatedUser = resourceLocationService.addLocation(updatedUser, updatedUser.getId());
-    updatedUser = resourceLocationService.addRelationalEntitiesLocation(updatedUser);
-
     String version = preparedUser.getMeta().getVersion();
 
-    logger.trace("Updated user {}, new version is {}", userId, version);
-    return Response.ok(updatedUser).tag(version).location(resourceLocationService.getLocation(userId)).build();
+    return AsyncResponses.respond(asyncUsersAPI.updateUser(preparedUser), updatedUser -> {
+      logger.trace("Updated user {}, new version is {}", userId, version);
+      return Response.ok(updatedUser).tag(version).location(resourceLocationService.getLocation(userId)).build();
+    });
   }
 
   @DELETE
   @Path("{id}")
-  public void deleteUser(@PathParam("id") final String userId) {
-    usersAPI.deleteUser(userId);
+  @ConditionalRequestProvider
+  public Response deleteUser(@PathParam("id") final String userId) {
+    return AsyncResponses.join(deleteUserAsync(userId));
+  }
 
-    logger.trace("Deleted user {}", userId);
-    Response.noContent().build();
+  CompletionStage<Response> deleteUserAsync(final String userId) {
+    return AsyncResponses.respond(asyncUsersAPI.deleteUser(userId), deleted -> {
+      logger.trace("Deleted user {}", userId);
+      return Response.noContent().build();
+    });
   }
 
   @PATCH
   @Path("{id}")
+  @ConditionalRequestProvider
   public Response patchUser(@PathParam("id") final String userId, final PatchBody patchBody) {
+    return AsyncResponses.join(patchUserAsync(userId, patchBody));
+  }
+
+  CompletionStage<Response> patchUserAsync(final String userId, final PatchBody patchBody) {
     if (patchBody == null) {
       throw new InvalidInputException(NOT_VALID_INPUTS);
     }
 
-    User userFromDb = usersAPI.getUser(userId);
-    if (userFromDb == null) {
-      throw new ResourceNotFoundException(RESOURCE_TYPE_USER, userId);
-    }
-
-    PatchValidationFramework validationFramework = PatchValidationFramework.usersFramework(schemaAPI, resourceTypesAPI, usersAPI);
-    validationFramework.validate(patchBody);
-
     String newVersion = UUID.randomUUID().toString();
-    Meta meta = new Meta.Builder(null, Instant.now()).setVersion(newVersion).build();
-    usersAPI.patchUser(userId, patchBody, meta);
-
-    logger.trace("Updated user {}, new version is {}", userId, newVersion);
-    return Response.status(Status.NO_CONTENT).build();
+    CompletionStage<Void> patched = asyncUsersAPI.getUser(userId).thenCompose(userFromDb -> {
+      if (userFromDb == null) {
+        throw new ResourceNotFoundException(RESOURCE_TYPE_USER, userId);
+      }
+
+      PatchValidationFramework validationFramework = patchValidationFrameworks.getUsersFramework(schemaAPI, resourceTypesAPI, usersAPI);
+      validationFramework.validate(patchBody);
+
+      Meta meta = new Meta.Builder(null, Instant.now()).setVersion(newVersion).build();
+      return asyncUsersAPI.patchUser(userId, patchBody, meta);
+    });
+
+    return AsyncResponses.respond(patched, nothing -> {
+      logger.trace("Updated user {}, new version is {}", userId, newVersion);
+      return Response.status(Status.NO_CONTENT).tag(newVersion).build();
+    });
   }
 
   @POST
   @Path(".query")
+  @AttributeProjectionProvider
+  @ResourceLocationProvider
   public Response queryUsers() {
-    return getUsers("0", "0", null, null, null, null);
+    return getUsers("0", "0", null, null, null, null, null, null, null);
+  }
+
+  private static String getVersion(final User user) {
+    return user.getMeta() == null ? null : user.getMeta().getVersion();
   }
 }
@@ -0,0 +1,105 @@
+package com.sap.scimono.api.helper;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.sap.scimono.api.request.AttributeProjection;
+import com.sap.scimono.api.request.AttributeProjections;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.User;
+
+/**
+ * Writes only the returned attributes of users and groups, if {@link AttributeProjections} are bound to the writing thread. The
+ * attributes are filtered while they are written, the resources are not copied.
+ */
+class AttributeProjectionSerializerModifier extends BeanSerializerModifier {
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public JsonSerializer<?> modifySerializer(final SerializationConfig config, final BeanDescription beanDesc,
+      final JsonSerializer<?> serializer) {
+    Class<?> beanClass = beanDesc.getBeanClass();
+    if (User.class.isAssignableFrom(beanClass)) {
+      return new ProjectingSerializer((JsonSerializer<Object>) serializer, User.SCHEMA);
+    }
+    if (Group.class.isAssignableFrom(beanClass)) {
+      return new ProjectingSerializer((JsonSerializer<Object>) serializer, Group.SCHEMA);
+    }
+    return serializer;
+  }
+
+  private static class ProjectingSerializer extends JsonSerializer<Object> implements ResolvableSerializer, ContextualSerializer {
+    private final JsonSerializer<Object> delegate;
+    private final String resourceSchemaId;
+
+    private ProjectingSerializer(final JsonSerializer<Object> delegate, final String resourceSchemaId) {
+      this.delegate = delegate;
+      this.resourceSchemaId = resourceSchemaId;
+    }
+
+    @Override
+    public void serialize(final Object value, final JsonGenerator gen, final SerializerProvider serializers) throws IOException {
+      delegate.serialize(value, project(gen), serializers);
+    }
+
+    @Override
+    public void serializeWithType(final Object value, final JsonGenerator gen, final SerializerProvider serializers,
+        final TypeSerializer typeSer) throws IOException {
+      delegate.serializeWithType(value, project(gen), serializers, typeSer);
+    }
+
+    private JsonGenerator project(final JsonGenerator gen) {
+      AttributeProjections projections = AttributeProjections.current();
+      if (projections == null || gen instanceof FilteringGeneratorDelegate) {
+        return gen;
+      }
+
+      AttributeProjection projection = projections.get(resourceSchemaId);
+      return new FilteringGeneratorDelegate(gen, projection.asTokenFilter(), TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+    }
+
+    @Override
+    public void resolve(final SerializerProvider provider) throws JsonMappingException {
+      if (delegate instanceof ResolvableSerializer) {
+        ((ResolvableSerializer) delegate).resolve(provider);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JsonSerializer<?> createContextual(final SerializerProvider prov, final BeanProperty property) throws JsonMappingException {
+      if (!(delegate instanceof ContextualSerializer)) {
+        return this;
+      }
+      JsonSerializer<?> contextual = ((ContextualSerializer) delegate).createContextual(prov, property);
+      return contextual == delegate ? this : new ProjectingSerializer((JsonSerializer<Object>) contextual, resourceSchemaId);
+    }
+
+    @Override
+    public boolean isEmpty(final SerializerProvider provider, final Object value) {
+      return delegate.isEmpty(provider, value);
+    }
+
+    @Override
+    public boolean usesObjectId() {
+      return delegate.usesObjectId();
+    }
+
+    @Override
+    public Class<Object> handledType() {
+      return delegate.handledType();
+    }
+  }
+}
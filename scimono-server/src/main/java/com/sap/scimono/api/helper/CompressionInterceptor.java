@@ -0,0 +1,171 @@
+package com.sap.scimono.api.helper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.exception.SCIMException;
+
+/**
+ * Compresses responses with the coding negotiated by the Accept-Encoding header of the request, and decompresses requests sent with a
+ * Content-Encoding header, e.g. large bulk requests. Responses smaller than {@link CompressionSettings#getMinimumSize()} are written
+ * uncompressed, unless a {@link StreamingOutput} flushes them earlier. Nothing is done unless
+ * {@link SCIMApplication#getCompressionSettings()} is set.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class CompressionInterceptor implements ReaderInterceptor, WriterInterceptor {
+  private static final String VARY_HEADER = "Vary";
+
+  @Context
+  private Application application;
+
+  @Context
+  private HttpHeaders httpHeaders;
+
+  @Override
+  public void aroundWriteTo(final WriterInterceptorContext context) throws IOException {
+    CompressionSettings settings = getCompressionSettings();
+    MultivaluedMap<String, Object> headers = context.getHeaders();
+    if (settings == null || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+      context.proceed();
+      return;
+    }
+
+    headers.add(VARY_HEADER, HttpHeaders.ACCEPT_ENCODING);
+    Optional<ContentEncoding> encoding = ContentEncoding.negotiate(httpHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+    if (!encoding.isPresent()) {
+      context.proceed();
+      return;
+    }
+
+    OutputStream originalOutput = context.getOutputStream();
+    boolean progressive = context.getEntity() instanceof StreamingOutput;
+    ThresholdCompressingOutputStream compressingOutput = new ThresholdCompressingOutputStream(originalOutput, encoding.get(),
+        settings.getLevel(), settings.getMinimumSize(), progressive, () -> {
+          headers.putSingle(HttpHeaders.CONTENT_ENCODING, encoding.get().getToken());
+          headers.remove(HttpHeaders.CONTENT_LENGTH);
+        });
+    context.setOutputStream(compressingOutput);
+    try {
+      context.proceed();
+      compressingOutput.finish();
+    } finally {
+      compressingOutput.release();
+      context.setOutputStream(originalOutput);
+    }
+  }
+
+  @Override
+  public Object aroundReadFrom(final ReaderInterceptorContext context) throws IOException {
+    CompressionSettings settings = getCompressionSettings();
+    String contentEncoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    if (settings == null || contentEncoding == null) {
+      return context.proceed();
+    }
+
+    Optional<ContentEncoding> encoding;
+    try {
+      encoding = ContentEncoding.fromContentEncoding(contentEncoding);
+    } catch (IllegalArgumentException e) {
+      throw new SCIMException(null, e.getMessage(), Response.Status.UNSUPPORTED_MEDIA_TYPE);
+    }
+    context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+    if (!encoding.isPresent()) {
+      return context.proceed();
+    }
+
+    InputStream originalInput = context.getInputStream();
+    LimitedInputStream decompressedInput = new LimitedInputStream(encoding.get().decompress(originalInput),
+        settings.getMaxDecompressedRequestSize());
+    context.setInputStream(decompressedInput);
+    try {
+      return context.proceed();
+    } catch (IOException | RuntimeException e) {
+      if (decompressedInput.isLimitExceeded()) {
+        String message = String.format("The decompressed request exceeds %d bytes", settings.getMaxDecompressedRequestSize());
+        throw new SCIMException(null, message, Response.Status.REQUEST_ENTITY_TOO_LARGE);
+      }
+      throw e;
+    } finally {
+      context.setInputStream(originalInput);
+    }
+  }
+
+  private CompressionSettings getCompressionSettings() {
+    SCIMApplication scimApplication = application == null ? null : SCIMApplication.from(application);
+    return scimApplication == null ? null : scimApplication.getCompressionSettings();
+  }
+
+  /**
+   * Fails reading beyond a maximal number of bytes, so that a small compressed request cannot expand into an arbitrary amount of data.
+   */
+  private static class LimitedInputStream extends FilterInputStream {
+    private long remainingBytes;
+    private boolean limitExceeded;
+
+    private LimitedInputStream(final InputStream input, final long maxBytes) {
+      super(input);
+      this.remainingBytes = maxBytes;
+    }
+
+    private boolean isLimitExceeded() {
+      return limitExceeded;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        countRead(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      int readBytes = super.read(b, off, len);
+      if (readBytes > 0) {
+        countRead(readBytes);
+      }
+      return readBytes;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+      long skippedBytes = super.skip(n);
+      countRead(skippedBytes);
+      return skippedBytes;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    private void countRead(final long readBytes) throws IOException {
+      remainingBytes -= readBytes;
+      if (remainingBytes < 0) {
+        limitExceeded = true;
+        throw new IOException("The decompressed request exceeds the maximal size");
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.sap.scimono.api.helper;
+
+import java.util.zip.Deflater;
+
+/**
+ * Configures the compression of SCIM responses and the decompression of SCIM requests, see
+ * {@link com.sap.scimono.SCIMApplication#getCompressionSettings()}.
+ */
+public class CompressionSettings {
+  public static final int DEFAULT_MINIMUM_SIZE = 1024;
+  public static final long DEFAULT_MAX_DECOMPRESSED_REQUEST_SIZE = 16L * 1024 * 1024;
+
+  private final int minimumSize;
+  private final int level;
+  private final long maxDecompressedRequestSize;
+
+  private CompressionSettings(final Builder builder) {
+    this.minimumSize = builder.minimumSize;
+    this.level = builder.level;
+    this.maxDecompressedRequestSize = builder.maxDecompressedRequestSize;
+  }
+
+  /**
+   * @return the minimal size in bytes of a response to be compressed
+   */
+  public int getMinimumSize() {
+    return minimumSize;
+  }
+
+  /**
+   * @return the compression level from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}
+   */
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * @return the maximal size in bytes of a decompressed request
+   */
+  public long getMaxDecompressedRequestSize() {
+    return maxDecompressedRequestSize;
+  }
+
+  public static class Builder {
+    private int minimumSize = DEFAULT_MINIMUM_SIZE;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private long maxDecompressedRequestSize = DEFAULT_MAX_DECOMPRESSED_REQUEST_SIZE;
+
+    /**
+     * @param minimumSize minimal size in bytes of a response to be compressed, smaller responses are written uncompressed
+     */
+    public Builder setMinimumSize(final int minimumSize) {
+      if (minimumSize < 0) {
+        throw new IllegalArgumentException("The minimal size must not be negative");
+      }
+      this.minimumSize = minimumSize;
+      return this;
+    }
+
+    /**
+     * @param level compression level from 0 (no compression) to 9 (best compression), or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public Builder setLevel(final int level) {
+      if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) && level != Deflater.DEFAULT_COMPRESSION) {
+        throw new IllegalArgumentException("The compression level must be between 0 and 9");
+      }
+      this.level = level;
+      return this;
+    }
+
+    /**
+     * @param maxDecompressedRequestSize maximal size in bytes of a decompressed request, larger requests are rejected with status 413
+     */
+    public Builder setMaxDecompressedRequestSize(final long maxDecompressedRequestSize) {
+      if (maxDecompressedRequestSize < 1) {
+        throw new IllegalArgumentException("The maximal decompressed request size must be at least 1");
+      }
+      this.maxDecompressedRequestSize = maxDecompressedRequestSize;
+      return this;
+    }
+
+    public CompressionSettings build() {
+      return new CompressionSettings(this);
+    }
+  }
+}
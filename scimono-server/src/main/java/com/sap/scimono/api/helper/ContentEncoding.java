@@ -0,0 +1,206 @@
+package com.sap.scimono.api.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * HTTP content codings supported for SCIM requests and responses, used by the server and the client.
+ */
+public enum ContentEncoding {
+  GZIP("gzip") {
+    @Override
+    public DeflaterOutputStream compress(final OutputStream output, final int level) throws IOException {
+      return new GzipCompressingOutputStream(output, level);
+    }
+
+    @Override
+    public InputStream decompress(final InputStream input) throws IOException {
+      return new GZIPInputStream(input, BUFFER_SIZE);
+    }
+  },
+  DEFLATE("deflate") {
+    @Override
+    public DeflaterOutputStream compress(final OutputStream output, final int level) {
+      return new DeflateCompressingOutputStream(output, level);
+    }
+
+    @Override
+    public InputStream decompress(final InputStream input) {
+      return new InflaterInputStream(input);
+    }
+  };
+
+  public static final String IDENTITY = "identity";
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final String ANY_ENCODING = "*";
+  private static final String QUALITY_PARAMETER = "q=";
+
+  private final String token;
+
+  ContentEncoding(final String token) {
+    this.token = token;
+  }
+
+  /**
+   * @return the value of the coding in the Content-Encoding and Accept-Encoding headers
+   */
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * Wraps an output stream into a compressing stream. Flushing the returned stream flushes the data compressed so far,
+   * {@link DeflaterOutputStream#finish()} writes the remaining data and releases the compressor without closing the wrapped stream.
+   *
+   * @param output the stream receiving the compressed data
+   * @param level compression level from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}
+   * @return the compressing stream
+   */
+  public abstract DeflaterOutputStream compress(OutputStream output, int level) throws IOException;
+
+  public abstract InputStream decompress(InputStream input) throws IOException;
+
+  /**
+   * Releases the compressor of a stream returned by {@link #compress(OutputStream, int)} which is not finished, without writing the
+   * remaining data.
+   *
+   * @param compressingOutput the compressing stream
+   */
+  static void release(final DeflaterOutputStream compressingOutput) {
+    if (compressingOutput instanceof ReleasableStream) {
+      ((ReleasableStream) compressingOutput).release();
+    }
+  }
+
+  /**
+   * @param contentEncoding value of a Content-Encoding header
+   * @return the coding, empty for {@code identity}
+   * @throws IllegalArgumentException if the coding is not supported
+   */
+  public static Optional<ContentEncoding> fromContentEncoding(final String contentEncoding) {
+    String token = contentEncoding.trim();
+    if (token.isEmpty() || IDENTITY.equalsIgnoreCase(token)) {
+      return Optional.empty();
+    }
+    for (ContentEncoding encoding : values()) {
+      if (encoding.token.equalsIgnoreCase(token)) {
+        return Optional.of(encoding);
+      }
+    }
+    throw new IllegalArgumentException("Unsupported content encoding: " + contentEncoding);
+  }
+
+  /**
+   * Selects the supported coding with the highest quality in an Accept-Encoding header. On equal quality, gzip is preferred.
+   *
+   * @param acceptEncoding value of an Accept-Encoding header, may be null
+   * @return the selected coding, empty if none of the supported codings is acceptable
+   */
+  public static Optional<ContentEncoding> negotiate(final String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return Optional.empty();
+    }
+
+    ContentEncoding selected = null;
+    float selectedQuality = 0;
+    for (ContentEncoding encoding : values()) {
+      float quality = getQuality(acceptEncoding, encoding.token);
+      if (quality > selectedQuality) {
+        selected = encoding;
+        selectedQuality = quality;
+      }
+    }
+    return Optional.ofNullable(selected);
+  }
+
+  /**
+   * @return the quality of the coding, or of {@code *} if the coding is not listed, 0 if neither is listed
+   */
+  private static float getQuality(final String acceptEncoding, final String token) {
+    float wildcardQuality = 0;
+    for (String codingWithParameters : acceptEncoding.split(",")) {
+      String[] parts = codingWithParameters.split(";");
+      String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+      if (!coding.equals(token) && !coding.equals(ANY_ENCODING)) {
+        continue;
+      }
+
+      float quality = 1;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+        if (parameter.startsWith(QUALITY_PARAMETER)) {
+          quality = parseQuality(parameter.substring(QUALITY_PARAMETER.length()));
+        }
+      }
+      if (coding.equals(token)) {
+        return quality;
+      }
+      wildcardQuality = quality;
+    }
+    return wildcardQuality;
+  }
+
+  private static float parseQuality(final String quality) {
+    try {
+      return Float.parseFloat(quality);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private interface ReleasableStream {
+    void release();
+  }
+
+  private static final class GzipCompressingOutputStream extends GZIPOutputStream implements ReleasableStream {
+
+    private GzipCompressingOutputStream(final OutputStream output, final int level) throws IOException {
+      super(output, BUFFER_SIZE, true);
+      def.setLevel(level);
+    }
+
+    @Override
+    public void finish() throws IOException {
+      try {
+        super.finish();
+      } finally {
+        def.end();
+      }
+    }
+
+    @Override
+    public void release() {
+      def.end();
+    }
+  }
+
+  private static final class DeflateCompressingOutputStream extends DeflaterOutputStream implements ReleasableStream {
+
+    private DeflateCompressingOutputStream(final OutputStream output, final int level) {
+      super(output, new Deflater(level), BUFFER_SIZE, true);
+    }
+
+    @Override
+    public void finish() throws IOException {
+      try {
+        super.finish();
+      } finally {
+        def.end();
+      }
+    }
+
+    @Override
+    public void release() {
+      def.end();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.sap.scimono.api.helper;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Configures the paging of list responses with cursors, see {@link com.sap.scimono.SCIMApplication#getCursorSettings()}.
+ */
+public class CursorSettings {
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(30);
+  public static final int MIN_SIGNING_KEY_LENGTH = 32;
+
+  private final byte[] signingKey;
+  private final Duration timeToLive;
+
+  private CursorSettings(final Builder builder) {
+    this.signingKey = builder.signingKey;
+    this.timeToLive = builder.timeToLive;
+  }
+
+  /**
+   * @return the secret key the cursors are signed with
+   */
+  public byte[] getSigningKey() {
+    return signingKey.clone();
+  }
+
+  /**
+   * @return the time after which a cursor is rejected as expired
+   */
+  public Duration getTimeToLive() {
+    return timeToLive;
+  }
+
+  public static class Builder {
+    private final byte[] signingKey;
+    private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * @param signingKey secret key of at least {@value #MIN_SIGNING_KEY_LENGTH} random bytes, the cursors are signed with HMAC-SHA256. All
+     *          instances of the application serving the same clients have to use the same key.
+     */
+    public Builder(final byte[] signingKey) {
+      if (signingKey == null || signingKey.length < MIN_SIGNING_KEY_LENGTH) {
+        throw new IllegalArgumentException(String.format("The signing key must have at least %d bytes", MIN_SIGNING_KEY_LENGTH));
+      }
+      this.signingKey = Arrays.copyOf(signingKey, signingKey.length);
+    }
+
+    /**
+     * @param timeToLive time after which a cursor is rejected with the error {@code expiredCursor}, counted from the response it was
+     *          returned with
+     */
+    public Builder setTimeToLive(final Duration timeToLive) {
+      if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+        throw new IllegalArgumentException("The time to live must be positive");
+      }
+      this.timeToLive = timeToLive;
+      return this;
+    }
+
+    public CursorSettings build() {
+      return new CursorSettings(this);
+    }
+  }
+}
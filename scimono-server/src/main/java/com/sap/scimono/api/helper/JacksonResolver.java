@@ -14,9 +14,12 @@ import static com.sap.scimono.api.API.APPLICATION_JSON_SCIM;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.ext.ContextResolver;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.scimono.SCIMApplication;
 
 /**
  * Due to the specifics of JAX-RS entity provider selection, Jackson's default object mapper is not automatically selected to handle object
@@ -26,6 +29,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * <p>
  * This class forces the JAX-RS implementation to use Jackson's default object mapper by changing how the resolution process works for media type
  * application/scim+json.
+ * <p>
+ * The returned object mapper is shared by all requests and is configured according to {@link SCIMApplication#getSerializationProfile()}.
  *
  * @author i061675
  *
@@ -34,9 +39,24 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 @Produces(APPLICATION_JSON_SCIM)
 public class JacksonResolver implements ContextResolver<ObjectMapper> {
 
+  @Context
+  private Application application;
+
+  private volatile ObjectMapper objectMapper;
+
   @Override
   public ObjectMapper getContext(final Class<?> type) {
-    return ObjectMapperFactory.createObjectMapper();
+    ObjectMapper mapper = objectMapper;
+    if (mapper == null) {
+      mapper = ObjectMapperRegistry.forProfile(getSerializationProfile()).getObjectMapper();
+      objectMapper = mapper;
+    }
+    return mapper;
+  }
+
+  private SerializationProfile getSerializationProfile() {
+    SCIMApplication scimApplication = application == null ? null : SCIMApplication.from(application);
+    return scimApplication == null ? SerializationProfile.PRETTY : scimApplication.getSerializationProfile();
   }
 
 }
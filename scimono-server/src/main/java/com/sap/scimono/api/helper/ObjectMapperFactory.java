@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 public class ObjectMapperFactory {
@@ -16,13 +17,19 @@ public class ObjectMapperFactory {
   }
 
   public static ObjectMapper createObjectMapper() {
+    return createObjectMapper(SerializationProfile.PRETTY);
+  }
+
+  public static ObjectMapper createObjectMapper(final SerializationProfile profile) {
     ObjectMapper mapper = new ObjectMapper();
     mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-    mapper.enable(SerializationFeature.INDENT_OUTPUT);
+    mapper.configure(SerializationFeature.INDENT_OUTPUT, profile == SerializationProfile.PRETTY);
     mapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
     mapper.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
     mapper.enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES);
     mapper.registerModule(new JavaTimeModule());
+    mapper.registerModule(new SimpleModule().setSerializerModifier(new ResourceLocationSerializerModifier()));
+    mapper.registerModule(new SimpleModule().setSerializerModifier(new AttributeProjectionSerializerModifier()));
     mapper.setDefaultSetterInfo(JsonSetter.Value.forContentNulls(Nulls.SKIP));
     return mapper;
   }
@@ -0,0 +1,86 @@
+package com.sap.scimono.api.helper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sap.scimono.entity.ErrorResponse;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.schema.Schema;
+
+/**
+ * Holds one application-wide {@link ObjectMapper} per {@link SerializationProfile} together with the {@link ObjectReader} and
+ * {@link ObjectWriter} instances created from it. Sharing the mappers keeps Jackson's serializer and deserializer caches alive between
+ * requests. The readers and writers of the core SCIM entities are created eagerly, so that the first request does not pay for their
+ * introspection.
+ * <p>
+ * The mappers returned by this class are shared and must not be reconfigured.
+ */
+public final class ObjectMapperRegistry {
+  private static final List<Class<?>> PREWARMED_TYPES = Collections.unmodifiableList(
+      Arrays.asList(User.class, Group.class, PatchBody.class, Schema.class, ErrorResponse.class));
+
+  private static final Map<SerializationProfile, ObjectMapperRegistry> REGISTRIES = createRegistries();
+
+  private final ObjectMapper objectMapper;
+  private final ObjectWriter streamingWriter;
+  private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+  private ObjectMapperRegistry(final SerializationProfile profile) {
+    this.objectMapper = ObjectMapperFactory.createObjectMapper(profile);
+    this.streamingWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    PREWARMED_TYPES.forEach(type -> {
+      readerFor(type);
+      writerFor(type);
+    });
+  }
+
+  private static Map<SerializationProfile, ObjectMapperRegistry> createRegistries() {
+    Map<SerializationProfile, ObjectMapperRegistry> registries = new EnumMap<>(SerializationProfile.class);
+    for (SerializationProfile profile : SerializationProfile.values()) {
+      registries.put(profile, new ObjectMapperRegistry(profile));
+    }
+    return Collections.unmodifiableMap(registries);
+  }
+
+  /**
+   * @return the registry of the {@link SerializationProfile#PRETTY} profile
+   */
+  public static ObjectMapperRegistry getDefault() {
+    return forProfile(SerializationProfile.PRETTY);
+  }
+
+  public static ObjectMapperRegistry forProfile(final SerializationProfile profile) {
+    return profile == null ? getDefault() : REGISTRIES.get(profile);
+  }
+
+  public ObjectMapper getObjectMapper() {
+    return objectMapper;
+  }
+
+  public ObjectReader readerFor(final Class<?> type) {
+    return readers.computeIfAbsent(type, objectMapper::readerFor);
+  }
+
+  public ObjectWriter writerFor(final Class<?> type) {
+    return writers.computeIfAbsent(type, objectMapper::writerFor);
+  }
+
+  /**
+   * @return a writer for writing a sequence of values to a single generator, which does not flush the generator after each value
+   */
+  public ObjectWriter getStreamingWriter() {
+    return streamingWriter;
+  }
+}
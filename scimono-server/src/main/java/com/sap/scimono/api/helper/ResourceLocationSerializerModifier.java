@@ -0,0 +1,159 @@
+package com.sap.scimono.api.helper;
+
+import static com.sap.scimono.entity.definition.ResourceConstants.META_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.META_LOCATION_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.MultivaluedAttributeConstants.REF_FIELD;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.GroupRef;
+import com.sap.scimono.entity.Manager;
+import com.sap.scimono.entity.MemberRef;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.helper.ResourceLocations;
+
+/**
+ * Adds the locations of users and groups and the {@code $ref} values of their group, member and manager references while they are
+ * written, if {@link ResourceLocations} are bound to the writing thread. The written values replace the values of the entities, as if
+ * they were set with {@link com.sap.scimono.helper.ResourceLocationService} before.
+ */
+class ResourceLocationSerializerModifier extends BeanSerializerModifier {
+  private static final String RESOURCE_LOCATION = ResourceLocationSerializerModifier.class.getName() + ".resourceLocation";
+
+  @Override
+  public List<BeanPropertyWriter> changeProperties(final SerializationConfig config, final BeanDescription beanDesc,
+      final List<BeanPropertyWriter> beanProperties) {
+    Class<?> beanClass = beanDesc.getBeanClass();
+    if (User.class.isAssignableFrom(beanClass) || Group.class.isAssignableFrom(beanClass)) {
+      replace(beanProperties, META_FIELD, MetaPropertyWriter::new);
+    } else if (Meta.class.isAssignableFrom(beanClass)) {
+      replace(beanProperties, META_LOCATION_FIELD,
+          writer -> new LocationPropertyWriter(writer, (meta, provider, locations) -> (String) provider.getAttribute(RESOURCE_LOCATION)));
+    } else if (GroupRef.class.isAssignableFrom(beanClass)) {
+      replace(beanProperties, REF_FIELD, writer -> new LocationPropertyWriter(writer,
+          (groupRef, provider, locations) -> getLocation(((GroupRef) groupRef).getValue(), locations::getGroupLocation)));
+    } else if (MemberRef.class.isAssignableFrom(beanClass)) {
+      replace(beanProperties, REF_FIELD, writer -> new LocationPropertyWriter(writer,
+          (memberRef, provider, locations) -> getMemberLocation((MemberRef) memberRef, locations)));
+    } else if (Manager.class.isAssignableFrom(beanClass)) {
+      replace(beanProperties, REF_FIELD, writer -> new LocationPropertyWriter(writer,
+          (manager, provider, locations) -> getLocation(((Manager) manager).getValue(), locations::getUserLocation)));
+    }
+    return beanProperties;
+  }
+
+  private static void replace(final List<BeanPropertyWriter> beanProperties, final String propertyName,
+      final UnaryOperator<BeanPropertyWriter> replacement) {
+    for (int i = 0; i < beanProperties.size(); i++) {
+      if (propertyName.equals(beanProperties.get(i).getName())) {
+        beanProperties.set(i, replacement.apply(beanProperties.get(i)));
+      }
+    }
+  }
+
+  private static String getResourceLocation(final Resource<?> resource, final ResourceLocations locations) {
+    if (resource instanceof User) {
+      return getLocation(((User) resource).getId(), locations::getUserLocation);
+    }
+    if (resource instanceof Group) {
+      return getLocation(((Group) resource).getId(), locations::getGroupLocation);
+    }
+    return null;
+  }
+
+  private static String getMemberLocation(final MemberRef memberRef, final ResourceLocations locations) {
+    MemberRef.Type memberType = memberRef.getType();
+    if (memberType == null) {
+      return null;
+    }
+
+    if (MemberRef.Type.USER.equals(memberType)) {
+      return getLocation(memberRef.getValue(), locations::getUserLocation);
+    }
+    if (MemberRef.Type.GROUP.equals(memberType)) {
+      return getLocation(memberRef.getValue(), locations::getGroupLocation);
+    }
+    return getLocation(memberRef.getValue(), locations::getRootLocation);
+  }
+
+  private static String getLocation(final String resourceId, final UnaryOperator<String> locationFunction) {
+    return resourceId == null ? null : locationFunction.apply(resourceId);
+  }
+
+  /**
+   * Writes a location computed from the bean instead of the property value.
+   */
+  private static class LocationPropertyWriter extends BeanPropertyWriter {
+    private static final long serialVersionUID = 1L;
+
+    private final transient LocationFunction locationFunction;
+
+    private LocationPropertyWriter(final BeanPropertyWriter base, final LocationFunction locationFunction) {
+      super(base);
+      this.locationFunction = locationFunction;
+    }
+
+    @Override
+    public void serializeAsField(final Object bean, final JsonGenerator gen, final SerializerProvider prov) throws Exception {
+      ResourceLocations locations = ResourceLocations.current();
+      String location = locations == null ? null : locationFunction.getLocation(bean, prov, locations);
+      if (location == null) {
+        super.serializeAsField(bean, gen, prov);
+        return;
+      }
+
+      gen.writeFieldName(getName());
+      gen.writeString(location);
+    }
+  }
+
+  /**
+   * Passes the location of a user or group to the writer of its meta data, and writes meta data for a resource without meta data, so that
+   * its location is added.
+   */
+  private static class MetaPropertyWriter extends BeanPropertyWriter {
+    private static final long serialVersionUID = 1L;
+
+    private MetaPropertyWriter(final BeanPropertyWriter base) {
+      super(base);
+    }
+
+    @Override
+    public void serializeAsField(final Object bean, final JsonGenerator gen, final SerializerProvider prov) throws Exception {
+      Resource<?> resource = (Resource<?>) bean;
+      ResourceLocations locations = ResourceLocations.current();
+      String location = locations == null ? null : getResourceLocation(resource, locations);
+      if (location == null) {
+        super.serializeAsField(bean, gen, prov);
+        return;
+      }
+
+      prov.setAttribute(RESOURCE_LOCATION, location);
+      try {
+        if (resource.getMeta() != null) {
+          super.serializeAsField(bean, gen, prov);
+        } else {
+          prov.defaultSerializeField(getName(), new Meta.Builder((Meta) null).build(), gen);
+        }
+      } finally {
+        prov.setAttribute(RESOURCE_LOCATION, null);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface LocationFunction {
+
+    String getLocation(Object bean, SerializerProvider provider, ResourceLocations locations);
+  }
+}
@@ -0,0 +1,16 @@
+package com.sap.scimono.api.helper;
+
+/**
+ * Controls how the SCIM API writes JSON responses.
+ */
+public enum SerializationProfile {
+  /**
+   * Indented, human-readable output. This is the default.
+   */
+  PRETTY,
+
+  /**
+   * Output without any insignificant whitespace. Recommended for production traffic as it considerably reduces the size of the responses.
+   */
+  COMPACT
+}
@@ -0,0 +1,134 @@
+package com.sap.scimono.api.helper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Buffers the written data until it reaches a minimal size, and compresses it from then on. Data smaller than the minimal size is written
+ * uncompressed when the stream is finished, so that small responses do not pay the overhead of the compression. A progressive stream,
+ * e.g. a streamed bulk response, is compressed from its first flush on, so that the flushed data reaches the client without waiting for
+ * the minimal size.
+ */
+class ThresholdCompressingOutputStream extends OutputStream {
+  private final OutputStream output;
+  private final ContentEncoding encoding;
+  private final int level;
+  private final boolean progressive;
+  private final Runnable compressionListener;
+
+  private byte[] buffer;
+  private int bufferedSize;
+  private DeflaterOutputStream compressingOutput;
+  private boolean finished;
+
+  /**
+   * @param output the stream receiving the compressed or uncompressed data
+   * @param encoding the coding used for data of at least the minimal size
+   * @param level the compression level
+   * @param minimumSize the minimal size in bytes of compressed data
+   * @param progressive whether flushing starts the compression of the buffered data
+   * @param compressionListener called once the data is found to be compressed, before anything is written to the output
+   */
+  ThresholdCompressingOutputStream(final OutputStream output, final ContentEncoding encoding, final int level, final int minimumSize,
+      final boolean progressive, final Runnable compressionListener) {
+    this.output = output;
+    this.encoding = encoding;
+    this.level = level;
+    this.progressive = progressive;
+    this.compressionListener = compressionListener;
+    this.buffer = new byte[minimumSize];
+  }
+
+  /**
+   * @return whether the written data is compressed
+   */
+  boolean isCompressed() {
+    return compressingOutput != null;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    if (finished) {
+      throw new IOException("The stream is already finished");
+    }
+    if (compressingOutput != null) {
+      compressingOutput.write(b, off, len);
+      return;
+    }
+    if (bufferedSize + len < buffer.length) {
+      System.arraycopy(b, off, buffer, bufferedSize, len);
+      bufferedSize += len;
+      return;
+    }
+
+    startCompression();
+    compressingOutput.write(b, off, len);
+  }
+
+  /**
+   * Flushes the compressed data. The buffered data of a progressive stream is compressed and flushed as well, while other streams keep it
+   * until it is known whether it is compressed, since message body writers flush the stream once they wrote the entity.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (compressingOutput == null && progressive && bufferedSize > 0 && !finished) {
+      startCompression();
+    }
+    if (compressingOutput != null) {
+      compressingOutput.flush();
+    }
+  }
+
+  private void startCompression() throws IOException {
+    compressionListener.run();
+    compressingOutput = encoding.compress(output, level);
+    compressingOutput.write(buffer, 0, bufferedSize);
+    buffer = null;
+  }
+
+  /**
+   * Writes the remaining data to the output without closing it.
+   */
+  void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    finished = true;
+
+    if (compressingOutput != null) {
+      compressingOutput.finish();
+    } else {
+      output.write(buffer, 0, bufferedSize);
+      buffer = null;
+    }
+    output.flush();
+  }
+
+  /**
+   * Releases the compressor of a stream which is not finished, e.g. because writing the entity failed. Nothing more is written to the
+   * output.
+   */
+  void release() {
+    if (finished) {
+      return;
+    }
+    finished = true;
+
+    buffer = null;
+    if (compressingOutput != null) {
+      ContentEncoding.release(compressingOutput);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    finish();
+    output.close();
+  }
+}
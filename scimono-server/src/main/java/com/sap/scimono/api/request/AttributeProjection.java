@@ -0,0 +1,294 @@
+package com.sap.scimono.api.request;
+
+import static com.sap.scimono.callback.schemas.SchemasCallback.COMPLEX_ATTRIBUTE_DELIMETER;
+import static com.sap.scimono.callback.schemas.SchemasCallback.SCHEMA_URN_DELIMETER;
+import static com.sap.scimono.entity.definition.ResourceConstants.EXTERNAL_ID_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.ID_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.META_FIELD;
+import static com.sap.scimono.entity.definition.ResourceConstants.SCHEMAS_FIELD;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.sap.scimono.callback.schemas.SchemaAttributeIndex;
+import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.entity.schema.Schema;
+
+/**
+ * The attributes of a resource returned in a response, compiled from the {@code attributes} and {@code excludedAttributes} parameters of
+ * a request against the schema of the resource and the schemas of its extensions. Attributes are returned according to their
+ * {@code returned} characteristic:
+ * <ul>
+ * <li>{@code always} - returned even if not requested or excluded, e.g. {@code id}</li>
+ * <li>{@code never} - never returned, e.g. {@code password}</li>
+ * <li>{@code request} - returned only if listed in {@code attributes}</li>
+ * <li>{@code default} - returned if listed in {@code attributes}, or if no attributes are listed and the attribute is not excluded</li>
+ * </ul>
+ * If {@code attributes} are listed, {@code excludedAttributes} are ignored. Attribute names are case insensitive, attributes of the
+ * schema of the resource may be listed without the schema id. Attributes of custom schemas are resolved by their names and handled as
+ * {@code returned=default}.
+ * <p>
+ * Projections are immutable and cached per distinct request parameters, see {@link RequestedResourceAttributesParser}. Callbacks may use
+ * them to read only the returned attributes from the data source, the server applies them while writing the resources anyway.
+ */
+public final class AttributeProjection {
+  private static final String URN_PREFIX = "urn:";
+  private static final String RETURNED_ALWAYS = "always";
+  private static final String RETURNED_NEVER = "never";
+  private static final String RETURNED_REQUEST = "request";
+  private static final Pattern ATTRIBUTE_PATH_SPLITTER = Pattern.compile(Pattern.quote(COMPLEX_ATTRIBUTE_DELIMETER));
+
+  // @formatter:off
+  private static final List<Attribute> COMMON_ATTRIBUTES = Arrays.asList(
+      new Attribute.Builder().name(ID_FIELD).returned(RETURNED_ALWAYS).build(),
+      new Attribute.Builder().name(SCHEMAS_FIELD).returned(RETURNED_ALWAYS).build(),
+      new Attribute.Builder().name(EXTERNAL_ID_FIELD).build(),
+      new Attribute.Builder().name(META_FIELD).build());
+  // @formatter:on
+
+  private final String resourceSchemaId;
+  private final boolean restricted;
+  private final Set<String> returnedAttributes;
+  private final TokenFilter filter;
+
+  private AttributeProjection(final String resourceSchemaId, final boolean restricted, final Set<String> returnedAttributes,
+      final TokenFilter filter) {
+    this.resourceSchemaId = resourceSchemaId;
+    this.restricted = restricted;
+    this.returnedAttributes = Collections.unmodifiableSet(returnedAttributes);
+    this.filter = filter;
+  }
+
+  static AttributeProjection compile(final String resourceSchemaId, final List<String> attributes, final List<String> excludedAttributes) {
+    SchemaAttributeIndex index = SchemaAttributeIndex.core();
+    Selection selection = new Selection();
+    for (String attributePath : attributes.isEmpty() ? excludedAttributes : attributes) {
+      for (List<String> segments : toSegments(resourceSchemaId, attributePath.trim(), index)) {
+        selection.add(segments);
+      }
+    }
+    // listing the schema of the resource selects all of its attributes, as if no attributes were listed
+    boolean include = !attributes.isEmpty() && !selection.whole;
+
+    List<Attribute> rootAttributes = new ArrayList<>(COMMON_ATTRIBUTES);
+    Schema resourceSchema = index.getSchema(resourceSchemaId);
+    if (resourceSchema != null) {
+      rootAttributes.addAll(resourceSchema.getAttributes());
+    }
+
+    Node root = new Node(include ? null : TokenFilter.INCLUDE_ALL);
+    Set<String> returnedAttributes = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    for (Attribute attribute : rootAttributes) {
+      TokenFilter attributeFilter = compile(selection.children.get(attribute.getName()), attribute, attribute.getSubAttributes(), include);
+      root.properties.put(attribute.getName(), attributeFilter);
+      if (attributeFilter != null) {
+        returnedAttributes.add(resourceSchemaId + SCHEMA_URN_DELIMETER + attribute.getName());
+      }
+    }
+    for (Map.Entry<String, Selection> selected : selection.children.entrySet()) {
+      if (root.properties.containsKey(selected.getKey())) {
+        continue;
+      }
+      Schema extensionSchema = index.getSchema(selected.getKey());
+      List<Attribute> extensionAttributes = extensionSchema == null ? Collections.emptyList() : extensionSchema.getAttributes();
+      TokenFilter extensionFilter = compile(selected.getValue(), null, extensionAttributes, include);
+      root.properties.put(selected.getKey(), extensionFilter);
+      if (extensionFilter != null && selected.getKey().regionMatches(true, 0, URN_PREFIX, 0, URN_PREFIX.length())) {
+        returnedAttributes.add(selected.getKey());
+      }
+    }
+
+    boolean restricted = !attributes.isEmpty() || !excludedAttributes.isEmpty();
+    return new AttributeProjection(resourceSchemaId, restricted, returnedAttributes, root);
+  }
+
+  /**
+   * @param selection the listed sub-attributes of the attribute, null if it is not listed
+   * @param attribute the definition of the attribute, null if unknown
+   * @param subAttributes the definitions of the known sub-attributes
+   * @param include whether the selection lists the returned or the excluded attributes
+   * @return null if the attribute is not returned, {@link TokenFilter#INCLUDE_ALL} if it is returned with all of its sub-attributes
+   */
+  private static TokenFilter compile(final Selection selection, final Attribute attribute, final List<Attribute> subAttributes,
+      final boolean include) {
+    String returned = attribute == null ? null : attribute.getReturned();
+    if (RETURNED_NEVER.equalsIgnoreCase(returned)) {
+      return null;
+    }
+
+    Selection effectiveSelection = selection;
+    boolean effectiveInclude = include;
+    if (RETURNED_ALWAYS.equalsIgnoreCase(returned) && (include ? selection == null : selection != null)) {
+      // returned as if no attributes were listed
+      effectiveSelection = null;
+      effectiveInclude = false;
+    }
+
+    if (effectiveInclude) {
+      if (effectiveSelection == null) {
+        return null;
+      }
+      if (effectiveSelection.whole) {
+        return compile(null, null, subAttributes, false);
+      }
+    } else if ((effectiveSelection != null && effectiveSelection.whole) || RETURNED_REQUEST.equalsIgnoreCase(returned)) {
+      return null;
+    }
+
+    Node node = new Node(effectiveInclude ? null : TokenFilter.INCLUDE_ALL);
+    for (Attribute subAttribute : subAttributes) {
+      Selection subSelection = effectiveSelection == null ? null : effectiveSelection.children.get(subAttribute.getName());
+      node.properties.put(subAttribute.getName(), compile(subSelection, subAttribute, subAttribute.getSubAttributes(), effectiveInclude));
+    }
+    if (effectiveSelection != null) {
+      for (Map.Entry<String, Selection> selected : effectiveSelection.children.entrySet()) {
+        if (!node.properties.containsKey(selected.getKey())) {
+          node.properties.put(selected.getKey(), compile(selected.getValue(), null, Collections.emptyList(), effectiveInclude));
+        }
+      }
+    }
+    return node.isIncludingAll() ? TokenFilter.INCLUDE_ALL : node;
+  }
+
+  /**
+   * Splits an attribute path into the names of the JSON properties on the path. Attributes of an extension start with the schema id of the
+   * extension. For attributes of unknown schemas, the id cannot be told apart from the attribute name, so both readings are returned.
+   */
+  private static List<List<String>> toSegments(final String resourceSchemaId, final String attributePath,
+      final SchemaAttributeIndex index) {
+    if (attributePath.isEmpty()) {
+      return Collections.emptyList();
+    }
+    if (!attributePath.regionMatches(true, 0, URN_PREFIX, 0, URN_PREFIX.length())) {
+      return Collections.singletonList(Arrays.asList(ATTRIBUTE_PATH_SPLITTER.split(attributePath)));
+    }
+
+    String schemaId = index.getSchemaId(attributePath);
+    if (schemaId == null) {
+      int schemaEnd = attributePath.lastIndexOf(SCHEMA_URN_DELIMETER);
+      return Arrays.asList(Collections.singletonList(attributePath),
+          toSegments(attributePath.substring(0, schemaEnd), attributePath.substring(schemaEnd + 1)));
+    }
+    String attributeName = attributePath.length() > schemaId.length() ? attributePath.substring(schemaId.length() + 1) : "";
+    if (schemaId.equalsIgnoreCase(resourceSchemaId)) {
+      return attributeName.isEmpty() ? Collections.singletonList(Collections.emptyList())
+          : Collections.singletonList(Arrays.asList(ATTRIBUTE_PATH_SPLITTER.split(attributeName)));
+    }
+    return Collections.singletonList(toSegments(schemaId, attributeName));
+  }
+
+  private static List<String> toSegments(final String schemaId, final String attributeName) {
+    List<String> segments = new ArrayList<>();
+    segments.add(schemaId);
+    if (!attributeName.isEmpty()) {
+      segments.addAll(Arrays.asList(ATTRIBUTE_PATH_SPLITTER.split(attributeName)));
+    }
+    return segments;
+  }
+
+  /**
+   * @return the id of the schema of the projected resource
+   */
+  public String getResourceSchemaId() {
+    return resourceSchemaId;
+  }
+
+  /**
+   * @return false if neither attributes nor excluded attributes were requested, so that all attributes are returned except the ones
+   *         which are never returned
+   */
+  public boolean isRestricted() {
+    return restricted;
+  }
+
+  /**
+   * Returns the known top-level attributes of the resource schema and the extensions which are returned completely or partially, e.g.
+   * {@code urn:ietf:params:scim:schemas:core:2.0:User:userName} or {@code urn:ietf:params:scim:schemas:extension:enterprise:2.0:User}.
+   *
+   * @return unmodifiable set of fully qualified attribute names, sorted case insensitive
+   */
+  public Set<String> getReturnedAttributes() {
+    return returnedAttributes;
+  }
+
+  /**
+   * @param attributePath path of an attribute or sub-attribute, with or without schema id, e.g. {@code name.givenName}
+   * @return whether the attribute or any of its sub-attributes is returned
+   */
+  public boolean isReturned(final String attributePath) {
+    List<List<String>> readings = toSegments(resourceSchemaId, attributePath.trim(), SchemaAttributeIndex.core());
+    for (List<String> segments : readings) {
+      TokenFilter segmentFilter = filter;
+      for (int i = 0; i < segments.size() && segmentFilter != null && segmentFilter != TokenFilter.INCLUDE_ALL; i++) {
+        segmentFilter = segmentFilter.includeProperty(segments.get(i));
+      }
+      if (segmentFilter != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the filter writing the returned attributes of a resource, see
+   *         {@link com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate}
+   */
+  public TokenFilter asTokenFilter() {
+    return filter;
+  }
+
+  @Override
+  public String toString() {
+    return "AttributeProjection [resourceSchemaId=" + resourceSchemaId + ", returnedAttributes=" + returnedAttributes + "]";
+  }
+
+  /**
+   * Listed attribute paths, as tree of property names.
+   */
+  private static final class Selection {
+    private final Map<String, Selection> children = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private boolean whole;
+
+    private void add(final List<String> segments) {
+      Selection selection = this;
+      for (String segment : segments) {
+        if (selection.whole) {
+          return;
+        }
+        selection = selection.children.computeIfAbsent(segment, name -> new Selection());
+      }
+      selection.whole = true;
+      selection.children.clear();
+    }
+  }
+
+  /**
+   * Filter for a complex attribute of which only some sub-attributes are returned. Elements of multi-valued attributes are filtered
+   * like the attribute.
+   */
+  private static final class Node extends TokenFilter {
+    private final Map<String, TokenFilter> properties = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final TokenFilter otherProperties;
+
+    private Node(final TokenFilter otherProperties) {
+      this.otherProperties = otherProperties;
+    }
+
+    @Override
+    public TokenFilter includeProperty(final String name) {
+      return properties.getOrDefault(name, otherProperties);
+    }
+
+    private boolean isIncludingAll() {
+      return otherProperties == TokenFilter.INCLUDE_ALL && properties.values().stream().allMatch(TokenFilter.INCLUDE_ALL::equals);
+    }
+  }
+}
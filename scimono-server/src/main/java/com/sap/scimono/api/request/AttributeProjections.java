@@ -0,0 +1,49 @@
+package com.sap.scimono.api.request;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The attributes requested for the resources of one response. While the response is written, the projections are bound to the writing
+ * thread, so that only the returned attributes of the users and groups are serialized.
+ */
+public final class AttributeProjections {
+  private static final ThreadLocal<AttributeProjections> threadLocal = new ThreadLocal<>();
+
+  private final String attributes;
+  private final String excludedAttributes;
+  private final Map<String, AttributeProjection> projectionsBySchema = new HashMap<>();
+
+  /**
+   * @param attributes value of the attributes parameter, may be null
+   * @param excludedAttributes value of the excludedAttributes parameter, may be null
+   */
+  public AttributeProjections(final String attributes, final String excludedAttributes) {
+    this.attributes = attributes;
+    this.excludedAttributes = excludedAttributes;
+  }
+
+  public static void bind(final AttributeProjections projections) {
+    threadLocal.set(projections);
+  }
+
+  public static void remove() {
+    threadLocal.remove();
+  }
+
+  /**
+   * @return the projections bound to the current thread, null if all attributes are written
+   */
+  public static AttributeProjections current() {
+    return threadLocal.get();
+  }
+
+  /**
+   * @param resourceSchemaId id of the core schema of the written resource
+   * @return the projection of the resource
+   */
+  public AttributeProjection get(final String resourceSchemaId) {
+    return projectionsBySchema.computeIfAbsent(resourceSchemaId,
+        schemaId -> RequestedResourceAttributesParser.parse(schemaId, attributes, excludedAttributes).getProjection().get());
+  }
+}
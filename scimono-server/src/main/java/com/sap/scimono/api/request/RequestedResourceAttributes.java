@@ -1,14 +1,21 @@
 package com.sap.scimono.api.request;
 
 import java.util.List;
+import java.util.Optional;
 
 public class RequestedResourceAttributes {
   private final List<String> attributesToBeReturned;
   private final List<String> attributesToBeExcluded;
+  private final AttributeProjection projection;
 
   RequestedResourceAttributes(List<String> attributesToBeReturned, List<String> attributesToBeExcluded) {
+    this(attributesToBeReturned, attributesToBeExcluded, null);
+  }
+
+  RequestedResourceAttributes(List<String> attributesToBeReturned, List<String> attributesToBeExcluded, AttributeProjection projection) {
     this.attributesToBeReturned = attributesToBeReturned;
     this.attributesToBeExcluded = attributesToBeExcluded;
+    this.projection = projection;
   }
 
   public List<String> getAttributesToBeReturned() {
@@ -18,4 +25,11 @@ public class RequestedResourceAttributes {
   public List<String> getAttributesToBeExcluded() {
     return attributesToBeExcluded;
   }
+
+  /**
+   * @return the attributes resolved against the schema of the requested resource, empty if the attributes were parsed without schema
+   */
+  public Optional<AttributeProjection> getProjection() {
+    return Optional.ofNullable(projection);
+  }
 }
@@ -3,9 +3,15 @@ package com.sap.scimono.api.request;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class RequestedResourceAttributesParser {
   private static final String ATTRIBUTES_DELIMITER = ",";
+  private static final int MAX_CACHED_PROJECTIONS = 256;
+  private static final Map<ProjectionKey, RequestedResourceAttributes> projectionsCache = new ConcurrentHashMap<>();
+
   private RequestedResourceAttributesParser() {
 
   }
@@ -14,6 +20,35 @@ public class RequestedResourceAttributesParser {
     return new RequestedResourceAttributes(parse(attributes), parse(excludedAttributes));
   }
 
+  /**
+   * Parses the requested attributes and compiles them into an {@link AttributeProjection} for the resource. The result is cached per
+   * distinct parameters, so that repeated requests for the same attributes don't resolve them again.
+   *
+   * @param resourceSchemaId id of the core schema of the requested resource, e.g. {@link com.sap.scimono.entity.User#SCHEMA}
+   * @param attributes value of the attributes parameter, may be null
+   * @param excludedAttributes value of the excludedAttributes parameter, may be null
+   * @return the requested attributes with their projection
+   */
+  public static RequestedResourceAttributes parse(String resourceSchemaId, String attributes, String excludedAttributes) {
+    ProjectionKey key = new ProjectionKey(resourceSchemaId, attributes, excludedAttributes);
+    RequestedResourceAttributes cached = projectionsCache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    List<String> attributesToBeReturned = parse(attributes);
+    List<String> attributesToBeExcluded = parse(excludedAttributes);
+    AttributeProjection projection = AttributeProjection.compile(resourceSchemaId, attributesToBeReturned, attributesToBeExcluded);
+    RequestedResourceAttributes requestedAttributes = new RequestedResourceAttributes(attributesToBeReturned, attributesToBeExcluded,
+        projection);
+
+    if (projectionsCache.size() >= MAX_CACHED_PROJECTIONS) {
+      projectionsCache.clear();
+    }
+    projectionsCache.put(key, requestedAttributes);
+    return requestedAttributes;
+  }
+
   private static List<String> parse(String queryValue) {
     if (queryValue == null) {
       return Collections.emptyList();
@@ -21,4 +56,31 @@ public class RequestedResourceAttributesParser {
 
     return Arrays.asList(queryValue.split(ATTRIBUTES_DELIMITER));
   }
+
+  private static final class ProjectionKey {
+    private final String resourceSchemaId;
+    private final String attributes;
+    private final String excludedAttributes;
+
+    private ProjectionKey(String resourceSchemaId, String attributes, String excludedAttributes) {
+      this.resourceSchemaId = resourceSchemaId;
+      this.attributes = attributes;
+      this.excludedAttributes = excludedAttributes;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(resourceSchemaId, attributes, excludedAttributes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof ProjectionKey)) {
+        return false;
+      }
+      ProjectionKey other = (ProjectionKey) obj;
+      return Objects.equals(resourceSchemaId, other.resourceSchemaId) && Objects.equals(attributes, other.attributes)
+          && Objects.equals(excludedAttributes, other.excludedAttributes);
+    }
+  }
 }
@@ -0,0 +1,23 @@
+package com.sap.scimono.callback.bulk;
+
+import java.util.List;
+
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+
+/**
+ * {@link BulkOperationHandler} which can execute several operations at once. A {@link ParallelBulkRequestCallback} hands over
+ * consecutive operations of a bulk request with the same resource type and method in one batch, if they do not depend on each other.
+ */
+public interface BatchBulkOperationHandler extends BulkOperationHandler {
+
+  /**
+   * Executes a batch of operations with the same resource type and method. References to resources created in the same bulk request are
+   * already replaced with the ids of the created resources.
+   *
+   * @param operations operations with preprocessed data
+   * @return the responses of the operations, in the order of the operations
+   * @throws com.sap.scimono.exception.SCIMException if the whole batch fails, the error is reported in the responses of all operations
+   */
+  List<ResponseOperation> handle(List<RequestOperation> operations);
+}
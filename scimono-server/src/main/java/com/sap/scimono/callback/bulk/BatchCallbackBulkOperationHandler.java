@@ -0,0 +1,125 @@
+package com.sap.scimono.callback.bulk;
+
+import static com.sap.scimono.callback.bulk.CallbackBulkOperationHandler.requireResourceId;
+import static com.sap.scimono.callback.bulk.CallbackBulkOperationHandler.successfulResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.exception.InternalScimonoException;
+
+/**
+ * {@link BatchBulkOperationHandler} executing the operations through a {@link BulkBatchCallback}. The results of the callback are mapped
+ * back to the responses of the single operations.
+ */
+public class BatchCallbackBulkOperationHandler implements BatchBulkOperationHandler {
+  private final BulkBatchCallback batchAPI;
+
+  public BatchCallbackBulkOperationHandler(final BulkBatchCallback batchAPI) {
+    this.batchAPI = batchAPI;
+  }
+
+  @Override
+  public ResponseOperation handle(final RequestOperation operation) {
+    return handle(Collections.singletonList(operation)).get(0);
+  }
+
+  @Override
+  public List<ResponseOperation> handle(final List<RequestOperation> operations) {
+    RequestOperation firstOperation = operations.get(0);
+    String resourceType = firstOperation.getResourceType();
+    if (User.RESOURCE_TYPE_USER.equalsIgnoreCase(resourceType)) {
+      return handleUserOperations(firstOperation.getMethod(), operations);
+    }
+    if (Group.RESOURCE_TYPE_GROUP.equalsIgnoreCase(resourceType)) {
+      return handleGroupOperations(firstOperation.getMethod(), operations);
+    }
+    throw new InternalScimonoException(String.format("Unsupported resource type %s of bulk operation with bulkId: %s", resourceType,
+        firstOperation.getBulkId()));
+  }
+
+  private List<ResponseOperation> handleUserOperations(final RequestMethod method, final List<RequestOperation> operations) {
+    switch (method) {
+      case POST:
+        return toResponses(operations, batchAPI.createUsers(getData(operations, RequestOperation::getDataAsUser)));
+      case PUT:
+        return toResponses(operations, batchAPI.updateUsers(getData(operations, RequestOperation::getDataAsUser)));
+      case PATCH:
+        return toResponses(operations, batchAPI.patchUsers(getPatches(operations)));
+      case DELETE:
+        return toResponses(operations, batchAPI.deleteUsers(getResourceIds(operations)));
+      default:
+        throw new InternalScimonoException("Unsupported bulk operation method: " + method);
+    }
+  }
+
+  private List<ResponseOperation> handleGroupOperations(final RequestMethod method, final List<RequestOperation> operations) {
+    switch (method) {
+      case POST:
+        return toResponses(operations, batchAPI.createGroups(getData(operations, RequestOperation::getDataAsGroup)));
+      case PUT:
+        return toResponses(operations, batchAPI.updateGroups(getData(operations, RequestOperation::getDataAsGroup)));
+      case PATCH:
+        return toResponses(operations, batchAPI.patchGroups(getPatches(operations)));
+      case DELETE:
+        return toResponses(operations, batchAPI.deleteGroups(getResourceIds(operations)));
+      default:
+        throw new InternalScimonoException("Unsupported bulk operation method: " + method);
+    }
+  }
+
+  private static <T> List<T> getData(final List<RequestOperation> operations, final Function<RequestOperation, T> dataGetter) {
+    return operations.stream().map(dataGetter).collect(Collectors.toList());
+  }
+
+  private static List<String> getResourceIds(final List<RequestOperation> operations) {
+    return getData(operations, CallbackBulkOperationHandler::requireResourceId);
+  }
+
+  private static Map<String, PatchBody> getPatches(final List<RequestOperation> operations) {
+    Map<String, PatchBody> patches = new LinkedHashMap<>();
+    for (RequestOperation operation : operations) {
+      String resourceId = requireResourceId(operation);
+      if (patches.put(resourceId, operation.getDataAsPatch()) != null) {
+        throw new InternalScimonoException("A batch must not contain several operations on the same resource: " + resourceId);
+      }
+    }
+    return patches;
+  }
+
+  private static List<ResponseOperation> toResponses(final List<RequestOperation> operations,
+      final List<? extends BatchResult<?>> results) {
+    if (results == null || results.size() != operations.size()) {
+      throw new InternalScimonoException(String.format("Expected %d results of the batch operation, got %s", operations.size(),
+          results == null ? null : results.size()));
+    }
+
+    List<ResponseOperation> responses = new ArrayList<>(operations.size());
+    for (int i = 0; i < operations.size(); i++) {
+      responses.add(toResponse(operations.get(i), results.get(i)));
+    }
+    return responses;
+  }
+
+  private static ResponseOperation toResponse(final RequestOperation operation, final BatchResult<?> result) {
+    if (!result.isSuccessful()) {
+      return operation.errorResponse(result.getError()).build();
+    }
+    if (result.getValue() instanceof Resource) {
+      return successfulResponse(operation, (Resource<?>) result.getValue());
+    }
+    return operation.successfulResponse().build();
+  }
+}
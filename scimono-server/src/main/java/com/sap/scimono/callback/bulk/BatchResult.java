@@ -0,0 +1,44 @@
+package com.sap.scimono.callback.bulk;
+
+import java.util.Objects;
+
+import com.sap.scimono.exception.SCIMException;
+
+/**
+ * Result of a single item of a batch operation of a {@link BulkBatchCallback}, either the value of the item or the error which made the
+ * item fail.
+ *
+ * @param <T> the type of the value
+ */
+public final class BatchResult<T> {
+  private final T value;
+  private final SCIMException error;
+
+  private BatchResult(final T value, final SCIMException error) {
+    this.value = value;
+    this.error = error;
+  }
+
+  public static <T> BatchResult<T> success(final T value) {
+    return new BatchResult<>(value, null);
+  }
+
+  public static <T> BatchResult<T> failure(final SCIMException error) {
+    return new BatchResult<>(null, Objects.requireNonNull(error, "error"));
+  }
+
+  public boolean isSuccessful() {
+    return error == null;
+  }
+
+  /**
+   * @return the value of a successful item, e.g. the created resource, null for items without a value
+   */
+  public T getValue() {
+    return value;
+  }
+
+  public SCIMException getError() {
+    return error;
+  }
+}
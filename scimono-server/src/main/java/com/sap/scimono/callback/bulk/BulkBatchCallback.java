@@ -0,0 +1,60 @@
+package com.sap.scimono.callback.bulk;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.patch.PatchBody;
+
+/**
+ * Set based callback for the operations of bulk requests, used through a {@link BatchCallbackBulkOperationHandler}. Consecutive
+ * operations of a bulk request with the same resource type and method, which do not depend on each other, are handed over in one call,
+ * so that they can be stored with batched or multi-row statements.
+ * <p>
+ * Every method returns one {@link BatchResult} per item, in the order of the items. A failing item must be reported as a failed result,
+ * an exception thrown by a method fails all items of the call. The methods may be called concurrently.
+ */
+public interface BulkBatchCallback {
+
+  /**
+   * @return the created users, with their ids
+   */
+  List<BatchResult<User>> createUsers(List<User> users);
+
+  /**
+   * @return the updated users
+   */
+  List<BatchResult<User>> updateUsers(List<User> users);
+
+  /**
+   * Unlike with the {@link CallbackBulkOperationHandler}, the existence of the users is not checked before, an unknown user id must be
+   * reported as a failed result with a {@link com.sap.scimono.exception.ResourceNotFoundException}.
+   *
+   * @param patches the patches by user id, in the order of the operations; the meta of a patch body holds the new version of the user
+   */
+  List<BatchResult<Void>> patchUsers(Map<String, PatchBody> patches);
+
+  List<BatchResult<Void>> deleteUsers(Collection<String> userIds);
+
+  /**
+   * @return the created groups, with their ids
+   */
+  List<BatchResult<Group>> createGroups(List<Group> groups);
+
+  /**
+   * @return the updated groups
+   */
+  List<BatchResult<Group>> updateGroups(List<Group> groups);
+
+  /**
+   * Unlike with the {@link CallbackBulkOperationHandler}, the existence of the groups is not checked before, an unknown group id must be
+   * reported as a failed result with a {@link com.sap.scimono.exception.ResourceNotFoundException}.
+   *
+   * @param patches the patches by group id, in the order of the operations; the meta of a patch body holds the new version of the group
+   */
+  List<BatchResult<Void>> patchGroups(Map<String, PatchBody> patches);
+
+  List<BatchResult<Void>> deleteGroups(Collection<String> groupIds);
+}
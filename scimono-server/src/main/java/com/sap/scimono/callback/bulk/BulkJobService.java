@@ -0,0 +1,120 @@
+package com.sap.scimono.callback.bulk;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.scimono.api.helper.ScimErrorResponseParser;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.BulkJob;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.exception.SCIMException;
+
+/**
+ * Executes bulk requests asynchronously on a bounded pool of worker threads and keeps their state in a {@link BulkJobStore}. The responses
+ * of a {@link StreamingBulkRequestCallback} are stored as the operations complete, so the progress of a job can be polled, the responses
+ * of other callbacks are stored once the whole request is processed. A job lists the responses in the order of the request and can only
+ * be polled by the principal which submitted it.
+ * <p>
+ * The callbacks are executed after the HTTP request has completed, so they must not depend on the request context, e.g. on the
+ * {@link com.sap.scimono.api.ContextResolver}. A new job is rejected with status 503 when all workers are busy and the queue is full.
+ */
+public class BulkJobService {
+  public static final int DEFAULT_WORKER_THREADS = 4;
+  public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+  private static final Logger logger = LoggerFactory.getLogger(BulkJobService.class);
+
+  private final BulkJobStore jobStore;
+  private final ThreadPoolExecutor executor;
+
+  public BulkJobService() {
+    this(new InMemoryBulkJobStore(), DEFAULT_WORKER_THREADS, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * @param workerThreads the number of jobs executed at the same time
+   * @param queueCapacity the number of jobs waiting for a worker
+   */
+  public BulkJobService(final BulkJobStore jobStore, final int workerThreads, final int queueCapacity) {
+    this.jobStore = jobStore;
+    this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+        new WorkerThreadFactory());
+  }
+
+  /**
+   * Schedules the execution of a bulk request.
+   *
+   * @param submitter the name of the principal submitting the bulk request, null for anonymous requests
+   * @return the initial state of the job
+   */
+  public BulkJob submit(final BulkBody<RequestOperation> bulkRequest, final BulkRequestCallback bulkAPI, final String submitter) {
+    String jobId = UUID.randomUUID().toString();
+    int totalOperations = bulkRequest.getOperations().size();
+    jobStore.createJob(jobId, submitter, totalOperations);
+
+    try {
+      executor.execute(() -> execute(jobId, bulkRequest, bulkAPI));
+    } catch (RejectedExecutionException e) {
+      jobStore.finishJob(jobId, ScimErrorResponseParser.parseException(e));
+      throw new SCIMException(SCIMException.Type.TOO_MANY, "Too many bulk jobs are in progress", Response.Status.SERVICE_UNAVAILABLE);
+    }
+
+    return getJob(jobId, submitter);
+  }
+
+  /**
+   * @param requester the name of the principal polling the job, null for anonymous requests
+   * @return the current state of the job, null if the job is unknown or was submitted by another principal
+   */
+  public BulkJob getJob(final String jobId, final String requester) {
+    return jobStore.getJob(jobId, requester);
+  }
+
+  /**
+   * Stops accepting new jobs, the scheduled jobs are still executed.
+   */
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private void execute(final String jobId, final BulkBody<RequestOperation> bulkRequest, final BulkRequestCallback bulkAPI) {
+    try {
+      if (bulkAPI instanceof StreamingBulkRequestCallback) {
+        ((StreamingBulkRequestCallback) bulkAPI).handleBulkRequest(bulkRequest,
+            (response, operationIndex) -> jobStore.addResponse(jobId, operationIndex, response));
+      } else {
+        List<ResponseOperation> responses = bulkAPI.handleBulkRequest(bulkRequest).getOperations();
+        for (int i = 0; i < responses.size(); i++) {
+          jobStore.addResponse(jobId, i, responses.get(i));
+        }
+      }
+      jobStore.finishJob(jobId, null);
+    } catch (RuntimeException e) {
+      logger.error("Bulk job {} failed", jobId, e);
+      jobStore.finishJob(jobId, ScimErrorResponseParser.parseException(e));
+    }
+  }
+
+  private static class WorkerThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      Thread thread = new Thread(runnable, "scimono-bulk-job-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
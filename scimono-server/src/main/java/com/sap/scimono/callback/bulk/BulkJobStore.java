@@ -0,0 +1,39 @@
+package com.sap.scimono.callback.bulk;
+
+import com.sap.scimono.entity.ErrorResponse;
+import com.sap.scimono.entity.bulk.BulkJob;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+
+/**
+ * Stores the state of the bulk requests executed by a {@link BulkJobService}. The methods are called concurrently, from the worker
+ * threads running the jobs and from the requests polling them. A job is only visible to the principal which submitted it.
+ */
+public interface BulkJobStore {
+
+  /**
+   * Stores a new job with status {@link BulkJob.Status#RUNNING} and no processed operations.
+   *
+   * @param submitter the name of the principal submitting the job, null for anonymous requests
+   */
+  void createJob(String jobId, String submitter, int totalOperations);
+
+  /**
+   * Adds the response of a processed operation to a running job. The job lists the responses in the order of the operation indexes.
+   *
+   * @param operationIndex the index of the operation in the bulk request
+   */
+  void addResponse(String jobId, int operationIndex, ResponseOperation response);
+
+  /**
+   * Marks a job as {@link BulkJob.Status#COMPLETED}, or as {@link BulkJob.Status#FAILED} if an error is given.
+   *
+   * @param error the error which aborted the job, null if the job completed
+   */
+  void finishJob(String jobId, ErrorResponse error);
+
+  /**
+   * @param requester the name of the principal requesting the job, null for anonymous requests
+   * @return the current state of the job, null if the job is unknown, expired or was submitted by another principal
+   */
+  BulkJob getJob(String jobId, String requester);
+}
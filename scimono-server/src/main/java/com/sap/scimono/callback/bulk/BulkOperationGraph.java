@@ -0,0 +1,250 @@
+package com.sap.scimono.callback.bulk;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.patch.PatchOperation;
+import com.sap.scimono.exception.InternalScimonoException;
+
+/**
+ * Dependencies between the operations of a bulk request. An operation depends on
+ * <ul>
+ * <li>the POST operations whose resources it references with {@code bulkId:<bulkId>}, in its path or data, and</li>
+ * <li>the preceding operation on the same resource, so that operations on one resource are executed in request order.</li>
+ * </ul>
+ */
+final class BulkOperationGraph {
+  static final String BULK_ID_REFERENCE_PREFIX = "bulkId:";
+
+  private static final ObjectMapper JSON_MAPPER = ObjectMapperRegistry.getDefault().getObjectMapper();
+
+  private final List<RequestOperation> operations;
+  private final Map<String, Integer> creatingOperations = new HashMap<>();
+  private final List<Set<String>> references = new ArrayList<>();
+  private final List<Set<Integer>> dependentOperations = new ArrayList<>();
+  private final int[] dependencyCounts;
+
+  BulkOperationGraph(final List<RequestOperation> operations) {
+    this.operations = operations;
+    this.dependencyCounts = new int[operations.size()];
+
+    for (int i = 0; i < operations.size(); i++) {
+      RequestOperation operation = operations.get(i);
+      if (isExecutable(operation) && operation.getMethod() == RequestMethod.POST && operation.getBulkId() != null) {
+        creatingOperations.putIfAbsent(operation.getBulkId(), i);
+      }
+      dependentOperations.add(new LinkedHashSet<>());
+    }
+
+    Map<String, Integer> lastOperationOnResource = new HashMap<>();
+    for (int i = 0; i < operations.size(); i++) {
+      RequestOperation operation = operations.get(i);
+      if (!isExecutable(operation)) {
+        references.add(Collections.emptySet());
+        continue;
+      }
+
+      Set<String> operationReferences = collectReferences(operation);
+      references.add(operationReferences);
+      for (String bulkId : operationReferences) {
+        Integer creatingOperation = creatingOperations.get(bulkId);
+        if (creatingOperation != null && creatingOperation != i) {
+          addDependency(creatingOperation, i);
+        }
+      }
+
+      for (String resourceKey : getResourceKeys(operation)) {
+        Integer previousOperation = lastOperationOnResource.put(resourceKey, i);
+        if (previousOperation != null) {
+          addDependency(previousOperation, i);
+        }
+      }
+    }
+  }
+
+  int size() {
+    return operations.size();
+  }
+
+  RequestOperation getOperation(final int index) {
+    return operations.get(index);
+  }
+
+  int getDependencyCount(final int index) {
+    return dependencyCounts[index];
+  }
+
+  Set<Integer> getDependentOperations(final int index) {
+    return dependentOperations.get(index);
+  }
+
+  /**
+   * @return the POST operations whose resources are referenced by the operation
+   */
+  Set<Integer> getReferencedOperations(final int index) {
+    return references.get(index).stream().map(creatingOperations::get).filter(operation -> operation != null && operation != index)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  /**
+   * @return the referenced bulkIds which are not the bulkId of a POST operation in the request
+   */
+  Set<String> getUnknownReferences(final int index) {
+    return references.get(index).stream().filter(bulkId -> !creatingOperations.containsKey(bulkId)).collect(Collectors.toSet());
+  }
+
+  /**
+   * Replaces the {@code bulkId:<bulkId>} references of an operation with the ids of the created resources.
+   *
+   * @param createdResourceIds ids of the created resources by bulkId, must contain all references of the operation
+   */
+  RequestOperation resolveReferences(final int index, final Map<String, String> createdResourceIds) {
+    RequestOperation operation = operations.get(index);
+    if (references.get(index).isEmpty()) {
+      return operation;
+    }
+
+    RequestOperation.Builder builder = operation.builder().setPath(resolveText(operation.getPath(), createdResourceIds));
+    Object data = operation.getData();
+    if (data instanceof Resource) {
+      JsonNode resolvedData = resolveNode(JSON_MAPPER.valueToTree(data), createdResourceIds);
+      try {
+        builder.setData(JSON_MAPPER.treeToValue(resolvedData, data.getClass()));
+      } catch (IOException e) {
+        throw new InternalScimonoException(String.format("Unable to resolve the bulkId references of operation with bulkId: %s",
+            operation.getBulkId()), e);
+      }
+    } else if (data instanceof PatchBody) {
+      PatchBody patchBody = (PatchBody) data;
+      List<PatchOperation> resolvedOperations = patchBody.getOperations().stream()
+          .map(patchOperation -> new PatchOperation.Builder(patchOperation)
+              .setPath(resolveText(patchOperation.getPath(), createdResourceIds))
+              .setValue(resolveNode(patchOperation.getValue(), createdResourceIds))
+              .build())
+          .collect(Collectors.toList());
+      builder.setData(new PatchBody.Builder(patchBody).setOperations(resolvedOperations).build());
+    }
+    return builder.build();
+  }
+
+  private void addDependency(final int operation, final int dependentOperation) {
+    if (dependentOperations.get(operation).add(dependentOperation)) {
+      dependencyCounts[dependentOperation]++;
+    }
+  }
+
+  private static boolean isExecutable(final RequestOperation operation) {
+    return operation.getMethod() != null && !operation.hasValidationError();
+  }
+
+  private static Set<String> collectReferences(final RequestOperation operation) {
+    Set<String> operationReferences = new LinkedHashSet<>();
+    addReference(operation.getPath(), operationReferences);
+    collectReferences(getDataTree(operation), operationReferences);
+    return operationReferences;
+  }
+
+  private static JsonNode getDataTree(final RequestOperation operation) {
+    JsonNode rawData = operation.getRawData();
+    if (rawData != null && rawData.isContainerNode()) {
+      return rawData;
+    }
+    Object data = operation.getData();
+    return data instanceof Resource || data instanceof PatchBody ? JSON_MAPPER.valueToTree(data) : null;
+  }
+
+  private static void collectReferences(final JsonNode node, final Set<String> operationReferences) {
+    if (node == null) {
+      return;
+    }
+    if (node.isTextual()) {
+      addReference(node.textValue(), operationReferences);
+    } else if (node.isContainerNode()) {
+      node.forEach(child -> collectReferences(child, operationReferences));
+    }
+  }
+
+  private static void addReference(final String text, final Set<String> operationReferences) {
+    int referenceStart = getReferenceStart(text);
+    if (referenceStart != -1) {
+      operationReferences.add(text.substring(referenceStart + BULK_ID_REFERENCE_PREFIX.length()));
+    }
+  }
+
+  /**
+   * References are either complete values or the last segment of a path or URI.
+   */
+  private static int getReferenceStart(final String text) {
+    if (text == null) {
+      return -1;
+    }
+    if (text.startsWith(BULK_ID_REFERENCE_PREFIX)) {
+      return 0;
+    }
+    int lastSegmentStart = text.lastIndexOf('/') + 1;
+    return lastSegmentStart > 0 && text.startsWith(BULK_ID_REFERENCE_PREFIX, lastSegmentStart) ? lastSegmentStart : -1;
+  }
+
+  private static String resolveText(final String text, final Map<String, String> createdResourceIds) {
+    int referenceStart = getReferenceStart(text);
+    if (referenceStart == -1) {
+      return text;
+    }
+    String resourceId = createdResourceIds.get(text.substring(referenceStart + BULK_ID_REFERENCE_PREFIX.length()));
+    return resourceId == null ? text : text.substring(0, referenceStart) + resourceId;
+  }
+
+  private static JsonNode resolveNode(final JsonNode node, final Map<String, String> createdResourceIds) {
+    if (node == null) {
+      return null;
+    }
+    if (node.isTextual()) {
+      String resolvedText = resolveText(node.textValue(), createdResourceIds);
+      return resolvedText.equals(node.textValue()) ? node : TextNode.valueOf(resolvedText);
+    }
+    if (node.isObject()) {
+      ObjectNode resolvedNode = JsonNodeFactory.instance.objectNode();
+      for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext();) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        resolvedNode.set(field.getKey(), resolveNode(field.getValue(), createdResourceIds));
+      }
+      return resolvedNode;
+    }
+    if (node.isArray()) {
+      ArrayNode resolvedNode = JsonNodeFactory.instance.arrayNode(node.size());
+      node.forEach(element -> resolvedNode.add(resolveNode(element, createdResourceIds)));
+      return resolvedNode;
+    }
+    return node;
+  }
+
+  private static List<String> getResourceKeys(final RequestOperation operation) {
+    String resourceType = operation.getResourceType();
+    if (operation.getMethod() == RequestMethod.POST) {
+      // operations on the created resource reference it by its bulkId
+      return operation.getBulkId() == null ? Collections.emptyList()
+          : Collections.singletonList(resourceType + '/' + BULK_ID_REFERENCE_PREFIX + operation.getBulkId());
+    }
+    return operation.getResourceId().map(resourceId -> Collections.singletonList(resourceType + '/' + resourceId))
+        .orElse(Collections.emptyList());
+  }
+}
@@ -0,0 +1,22 @@
+package com.sap.scimono.callback.bulk;
+
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+
+/**
+ * Executes a single operation of a bulk request for a {@link ParallelBulkRequestCallback}.
+ */
+@FunctionalInterface
+public interface BulkOperationHandler {
+
+  /**
+   * Executes an operation. References to resources created in the same bulk request ({@code bulkId:<bulkId>}) are already replaced with
+   * the ids of the created resources. Operations may be handled concurrently on different threads.
+   *
+   * @param operation operation with preprocessed data, see {@link RequestOperation#getDataAsUser()},
+   *          {@link RequestOperation#getDataAsGroup()} and {@link RequestOperation#getDataAsPatch()}
+   * @return the response of the operation, for a successful POST it must provide the id of the created resource
+   * @throws com.sap.scimono.exception.SCIMException if the operation fails, the error is reported in the response of the operation
+   */
+  ResponseOperation handle(RequestOperation operation);
+}
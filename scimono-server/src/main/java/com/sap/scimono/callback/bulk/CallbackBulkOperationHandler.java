@@ -0,0 +1,97 @@
+package com.sap.scimono.callback.bulk;
+
+import com.sap.scimono.callback.groups.GroupsCallback;
+import com.sap.scimono.callback.users.UsersCallback;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.exception.InternalScimonoException;
+import com.sap.scimono.exception.ResourceNotFoundException;
+
+/**
+ * {@link BulkOperationHandler} executing the operations through the {@link UsersCallback} and {@link GroupsCallback} in the same way as
+ * the /Users and /Groups endpoints. The callbacks must be thread safe if operations are executed concurrently.
+ */
+public class CallbackBulkOperationHandler implements BulkOperationHandler {
+  private final UsersCallback usersAPI;
+  private final GroupsCallback groupsAPI;
+
+  public CallbackBulkOperationHandler(final UsersCallback usersAPI, final GroupsCallback groupsAPI) {
+    this.usersAPI = usersAPI;
+    this.groupsAPI = groupsAPI;
+  }
+
+  @Override
+  public ResponseOperation handle(final RequestOperation operation) {
+    String resourceType = operation.getResourceType();
+    if (User.RESOURCE_TYPE_USER.equalsIgnoreCase(resourceType)) {
+      return handleUserOperation(operation);
+    }
+    if (Group.RESOURCE_TYPE_GROUP.equalsIgnoreCase(resourceType)) {
+      return handleGroupOperation(operation);
+    }
+    throw new InternalScimonoException(String.format("Unsupported resource type %s of bulk operation with bulkId: %s", resourceType,
+        operation.getBulkId()));
+  }
+
+  private ResponseOperation handleUserOperation(final RequestOperation operation) {
+    switch (operation.getMethod()) {
+      case POST:
+        return successfulResponse(operation, usersAPI.createUser(operation.getDataAsUser()));
+      case PUT:
+        return successfulResponse(operation, usersAPI.updateUser(operation.getDataAsUser()));
+      case PATCH:
+        String userId = requireResourceId(operation);
+        if (usersAPI.getUser(userId) == null) {
+          throw new ResourceNotFoundException(User.RESOURCE_TYPE_USER, userId);
+        }
+        PatchBody patchBody = operation.getDataAsPatch();
+        usersAPI.patchUser(userId, patchBody, patchBody.getMeta());
+        return operation.successfulResponse().build();
+      case DELETE:
+        usersAPI.deleteUser(requireResourceId(operation));
+        return operation.successfulResponse().build();
+      default:
+        throw new InternalScimonoException("Unsupported bulk operation method: " + operation.getMethod());
+    }
+  }
+
+  private ResponseOperation handleGroupOperation(final RequestOperation operation) {
+    switch (operation.getMethod()) {
+      case POST:
+        return successfulResponse(operation, groupsAPI.createGroup(operation.getDataAsGroup()));
+      case PUT:
+        return successfulResponse(operation, groupsAPI.updateGroup(operation.getDataAsGroup()));
+      case PATCH:
+        String groupId = requireResourceId(operation);
+        if (groupsAPI.getGroup(groupId) == null) {
+          throw new ResourceNotFoundException(Group.RESOURCE_TYPE_GROUP, groupId);
+        }
+        PatchBody patchBody = operation.getDataAsPatch();
+        groupsAPI.patchGroup(groupId, patchBody, patchBody.getMeta());
+        return operation.successfulResponse().build();
+      case DELETE:
+        groupsAPI.deleteGroup(requireResourceId(operation));
+        return operation.successfulResponse().build();
+      default:
+        throw new InternalScimonoException("Unsupported bulk operation method: " + operation.getMethod());
+    }
+  }
+
+  static ResponseOperation successfulResponse(final RequestOperation operation, final Resource<?> resource) {
+    RequestOperation executedOperation = operation.builder().setData(resource).build();
+    ResponseOperation.Builder response = executedOperation.successfulResponse();
+    if (resource.getMeta() != null) {
+      response.withVersion(resource.getMeta().getVersion());
+    }
+    return response.build();
+  }
+
+  static String requireResourceId(final RequestOperation operation) {
+    return operation.getResourceId().orElseThrow(
+        () -> new InternalScimonoException("resource id is required for bulk operation with bulkId: " + operation.getBulkId()));
+  }
+}
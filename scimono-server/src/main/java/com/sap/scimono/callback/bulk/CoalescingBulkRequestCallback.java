@@ -0,0 +1,281 @@
+package com.sap.scimono.callback.bulk;
+
+import static com.sap.scimono.callback.bulk.BulkOperationGraph.BULK_ID_REFERENCE_PREFIX;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+
+import javax.validation.ValidationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.patch.PatchOperation;
+import com.sap.scimono.entity.validation.patch.PatchValidationFramework;
+import com.sap.scimono.exception.InternalScimonoException;
+import com.sap.scimono.exception.SCIMException;
+
+/**
+ * {@link BulkRequestCallback} removing redundant operations from a bulk request before passing it to another callback:
+ * <ul>
+ * <li>PUT and PATCH operations on a resource which is deleted by a later DELETE operation of the request are not executed. They get the
+ * outcome of the DELETE operation.</li>
+ * <li>Consecutive PATCH operations on the same resource are merged into one PATCH operation, with the patch operations in request order.
+ * All of them get the outcome of the merged operation. The merged PATCH operation is validated again, the operations are executed one
+ * by one if it is not valid.</li>
+ * </ul>
+ * The response contains one operation per operation of the request, in the order of the request. A response is reported once the
+ * operations before it are processed. Operations with a validation error, operations with a version other than the first of a merged
+ * PATCH, DELETE operations with a version and resources referenced with {@code bulkId:<bulkId>} are not coalesced. Since the merged
+ * operations are applied at once, a failing patch operation fails all of the merged operations, and {@code failOnErrors} counts the
+ * merged operations as one.
+ */
+public class CoalescingBulkRequestCallback implements StreamingBulkRequestCallback {
+  private static final Logger logger = LoggerFactory.getLogger(CoalescingBulkRequestCallback.class);
+
+  private final BulkRequestCallback bulkAPI;
+  private final PatchValidationFramework userPatchValidator;
+  private final PatchValidationFramework groupPatchValidator;
+
+  /**
+   * @param bulkAPI executes the coalesced bulk request
+   * @param userPatchValidator validates merged PATCH operations on users, see {@link PatchValidationFramework#usersFramework}
+   * @param groupPatchValidator validates merged PATCH operations on groups, see {@link PatchValidationFramework#groupsFramework}
+   */
+  public CoalescingBulkRequestCallback(final BulkRequestCallback bulkAPI, final PatchValidationFramework userPatchValidator,
+      final PatchValidationFramework groupPatchValidator) {
+    this.bulkAPI = bulkAPI;
+    this.userPatchValidator = userPatchValidator;
+    this.groupPatchValidator = groupPatchValidator;
+  }
+
+  @Override
+  public void handleBulkRequest(final BulkBody<RequestOperation> bulkRequest, final ObjIntConsumer<ResponseOperation> responseConsumer) {
+    Coalescing coalescing = new Coalescing(bulkRequest.getOperations(), this::isValidMergedPatch);
+    BulkBody<RequestOperation> coalescedRequest = BulkBody.forRequest(bulkRequest.getFailOnErrors(), coalescing.coalescedOperations);
+    RequestOrderConsumer orderedConsumer = new RequestOrderConsumer(responseConsumer);
+
+    if (bulkAPI instanceof StreamingBulkRequestCallback) {
+      ((StreamingBulkRequestCallback) bulkAPI).handleBulkRequest(coalescedRequest,
+          (response, coalescedIndex) -> coalescing.expand(response, orderedConsumer));
+    } else {
+      bulkAPI.handleBulkRequest(coalescedRequest).getOperations().forEach(response -> coalescing.expand(response, orderedConsumer));
+    }
+    orderedConsumer.flush();
+  }
+
+  private boolean isValidMergedPatch(final RequestOperation operation) {
+    boolean isUserOperation = User.RESOURCE_TYPE_USER.equalsIgnoreCase(operation.getResourceType());
+    try {
+      (isUserOperation ? userPatchValidator : groupPatchValidator).validate(operation.getDataAsPatch());
+      return true;
+    } catch (SCIMException | ValidationException e) {
+      logger.debug("The PATCH operations on {} are executed one by one, the merged operation is not valid: {}", operation.getPath(),
+          e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Passes the responses on in the order of the request, each as soon as the responses of the operations before it are passed on.
+   */
+  private static class RequestOrderConsumer implements ObjIntConsumer<ResponseOperation> {
+    private final ObjIntConsumer<ResponseOperation> responseConsumer;
+    private final Map<Integer, ResponseOperation> pendingResponses = new TreeMap<>();
+    private int nextIndex;
+
+    private RequestOrderConsumer(final ObjIntConsumer<ResponseOperation> responseConsumer) {
+      this.responseConsumer = responseConsumer;
+    }
+
+    @Override
+    public void accept(final ResponseOperation response, final int index) {
+      pendingResponses.put(index, response);
+      while (pendingResponses.containsKey(nextIndex)) {
+        responseConsumer.accept(pendingResponses.remove(nextIndex), nextIndex);
+        nextIndex++;
+      }
+    }
+
+    /**
+     * Passes on the responses following operations which were not processed, e.g. because of {@code failOnErrors}.
+     */
+    private void flush() {
+      pendingResponses.forEach((index, response) -> responseConsumer.accept(response, index));
+      pendingResponses.clear();
+    }
+  }
+
+  /**
+   * The coalesced operations of one bulk request. The operations of the coalesced request are identified by their bulkId, by which their
+   * responses are mapped back to the operations of the request. Operations without a bulkId and operations representing other operations
+   * of the request get a generated one.
+   */
+  private static class Coalescing {
+    private final List<RequestOperation> operations;
+    private final List<RequestOperation> coalescedOperations = new ArrayList<>();
+    private final Map<String, CoalescedOperation> operationsByBulkId = new HashMap<>();
+
+    private Coalescing(final List<RequestOperation> operations, final Predicate<RequestOperation> isValidMergedPatch) {
+      this.operations = operations;
+      List<List<Integer>> supersededOperations = findSupersededOperations(operations);
+
+      List<CoalescedOperation> operationGroups = new ArrayList<>();
+      CoalescedOperation previous = null;
+      for (int i = 0; i < operations.size(); i++) {
+        RequestOperation operation = operations.get(i);
+        if (supersededOperations.get(i) == null) {
+          continue;
+        }
+
+        if (previous != null && previous.canMerge(operation)) {
+          previous.merge(operation, i);
+        } else {
+          previous = new CoalescedOperation(operation, i, supersededOperations.get(i));
+          operationGroups.add(previous);
+        }
+      }
+
+      for (CoalescedOperation operationGroup : operationGroups) {
+        RequestOperation coalescedOperation = operationGroup.toRequestOperation();
+        if (operationGroup.mergedIndexes.size() > 1 && !isValidMergedPatch.test(coalescedOperation)) {
+          operationGroup.mergedIndexes.forEach(index -> add(new CoalescedOperation(operations.get(index), index, Collections.emptyList())));
+        } else {
+          add(operationGroup, coalescedOperation);
+        }
+      }
+    }
+
+    private void add(final CoalescedOperation operation) {
+      add(operation, operation.toRequestOperation());
+    }
+
+    private void add(final CoalescedOperation operation, final RequestOperation coalescedOperation) {
+      coalescedOperations.add(coalescedOperation);
+      operationsByBulkId.put(coalescedOperation.getBulkId(), operation);
+    }
+
+    /**
+     * @return for every operation, the indexes of the operations superseded by it, or null if the operation is superseded itself
+     */
+    private static List<List<Integer>> findSupersededOperations(final List<RequestOperation> operations) {
+      List<List<Integer>> supersededOperations = new ArrayList<>(operations.size());
+      Map<String, List<Integer>> pendingUpdates = new HashMap<>();
+
+      for (int i = 0; i < operations.size(); i++) {
+        RequestOperation operation = operations.get(i);
+        supersededOperations.add(new ArrayList<>());
+
+        Optional<String> resourceKey = getResourceKey(operation);
+        if (!resourceKey.isPresent()) {
+          continue;
+        }
+
+        RequestMethod method = operation.getMethod();
+        if (method == RequestMethod.PUT || method == RequestMethod.PATCH) {
+          pendingUpdates.computeIfAbsent(resourceKey.get(), key -> new ArrayList<>()).add(i);
+        } else if (method == RequestMethod.DELETE) {
+          List<Integer> updates = pendingUpdates.remove(resourceKey.get());
+          if (updates != null && operation.getVersion() == null) {
+            for (int updateIndex : updates) {
+              supersededOperations.get(i).add(updateIndex);
+              supersededOperations.set(updateIndex, null);
+            }
+          }
+        }
+      }
+      return supersededOperations;
+    }
+
+    private static Optional<String> getResourceKey(final RequestOperation operation) {
+      if (operation.hasValidationError() || operation.getMethod() == RequestMethod.POST) {
+        return Optional.empty();
+      }
+      return operation.getResourceId().filter(resourceId -> !resourceId.startsWith(BULK_ID_REFERENCE_PREFIX))
+          .map(resourceId -> operation.getResourceType() + '/' + resourceId);
+    }
+
+    private void expand(final ResponseOperation response, final ObjIntConsumer<ResponseOperation> responseConsumer) {
+      CoalescedOperation operation = response.getBulkId() == null ? null : operationsByBulkId.get(response.getBulkId());
+      if (operation == null) {
+        throw new InternalScimonoException("Unexpected response of the coalesced bulk request with bulkId: " + response.getBulkId());
+      }
+
+      for (int supersededIndex : operation.supersededIndexes) {
+        RequestOperation supersededOperation = operations.get(supersededIndex);
+        responseConsumer.accept(response.isSuccessful() ? supersededOperation.successfulResponse().build()
+            : supersededOperation.errorResponse(response.getResponse()).build(), supersededIndex);
+      }
+      for (int mergedIndex : operation.mergedIndexes) {
+        ResponseOperation.Builder builder = response.builder();
+        builder.setBulkId(operations.get(mergedIndex).getBulkId());
+        responseConsumer.accept(builder.build(), mergedIndex);
+      }
+    }
+  }
+
+  /**
+   * An operation of the coalesced request with the operations of the original request it represents.
+   */
+  private static class CoalescedOperation {
+    private final List<RequestOperation> mergedOperations = new ArrayList<>();
+    private final List<Integer> mergedIndexes = new ArrayList<>();
+    private final List<Integer> supersededIndexes;
+
+    private CoalescedOperation(final RequestOperation operation, final int index, final List<Integer> supersededIndexes) {
+      this.mergedOperations.add(operation);
+      this.mergedIndexes.add(index);
+      this.supersededIndexes = supersededIndexes;
+    }
+
+    private boolean canMerge(final RequestOperation operation) {
+      RequestOperation first = mergedOperations.get(0);
+      if (first.getMethod() != RequestMethod.PATCH || operation.getMethod() != RequestMethod.PATCH || operation.getVersion() != null) {
+        return false;
+      }
+      Optional<String> resourceKey = Coalescing.getResourceKey(operation);
+      return resourceKey.isPresent() && resourceKey.equals(Coalescing.getResourceKey(first)) && first.getData() instanceof PatchBody
+          && operation.getData() instanceof PatchBody;
+    }
+
+    private void merge(final RequestOperation operation, final int index) {
+      mergedOperations.add(operation);
+      mergedIndexes.add(index);
+    }
+
+    private RequestOperation toRequestOperation() {
+      RequestOperation first = mergedOperations.get(0);
+      boolean representsOtherOperations = mergedOperations.size() > 1 || !supersededIndexes.isEmpty();
+      String bulkId = representsOtherOperations || first.getBulkId() == null ? UUID.randomUUID().toString() : first.getBulkId();
+      if (bulkId.equals(first.getBulkId())) {
+        return first;
+      }
+
+      RequestOperation.Builder builder = first.builder();
+      builder.setBulkId(bulkId);
+      if (mergedOperations.size() > 1) {
+        List<PatchOperation> patchOperations = new ArrayList<>();
+        mergedOperations.forEach(operation -> patchOperations.addAll(operation.getDataAsPatch().getOperations()));
+        PatchBody lastPatchBody = mergedOperations.get(mergedOperations.size() - 1).getDataAsPatch();
+        PatchBody mergedPatchBody = new PatchBody.Builder(first.getDataAsPatch()).setOperations(patchOperations)
+            .setMeta(lastPatchBody.getMeta()).build();
+        builder.setData(mergedPatchBody).setRawData(null);
+      }
+      return builder.build();
+    }
+  }
+}
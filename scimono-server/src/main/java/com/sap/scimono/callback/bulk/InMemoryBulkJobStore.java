@@ -0,0 +1,112 @@
+package com.sap.scimono.callback.bulk;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sap.scimono.entity.ErrorResponse;
+import com.sap.scimono.entity.bulk.BulkJob;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+
+/**
+ * {@link BulkJobStore} keeping the jobs in memory of the current node. Finished jobs are removed after a retention period, so that their
+ * results can be polled for a while.
+ */
+public class InMemoryBulkJobStore implements BulkJobStore {
+  public static final Duration DEFAULT_RETENTION = Duration.ofHours(1);
+
+  private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+  private final Duration retention;
+  private final Clock clock;
+
+  public InMemoryBulkJobStore() {
+    this(DEFAULT_RETENTION);
+  }
+
+  /**
+   * @param retention how long finished jobs are kept
+   */
+  public InMemoryBulkJobStore(final Duration retention) {
+    this(retention, Clock.systemUTC());
+  }
+
+  InMemoryBulkJobStore(final Duration retention, final Clock clock) {
+    this.retention = retention;
+    this.clock = clock;
+  }
+
+  @Override
+  public void createJob(final String jobId, final String submitter, final int totalOperations) {
+    removeExpiredJobs();
+    jobs.put(jobId, new JobState(jobId, submitter, totalOperations));
+  }
+
+  @Override
+  public void addResponse(final String jobId, final int operationIndex, final ResponseOperation response) {
+    JobState job = jobs.get(jobId);
+    if (job != null) {
+      job.addResponse(operationIndex, response);
+    }
+  }
+
+  @Override
+  public void finishJob(final String jobId, final ErrorResponse error) {
+    JobState job = jobs.get(jobId);
+    if (job != null) {
+      job.finish(error, clock.instant());
+    }
+  }
+
+  @Override
+  public BulkJob getJob(final String jobId, final String requester) {
+    JobState job = jobs.get(jobId);
+    if (job == null || !Objects.equals(job.submitter, requester) || job.isExpired(clock.instant().minus(retention))) {
+      return null;
+    }
+    return job.toBulkJob();
+  }
+
+  private void removeExpiredJobs() {
+    Instant expiry = clock.instant().minus(retention);
+    jobs.values().removeIf(job -> job.isExpired(expiry));
+  }
+
+  private static class JobState {
+    private final String id;
+    private final String submitter;
+    private final int totalOperations;
+    private final Map<Integer, ResponseOperation> responses = new TreeMap<>();
+    private BulkJob.Status status = BulkJob.Status.RUNNING;
+    private ErrorResponse error;
+    private Instant finished;
+
+    private JobState(final String id, final String submitter, final int totalOperations) {
+      this.id = id;
+      this.submitter = submitter;
+      this.totalOperations = totalOperations;
+    }
+
+    private synchronized void addResponse(final int operationIndex, final ResponseOperation response) {
+      responses.put(operationIndex, response);
+    }
+
+    private synchronized void finish(final ErrorResponse error, final Instant finished) {
+      this.status = error == null ? BulkJob.Status.COMPLETED : BulkJob.Status.FAILED;
+      this.error = error;
+      this.finished = finished;
+    }
+
+    private synchronized boolean isExpired(final Instant expiry) {
+      return finished != null && finished.isBefore(expiry);
+    }
+
+    private synchronized BulkJob toBulkJob() {
+      return new BulkJob(id, status, totalOperations, new ArrayList<>(responses.values()), error);
+    }
+  }
+}
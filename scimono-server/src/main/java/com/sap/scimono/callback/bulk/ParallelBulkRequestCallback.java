@@ -0,0 +1,391 @@
+package com.sap.scimono.callback.bulk;
+
+import static com.sap.scimono.callback.bulk.BulkOperationGraph.BULK_ID_REFERENCE_PREFIX;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.scimono.api.ContextResolver;
+import com.sap.scimono.api.helper.ScimErrorResponseParser;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.exception.InternalScimonoException;
+import com.sap.scimono.exception.SCIMException;
+
+/**
+ * {@link BulkRequestCallback} executing the operations of a bulk request through a {@link BulkOperationHandler}, independent operations
+ * concurrently.
+ * <p>
+ * An operation is started after the POST operations whose resources it references with {@code bulkId:<bulkId>} and after the preceding
+ * operations on the same resource have completed. It fails with status 409 if a referenced bulkId is not defined in the request, if a
+ * referenced operation failed or if the references are circular. Once the number of failed operations reaches {@code failOnErrors}, no
+ * further operations are started and the response contains only the processed operations. The operations are listed in the response in
+ * the order of the request. When the responses are streamed through
+ * {@link #handleBulkRequest(BulkBody, ObjIntConsumer)}, they are reported in the order of completion.
+ * <p>
+ * By default the operations run on virtual threads if the JVM supports them, or else on a shared pool of at most
+ * {@link #DEFAULT_EXECUTOR_THREADS} daemon threads, which queues further operations, with at most {@link #DEFAULT_MAX_CONCURRENCY}
+ * concurrent operations per bulk request. The handler is called from these threads with the servlet request of the bulk request bound to
+ * the {@link ContextResolver}, use {@link Builder#setMaxConcurrency(int)} with 1 for handlers that are not thread safe.
+ * <p>
+ * A {@link BatchBulkOperationHandler} gets consecutive operations with the same resource type and method, which are ready at the same
+ * time, in batches of at most {@link Builder#setMaxBatchSize(int)} operations.
+ */
+public class ParallelBulkRequestCallback implements StreamingBulkRequestCallback {
+  public static final int DEFAULT_MAX_CONCURRENCY = 8;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+  public static final int DEFAULT_EXECUTOR_THREADS = 64;
+
+  private static final Logger logger = LoggerFactory.getLogger(ParallelBulkRequestCallback.class);
+
+  private final BulkOperationHandler operationHandler;
+  private final Executor executor;
+  private final int maxConcurrency;
+  private final BatchBulkOperationHandler batchHandler;
+  private final int maxBatchSize;
+
+  private ParallelBulkRequestCallback(final Builder builder) {
+    this.operationHandler = builder.operationHandler;
+    this.executor = builder.executor != null ? builder.executor : DefaultExecutorHolder.EXECUTOR;
+    this.maxConcurrency = builder.maxConcurrency;
+    this.batchHandler = operationHandler instanceof BatchBulkOperationHandler ? (BatchBulkOperationHandler) operationHandler : null;
+    this.maxBatchSize = builder.maxBatchSize;
+  }
+
+  @Override
+  public BulkBody<ResponseOperation> handleBulkRequest(final BulkBody<RequestOperation> bulkRequest) {
+    return BulkBody.forResponse(new Execution(bulkRequest, (response, index) -> {
+    }).run());
+  }
+
+  @Override
+  public void handleBulkRequest(final BulkBody<RequestOperation> bulkRequest, final ObjIntConsumer<ResponseOperation> responseConsumer) {
+    new Execution(bulkRequest, responseConsumer).run();
+  }
+
+  /**
+   * State of the execution of one bulk request, only accessed by the thread handling the request.
+   */
+  private class Execution {
+    private final BulkOperationGraph graph;
+    private final Integer failOnErrors;
+    private final ObjIntConsumer<ResponseOperation> responseConsumer;
+    private final ResponseOperation[] responses;
+    private final int[] remainingDependencies;
+    private final boolean[] failed;
+    private final Map<String, String> createdResourceIds = new HashMap<>();
+    private final Queue<Integer> readyOperations = new PriorityQueue<>();
+    private final BlockingQueue<CompletedBatch> completedBatches = new LinkedBlockingQueue<>();
+    private final HttpServletRequest servletRequest = ContextResolver.resolve(request -> request);
+    private int runningBatches;
+    private int errors;
+
+    private Execution(final BulkBody<RequestOperation> bulkRequest, final ObjIntConsumer<ResponseOperation> responseConsumer) {
+      this.graph = new BulkOperationGraph(bulkRequest.getOperations());
+      this.failOnErrors = bulkRequest.getFailOnErrors();
+      this.responseConsumer = responseConsumer;
+      this.responses = new ResponseOperation[graph.size()];
+      this.remainingDependencies = new int[graph.size()];
+      this.failed = new boolean[graph.size()];
+
+      for (int i = 0; i < graph.size(); i++) {
+        remainingDependencies[i] = graph.getDependencyCount(i);
+        if (remainingDependencies[i] == 0) {
+          readyOperations.add(i);
+        }
+      }
+    }
+
+    private List<ResponseOperation> run() {
+      while (true) {
+        while (!isStopped() && runningBatches < maxConcurrency && !readyOperations.isEmpty()) {
+          start(nextBatch());
+        }
+        if (runningBatches == 0) {
+          break;
+        }
+        CompletedBatch completedBatch = awaitCompletion();
+        runningBatches--;
+        for (int i = 0; i < completedBatch.indexes.size(); i++) {
+          complete(completedBatch.indexes.get(i), completedBatch.responses.get(i));
+        }
+      }
+
+      if (!isStopped()) {
+        failUnprocessedOperations();
+      }
+
+      List<ResponseOperation> processedOperations = new ArrayList<>(responses.length);
+      Arrays.stream(responses).filter(response -> response != null).forEach(processedOperations::add);
+      return processedOperations;
+    }
+
+    /**
+     * Takes the next ready operation and, for a {@link BatchBulkOperationHandler}, the directly following ready operations with the same
+     * resource type and method. Ready operations do not depend on each other.
+     *
+     * @return the indexes of the operations to execute, empty if the operations could not be executed
+     */
+    private List<Integer> nextBatch() {
+      List<Integer> batch = new ArrayList<>();
+      int index = readyOperations.poll();
+      if (!prepare(index)) {
+        return batch;
+      }
+      batch.add(index);
+
+      while (batchHandler != null && batch.size() < maxBatchSize && readyOperations.peek() != null && readyOperations.peek() == index + 1
+          && isSameKind(graph.getOperation(index), graph.getOperation(index + 1))) {
+        index = readyOperations.poll();
+        if (!prepare(index)) {
+          break;
+        }
+        batch.add(index);
+      }
+      return batch;
+    }
+
+    /**
+     * Completes the operation with an error if it can not be executed.
+     *
+     * @return whether the operation can be executed
+     */
+    private boolean prepare(final int index) {
+      RequestOperation operation = graph.getOperation(index);
+      if (operation.hasValidationError()) {
+        complete(index, operation.errorResponseFromExistingValidationError().build());
+        return false;
+      }
+
+      Set<String> unknownReferences = graph.getUnknownReferences(index);
+      if (!unknownReferences.isEmpty()) {
+        String message = String.format("The referenced bulkIds %s are not defined in the bulk request", unknownReferences);
+        complete(index, conflict(operation, message));
+        return false;
+      }
+
+      Integer failedDependency = graph.getReferencedOperations(index).stream().filter(dependency -> failed[dependency]).findFirst()
+          .orElse(null);
+      if (failedDependency != null) {
+        complete(index, conflict(operation, String.format("The operation depends on the failed operation with bulkId %s",
+            graph.getOperation(failedDependency).getBulkId())));
+        return false;
+      }
+      return true;
+    }
+
+    private void start(final List<Integer> batch) {
+      List<Integer> indexes = new ArrayList<>(batch.size());
+      List<RequestOperation> resolvedOperations = new ArrayList<>(batch.size());
+      for (int index : batch) {
+        try {
+          resolvedOperations.add(graph.resolveReferences(index, createdResourceIds));
+          indexes.add(index);
+        } catch (RuntimeException e) {
+          complete(index, errorResponse(graph.getOperation(index), e));
+        }
+      }
+      if (indexes.isEmpty()) {
+        return;
+      }
+
+      try {
+        executor.execute(() -> completedBatches.add(new CompletedBatch(indexes, execute(resolvedOperations))));
+        runningBatches++;
+      } catch (RuntimeException e) {
+        for (int i = 0; i < indexes.size(); i++) {
+          complete(indexes.get(i), errorResponse(resolvedOperations.get(i), e));
+        }
+      }
+    }
+
+    private List<ResponseOperation> execute(final List<RequestOperation> operations) {
+      HttpServletRequest callerRequest = ContextResolver.resolve(request -> request);
+      ContextResolver.bind(servletRequest);
+      try {
+        List<ResponseOperation> batchResponses = operations.size() == 1
+            ? Collections.singletonList(operationHandler.handle(operations.get(0)))
+            : batchHandler.handle(operations);
+        if (batchResponses == null || batchResponses.size() != operations.size() || batchResponses.contains(null)) {
+          throw new InternalScimonoException("Missing responses for bulk operations with bulkIds: "
+              + operations.stream().map(RequestOperation::getBulkId).collect(Collectors.toList()));
+        }
+        return batchResponses;
+      } catch (Throwable e) {
+        return operations.stream().map(operation -> errorResponse(operation, e)).collect(Collectors.toList());
+      } finally {
+        if (callerRequest == null) {
+          ContextResolver.remove();
+        } else {
+          ContextResolver.bind(callerRequest);
+        }
+      }
+    }
+
+    private CompletedBatch awaitCompletion() {
+      try {
+        return completedBatches.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InternalScimonoException("Interrupted while waiting for bulk operations", e);
+      }
+    }
+
+    private void complete(final int index, final ResponseOperation response) {
+      responses[index] = response;
+      responseConsumer.accept(response, index);
+      RequestOperation operation = graph.getOperation(index);
+      if (!response.isSuccessful()) {
+        failed[index] = true;
+        errors++;
+      } else if (operation.getMethod() == RequestMethod.POST && operation.getBulkId() != null && response.getResourceId() != null) {
+        createdResourceIds.put(operation.getBulkId(), response.getResourceId());
+      }
+
+      for (int dependentOperation : graph.getDependentOperations(index)) {
+        if (--remainingDependencies[dependentOperation] == 0) {
+          readyOperations.add(dependentOperation);
+        }
+      }
+    }
+
+    /**
+     * Operations which never became ready are part of or depend on circular references.
+     */
+    private void failUnprocessedOperations() {
+      for (int i = 0; i < responses.length && !isStopped(); i++) {
+        if (responses[i] == null) {
+          responses[i] = conflict(graph.getOperation(i), "The operation is part of circular " + BULK_ID_REFERENCE_PREFIX + " references");
+          responseConsumer.accept(responses[i], i);
+          errors++;
+        }
+      }
+    }
+
+    private boolean isStopped() {
+      return failOnErrors != null && failOnErrors > 0 && errors >= failOnErrors;
+    }
+  }
+
+  private static ResponseOperation conflict(final RequestOperation operation, final String message) {
+    return operation.errorResponse(new SCIMException(SCIMException.Type.INVALID_VALUE, message, Response.Status.CONFLICT)).build();
+  }
+
+  private static ResponseOperation errorResponse(final RequestOperation operation, final Throwable error) {
+    if (!(error instanceof SCIMException)) {
+      logger.error("Bulk operation with bulkId {} failed", operation.getBulkId(), error);
+    }
+    return operation.errorResponse(ScimErrorResponseParser.parseException(error)).build();
+  }
+
+  private static boolean isSameKind(final RequestOperation operation, final RequestOperation otherOperation) {
+    return operation.getMethod() == otherOperation.getMethod()
+        && operation.getResourceType().equalsIgnoreCase(otherOperation.getResourceType());
+  }
+
+  private static class CompletedBatch {
+    private final List<Integer> indexes;
+    private final List<ResponseOperation> responses;
+
+    private CompletedBatch(final List<Integer> indexes, final List<ResponseOperation> responses) {
+      this.indexes = indexes;
+      this.responses = responses;
+    }
+  }
+
+  private static class DefaultExecutorHolder {
+    private static final Executor EXECUTOR = createExecutor();
+
+    private static Executor createExecutor() {
+      try {
+        return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException e) {
+        logger.debug("Virtual threads are not available, bulk operations are executed on platform threads");
+      }
+
+      AtomicInteger threadCount = new AtomicInteger();
+      ThreadFactory threadFactory = runnable -> {
+        Thread thread = new Thread(runnable, "scimono-bulk-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      };
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_EXECUTOR_THREADS, DEFAULT_EXECUTOR_THREADS, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(), threadFactory);
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
+
+  public static class Builder {
+    private final BulkOperationHandler operationHandler;
+    private Executor executor;
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    /**
+     * @param operationHandler executes the single operations, e.g. a {@link CallbackBulkOperationHandler}
+     */
+    public Builder(final BulkOperationHandler operationHandler) {
+      this.operationHandler = operationHandler;
+    }
+
+    /**
+     * @param executor executor running the operations, null for the default executor
+     */
+    public Builder setExecutor(final Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * @param maxConcurrency maximal number of operations or batches of one bulk request running at the same time
+     */
+    public Builder setMaxConcurrency(final int maxConcurrency) {
+      if (maxConcurrency < 1) {
+        throw new IllegalArgumentException("The maximal concurrency must be at least 1");
+      }
+      this.maxConcurrency = maxConcurrency;
+      return this;
+    }
+
+    /**
+     * @param maxBatchSize maximal number of operations handed over in one batch to a {@link BatchBulkOperationHandler}
+     */
+    public Builder setMaxBatchSize(final int maxBatchSize) {
+      if (maxBatchSize < 1) {
+        throw new IllegalArgumentException("The maximal batch size must be at least 1");
+      }
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    public ParallelBulkRequestCallback build() {
+      return new ParallelBulkRequestCallback(this);
+    }
+  }
+}
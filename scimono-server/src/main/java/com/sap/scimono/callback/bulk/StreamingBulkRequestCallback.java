@@ -0,0 +1,39 @@
+package com.sap.scimono.callback.bulk;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ObjIntConsumer;
+
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+
+/**
+ * {@link BulkRequestCallback} reporting the responses of the operations as they complete. The /Bulk endpoint writes the response of
+ * such a callback in chunks, every operation as soon as it is reported, instead of waiting for the complete bulk response.
+ * <p>
+ * The operations are executed while the response is written, after the response status has been sent. An exception thrown by the
+ * callback therefore results in an incomplete response body, errors of single operations must be reported as error responses.
+ */
+public interface StreamingBulkRequestCallback extends BulkRequestCallback {
+
+  /**
+   * Handles the operations of a bulk request.
+   *
+   * @param bulkRequest the bulk request
+   * @param responseConsumer called with the response of each processed operation and the index of the operation in the request, in the
+   *          order of completion, on the thread calling this method
+   */
+  void handleBulkRequest(BulkBody<RequestOperation> bulkRequest, ObjIntConsumer<ResponseOperation> responseConsumer);
+
+  /**
+   * Handles the operations of a bulk request, the response lists the processed operations in the order of the request.
+   */
+  @Override
+  default BulkBody<ResponseOperation> handleBulkRequest(BulkBody<RequestOperation> bulkRequest) {
+    Map<Integer, ResponseOperation> responseOperations = new TreeMap<>();
+    handleBulkRequest(bulkRequest, (response, index) -> responseOperations.put(index, response));
+    return BulkBody.forResponse(new ArrayList<>(responseOperations.values()));
+  }
+}
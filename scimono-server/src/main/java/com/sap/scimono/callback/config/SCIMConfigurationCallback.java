@@ -29,8 +29,20 @@ public interface SCIMConfigurationCallback {
 
   boolean getPatchSupportedSetting();
 
+  /**
+   * Determines whether sorting is supported. If so, the sortBy and sortOrder parameters of list requests are resolved and passed to the
+   * callbacks in {@link com.sap.scimono.entity.paging.PageInfo#getSortInfo()}, otherwise they are ignored.
+   *
+   * @return whether sorting is supported
+   */
   boolean getSortSupportedSetting();
 
+  /**
+   * Determines whether ETags are supported. If so, the If-None-Match and If-Match headers of requests on a single user or group are
+   * evaluated against the version of the resource, see {@link com.sap.scimono.api.ConditionalRequestFilter}.
+   *
+   * @return whether ETags are supported
+   */
   boolean getETagSupportedSetting();
 
   String getServiceProviderConfigVersion();
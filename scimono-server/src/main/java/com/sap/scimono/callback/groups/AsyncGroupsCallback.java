@@ -0,0 +1,116 @@
+package com.sap.scimono.callback.groups;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import com.sap.scimono.api.request.RequestedResourceAttributes;
+import com.sap.scimono.api.request.RequestedResourceAttributesParser;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.ResourceCount;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.paging.TotalResultsAccuracy;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.filter.QueryFilter;
+
+/**
+ * Variant of the {@link GroupsCallback} for data sources with non-blocking clients, see
+ * {@link com.sap.scimono.SCIMApplication#getAsyncGroupsCallback()}. The methods have the same meaning as in the {@link GroupsCallback},
+ * but return a stage which completes with the result, so that the request is suspended instead of blocking a container thread while the
+ * data source is called.
+ * <p>
+ * Errors are reported by completing the stage exceptionally, e.g. with a {@link com.sap.scimono.exception.SCIMException}, which is mapped
+ * to the error response in the same way as if it was thrown by a {@link GroupsCallback}. The response is built and written on the thread
+ * completing the stage, streamed results are pulled from that thread as well. Clients completing their futures on event loop threads
+ * should therefore hand over to another executor, e.g. with {@link CompletionStage#thenApplyAsync(java.util.function.Function)}.
+ */
+public interface AsyncGroupsCallback {
+
+  /**
+   * Adapts a synchronous callback. Its methods are called on the request thread and the returned stages are already completed.
+   *
+   * @param groupsCallback the callback to adapt
+   * @return an AsyncGroupsCallback delegating to the given callback
+   */
+  static AsyncGroupsCallback of(final GroupsCallback groupsCallback) {
+    return new SynchronousGroupsCallbackAdapter(groupsCallback);
+  }
+
+  /**
+   * @param groupId unique group id
+   * @return a stage completing with the group with the specified groupId or null if no such group exists
+   */
+  CompletionStage<Group> getGroup(final String groupId);
+
+  /**
+   * @param additionalAttributes additional attributes to be returned or excluded from the response
+   * @param filter value of the filter query parameter
+   * @return a stage completing with the group with the specified groupId or null if no such group exists
+   */
+  default CompletionStage<Group> getGroup(final String groupId, final RequestedResourceAttributes additionalAttributes,
+      final String filter) {
+    return getGroup(groupId);
+  }
+
+  /**
+   * Returns a page of groups as a stream, see {@link GroupsCallback#streamGroups(PageInfo, QueryFilter, RequestedResourceAttributes)}.
+   *
+   * @param filter the filter query parameter or null if no filter is requested
+   * @param additionalAttributes additional attributes to be returned or excluded from the response
+   * @return a stage completing with a page of groups or an empty page if no groups match the filter/paging criteria
+   */
+  CompletionStage<StreamedResult<Group>> streamGroups(final PageInfo pageInfo, final QueryFilter filter,
+      final RequestedResourceAttributes additionalAttributes);
+
+  /**
+   * Returns the number of groups matching the filter, see {@link GroupsCallback#countGroups(QueryFilter)}.
+   * <p>
+   * The default implementation returns the total count of an empty page requested through
+   * {@link AsyncGroupsCallback#streamGroups(PageInfo, QueryFilter, RequestedResourceAttributes)}, or counts all groups matching the filter
+   * by reading them if the total count of the page is unknown.
+   *
+   * @param filter the filter query parameter or null if no filter is requested
+   * @return a stage completing with the exact or estimated number of groups matching the filter
+   */
+  default CompletionStage<ResourceCount> countGroups(final QueryFilter filter) {
+    RequestedResourceAttributes defaultAttributes = RequestedResourceAttributesParser.parse(null, null);
+    return streamGroups(PageInfo.getInstance(0, 0, null), filter, defaultAttributes).thenCompose(page -> {
+      try (StreamedResult<Group> emptyPage = page) {
+        if (emptyPage.getTotalResultsAccuracy() != TotalResultsAccuracy.UNKNOWN) {
+          return CompletableFuture.completedFuture(ResourceCount.ofTotal(emptyPage));
+        }
+      }
+      return streamGroups(PageInfo.getInstance(Integer.MAX_VALUE, 0, null), filter, defaultAttributes)
+          .thenApply(ResourceCount::ofResources);
+    });
+  }
+
+  /**
+   * Creates a group, see {@link GroupsCallback#createGroup(Group)}.
+   *
+   * @return a stage completing with the created group
+   */
+  CompletionStage<Group> createGroup(final Group group);
+
+  /**
+   * Updates a group, see {@link GroupsCallback#updateGroup(Group)}.
+   *
+   * @return a stage completing with the updated group
+   */
+  CompletionStage<Group> updateGroup(final Group group);
+
+  /**
+   * Patches a group, see {@link GroupsCallback#patchGroup(String, PatchBody, Meta)}.
+   *
+   * @return a stage completing once the group is patched
+   */
+  CompletionStage<Void> patchGroup(final String groupId, final PatchBody patchBody, final Meta groupMeta);
+
+  /**
+   * Deletes the group with the specified groupId.
+   *
+   * @return a stage completing once the group is deleted
+   */
+  CompletionStage<Void> deleteGroup(final String groupId);
+}
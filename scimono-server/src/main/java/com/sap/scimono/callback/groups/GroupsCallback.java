@@ -7,12 +7,17 @@ import java.util.Optional;
 import java.util.Set;
 
 import com.sap.scimono.api.request.RequestedResourceAttributes;
+import com.sap.scimono.api.request.RequestedResourceAttributesParser;
 import com.sap.scimono.callback.config.SCIMConfigurationCallback;
 import com.sap.scimono.entity.Group;
 import com.sap.scimono.entity.Meta;
 import com.sap.scimono.entity.paging.PageInfo;
 import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.ResourceCount;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.paging.TotalResultsAccuracy;
 import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.filter.QueryFilter;
 
 public interface GroupsCallback {
   /**
@@ -40,6 +45,17 @@ public interface GroupsCallback {
     return getGroup(groupId, additionalAttributes);
   }
 
+  /**
+   * Returns the version of a group, used to answer requests with If-None-Match or If-Match header without reading the whole group. The
+   * default implementation reads the group, override it to read only the version from the data source.
+   *
+   * @param groupId unique group id
+   * @return the version of the group, or empty if no such group exists or the group has no version
+   */
+  default Optional<String> getGroupVersion(final String groupId) {
+    return Optional.ofNullable(getGroup(groupId)).map(Group::getMeta).map(Meta::getVersion);
+  }
+
   /**
    * Returns a page of groups (limited by {@link SCIMConfigurationCallback#getMaxResourcesPerPage()}),
    * taking into account the specified filter and paging parameters.
@@ -60,6 +76,60 @@ public interface GroupsCallback {
     return getGroups(pageInfo, filter);
   }
 
+  /**
+   * Returns a page of groups as a stream (more info in {@link GroupsCallback#getGroups(PageInfo, String)}). The groups are pulled from the stream
+   * while the list response is being written, so only a single group needs to be held in memory at a time. The stream is closed once the
+   * response is written.
+   * <p>
+   * When paging by id is requested, the stream should provide one resource more than the requested count, as the id of that resource is
+   * returned as nextId.
+   * <p>
+   * The default implementation loads the page through {@link GroupsCallback#getGroups(PageInfo, String, RequestedResourceAttributes)}.
+   *
+   * @param additionalAttributes additional attributes to be returned of excluded from the response
+   * @return a page of groups or empty page if no groups match the filter/paging criteria
+   */
+  default StreamedResult<Group> streamGroups(final PageInfo pageInfo, final String filter, RequestedResourceAttributes additionalAttributes) {
+    return StreamedResult.of(getGroups(pageInfo, filter, additionalAttributes));
+  }
+
+  /**
+   * Returns a page of groups as a stream (more info in {@link GroupsCallback#streamGroups(PageInfo, String, RequestedResourceAttributes)}),
+   * receiving the filter in compiled form. {@link QueryFilter#getExpression()} returns an immutable expression tree which is cached for all
+   * filters of the same structure, so implementations do not need to parse the filter themselves.
+   * <p>
+   * The default implementation passes the unparsed filter to {@link GroupsCallback#streamGroups(PageInfo, String, RequestedResourceAttributes)}.
+   *
+   * @param filter the filter query parameter or null if no filter is requested
+   * @param additionalAttributes additional attributes to be returned of excluded from the response
+   * @return a page of groups or empty page if no groups match the filter/paging criteria
+   */
+  default StreamedResult<Group> streamGroups(final PageInfo pageInfo, final QueryFilter filter, RequestedResourceAttributes additionalAttributes) {
+    return streamGroups(pageInfo, filter == null ? null : filter.getText(), additionalAttributes);
+  }
+
+  /**
+   * Returns the number of groups matching the filter, for list requests with {@code count=0}, which return only the total count. An
+   * estimated count, see {@link ResourceCount#estimated(int)}, is returned as {@code totalResults} as it is.
+   * <p>
+   * The default implementation returns the total count of an empty page requested through
+   * {@link GroupsCallback#streamGroups(PageInfo, QueryFilter, RequestedResourceAttributes)}. If the total count of the page is unknown, see
+   * {@link StreamedResult#withUnknownTotal(java.util.stream.Stream)}, it counts all groups matching the filter by reading them, so such
+   * callbacks should override this method with a count query, e.g. returning {@code ResourceCount.exact(count)}.
+   *
+   * @param filter the filter query parameter or null if no filter is requested
+   * @return the exact or estimated number of groups matching the filter
+   */
+  default ResourceCount countGroups(final QueryFilter filter) {
+    RequestedResourceAttributes defaultAttributes = RequestedResourceAttributesParser.parse(null, null);
+    try (StreamedResult<Group> emptyPage = streamGroups(PageInfo.getInstance(0, 0, null), filter, defaultAttributes)) {
+      if (emptyPage.getTotalResultsAccuracy() != TotalResultsAccuracy.UNKNOWN) {
+        return ResourceCount.ofTotal(emptyPage);
+      }
+    }
+    return ResourceCount.ofResources(streamGroups(PageInfo.getInstance(Integer.MAX_VALUE, 0, null), filter, defaultAttributes));
+  }
+
 
   /**
    * Creates a group with the provided attributes. The group object must have all mandatory attributes available,
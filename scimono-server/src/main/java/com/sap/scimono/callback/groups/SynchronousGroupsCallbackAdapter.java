@@ -0,0 +1,84 @@
+package com.sap.scimono.callback.groups;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import com.sap.scimono.api.request.RequestedResourceAttributes;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.ResourceCount;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.filter.QueryFilter;
+
+/**
+ * {@link AsyncGroupsCallback} calling a {@link GroupsCallback} on the calling thread, see {@link AsyncGroupsCallback#of(GroupsCallback)}.
+ * Exceptions of the callback complete the returned stage exceptionally.
+ */
+class SynchronousGroupsCallbackAdapter implements AsyncGroupsCallback {
+  private final GroupsCallback groupsCallback;
+
+  SynchronousGroupsCallbackAdapter(final GroupsCallback groupsCallback) {
+    this.groupsCallback = groupsCallback;
+  }
+
+  @Override
+  public CompletionStage<Group> getGroup(final String groupId) {
+    return call(() -> groupsCallback.getGroup(groupId));
+  }
+
+  @Override
+  public CompletionStage<Group> getGroup(final String groupId, final RequestedResourceAttributes additionalAttributes,
+      final String filter) {
+    return call(() -> groupsCallback.getGroup(groupId, additionalAttributes, filter));
+  }
+
+  @Override
+  public CompletionStage<StreamedResult<Group>> streamGroups(final PageInfo pageInfo, final QueryFilter filter,
+      final RequestedResourceAttributes additionalAttributes) {
+    return call(() -> groupsCallback.streamGroups(pageInfo, filter, additionalAttributes));
+  }
+
+  @Override
+  public CompletionStage<ResourceCount> countGroups(final QueryFilter filter) {
+    return call(() -> groupsCallback.countGroups(filter));
+  }
+
+  @Override
+  public CompletionStage<Group> createGroup(final Group group) {
+    return call(() -> groupsCallback.createGroup(group));
+  }
+
+  @Override
+  public CompletionStage<Group> updateGroup(final Group group) {
+    return call(() -> groupsCallback.updateGroup(group));
+  }
+
+  @Override
+  public CompletionStage<Void> patchGroup(final String groupId, final PatchBody patchBody, final Meta groupMeta) {
+    return call(() -> {
+      groupsCallback.patchGroup(groupId, patchBody, groupMeta);
+      return null;
+    });
+  }
+
+  @Override
+  public CompletionStage<Void> deleteGroup(final String groupId) {
+    return call(() -> {
+      groupsCallback.deleteGroup(groupId);
+      return null;
+    });
+  }
+
+  private static <T> CompletionStage<T> call(final Supplier<T> callbackCall) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    try {
+      result.complete(callbackCall.get());
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,96 @@
+package com.sap.scimono.callback.schemas;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sap.scimono.entity.schema.Schema;
+
+/**
+ * {@link SchemasCallback} keeping the {@link SchemaAttributeIndex} over the schemas of another callback, so that attribute paths are
+ * resolved without reading the schemas again. The index is rebuilt after a custom schema is created or deleted through this
+ * callback, call {@link #invalidate()} when the custom schemas are changed in another way.
+ * <p>
+ * Return it from {@link com.sap.scimono.SCIMApplication#getSchemasCallback()} in order to cache the index for a request, or share one
+ * instance between requests if the wrapped callback is thread safe.
+ */
+public class CachingSchemasCallback implements SchemasCallback {
+  private final SchemasCallback delegate;
+  private final AtomicLong schemasVersion = new AtomicLong();
+  private volatile VersionedIndex attributeIndex;
+
+  public CachingSchemasCallback(final SchemasCallback delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Schema getCustomSchema(final String schemaId) {
+    return delegate.getCustomSchema(schemaId);
+  }
+
+  @Override
+  public Schema getSchema(final String schemaId) {
+    return delegate.getSchema(schemaId);
+  }
+
+  @Override
+  public void createCustomSchema(final Schema schema) {
+    try {
+      delegate.createCustomSchema(schema);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public List<Schema> getCustomSchemas() {
+    return delegate.getCustomSchemas();
+  }
+
+  @Override
+  public List<Schema> getSchemas() {
+    return delegate.getSchemas();
+  }
+
+  @Override
+  public void deleteCustomSchema(final String schemaId) {
+    try {
+      delegate.deleteCustomSchema(schemaId);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public boolean isValidSchemaName(final String schemaName) {
+    return delegate.isValidSchemaName(schemaName);
+  }
+
+  @Override
+  public SchemaAttributeIndex getAttributeIndex() {
+    long version = schemasVersion.get();
+    VersionedIndex index = attributeIndex;
+    if (index == null || index.version != version) {
+      // an index built while the schemas are changed is stored with the outdated version and built again on the next lookup
+      index = new VersionedIndex(delegate.getAttributeIndex(), version);
+      attributeIndex = index;
+    }
+    return index.index;
+  }
+
+  /**
+   * Drops the cached index, it is built again on the next lookup of an attribute.
+   */
+  public void invalidate() {
+    schemasVersion.incrementAndGet();
+  }
+
+  private static class VersionedIndex {
+    private final SchemaAttributeIndex index;
+    private final long version;
+
+    private VersionedIndex(final SchemaAttributeIndex index, final long version) {
+      this.index = index;
+      this.version = version;
+    }
+  }
+}
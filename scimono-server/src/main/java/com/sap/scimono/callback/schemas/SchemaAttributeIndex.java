@@ -0,0 +1,153 @@
+package com.sap.scimono.callback.schemas;
+
+import static com.sap.scimono.callback.schemas.SchemasCallback.COMPLEX_ATTRIBUTE_DELIMETER;
+import static com.sap.scimono.callback.schemas.SchemasCallback.SCHEMA_URN_DELIMETER;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.entity.schema.resources.SchemaCSVReader;
+
+/**
+ * Immutable index of the attributes of a set of schemas by their fully qualified path, e.g.
+ * {@code urn:ietf:params:scim:schemas:core:2.0:User:name.givenName}. Schema ids and attribute names are matched case insensitive.
+ * <p>
+ * Indexes are created over the schemas of a callback with {@link #of(Collection)}. The attribute paths of the schemas shipped with the
+ * library are computed once and shared by all indexes containing these schemas, see {@link #core()}.
+ */
+public final class SchemaAttributeIndex {
+  private final Map<String, SchemaAttributes> schemas = new LinkedHashMap<>();
+
+  private SchemaAttributeIndex(final Collection<Schema> schemas) {
+    for (Schema schema : schemas) {
+      SchemaAttributes attributes = CoreIndexHolder.ATTRIBUTES.get(schema);
+      this.schemas.putIfAbsent(toKey(schema.getId()), attributes != null ? attributes : new SchemaAttributes(schema));
+    }
+  }
+
+  /**
+   * @return the index over the core and extension schemas shipped with the library
+   */
+  public static SchemaAttributeIndex core() {
+    return CoreIndexHolder.INSTANCE;
+  }
+
+  /**
+   * Creates an index over the provided schemas, e.g. the schemas returned by {@link SchemasCallback#getSchemas()}. If several schemas have
+   * the same id, the first one is indexed.
+   *
+   * @param schemas schemas to index
+   * @return the new index
+   */
+  public static SchemaAttributeIndex of(final Collection<Schema> schemas) {
+    return new SchemaAttributeIndex(schemas == null ? Collections.emptyList() : schemas);
+  }
+
+  /**
+   * @param schemaId id of the schema, case insensitive
+   * @return the schema or null if it is not part of the index
+   */
+  public Schema getSchema(final String schemaId) {
+    SchemaAttributes attributes = schemas.get(toKey(schemaId));
+    return attributes == null ? null : attributes.schema;
+  }
+
+  /**
+   * @return the indexed schemas in the order they were provided
+   */
+  public List<Schema> getSchemas() {
+    List<Schema> indexedSchemas = new ArrayList<>(schemas.size());
+    schemas.values().forEach(attributes -> indexedSchemas.add(attributes.schema));
+    return Collections.unmodifiableList(indexedSchemas);
+  }
+
+  /**
+   * Returns the id of the schema an attribute belongs to.
+   *
+   * @param attrNotation attribute path starting with the schema id, e.g. {@code urn:ietf:params:scim:schemas:core:2.0:User:userName}
+   * @return the id of the longest indexed schema the notation starts with, or null if there is none
+   */
+  public String getSchemaId(final String attrNotation) {
+    String key = toKey(attrNotation);
+    int schemaEnd = findSchemaEnd(key);
+    return schemaEnd < 0 ? null : schemas.get(key.substring(0, schemaEnd)).schema.getId();
+  }
+
+  /**
+   * Returns the attributes on the path to the last attribute of the provided notation, starting with the top-level attribute of the
+   * schema.
+   *
+   * @param fullAttrNotation attribute path starting with the schema id, e.g.
+   *          {@code urn:ietf:params:scim:schemas:core:2.0:User:name.givenName}
+   * @return unmodifiable list of attributes, empty if the schema or any attribute on the path does not exist
+   */
+  public List<Attribute> getAttributePath(final String fullAttrNotation) {
+    String key = toKey(fullAttrNotation);
+    int schemaEnd = findSchemaEnd(key);
+    if (schemaEnd < 0 || schemaEnd == key.length()) {
+      return Collections.emptyList();
+    }
+    List<Attribute> attributePath = schemas.get(key.substring(0, schemaEnd)).attributePaths.get(key.substring(schemaEnd + 1));
+    return attributePath == null ? Collections.emptyList() : attributePath;
+  }
+
+  private int findSchemaEnd(final String key) {
+    for (int end = key.length(); end > 0; end = key.lastIndexOf(SCHEMA_URN_DELIMETER, end - 1)) {
+      if (schemas.containsKey(key.substring(0, end))) {
+        return end;
+      }
+    }
+    return -1;
+  }
+
+  private static String toKey(final String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * The attribute paths of one schema, relative to the schema id.
+   */
+  private static class SchemaAttributes {
+    private final Schema schema;
+    private final Map<String, List<Attribute>> attributePaths = new HashMap<>();
+
+    private SchemaAttributes(final Schema schema) {
+      this.schema = schema;
+      addAttributes("", Collections.emptyList(), schema.getAttributes());
+    }
+
+    private void addAttributes(final String pathPrefix, final List<Attribute> parentPath, final List<Attribute> attributes) {
+      for (Attribute attribute : attributes) {
+        List<Attribute> attributePath = new ArrayList<>(parentPath.size() + 1);
+        attributePath.addAll(parentPath);
+        attributePath.add(attribute);
+
+        String path = pathPrefix + toKey(attribute.getName());
+        attributePaths.put(path, Collections.unmodifiableList(attributePath));
+        addAttributes(path + COMPLEX_ATTRIBUTE_DELIMETER, attributePath, attribute.getSubAttributes());
+      }
+    }
+  }
+
+  private static class CoreIndexHolder {
+    // keyed by identity, so that schemas of a callback which only share the id of a shipped schema are indexed themselves
+    private static final Map<Schema, SchemaAttributes> ATTRIBUTES = new IdentityHashMap<>();
+    private static final SchemaAttributeIndex INSTANCE;
+
+    static {
+      for (Schema schema : SchemaCSVReader.getImportedSchemasFromCSVs().values()) {
+        ATTRIBUTES.put(schema, new SchemaAttributes(schema));
+      }
+      INSTANCE = new SchemaAttributeIndex(SchemaCSVReader.getImportedSchemasFromCSVs().values());
+    }
+  }
+}
@@ -1,14 +1,12 @@
 
 package com.sap.scimono.callback.schemas;
 
-import static com.sap.scimono.helper.Strings.isNullOrEmpty;
 import static com.sap.scimono.helper.Strings.stripStart;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.regex.Pattern;
 
 import com.sap.scimono.entity.Resource;
@@ -104,19 +102,27 @@ public interface SchemasCallback {
     return attrHierarchy.get(attrHierarchy.size() - 1);
   }
 
-  // TODO this could probably be optimized (e.g. it reads all schemas then returns only an id, which is used to read the schema again in
-  // getComplexAttributePath)
+  /**
+   * Returns the index used to resolve attribute paths. The default implementation indexes {@link #getSchemas()} on every call,
+   * {@link CachingSchemasCallback} keeps the index until a custom schema is created or deleted.
+   *
+   * @return index over the schemas of this callback
+   */
+  default SchemaAttributeIndex getAttributeIndex() {
+    return SchemaAttributeIndex.of(getSchemas());
+  }
+
+  /**
+   * Returns the id of the schema an attribute belongs to, see {@link #getAttributeIndex()}.
+   *
+   * @param attrNotation attribute path starting with the schema id (eg. urn:ietf:params:scim:schemas:core:2.0:User:userName)
+   * @return the schema id, or null if the notation does not start with the id of an existing schema
+   */
   default String getSchemaIdFromAttributeNotation(final String attrNotation) {
-    if (isAttributeNotationContainsSchema(attrNotation)) {
-      // @formatter:off
-      return getSchemas().stream()
-          .map(Resource::getId)
-          .filter(attrNotation::startsWith)
-          .findAny()
-          .get();
-      // @formatter:on
+    if (!isAttributeNotationContainsSchema(attrNotation)) {
+      return null;
     }
-    return null;
+    return getAttributeIndex().getSchemaId(attrNotation);
   }
 
   // TODO needs javadoc
@@ -125,37 +131,19 @@ public interface SchemasCallback {
     return stripStart(attrName, SCHEMA_URN_DELIMETER);
   }
 
-  // TODO needs javadoc
+  /**
+   * Returns the attribute definitions on the path to the attribute, e.g. {@code name} and {@code givenName} for
+   * urn:ietf:params:scim:schemas:core:2.0:User:name.givenName, see {@link #getAttributeIndex()}. Schema ids and attribute names are matched
+   * case insensitive.
+   *
+   * @param fullAttrNotation attribute path starting with the schema id
+   * @return list of attributes, empty if the notation has no attribute or if the attribute does not exist
+   */
   default List<Attribute> getComplexAttributePath(final String fullAttrNotation) {
-    String schemaId = getSchemaIdFromAttributeNotation(fullAttrNotation);
-    String attrPath = removeSchemaFromAttributeNotation(fullAttrNotation, schemaId);
-    List<Attribute> attrHierarchy = new LinkedList<>();
-
-    if (isNullOrEmpty(attrPath)) {
-      return attrHierarchy;
-    }
-
-    List<Attribute> subAttributes = getSchema(schemaId).getAttributes();
-
-    String[] attrPathSequence = attrPath.split(COMPLEX_ATTRIBUTE_DELIMETER_REGEX);
-    for (String token : attrPathSequence) {
-
-      // @formatter:off
-      Optional<Attribute> attributeHolder = subAttributes.stream()
-          .filter(attr -> token.equals(attr.getName()))
-          .findAny();
-      // @formatter:on
-
-      if (!attributeHolder.isPresent()) {
-        return new ArrayList<>();
-      }
-
-      Attribute currentAttr = attributeHolder.get();
-      attrHierarchy.add(currentAttr);
-      subAttributes = currentAttr.getSubAttributes();
+    if (!isAttributeNotationContainsSchema(fullAttrNotation)) {
+      return Collections.emptyList();
     }
-
-    return attrHierarchy;
+    return getAttributeIndex().getAttributePath(fullAttrNotation);
   }
 
   static String addSchemaToPathIfNotExist(final String path, final String defaultSchema) {
@@ -193,7 +181,7 @@ public interface SchemasCallback {
   }
 
   static boolean isCustomSchema(final String schemaId) {
-    return !isCoreSchema(schemaId) && schemaId.matches(SCHEMA_PATTERN.toString());
+    return !isCoreSchema(schemaId) && SCHEMA_PATTERN.matcher(schemaId).matches();
   }
 
   static boolean isCoreSchema(final String schemaId) {
@@ -0,0 +1,121 @@
+package com.sap.scimono.callback.users;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import com.sap.scimono.api.request.RequestedResourceAttributes;
+import com.sap.scimono.api.request.RequestedResourceAttributesParser;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.ResourceCount;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.paging.TotalResultsAccuracy;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.filter.QueryFilter;
+
+/**
+ * Variant of the {@link UsersCallback} for data sources with non-blocking clients, see
+ * {@link com.sap.scimono.SCIMApplication#getAsyncUsersCallback()}. The methods have the same meaning as in the {@link UsersCallback},
+ * but return a stage which completes with the result, so that the request is suspended instead of blocking a container thread while the
+ * data source is called.
+ * <p>
+ * Errors are reported by completing the stage exceptionally, e.g. with a {@link com.sap.scimono.exception.SCIMException}, which is mapped
+ * to the error response in the same way as if it was thrown by a {@link UsersCallback}. The response is built and written on the thread
+ * completing the stage, streamed results are pulled from that thread as well. Clients completing their futures on event loop threads
+ * should therefore hand over to another executor, e.g. with {@link CompletionStage#thenApplyAsync(java.util.function.Function)}.
+ */
+public interface AsyncUsersCallback {
+
+  /**
+   * Adapts a synchronous callback. Its methods are called on the request thread and the returned stages are already completed.
+   *
+   * @param usersCallback the callback to adapt
+   * @return an AsyncUsersCallback delegating to the given callback
+   */
+  static AsyncUsersCallback of(final UsersCallback usersCallback) {
+    return new SynchronousUsersCallbackAdapter(usersCallback);
+  }
+
+  /**
+   * @param userName unique username
+   * @return a stage completing with the user with the specified username or null if no such user exists
+   */
+  CompletionStage<User> getUserByUsername(final String userName);
+
+  /**
+   * @param userId unique user id
+   * @return a stage completing with the user with the specified userId or null if no such user exists
+   */
+  CompletionStage<User> getUser(final String userId);
+
+  /**
+   * @param additionalAttributes additional attributes to be returned or excluded from the response
+   * @param filter value of the filter query parameter
+   * @return a stage completing with the user with the specified userId or null if no such user exists
+   */
+  default CompletionStage<User> getUser(final String userId, final RequestedResourceAttributes additionalAttributes, final String filter) {
+    return getUser(userId);
+  }
+
+  /**
+   * Returns a page of users as a stream, see {@link UsersCallback#streamUsers(PageInfo, QueryFilter, RequestedResourceAttributes)}.
+   *
+   * @param filter the filter query parameter or null if no filter is requested
+   * @param additionalAttributes additional attributes to be returned or excluded from the response
+   * @return a stage completing with a page of users or an empty page if no users match the filter/paging criteria
+   */
+  CompletionStage<StreamedResult<User>> streamUsers(final PageInfo pageInfo, final QueryFilter filter,
+      final RequestedResourceAttributes additionalAttributes);
+
+  /**
+   * Returns the number of users matching the filter, see {@link UsersCallback#countUsers(QueryFilter)}.
+   * <p>
+   * The default implementation returns the total count of an empty page requested through
+   * {@link AsyncUsersCallback#streamUsers(PageInfo, QueryFilter, RequestedResourceAttributes)}, or counts all users matching the filter
+   * by reading them if the total count of the page is unknown.
+   *
+   * @param filter the filter query parameter or null if no filter is requested
+   * @return a stage completing with the exact or estimated number of users matching the filter
+   */
+  default CompletionStage<ResourceCount> countUsers(final QueryFilter filter) {
+    RequestedResourceAttributes defaultAttributes = RequestedResourceAttributesParser.parse(null, null);
+    return streamUsers(PageInfo.getInstance(0, 0, null), filter, defaultAttributes).thenCompose(page -> {
+      try (StreamedResult<User> emptyPage = page) {
+        if (emptyPage.getTotalResultsAccuracy() != TotalResultsAccuracy.UNKNOWN) {
+          return CompletableFuture.completedFuture(ResourceCount.ofTotal(emptyPage));
+        }
+      }
+      return streamUsers(PageInfo.getInstance(Integer.MAX_VALUE, 0, null), filter, defaultAttributes)
+          .thenApply(ResourceCount::ofResources);
+    });
+  }
+
+  /**
+   * Creates a user, see {@link UsersCallback#createUser(User)}.
+   *
+   * @return a stage completing with the created user
+   */
+  CompletionStage<User> createUser(final User user);
+
+  /**
+   * Updates a user, see {@link UsersCallback#updateUser(User)}.
+   *
+   * @return a stage completing with the updated user
+   */
+  CompletionStage<User> updateUser(final User user);
+
+  /**
+   * Patches a user, see {@link UsersCallback#patchUser(String, PatchBody, Meta)}.
+   *
+   * @return a stage completing once the user is patched
+   */
+  CompletionStage<Void> patchUser(final String userId, final PatchBody patchBody, final Meta userMeta);
+
+  /**
+   * Deletes the user with the specified userId.
+   *
+   * @return a stage completing once the user is deleted
+   */
+  CompletionStage<Void> deleteUser(final String userId);
+}
@@ -0,0 +1,88 @@
+package com.sap.scimono.callback.users;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import com.sap.scimono.api.request.RequestedResourceAttributes;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.ResourceCount;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.filter.QueryFilter;
+
+/**
+ * {@link AsyncUsersCallback} calling a {@link UsersCallback} on the calling thread, see {@link AsyncUsersCallback#of(UsersCallback)}.
+ * Exceptions of the callback complete the returned stage exceptionally.
+ */
+class SynchronousUsersCallbackAdapter implements AsyncUsersCallback {
+  private final UsersCallback usersCallback;
+
+  SynchronousUsersCallbackAdapter(final UsersCallback usersCallback) {
+    this.usersCallback = usersCallback;
+  }
+
+  @Override
+  public CompletionStage<User> getUserByUsername(final String userName) {
+    return call(() -> usersCallback.getUserByUsername(userName));
+  }
+
+  @Override
+  public CompletionStage<User> getUser(final String userId) {
+    return call(() -> usersCallback.getUser(userId));
+  }
+
+  @Override
+  public CompletionStage<User> getUser(final String userId, final RequestedResourceAttributes additionalAttributes, final String filter) {
+    return call(() -> usersCallback.getUser(userId, additionalAttributes, filter));
+  }
+
+  @Override
+  public CompletionStage<StreamedResult<User>> streamUsers(final PageInfo pageInfo, final QueryFilter filter,
+      final RequestedResourceAttributes additionalAttributes) {
+    return call(() -> usersCallback.streamUsers(pageInfo, filter, additionalAttributes));
+  }
+
+  @Override
+  public CompletionStage<ResourceCount> countUsers(final QueryFilter filter) {
+    return call(() -> usersCallback.countUsers(filter));
+  }
+
+  @Override
+  public CompletionStage<User> createUser(final User user) {
+    return call(() -> usersCallback.createUser(user));
+  }
+
+  @Override
+  public CompletionStage<User> updateUser(final User user) {
+    return call(() -> usersCallback.updateUser(user));
+  }
+
+  @Override
+  public CompletionStage<Void> patchUser(final String userId, final PatchBody patchBody, final Meta userMeta) {
+    return call(() -> {
+      usersCallback.patchUser(userId, patchBody, userMeta);
+      return null;
+    });
+  }
+
+  @Override
+  public CompletionStage<Void> deleteUser(final String userId) {
+    return call(() -> {
+      usersCallback.deleteUser(userId);
+      return null;
+    });
+  }
+
+  private static <T> CompletionStage<T> call(final Supplier<T> callbackCall) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    try {
+      result.complete(callbackCall.get());
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+}
@@ -7,13 +7,18 @@ import java.util.Optional;
 import java.util.Set;
 
 import com.sap.scimono.api.request.RequestedResourceAttributes;
+import com.sap.scimono.api.request.RequestedResourceAttributesParser;
 import com.sap.scimono.callback.config.SCIMConfigurationCallback;
 import com.sap.scimono.entity.EnterpriseExtension;
 import com.sap.scimono.entity.Meta;
 import com.sap.scimono.entity.User;
 import com.sap.scimono.entity.paging.PageInfo;
 import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.ResourceCount;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.paging.TotalResultsAccuracy;
 import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.filter.QueryFilter;
 
 public interface UsersCallback {
   /**
@@ -45,6 +50,17 @@ public interface UsersCallback {
     return getUser(userId, additionalAttributes);
   }
 
+  /**
+   * Returns the version of a user, used to answer requests with If-None-Match or If-Match header without reading the whole user. The
+   * default implementation reads the user, override it to read only the version from the data source.
+   *
+   * @param userId unique user id
+   * @return the version of the user, or empty if no such user exists or the user has no version
+   */
+  default Optional<String> getUserVersion(final String userId) {
+    return Optional.ofNullable(getUser(userId)).map(User::getMeta).map(Meta::getVersion);
+  }
+
   /**
    * Returns a page of users (limited by {@link SCIMConfigurationCallback#getMaxResourcesPerPage()}),
    * taking into account the specified filter and paging parameters.
@@ -65,6 +81,60 @@ public interface UsersCallback {
     return getUsers(pageInfo, filter);
   }
 
+  /**
+   * Returns a page of users as a stream (more info in {@link UsersCallback#getUsers(PageInfo, String)}). The users are pulled from the stream
+   * while the list response is being written, so only a single user needs to be held in memory at a time. The stream is closed once the
+   * response is written.
+   * <p>
+   * When paging by id is requested, the stream should provide one resource more than the requested count, as the id of that resource is
+   * returned as nextId.
+   * <p>
+   * The default implementation loads the page through {@link UsersCallback#getUsers(PageInfo, String, RequestedResourceAttributes)}.
+   *
+   * @param additionalAttributes additional attributes to be returned of excluded from the response
+   * @return a page of users or empty page if no users match the filter/paging criteria
+   */
+  default StreamedResult<User> streamUsers(final PageInfo pageInfo, final String filter, RequestedResourceAttributes additionalAttributes) {
+    return StreamedResult.of(getUsers(pageInfo, filter, additionalAttributes));
+  }
+
+  /**
+   * Returns a page of users as a stream (more info in {@link UsersCallback#streamUsers(PageInfo, String, RequestedResourceAttributes)}),
+   * receiving the filter in compiled form. {@link QueryFilter#getExpression()} returns an immutable expression tree which is cached for all
+   * filters of the same structure, so implementations do not need to parse the filter themselves.
+   * <p>
+   * The default implementation passes the unparsed filter to {@link UsersCallback#streamUsers(PageInfo, String, RequestedResourceAttributes)}.
+   *
+   * @param filter the filter query parameter or null if no filter is requested
+   * @param additionalAttributes additional attributes to be returned of excluded from the response
+   * @return a page of users or empty page if no users match the filter/paging criteria
+   */
+  default StreamedResult<User> streamUsers(final PageInfo pageInfo, final QueryFilter filter, RequestedResourceAttributes additionalAttributes) {
+    return streamUsers(pageInfo, filter == null ? null : filter.getText(), additionalAttributes);
+  }
+
+  /**
+   * Returns the number of users matching the filter, for list requests with {@code count=0}, which return only the total count. An
+   * estimated count, see {@link ResourceCount#estimated(int)}, is returned as {@code totalResults} as it is.
+   * <p>
+   * The default implementation returns the total count of an empty page requested through
+   * {@link UsersCallback#streamUsers(PageInfo, QueryFilter, RequestedResourceAttributes)}. If the total count of the page is unknown, see
+   * {@link StreamedResult#withUnknownTotal(java.util.stream.Stream)}, it counts all users matching the filter by reading them, so such
+   * callbacks should override this method with a count query, e.g. returning {@code ResourceCount.exact(count)}.
+   *
+   * @param filter the filter query parameter or null if no filter is requested
+   * @return the exact or estimated number of users matching the filter
+   */
+  default ResourceCount countUsers(final QueryFilter filter) {
+    RequestedResourceAttributes defaultAttributes = RequestedResourceAttributesParser.parse(null, null);
+    try (StreamedResult<User> emptyPage = streamUsers(PageInfo.getInstance(0, 0, null), filter, defaultAttributes)) {
+      if (emptyPage.getTotalResultsAccuracy() != TotalResultsAccuracy.UNKNOWN) {
+        return ResourceCount.ofTotal(emptyPage);
+      }
+    }
+    return ResourceCount.ofResources(streamUsers(PageInfo.getInstance(Integer.MAX_VALUE, 0, null), filter, defaultAttributes));
+  }
+
   /**
    * Creates a user with the provided attributes. The user object must have all mandatory attributes available,
    * including metadata (version, etc.). The returned user must have its id set.
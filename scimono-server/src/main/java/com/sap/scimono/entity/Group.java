@@ -175,7 +175,7 @@ public final class Group extends Resource<Group> {
       addSchema(SCHEMA);
       if (group != null) {
         this.displayName = group.displayName;
-        members = new HashSet<>(group.members);
+        members = new LinkedHashSet<>(group.members);
       }
       if (!Strings.isNullOrEmpty(displayName)) {
         this.displayName = displayName;
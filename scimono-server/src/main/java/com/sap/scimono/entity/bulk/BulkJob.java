@@ -0,0 +1,106 @@
+package com.sap.scimono.entity.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.sap.scimono.entity.ErrorResponse;
+
+/**
+ * State of a bulk request which is executed asynchronously. The response contains the operations processed so far.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class BulkJob {
+  private static final String ID_FIELD = "id";
+  private static final String STATUS_FIELD = "status";
+  private static final String TOTAL_OPERATIONS_FIELD = "totalOperations";
+  private static final String COMPLETED_OPERATIONS_FIELD = "completedOperations";
+  private static final String RESPONSE_FIELD = "response";
+  private static final String ERROR_FIELD = "error";
+
+  private final String id;
+  private final Status status;
+  private final int totalOperations;
+  private final List<ResponseOperation> operations;
+  private final ErrorResponse error;
+
+  public BulkJob(final String id, final Status status, final int totalOperations, final List<ResponseOperation> operations,
+      final ErrorResponse error) {
+    this.id = id;
+    this.status = status;
+    this.totalOperations = totalOperations;
+    this.operations = Collections.unmodifiableList(new ArrayList<>(operations));
+    this.error = error;
+  }
+
+  @JsonCreator
+  private BulkJob(@JsonProperty(value = ID_FIELD, required = true) final String id,
+                  @JsonProperty(value = STATUS_FIELD, required = true) final Status status,
+                  @JsonProperty(TOTAL_OPERATIONS_FIELD) final int totalOperations,
+                  @JsonProperty(RESPONSE_FIELD) final BulkBody<ResponseOperation> response,
+                  @JsonProperty(ERROR_FIELD) final ErrorResponse error) {
+    this(id, status, totalOperations, response == null ? Collections.emptyList() : response.getOperations(), error);
+  }
+
+  @JsonProperty(ID_FIELD)
+  public String getId() {
+    return id;
+  }
+
+  @JsonProperty(STATUS_FIELD)
+  public Status getStatus() {
+    return status;
+  }
+
+  @JsonProperty(TOTAL_OPERATIONS_FIELD)
+  public int getTotalOperations() {
+    return totalOperations;
+  }
+
+  @JsonProperty(COMPLETED_OPERATIONS_FIELD)
+  public int getCompletedOperations() {
+    return operations.size();
+  }
+
+  /**
+   * @return the bulk response with the operations processed so far
+   */
+  @JsonProperty(RESPONSE_FIELD)
+  public BulkBody<ResponseOperation> getResponse() {
+    return BulkBody.forResponse(operations);
+  }
+
+  /**
+   * @return the error which aborted the bulk request, for status {@link Status#FAILED}
+   */
+  @JsonProperty(ERROR_FIELD)
+  public ErrorResponse getError() {
+    return error;
+  }
+
+  @JsonIgnore
+  public boolean isFinished() {
+    return status != Status.RUNNING;
+  }
+
+  /**
+   * @return a copy of the job with the given response operations
+   */
+  public BulkJob withOperations(final List<ResponseOperation> operations) {
+    return new BulkJob(id, status, totalOperations, operations, error);
+  }
+
+  @Override
+  public String toString() {
+    return "BulkJob [id=" + id + ", status=" + status + ", totalOperations=" + totalOperations + ", completedOperations="
+        + operations.size() + "]";
+  }
+
+  public enum Status {
+    RUNNING, COMPLETED, FAILED
+  }
+}
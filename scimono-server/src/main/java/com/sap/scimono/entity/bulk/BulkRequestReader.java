@@ -0,0 +1,213 @@
+package com.sap.scimono.entity.bulk;
+
+import static com.sap.scimono.entity.definition.ResourceConstants.SCHEMAS_FIELD;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.UnaryOperator;
+
+import javax.ws.rs.core.Response;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sap.scimono.entity.bulk.validation.BulkOperationsValidator;
+import com.sap.scimono.entity.bulk.validation.BulkRequestInitialValidator;
+import com.sap.scimono.exception.InvalidInputException;
+import com.sap.scimono.exception.SCIMException;
+
+/**
+ * Reads a bulk request body with the streaming API of Jackson. The operations are read one at a time from the {@code Operations} array,
+ * validated and handed to an operation processor, so that the JSON tree of an operation is only kept until the operation is processed
+ * and the number of operations is checked against the bulk settings before the rest of the body is read.
+ * <p>
+ * With an executor the operations are processed in parallel, while the following operations are read. The processed operations keep
+ * the order of the request. At most {@link #DEFAULT_MAX_OPERATIONS_IN_FLIGHT} operations are read ahead of the processing, reading
+ * waits until an operation is processed before the next one is read.
+ */
+public class BulkRequestReader {
+  public static final int DEFAULT_MAX_OPERATIONS_IN_FLIGHT = 64;
+
+  private static final String OPERATIONS_FIELD = "Operations";
+  private static final String FAIL_ON_ERRORS_FIELD = "failOnErrors";
+
+  private final ObjectMapper objectMapper;
+  private final ObjectReader operationReader;
+  private final ObjectReader schemasReader;
+  private final BulkOperationsValidator operationsValidator;
+
+  public BulkRequestReader(final ObjectMapper objectMapper, final BulkOperationsValidator operationsValidator) {
+    this.objectMapper = objectMapper;
+    this.operationReader = objectMapper.readerFor(RequestOperation.class);
+    this.schemasReader = objectMapper.readerFor(new TypeReference<Set<String>>() {
+    });
+    this.operationsValidator = operationsValidator;
+  }
+
+  /**
+   * @param body the bulk request body
+   * @param operationProcessor called with each validated operation in request order, its result is added to the returned request
+   * @return the bulk request with the processed operations
+   * @throws IOException if the body could not be read or is no valid JSON
+   */
+  public BulkBody<RequestOperation> read(final InputStream body, final UnaryOperator<RequestOperation> operationProcessor)
+      throws IOException {
+    return read(body, operationProcessor, Runnable::run);
+  }
+
+  /**
+   * @param body the bulk request body
+   * @param operationProcessor called with each validated operation on the given executor, its result is added to the returned request
+   *          in request order
+   * @param executor executes the operation processor
+   * @return the bulk request with the processed operations
+   * @throws IOException if the body could not be read or is no valid JSON
+   */
+  public BulkBody<RequestOperation> read(final InputStream body, final UnaryOperator<RequestOperation> operationProcessor,
+      final Executor executor) throws IOException {
+    return read(body, operationProcessor, executor, DEFAULT_MAX_OPERATIONS_IN_FLIGHT);
+  }
+
+  /**
+   * @param body the bulk request body
+   * @param operationProcessor called with each validated operation on the given executor, its result is added to the returned request
+   *          in request order
+   * @param executor executes the operation processor
+   * @param maxOperationsInFlight maximum number of operations submitted to the executor and not yet processed
+   * @return the bulk request with the processed operations
+   * @throws IOException if the body could not be read or is no valid JSON
+   */
+  public BulkBody<RequestOperation> read(final InputStream body, final UnaryOperator<RequestOperation> operationProcessor,
+      final Executor executor, final int maxOperationsInFlight) throws IOException {
+    if (maxOperationsInFlight < 1) {
+      throw new IllegalArgumentException("maxOperationsInFlight must be positive");
+    }
+    operationsValidator.validateOperationsCount(0);
+    try (JsonParser parser = objectMapper.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new InvalidInputException(BulkRequestInitialValidator.INVALID_INPUT_MESSAGE);
+      }
+
+      Set<String> schemas = null;
+      Integer failOnErrors = null;
+      List<RequestOperation> operations = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.getCurrentName();
+        parser.nextToken();
+        if (SCHEMAS_FIELD.equalsIgnoreCase(fieldName)) {
+          schemas = schemasReader.readValue(parser);
+        } else if (FAIL_ON_ERRORS_FIELD.equalsIgnoreCase(fieldName)) {
+          failOnErrors = readFailOnErrors(parser);
+        } else if (OPERATIONS_FIELD.equalsIgnoreCase(fieldName)) {
+          operations = readOperations(parser, operationProcessor, executor, new Semaphore(maxOperationsInFlight));
+        } else {
+          parser.skipChildren();
+        }
+      }
+
+      if (schemas == null || operations == null) {
+        throw new InvalidInputException(String.format("The attributes %s and %s are required!", SCHEMAS_FIELD, OPERATIONS_FIELD));
+      }
+      BulkRequestInitialValidator.getHeaderValidationError(schemas, failOnErrors).ifPresent(error -> {
+        throw new InvalidInputException(error);
+      });
+      return BulkBody.forRequest(failOnErrors, operations);
+    }
+  }
+
+  private static Integer readFailOnErrors(final JsonParser parser) throws IOException {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+      String message = String.format("The attribute %s must be an integer!", FAIL_ON_ERRORS_FIELD);
+      throw new SCIMException(SCIMException.Type.INVALID_SYNTAX, message, Response.Status.BAD_REQUEST);
+    }
+    return parser.getIntValue();
+  }
+
+  private List<RequestOperation> readOperations(final JsonParser parser, final UnaryOperator<RequestOperation> operationProcessor,
+      final Executor executor, final Semaphore operationsInFlight) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw new InvalidInputException(String.format("The attribute %s must be an array!", OPERATIONS_FIELD));
+    }
+
+    List<RequestOperation> operations = new ArrayList<>();
+    Deque<CompletableFuture<RequestOperation>> processedOperations = new ArrayDeque<>();
+    Set<String> bulkIds = new HashSet<>();
+    try {
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        operationsValidator.validateOperationsCount(operations.size() + processedOperations.size() + 1);
+        RequestOperation operation = operationReader.readValue(parser);
+        if (operation.getBulkId() != null && !bulkIds.add(operation.getBulkId())) {
+          throw new InvalidInputException(BulkRequestInitialValidator.getDuplicateBulkIdMessage(operation.getBulkId()));
+        }
+        RequestOperation validOperation = operationsValidator.getValidBulkOperation(operation);
+
+        acquire(operationsInFlight);
+        CompletableFuture<RequestOperation> processedOperation;
+        try {
+          processedOperation = CompletableFuture.supplyAsync(() -> operationProcessor.apply(validOperation), executor);
+        } catch (RuntimeException e) {
+          operationsInFlight.release();
+          throw e;
+        }
+        // a cancelled operation completes as well and gives its permit back
+        processedOperation.whenComplete((result, error) -> operationsInFlight.release());
+        processedOperations.add(processedOperation);
+        drainProcessedOperations(processedOperations, operations);
+      }
+
+      while (!processedOperations.isEmpty()) {
+        operations.add(join(processedOperations.poll()));
+      }
+    } catch (IOException | RuntimeException e) {
+      processedOperations.forEach(processedOperation -> processedOperation.cancel(false));
+      throw e;
+    }
+    return operations;
+  }
+
+  private static void acquire(final Semaphore operationsInFlight) throws InterruptedIOException {
+    try {
+      operationsInFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the processing of bulk operations");
+    }
+  }
+
+  private static void drainProcessedOperations(final Deque<CompletableFuture<RequestOperation>> processedOperations,
+      final List<RequestOperation> operations) {
+    while (!processedOperations.isEmpty() && processedOperations.peek().isDone()) {
+      operations.add(join(processedOperations.poll()));
+    }
+  }
+
+  private static RequestOperation join(final CompletableFuture<RequestOperation> processedOperation) {
+    try {
+      return processedOperation.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
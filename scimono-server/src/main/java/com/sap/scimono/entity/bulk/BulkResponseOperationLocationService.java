@@ -18,17 +18,14 @@ public class BulkResponseOperationLocationService {
   }
 
   public BulkBody<ResponseOperation> rebuildWithLocations(BulkBody<ResponseOperation> bulkResponse) {
-
-    List<ResponseOperation> responseOperations = bulkResponse.getOperations().stream().map(respOperation -> {
-      ResponseOperation.Builder builder = respOperation.builder();
-
-      builder.withLocation(getValidResponseLocation(respOperation));
-      return builder.build();
-    }).collect(Collectors.toList());
-
+    List<ResponseOperation> responseOperations = bulkResponse.getOperations().stream().map(this::withLocation).collect(Collectors.toList());
     return BulkBody.forResponse(responseOperations);
   }
 
+  public ResponseOperation withLocation(ResponseOperation respOperation) {
+    return respOperation.builder().withLocation(getValidResponseLocation(respOperation)).build();
+  }
+
   private String getValidResponseLocation(ResponseOperation respOperation) {
     if (respOperation.getMethod() == RequestMethod.POST && !respOperation.isSuccessful()) {
       return null;
@@ -77,11 +77,11 @@ public class RequestOperation extends BulkOperation {
     }
 
     if (RequestMethod.POST == getMethod() && data instanceof User) {
-      return Optional.of(getDataAsUser().getId());
+      return Optional.ofNullable(getDataAsUser().getId());
     }
 
     if (RequestMethod.POST == getMethod() && data instanceof Group) {
-      return Optional.of(getDataAsGroup().getId());
+      return Optional.ofNullable(getDataAsGroup().getId());
     }
 
     String normalizedPath = path;
@@ -196,6 +196,10 @@ public class RequestOperation extends BulkOperation {
     return ResponseOperation.error(this, scimException);
   }
 
+  public ResponseOperation.Builder errorResponse(ErrorResponse scimError) {
+    return ResponseOperation.error(this, scimError);
+  }
+
   public ResponseOperation.Builder successfulResponse() {
     return ResponseOperation.success(this);
   }
@@ -242,6 +246,14 @@ public class RequestOperation extends BulkOperation {
       return this;
     }
 
+    /**
+     * @param rawData the unparsed data, may be dropped once the data is parsed in order to release the JSON tree
+     */
+    public Builder setRawData(final JsonNode rawData) {
+      this.rawData = rawData;
+      return this;
+    }
+
     public RequestOperation build() {
       return new RequestOperation(this);
     }
@@ -31,61 +31,70 @@ public class BulkOperationsValidator {
   private static final String INVALID_PATH_ENDPOINT_ERROR_PLACEHOLDER = "Invalid path endpoint for operation with bulkId: %s. Path should start with either %s or %s endpoint.";
   
   private final SCIMConfigurationCallback scimConfigurationCallback;
+  private BulkSetting bulkSetting;
   
   public BulkOperationsValidator(SCIMConfigurationCallback scimConfigurationCallback) {
     this.scimConfigurationCallback = scimConfigurationCallback;
   }
 
   public List<RequestOperation> getValidBulkOperations(BulkBody<RequestOperation> bulkRequest) {
-    validateByBulkSettings(bulkRequest, scimConfigurationCallback);
-    List<RequestOperation> requestOperations = bulkRequest.getOperations();
-    List<RequestOperation> result = requestOperations.stream().map(operation -> {
-      Builder operationBuilder = operation.builder();
-      RequestMethod method = operation.getMethod();
-      if (method == null) {
-        operationBuilder.setData(
-            buildValidationErrorResponse(operation.getBulkId(), "Invalid method name!, Valid methods: " + Arrays.toString(RequestMethod.values())));
-      }
-
-      String bulkId = operation.getBulkId();
-      if (POST == method && bulkId == null) {
-        operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(), "bulkId is required for method: " + POST));
-      }
-
-      String resourceEndpoint = null;
-      try {
-        resourceEndpoint = RequestOperation.extractRootFromPath(operation.getPath());
-      } catch (InternalScimonoException e) {
-        operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(),
-            String.format(INVALID_PATH_ENDPOINT_ERROR_PLACEHOLDER, operation.getBulkId(), API.USERS, API.GROUPS)));
-      }
-
-      if (!API.USERS.equalsIgnoreCase(resourceEndpoint) && !API.GROUPS.equalsIgnoreCase(resourceEndpoint)) {
-        operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(),
-            String.format(INVALID_PATH_ENDPOINT_ERROR_PLACEHOLDER, operation.getBulkId(), API.USERS, API.GROUPS)));
-      }
-
-      if ((PUT == method || PATCH == method) && !operation.getResourceId().isPresent()) {
-        operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(), "Path should point to resource id for PUT and POST methods"));
-      }
-
-      if (method != DELETE && !operation.isDataAvailable()) {
-        operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(), "The attribute data is required for POST, PUT or PATCH!"));
-      }
-      return operationBuilder.build();
-    }).collect(Collectors.toList());
-
-    return result;
+    validateOperationsCount(bulkRequest.getOperations().size());
+    return bulkRequest.getOperations().stream().map(this::getValidBulkOperation).collect(Collectors.toList());
   }
 
-  private void validateByBulkSettings(BulkBody<RequestOperation> bulkRequest, SCIMConfigurationCallback scimConfigurationCallback) {
-    BulkSetting bulkSetting = scimConfigurationCallback.getBulkSetting();
+  /**
+   * Validates a single operation, an invalid operation gets an {@link ErrorResponse} as data.
+   */
+  public RequestOperation getValidBulkOperation(RequestOperation operation) {
+    Builder operationBuilder = operation.builder();
+    RequestMethod method = operation.getMethod();
+    if (method == null) {
+      operationBuilder.setData(
+          buildValidationErrorResponse(operation.getBulkId(), "Invalid method name!, Valid methods: " + Arrays.toString(RequestMethod.values())));
+    }
+
+    String bulkId = operation.getBulkId();
+    if (POST == method && bulkId == null) {
+      operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(), "bulkId is required for method: " + POST));
+    }
+
+    String resourceEndpoint = null;
+    try {
+      resourceEndpoint = RequestOperation.extractRootFromPath(operation.getPath());
+    } catch (InternalScimonoException e) {
+      operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(),
+          String.format(INVALID_PATH_ENDPOINT_ERROR_PLACEHOLDER, operation.getBulkId(), API.USERS, API.GROUPS)));
+    }
+
+    if (!API.USERS.equalsIgnoreCase(resourceEndpoint) && !API.GROUPS.equalsIgnoreCase(resourceEndpoint)) {
+      operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(),
+          String.format(INVALID_PATH_ENDPOINT_ERROR_PLACEHOLDER, operation.getBulkId(), API.USERS, API.GROUPS)));
+    }
+
+    if ((PUT == method || PATCH == method) && !operation.getResourceId().isPresent()) {
+      operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(), "Path should point to resource id for PUT and POST methods"));
+    }
+
+    if (method != DELETE && !operation.isDataAvailable()) {
+      operationBuilder.setData(buildValidationErrorResponse(operation.getBulkId(), "The attribute data is required for POST, PUT or PATCH!"));
+    }
+    return operationBuilder.build();
+  }
+
+  /**
+   * Validates the bulk settings of the service provider against the number of operations of a bulk request. A streaming reader calls
+   * this with the number of operations read so far.
+   */
+  public void validateOperationsCount(int operationsCount) {
+    if (bulkSetting == null) {
+      bulkSetting = scimConfigurationCallback.getBulkSetting();
+    }
     if (bulkSetting == null || !bulkSetting.isSupported()) {
       String msg = "Service provider does not support bulk operations. Please check the bulk settings.";
       throw new WebApplicationException(msg, Response.Status.NOT_IMPLEMENTED);
     }
 
-    if (bulkRequest.getOperations().size() > bulkSetting.getMaxOperations()) {
+    if (operationsCount > bulkSetting.getMaxOperations()) {
       String msg = "Bulk operations count exceeded the maximum value supported.";
       throw new SCIMException(TOO_MANY, msg, Response.Status.REQUEST_ENTITY_TOO_LARGE);
     }
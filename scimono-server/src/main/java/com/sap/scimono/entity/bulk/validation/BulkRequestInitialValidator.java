@@ -3,6 +3,8 @@ package com.sap.scimono.entity.bulk.validation;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -15,25 +17,40 @@ import com.sap.scimono.entity.bulk.RequestOperation;
 import com.sap.scimono.entity.validation.ValidationUtil;
 
 public class BulkRequestInitialValidator implements ConstraintValidator<ValidBulkRequest, BulkBody<RequestOperation>> {
+  public static final String INVALID_INPUT_MESSAGE = "One of the request inputs is not valid!";
 
   @Override
   public boolean isValid(BulkBody<RequestOperation> bulkRequest, ConstraintValidatorContext context) {
     if (bulkRequest == null) {
-      ValidationUtil.interpolateErrorMessage(context, "One of the request inputs is not valid!");
+      ValidationUtil.interpolateErrorMessage(context, INVALID_INPUT_MESSAGE);
       return false;
     }
 
-    if (bulkRequest.getFailOnErrors() != null && bulkRequest.getFailOnErrors() <= 0) {
-      ValidationUtil.interpolateErrorMessage(context, "The attribute failOnErrors must be greater or equal to 1!");
+    Optional<String> headerError = getHeaderValidationError(bulkRequest.getSchemas(), bulkRequest.getFailOnErrors());
+    if (headerError.isPresent()) {
+      ValidationUtil.interpolateErrorMessage(context, headerError.get());
       return false;
     }
 
-    if (bulkRequest.getSchemas() != null && !bulkRequest.getSchemas().contains(BulkBody.BULK_REQUEST_SCHEMA)) {
-      ValidationUtil.interpolateErrorMessage(context, "The schema " + BulkBody.BULK_REQUEST_SCHEMA + " is required!");
-      return false;
+    return !hasDuplicateBulkId(context, bulkRequest.getOperations());
+  }
+
+  /**
+   * @return the validation error of the attributes schemas and failOnErrors of a bulk request, if any
+   */
+  public static Optional<String> getHeaderValidationError(Set<String> schemas, Integer failOnErrors) {
+    if (failOnErrors != null && failOnErrors <= 0) {
+      return Optional.of("The attribute failOnErrors must be greater or equal to 1!");
     }
 
-    return !hasDuplicateBulkId(context, bulkRequest.getOperations());
+    if (schemas != null && !schemas.contains(BulkBody.BULK_REQUEST_SCHEMA)) {
+      return Optional.of("The schema " + BulkBody.BULK_REQUEST_SCHEMA + " is required!");
+    }
+    return Optional.empty();
+  }
+
+  public static String getDuplicateBulkIdMessage(String bulkId) {
+    return "Invalid operation with bulkId: " + bulkId + ". Reason: BulkId should be unique within a bulk request!";
   }
 
   private boolean hasDuplicateBulkId(ConstraintValidatorContext context, List<RequestOperation> operations) {
@@ -45,8 +62,7 @@ public class BulkRequestInitialValidator implements ConstraintValidator<ValidBul
     .filter(e -> e.getValue() > 1)
     .map(Map.Entry::getKey)
     .anyMatch(bulkId -> {
-      String message = "Invalid operation with bulkId: " + bulkId + ". Reason: BulkId should be unique within a bulk request!";
-      ValidationUtil.interpolateErrorMessage(context, message);
+      ValidationUtil.interpolateErrorMessage(context, getDuplicateBulkIdMessage(bulkId));
       return true;
     });
   }
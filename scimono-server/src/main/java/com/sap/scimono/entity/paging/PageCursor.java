@@ -0,0 +1,105 @@
+package com.sap.scimono.entity.paging;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The decoded position of a cursor, see {@link PageInfo#getCursor()}.
+ * <p>
+ * A page continues after the last resource of the previous page: with a sort order, at the resources whose sort value comes after
+ * {@link #getLastSortValue()}, or whose sort value is equal and whose id is greater than {@link #getLastId()}; without a sort order, at the
+ * resources with an id greater than {@link #getLastId()}. Such a condition can be answered through an index seek on the sort attribute and
+ * the id, and pages neither skip nor repeat resources when other resources are created or deleted in between.
+ */
+public final class PageCursor {
+  private final Instant snapshot;
+  private final String lastId;
+  private final Object lastSortValue;
+
+  /**
+   * @param snapshot the time the first page was requested
+   * @param lastId the id of the last resource of the previous page, or null for the first page
+   * @param lastSortValue the sort value of the last resource of the previous page, see {@link #getLastSortValue()}
+   */
+  public PageCursor(final Instant snapshot, final String lastId, final Object lastSortValue) {
+    if (lastSortValue != null && !(lastSortValue instanceof String || lastSortValue instanceof BigDecimal
+        || lastSortValue instanceof Boolean || lastSortValue instanceof Instant)) {
+      throw new IllegalArgumentException("Unsupported sort value type " + lastSortValue.getClass().getName());
+    }
+    this.snapshot = Objects.requireNonNull(snapshot, "snapshot");
+    this.lastId = lastId;
+    this.lastSortValue = lastSortValue;
+  }
+
+  /**
+   * @return the cursor of the first page of a query started at the given time
+   */
+  public static PageCursor initial(final Instant snapshot) {
+    return new PageCursor(snapshot, null, null);
+  }
+
+  /**
+   * @return the cursor of the page after the given resource, keeping the snapshot of this cursor
+   */
+  public PageCursor after(final String lastId, final Object lastSortValue) {
+    return new PageCursor(snapshot, Objects.requireNonNull(lastId, "lastId"), lastSortValue);
+  }
+
+  /**
+   * Returns the time the first page of the query was requested, which is kept for all following pages. Callbacks reading from a store
+   * with point-in-time reads, or skipping resources created after this time, return a consistent result over all pages.
+   *
+   * @return the time the first page was requested
+   */
+  public Instant getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * @return true for the first page
+   */
+  public boolean isInitial() {
+    return lastId == null;
+  }
+
+  /**
+   * @return the id of the last resource of the previous page, or null for the first page
+   */
+  public String getLastId() {
+    return lastId;
+  }
+
+  /**
+   * Returns the value the last resource of the previous page was sorted by, as read by
+   * {@link com.sap.scimono.filter.predicate.SortComparators}: a {@link String}, a {@link BigDecimal}, a {@link Boolean} or an
+   * {@link Instant}.
+   *
+   * @return the sort value, or null for the first page, without a sort order, or if the last resource has no value
+   */
+  public Object getLastSortValue() {
+    return lastSortValue;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof PageCursor)) {
+      return false;
+    }
+    PageCursor other = (PageCursor) obj;
+    return snapshot.equals(other.snapshot) && Objects.equals(lastId, other.lastId) && Objects.equals(lastSortValue, other.lastSortValue);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(snapshot, lastId, lastSortValue);
+  }
+
+  @Override
+  public String toString() {
+    return "PageCursor [snapshot=" + snapshot + ", lastId=" + lastId + ", lastSortValue=" + lastSortValue + "]";
+  }
+}
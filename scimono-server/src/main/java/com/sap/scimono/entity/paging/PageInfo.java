@@ -1,6 +1,9 @@
 
 package com.sap.scimono.entity.paging;
 
+import java.util.Objects;
+import java.util.Optional;
+
 import com.sap.scimono.helper.Strings;
 
 public class PageInfo {
@@ -8,17 +11,31 @@ public class PageInfo {
   private final int entityCount;
   private final String startId;
   private final int startIndex;
+  private final SortInfo sortInfo;
+  private final PageCursor cursor;
 
-  private PageInfo(final int entityCount, final int startIndex) {
+  private PageInfo(final int entityCount, final int startIndex, final SortInfo sortInfo) {
     this.entityCount = entityCount;
     this.startIndex = startIndex;
     this.startId = null;
+    this.sortInfo = sortInfo;
+    this.cursor = null;
   }
 
   private PageInfo(final int entityCount, final String startId) {
     this.entityCount = entityCount;
     this.startId = startId;
     this.startIndex = 0;
+    this.sortInfo = null;
+    this.cursor = null;
+  }
+
+  private PageInfo(final int entityCount, final PageCursor cursor, final SortInfo sortInfo) {
+    this.entityCount = entityCount;
+    this.startId = null;
+    this.startIndex = 0;
+    this.sortInfo = sortInfo;
+    this.cursor = cursor;
   }
 
   public int getEntityCount() {
@@ -33,16 +50,57 @@ public class PageInfo {
     return startIndex;
   }
 
+  /**
+   * Returns the requested order of the resources. The page starting at {@link #getStartIndex()} is taken from the resources in this order,
+   * without a sort order the resources are returned in any stable order.
+   *
+   * @return the sort attribute and direction, empty if no sorting is requested or if sorting is not supported
+   */
+  public Optional<SortInfo> getSortInfo() {
+    return Optional.ofNullable(sortInfo);
+  }
+
+  /**
+   * Returns the position of the requested page when paging with a cursor. The page consists of the first {@link #getEntityCount()}
+   * resources after the position of the cursor, in the order of {@link #getSortInfo()} with ties ordered by id, or ordered by id without a
+   * sort order. The resources have to contain the attribute they are sorted by, since the cursor of the next page is built from the last
+   * resource of this page.
+   *
+   * @return the decoded cursor, empty unless paging with a cursor
+   */
+  public Optional<PageCursor> getCursor() {
+    return Optional.ofNullable(cursor);
+  }
+
   public static PageInfo getInstance(int count, int startIndex, String startId) {
+    return getInstance(count, startIndex, startId, null);
+  }
+
+  /**
+   * @param sortInfo the requested order or null, ignored when paging by id
+   */
+  public static PageInfo getInstance(int count, int startIndex, String startId, SortInfo sortInfo) {
     if (!Strings.isNullOrEmpty(startId)) {
       return new PageInfo(count, startId);
     }
 
-    return new PageInfo(count, startIndex);
+    return new PageInfo(count, startIndex, sortInfo);
+  }
+
+  /**
+   * @param cursor the decoded cursor, {@link PageCursor#initial(java.time.Instant)} for the first page
+   * @param sortInfo the requested order or null
+   */
+  public static PageInfo getInstance(int count, PageCursor cursor, SortInfo sortInfo) {
+    return new PageInfo(count, Objects.requireNonNull(cursor, "cursor"), sortInfo);
   }
 
   public boolean isStandardPaging() {
-    return Strings.isNullOrEmpty(startId);
+    return Strings.isNullOrEmpty(startId) && cursor == null;
+  }
+
+  public boolean isCursorPaging() {
+    return cursor != null;
   }
 
 }
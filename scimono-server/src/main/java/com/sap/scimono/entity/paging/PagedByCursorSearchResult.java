@@ -0,0 +1,33 @@
+package com.sap.scimono.entity.paging;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.sap.scimono.entity.Resource;
+
+/**
+ * A page of a list response requested with the {@code cursor} parameter. The {@code nextCursor} is passed as {@code cursor} to request the
+ * following page, it is omitted on the last page.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class PagedByCursorSearchResult<T extends Resource<T>> extends PagedByIndexSearchResult<T> {
+
+  private final String nextCursor;
+
+  @JsonCreator
+  public PagedByCursorSearchResult(@JsonProperty("Resources") final List<T> resources, @JsonProperty("totalResults") final int totalResults,
+      @JsonProperty("itemsPerPage") final int itemsPerPage, @JsonProperty("nextCursor") final String nextCursor) {
+    super(resources, totalResults, itemsPerPage, null);
+
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * @return the cursor of the following page, or null on the last page
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+}
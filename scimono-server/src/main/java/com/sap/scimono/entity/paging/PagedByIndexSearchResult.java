@@ -41,7 +41,7 @@ import java.util.Set;
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class PagedByIndexSearchResult<T extends Resource<T>> {
 
-  private static final String SCHEMA = "urn:ietf:params:scim:api:messages:2.0:ListResponse";
+  public static final String SCHEMA = "urn:ietf:params:scim:api:messages:2.0:ListResponse";
   public static final String DEFAULT_START_INDEX = "1";
   public static final String DEFAULT_COUNT = "100";
   private final int totalResults;
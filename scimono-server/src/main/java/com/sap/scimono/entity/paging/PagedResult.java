@@ -8,6 +8,7 @@ public class PagedResult<T> {
   private int count;
   private int totalResourcesCount;
   private List<T> pageContents;
+  private TotalResultsAccuracy totalResultsAccuracy = TotalResultsAccuracy.EXACT;
 
   public PagedResult(final int entityCountInDB, final List<T> entities) {
     this.totalResourcesCount = entityCountInDB;
@@ -19,6 +20,30 @@ public class PagedResult<T> {
     this.count = count;
   }
 
+  /**
+   * @param estimatedCount the estimated number of resources matching the filter
+   * @param entities the resources of the page
+   * @return a page whose total count is not exact, see {@link TotalResultsAccuracy#ESTIMATED}
+   */
+  public static <T> PagedResult<T> withEstimatedTotal(final int estimatedCount, final List<T> entities) {
+    PagedResult<T> result = new PagedResult<>(estimatedCount, entities);
+    result.totalResultsAccuracy = TotalResultsAccuracy.ESTIMATED;
+    return result;
+  }
+
+  /**
+   * @param entities the resources of the page
+   * @return a page without total count, see {@link TotalResultsAccuracy#UNKNOWN}
+   */
+  public static <T> PagedResult<T> withUnknownTotal(final List<T> entities) {
+    PagedResult<T> result = new PagedResult<>(0, entities);
+    result.totalResultsAccuracy = TotalResultsAccuracy.UNKNOWN;
+    return result;
+  }
+
+  /**
+   * @return the number of resources matching the filter, 0 if the count is {@link TotalResultsAccuracy#UNKNOWN}
+   */
   public int getTotalResourceCount() {
     return totalResourcesCount;
   }
@@ -34,4 +59,8 @@ public class PagedResult<T> {
   public int getCount() {
     return count;
   }
+
+  public TotalResultsAccuracy getTotalResultsAccuracy() {
+    return totalResultsAccuracy;
+  }
 }
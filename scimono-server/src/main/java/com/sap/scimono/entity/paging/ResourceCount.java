@@ -0,0 +1,91 @@
+package com.sap.scimono.entity.paging;
+
+import java.util.Objects;
+
+/**
+ * The number of resources matching a filter, returned for list requests with {@code count=0}, see
+ * {@link com.sap.scimono.callback.users.UsersCallback#countUsers(com.sap.scimono.filter.QueryFilter)}. The number is either exact or an
+ * estimate, a count is never {@link TotalResultsAccuracy#UNKNOWN}.
+ */
+public final class ResourceCount {
+  private final int value;
+  private final TotalResultsAccuracy accuracy;
+
+  private ResourceCount(final int value, final TotalResultsAccuracy accuracy) {
+    if (value < 0) {
+      throw new IllegalArgumentException("The count of resources must not be negative");
+    }
+    this.value = value;
+    this.accuracy = accuracy;
+  }
+
+  /**
+   * @param count the number of resources matching the filter
+   * @return an exact count, see {@link TotalResultsAccuracy#EXACT}
+   */
+  public static ResourceCount exact(final int count) {
+    return new ResourceCount(count, TotalResultsAccuracy.EXACT);
+  }
+
+  /**
+   * @param estimatedCount the estimated number of resources matching the filter
+   * @return an estimated count, see {@link TotalResultsAccuracy#ESTIMATED}
+   */
+  public static ResourceCount estimated(final int estimatedCount) {
+    return new ResourceCount(estimatedCount, TotalResultsAccuracy.ESTIMATED);
+  }
+
+  /**
+   * @param page a page whose total count is exact or estimated
+   * @return the total count of the page
+   * @throws IllegalArgumentException if the total count of the page is {@link TotalResultsAccuracy#UNKNOWN}
+   */
+  public static ResourceCount ofTotal(final StreamedResult<?> page) {
+    if (page.getTotalResultsAccuracy() == TotalResultsAccuracy.UNKNOWN) {
+      throw new IllegalArgumentException("The total count of the page is unknown");
+    }
+    return new ResourceCount(page.getTotalResourceCount(), page.getTotalResultsAccuracy());
+  }
+
+  /**
+   * Counts the resources of a page by reading them, for data sources which do not know the total count.
+   *
+   * @param resources a page with all resources matching the filter, closed after it is read
+   * @return the exact count of the resources of the page
+   */
+  public static ResourceCount ofResources(final StreamedResult<?> resources) {
+    try (StreamedResult<?> allResources = resources) {
+      return exact(Math.toIntExact(allResources.getResources().count()));
+    }
+  }
+
+  public int getValue() {
+    return value;
+  }
+
+  public TotalResultsAccuracy getAccuracy() {
+    return accuracy;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof ResourceCount)) {
+      return false;
+    }
+    ResourceCount other = (ResourceCount) obj;
+    return value == other.value && accuracy == other.accuracy;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(value, accuracy);
+  }
+
+  @Override
+  public String toString() {
+    return "ResourceCount [value=" + value + ", accuracy=" + accuracy + "]";
+  }
+}
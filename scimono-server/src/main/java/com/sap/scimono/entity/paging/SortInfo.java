@@ -0,0 +1,89 @@
+package com.sap.scimono.entity.paging;
+
+import static com.sap.scimono.callback.schemas.SchemasCallback.COMPLEX_ATTRIBUTE_DELIMETER;
+import static com.sap.scimono.callback.schemas.SchemasCallback.SCHEMA_URN_DELIMETER;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.sap.scimono.entity.schema.Attribute;
+
+/**
+ * The attribute and direction requested with the {@code sortBy} and {@code sortOrder} parameters, resolved against the schema of the
+ * attribute. Callbacks backed by an index push the sorting down to it, others sort the matching resources with
+ * {@link com.sap.scimono.filter.predicate.SortComparators} and {@link TopKSorter}.
+ */
+public final class SortInfo {
+  private final String schemaId;
+  private final List<Attribute> attributePath;
+  private final SortOrder sortOrder;
+
+  /**
+   * @param schemaId the schema defining the attribute
+   * @param attributePath the definitions of the attribute and, for a sub-attribute, of its parent, starting with the top-level attribute
+   * @param sortOrder the direction, null for {@link SortOrder#ASCENDING}
+   */
+  public SortInfo(final String schemaId, final List<Attribute> attributePath, final SortOrder sortOrder) {
+    if (attributePath.isEmpty() || attributePath.size() > 2) {
+      throw new IllegalArgumentException("The sort attribute must be an attribute or a sub-attribute");
+    }
+    this.schemaId = schemaId;
+    this.attributePath = Collections.unmodifiableList(new ArrayList<>(attributePath));
+    this.sortOrder = sortOrder == null ? SortOrder.ASCENDING : sortOrder;
+  }
+
+  public String getSchemaId() {
+    return schemaId;
+  }
+
+  /**
+   * @return the name of the top-level attribute as defined by the schema
+   */
+  public String getAttributeName() {
+    return attributePath.get(0).getName();
+  }
+
+  /**
+   * @return the name of the sub-attribute as defined by the schema, or null if a top-level attribute is sorted by
+   */
+  public String getSubAttributeName() {
+    return attributePath.size() > 1 ? attributePath.get(1).getName() : null;
+  }
+
+  /**
+   * @return the definition of the sorted attribute
+   */
+  public Attribute getAttribute() {
+    return attributePath.get(attributePath.size() - 1);
+  }
+
+  /**
+   * @return the fully qualified path of the sorted attribute, e.g. {@code urn:ietf:params:scim:schemas:core:2.0:User:name.familyName}
+   */
+  public String getAttributePath() {
+    String subAttributeName = getSubAttributeName();
+    String path = schemaId + SCHEMA_URN_DELIMETER + getAttributeName();
+    return subAttributeName == null ? path : path + COMPLEX_ATTRIBUTE_DELIMETER + subAttributeName;
+  }
+
+  /**
+   * @return whether string values are compared case sensitive
+   */
+  public boolean isCaseExact() {
+    return getAttribute().isCaseExact();
+  }
+
+  public SortOrder getSortOrder() {
+    return sortOrder;
+  }
+
+  public boolean isAscending() {
+    return sortOrder == SortOrder.ASCENDING;
+  }
+
+  @Override
+  public String toString() {
+    return getAttributePath() + " " + sortOrder.getValue();
+  }
+}
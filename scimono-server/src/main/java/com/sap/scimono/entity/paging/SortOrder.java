@@ -0,0 +1,32 @@
+package com.sap.scimono.entity.paging;
+
+/**
+ * Values of the {@code sortOrder} parameter of list and query requests.
+ */
+public enum SortOrder {
+  ASCENDING("ascending"), DESCENDING("descending");
+
+  private final String value;
+
+  SortOrder(final String value) {
+    this.value = value;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * @param value the value of the parameter, case insensitive
+   * @return the sort order
+   * @throws IllegalArgumentException if the value is neither ascending nor descending
+   */
+  public static SortOrder fromValue(final String value) {
+    for (SortOrder sortOrder : values()) {
+      if (sortOrder.value.equalsIgnoreCase(value)) {
+        return sortOrder;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported sort order: " + value);
+  }
+}
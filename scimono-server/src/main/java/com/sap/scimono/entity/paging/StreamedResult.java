@@ -0,0 +1,92 @@
+package com.sap.scimono.entity.paging;
+
+import java.util.stream.Stream;
+
+/**
+ * A page of resources which are pulled from the backend while the response is being written, instead of being loaded in memory upfront.
+ * <p>
+ * The stream is consumed at most once and is closed after the response is written or when the request fails, so implementations can
+ * release database cursors or other resources in {@link Stream#onClose(Runnable)}.
+ *
+ * @param <T> the resource type
+ */
+public class StreamedResult<T> implements AutoCloseable {
+
+  private final int totalResourcesCount;
+  private final Stream<T> resources;
+  private final int count;
+  private final TotalResultsAccuracy totalResultsAccuracy;
+
+  public StreamedResult(final int totalResourcesCount, final Stream<T> resources) {
+    this(totalResourcesCount, resources, 0);
+  }
+
+  public StreamedResult(final int totalResourcesCount, final Stream<T> resources, final int count) {
+    this(totalResourcesCount, resources, count, TotalResultsAccuracy.EXACT);
+  }
+
+  private StreamedResult(final int totalResourcesCount, final Stream<T> resources, final int count,
+      final TotalResultsAccuracy totalResultsAccuracy) {
+    this.totalResourcesCount = totalResourcesCount;
+    this.resources = resources == null ? Stream.empty() : resources;
+    this.count = count;
+    this.totalResultsAccuracy = totalResultsAccuracy;
+  }
+
+  /**
+   * @param estimatedCount the estimated number of resources matching the filter
+   * @param resources the resources of the page
+   * @return a page whose total count is not exact, see {@link TotalResultsAccuracy#ESTIMATED}
+   */
+  public static <T> StreamedResult<T> withEstimatedTotal(final int estimatedCount, final Stream<T> resources) {
+    return new StreamedResult<>(estimatedCount, resources, 0, TotalResultsAccuracy.ESTIMATED);
+  }
+
+  /**
+   * Creates a page without total count, for data sources which can not count the resources matching the filter cheaply. The count is then
+   * only determined when a client requests it with {@code count=0}, see e.g.
+   * {@link com.sap.scimono.callback.users.UsersCallback#countUsers(com.sap.scimono.filter.QueryFilter)}.
+   *
+   * @param resources the resources of the page
+   * @return a page without total count, see {@link TotalResultsAccuracy#UNKNOWN}
+   */
+  public static <T> StreamedResult<T> withUnknownTotal(final Stream<T> resources) {
+    return new StreamedResult<>(0, resources, 0, TotalResultsAccuracy.UNKNOWN);
+  }
+
+  /**
+   * Adapts an already loaded page to a streamed one.
+   *
+   * @param pagedResult the loaded page
+   * @return streamed result over the resources of the page
+   */
+  public static <T> StreamedResult<T> of(final PagedResult<T> pagedResult) {
+    Stream<T> resources = pagedResult.getResources() == null ? Stream.empty() : pagedResult.getResources().stream();
+    return new StreamedResult<>(pagedResult.getTotalResourceCount(), resources, pagedResult.getCount(),
+        pagedResult.getTotalResultsAccuracy());
+  }
+
+  /**
+   * @return the number of resources matching the filter, 0 if the count is {@link TotalResultsAccuracy#UNKNOWN}
+   */
+  public int getTotalResourceCount() {
+    return totalResourcesCount;
+  }
+
+  public Stream<T> getResources() {
+    return resources;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public TotalResultsAccuracy getTotalResultsAccuracy() {
+    return totalResultsAccuracy;
+  }
+
+  @Override
+  public void close() {
+    resources.close();
+  }
+}
@@ -0,0 +1,90 @@
+package com.sap.scimono.entity.paging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Sorts a page out of an unsorted set of candidates, for callbacks which can not push the sorting down to their data source. Only the
+ * first {@code startIndex + count} candidates in sort order are kept, in a bounded heap, so a page is sorted in O(n log k) time and O(k)
+ * memory instead of sorting all candidates.
+ */
+public final class TopKSorter {
+
+  private TopKSorter() {
+  }
+
+  /**
+   * @param candidates the unsorted resources matching the request
+   * @param comparator the requested order, e.g. from {@link com.sap.scimono.filter.predicate.SortComparators}
+   * @param pageInfo the 0-based start index and the count of the page
+   * @return the page and the number of candidates
+   */
+  public static <T> PagedResult<T> page(final Iterable<? extends T> candidates, final Comparator<? super T> comparator,
+      final PageInfo pageInfo) {
+    return page(candidates.iterator(), comparator, Math.max(pageInfo.getStartIndex(), 0), pageInfo.getEntityCount());
+  }
+
+  /**
+   * @param candidates the unsorted resources matching the request
+   * @param comparator the requested order
+   * @param startIndex the 0-based index of the first resource of the page
+   * @param count the maximal number of resources of the page
+   * @return the page and the number of candidates
+   */
+  public static <T> PagedResult<T> page(final Iterator<? extends T> candidates, final Comparator<? super T> comparator,
+      final int startIndex, final int count) {
+    if (startIndex < 0 || count < 0) {
+      throw new IllegalArgumentException("The start index and the count must not be negative");
+    }
+    return page(candidates, comparator, candidate -> true, startIndex, count);
+  }
+
+  /**
+   * Returns the page following the position of a cursor. All candidates are counted, but only those after the position are sorted.
+   *
+   * @param candidates the unsorted resources matching the request
+   * @param comparator the requested order
+   * @param afterCursor selects the candidates after the position of the cursor in the requested order, e.g. from
+   *          {@link com.sap.scimono.filter.predicate.SortComparators#after(PageCursor, SortInfo, java.util.function.Function)}
+   * @param count the maximal number of resources of the page
+   * @return the page and the number of candidates
+   */
+  public static <T> PagedResult<T> pageAfter(final Iterator<? extends T> candidates, final Comparator<? super T> comparator,
+      final Predicate<? super T> afterCursor, final int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("The count must not be negative");
+    }
+    return page(candidates, comparator, afterCursor, 0, count);
+  }
+
+  private static <T> PagedResult<T> page(final Iterator<? extends T> candidates, final Comparator<? super T> comparator,
+      final Predicate<? super T> onPage, final int startIndex, final int count) {
+    int heapSize = (int) Math.min((long) startIndex + count, Integer.MAX_VALUE);
+    Comparator<? super T> reversedComparator = Collections.reverseOrder(comparator);
+    PriorityQueue<T> heap = new PriorityQueue<>(Math.max(Math.min(heapSize, 1024), 1), reversedComparator);
+    int candidatesCount = 0;
+    while (candidates.hasNext()) {
+      T candidate = candidates.next();
+      candidatesCount++;
+      if (!onPage.test(candidate)) {
+        continue;
+      }
+      if (heap.size() < heapSize) {
+        heap.add(candidate);
+      } else if (heapSize > 0 && comparator.compare(candidate, heap.peek()) < 0) {
+        heap.poll();
+        heap.add(candidate);
+      }
+    }
+
+    List<T> sorted = new ArrayList<>(heap);
+    sorted.sort(comparator);
+    List<T> page = startIndex >= sorted.size() ? Collections.emptyList() : new ArrayList<>(sorted.subList(startIndex, sorted.size()));
+    return new PagedResult<>(candidatesCount, page);
+  }
+}
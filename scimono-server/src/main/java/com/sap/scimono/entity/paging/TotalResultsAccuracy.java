@@ -0,0 +1,40 @@
+package com.sap.scimono.entity.paging;
+
+/**
+ * Tells how the total count of a {@link PagedResult} or {@link StreamedResult} was determined, so that callbacks can skip an expensive
+ * count of all resources matching the filter.
+ */
+public enum TotalResultsAccuracy {
+  /**
+   * The total count is the exact number of resources matching the filter.
+   */
+  EXACT,
+  /**
+   * The total count is an estimate, e.g. taken from the statistics of the database. The returned {@code totalResults} is raised to the
+   * value returned for {@link #UNKNOWN} if the estimate is lower.
+   */
+  ESTIMATED,
+  /**
+   * The total count is not known. The returned {@code totalResults} is the number of resources listed up to the end of the page, plus one
+   * if the page is full, so that clients keep paging until they receive a page which is not full. When paging by id or with a cursor, the
+   * resources of the previous pages are not counted. List requests with {@code count=0} are answered with a {@link ResourceCount}, which is
+   * never unknown.
+   */
+  UNKNOWN;
+
+  /**
+   * @param totalCount the total count returned by the callback
+   * @param listedBefore the number of resources on the previous pages, 0 when paging by id or with a cursor
+   * @param listedCount the number of resources on the page
+   * @param fullPage whether the page has as many resources as requested, or more resources follow when paging by id
+   * @return the {@code totalResults} of the list response
+   */
+  public int toTotalResults(final int totalCount, final int listedBefore, final int listedCount, final boolean fullPage) {
+    if (this == EXACT) {
+      return totalCount;
+    }
+
+    int listedUpToEndOfPage = listedBefore + listedCount + (fullPage ? 1 : 0);
+    return this == ESTIMATED ? Math.max(totalCount, listedUpToEndOfPage) : listedUpToEndOfPage;
+  }
+}
@@ -8,10 +8,12 @@ import com.sap.scimono.entity.schema.Schema;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -20,35 +22,32 @@ public class SchemaCSVReader {
   private static final String SCHEMAS_CSV_LOCATION = "data/schemas.csv";
   private static final String SCHEMAS_ATTRIBUTES_CSV_LOCATION = "data/schemas_attributes.csv";
 
-  private static final String CSV_DELIMITER_REGEX = ",(?=([^\"]*\"[^\"]*\")*[^\"]*$)";
-  private static final int CSV_HEADER_LINE_INDEX = 0;
+  private static final char CSV_DELIMITER = ',';
+  private static final char CSV_QUOTE = '"';
+  private static final int CSV_HEADER_LINE_COUNT = 1;
 
-  private static Map<String, Schema> importedSchemas;
+  // initialized with the class, which the JVM does exactly once and publishes safely to all threads
+  private static final Map<String, Schema> IMPORTED_SCHEMAS = Collections.unmodifiableMap(importSchemasFromCSVs());
 
   private SchemaCSVReader() {
 
   }
 
   public static Map<String, Schema> getImportedSchemasFromCSVs() {
-    if (importedSchemas == null) {
-      importedSchemas = Collections.unmodifiableMap(importSchemasFromCSVs());
-    }
-
-    return importedSchemas;
+    return IMPORTED_SCHEMAS;
   }
 
   private static Map<String, Schema> importSchemasFromCSVs() {
-    Map<String, Schema> importedSchemas = new HashMap<>();
+    Map<String, Schema> importedSchemas = new LinkedHashMap<>();
 
-    Map<String, String[]> allSchemasAllProperties = getSchemaProperties();
     Map<String, List<String[]>> allSchemasAllAttributes = getSchemaAttributes();
 
-    allSchemasAllProperties.entrySet().forEach(schemaWithProperties -> {
-      String schemaId = schemaWithProperties.getKey();
+    parseCSVLines(SCHEMAS_CSV_LOCATION).forEach(schemaProperties -> {
+      String schemaId = schemaProperties[SchemasCSVHeaderIndex.ID];
 
       Schema.Builder schemaBuilder = new Schema.Builder();
-      buildSchemaProperties(schemaBuilder, schemaWithProperties.getValue());
-      buildSchemaAttributes(schemaBuilder, allSchemasAllAttributes.get(schemaId));
+      buildSchemaProperties(schemaBuilder, schemaProperties);
+      buildSchemaAttributes(schemaBuilder, allSchemasAllAttributes.getOrDefault(schemaId, Collections.emptyList()));
 
       importedSchemas.put(schemaId, schemaBuilder.build());
     });
@@ -56,32 +55,12 @@ public class SchemaCSVReader {
     return importedSchemas;
   }
 
-
-  private static Map<String, String[]> getSchemaProperties() {
-    List<String[]> schemaCSVLines = parseCSVLines(SCHEMAS_CSV_LOCATION);
-
-    Map<String, String[]> result = new HashMap<>();
-
-    for (int i = CSV_HEADER_LINE_INDEX + 1; i < schemaCSVLines.size(); i++) {
-      String[] schemaProperties = schemaCSVLines.get(i);
-      String schemaId = schemaProperties[SchemasCSVHeaderIndex.ID];
-      result.put(schemaId, schemaProperties);
-    }
-
-    return result;
-  }
-
   private static Map<String, List<String[]>> getSchemaAttributes() {
-    List<String[]> schemaAttributesCsvLines = parseCSVLines(SCHEMAS_ATTRIBUTES_CSV_LOCATION);
-
     Map<String, List<String[]>> allSchemasAllAttributes = new HashMap<>();
 
-    for (int i = CSV_HEADER_LINE_INDEX + 1; i < schemaAttributesCsvLines.size(); i++) {
-      String[] attributeProperties = schemaAttributesCsvLines.get(i);
+    for (String[] attributeProperties : parseCSVLines(SCHEMAS_ATTRIBUTES_CSV_LOCATION)) {
       String schemaId = attributeProperties[SchemasAttributesCSVHeaderIndex.SCHEMA_ID];
-
-      allSchemasAllAttributes.computeIfAbsent(schemaId, emptyList -> new ArrayList<>());
-      allSchemasAllAttributes.get(schemaId).add(attributeProperties);
+      allSchemasAllAttributes.computeIfAbsent(schemaId, emptyList -> new ArrayList<>()).add(attributeProperties);
     }
 
     return allSchemasAllAttributes;
@@ -90,13 +69,15 @@ public class SchemaCSVReader {
   private static List<String[]> parseCSVLines(String csvFileLocation) {
     List<String[]> csvLines = new ArrayList<>();
 
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(Thread.currentThread().getContextClassLoader().getResourceAsStream(
-        csvFileLocation)))) {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(SchemaCSVReader.class.getClassLoader().getResourceAsStream(
+        csvFileLocation), StandardCharsets.UTF_8))) {
 
       String line;
+      int lineIndex = 0;
       while ((line = reader.readLine()) != null) {
-        String[] attributes = line.split(CSV_DELIMITER_REGEX);
-        csvLines.add(attributes);
+        if (lineIndex++ >= CSV_HEADER_LINE_COUNT) {
+          csvLines.add(splitCSVLine(line));
+        }
       }
     } catch (IOException e) {
       e.printStackTrace();
@@ -105,6 +86,28 @@ public class SchemaCSVReader {
     return csvLines;
   }
 
+  /**
+   * Splits a line at the delimiters outside of quotes. The quotes are kept in the values.
+   */
+  private static String[] splitCSVLine(String line) {
+    List<String> values = new ArrayList<>();
+    boolean quoted = false;
+    int valueStart = 0;
+
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == CSV_QUOTE) {
+        quoted = !quoted;
+      } else if (c == CSV_DELIMITER && !quoted) {
+        values.add(line.substring(valueStart, i));
+        valueStart = i + 1;
+      }
+    }
+    values.add(line.substring(valueStart));
+
+    return values.toArray(new String[0]);
+  }
+
   private static void buildSchemaProperties(Schema.Builder schemaBuilder, String[] schemaProperties) {
     schemaBuilder.setId(schemaProperties[SchemasCSVHeaderIndex.ID]);
 
@@ -117,7 +120,7 @@ public class SchemaCSVReader {
   }
 
   private static void buildSchemaAttributes(Schema.Builder schemaBuilder, List<String[]> attributeProperties) {
-    Map<String, Attribute.Builder> attributeMap = new HashMap<>();
+    Map<String, Attribute.Builder> attributeMap = new LinkedHashMap<>();
 
     // @formatter:off
     List<String[]> parentAttrs = attributeProperties.stream()
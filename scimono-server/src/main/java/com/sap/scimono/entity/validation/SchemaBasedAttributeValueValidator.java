@@ -5,7 +5,7 @@ import java.util.Map;
 import javax.ws.rs.core.Response;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
 import com.sap.scimono.callback.schemas.SchemasCallback;
 import com.sap.scimono.entity.EnterpriseExtension;
 import com.sap.scimono.entity.schema.Attribute;
@@ -25,7 +25,7 @@ public class SchemaBasedAttributeValueValidator implements Validator<Object> {
 
   @Override
   public void validate(final Object value) {
-    JsonNode jsonNodeValue = (value instanceof JsonNode) ? (JsonNode) value : new ObjectMapper().valueToTree(value);
+    JsonNode jsonNodeValue = (value instanceof JsonNode) ? (JsonNode) value : ObjectMapperRegistry.getDefault().getObjectMapper().valueToTree(value);
     validate(attributeDefinition, jsonNodeValue);
   }
 
@@ -6,35 +6,49 @@ import static com.sap.scimono.callback.schemas.SchemasCallback.isAttributeNotati
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.sap.scimono.callback.groups.GroupsCallback;
 import com.sap.scimono.callback.resourcetype.ResourceTypesCallback;
+import com.sap.scimono.callback.schemas.SchemaAttributeIndex;
 import com.sap.scimono.callback.schemas.SchemasCallback;
 import com.sap.scimono.callback.users.UsersCallback;
 import com.sap.scimono.entity.Group;
 import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PagedResult;
 import com.sap.scimono.entity.patch.PatchBody;
 import com.sap.scimono.entity.patch.PatchOperation;
 import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.entity.schema.ResourceType;
 import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.entity.schema.SchemaExtension;
 import com.sap.scimono.entity.validation.Validator;
 import com.sap.scimono.helper.Strings;
 
-
+/**
+ * Validates PATCH requests against the schemas of a resource type. The validators and the lookup of case-exact attribute names are
+ * prepared once per framework. A framework only holds a snapshot of the schemas and the schema extensions of the resource type, so it can
+ * be shared between requests as long as they do not change, see {@link PatchValidationFrameworkCache}.
+ */
 public class PatchValidationFramework {
-
-  private final SchemasCallback schemaAPI;
-  private final ResourceTypesCallback resourceTypesAPI;
+  private static final List<Validator<PatchBody>> BODY_VALIDATORS = Collections.unmodifiableList(Arrays.asList(
+      new PatchSchemaPresenceValidator(), new AnyOperationPresenceValidator()));
+  private static final List<Validator<PatchOperation>> OPERATION_VALIDATORS = Collections.unmodifiableList(Arrays.asList(
+      new OperationTypeValidator(), new MandatoryPathValidator(), new AddReplaceOperationValueValidator()));
+  private static final List<Validator<PatchOperation>> VALUE_PATH_SYNTAX_VALIDATORS = Collections.unmodifiableList(Arrays.asList(
+      new ValuePathStructureValidator(), new ValuePathRestrictionsValidator()));
 
   private final String coreSchemaId;
-  private final String resourceType;
+  private final Map<String, String> coreAttributeNames;
 
-  private final Map<String, Schema> requiredSchemas;
+  private final List<Validator<PatchOperation>> valuePathValidators;
+  private final List<Validator<PatchOperation>> attributePathValidators;
+  private final Validator<PatchOperation> valueValidator;
 
   // @formatter:off
   private PatchValidationFramework(SchemasCallback schemaAPI,
@@ -42,33 +56,35 @@ public class PatchValidationFramework {
                                    Map<String, Schema> requiredSchemas,
                                    String coreSchemaId,
                                    String resourceType) {
-    this.schemaAPI = schemaAPI;
-    this.resourceTypesAPI = resourceTypesAPI;
-    this.requiredSchemas = requiredSchemas;
     this.coreSchemaId = coreSchemaId;
-    this.resourceType = resourceType;
+    this.coreAttributeNames = schemaAPI.getSchema(coreSchemaId).getAttributes().stream()
+        .map(Attribute::getName)
+        .collect(Collectors.toMap(name -> name.toLowerCase(Locale.ROOT), name -> name, (first, second) -> first));
+
+    List<Validator<PatchOperation>> valuePathValidators = new ArrayList<>();
+    valuePathValidators.add(new ValuePathAttributesValidator(requiredSchemas, schemaAPI, coreSchemaId));
+    valuePathValidators.addAll(VALUE_PATH_SYNTAX_VALIDATORS);
+    this.valuePathValidators = Collections.unmodifiableList(valuePathValidators);
+
+    this.attributePathValidators = Collections.unmodifiableList(Arrays.asList(
+        new PathSchemaExistenceValidator(requiredSchemas),
+        new PathAttributeExistenceValidator(schemaAPI),
+        new PathMutabilityValidator(schemaAPI),
+        new PathRemoveRequiredAttributeValidator(schemaAPI, resourceTypesAPI, resourceType)));
+
+    this.valueValidator = new PatchOperationSchemaBasedAttributeValueValidator(schemaAPI, coreSchemaId, requiredSchemas);
   }
   // @formatter:on
 
   public void validate(PatchBody body) {
-    List<Validator<PatchBody>> validators = Arrays.asList(new PatchSchemaPresenceValidator(), new AnyOperationPresenceValidator());
+    BODY_VALIDATORS.forEach(v -> v.validate(body));
 
-    validators.forEach(v -> v.validate(body));
-    
-    // @formatter:off
     body.getOperations().forEach(operation -> {
-      List<String> matchingPaths = schemaAPI.getSchema(coreSchemaId)
-    		  .getAttributes()
-    		  .stream()
-    		  .map(Attribute::getName)
-    		  .filter(attributeName -> attributeName.equalsIgnoreCase(operation.getPath()))
-    		  .collect(Collectors.toList());
-      
-      String caseExactPath = matchingPaths.isEmpty() ? operation.getPath() : matchingPaths.get(0);
+      String path = operation.getPath();
+      String caseExactPath = path == null ? null : coreAttributeNames.getOrDefault(path.toLowerCase(Locale.ROOT), path);
       String fullPath = addSchemaToPathIfNotExist(caseExactPath, coreSchemaId);
       validateOperation(new PatchOperation.Builder(operation).setPath(fullPath).build());
     });
-    // @formatter:on
   }
   //TODO check utils that contain this method
   private static String addSchemaToPathIfNotExist(String path, String defaultSchema) {
@@ -79,38 +95,20 @@ public class PatchValidationFramework {
   }
 
   private void validateOperation(PatchOperation operation) {
-    List<Validator<PatchOperation>> validators = new LinkedList<>();
-    validators.add(new OperationTypeValidator());
-    validators.add(new MandatoryPathValidator());
-    validators.add(new AddReplaceOperationValueValidator());
-    validators.addAll(getPathValidators(operation.getPath()));
+    OPERATION_VALIDATORS.forEach(v -> v.validate(operation));
+    getPathValidators(operation.getPath()).forEach(v -> v.validate(operation));
 
     if (!PatchOperation.Type.REMOVE.equals(operation.getOp())) {
-        validators.add(new PatchOperationSchemaBasedAttributeValueValidator(schemaAPI, coreSchemaId, requiredSchemas));
+      valueValidator.validate(operation);
     }
-
-    validators.forEach(v -> v.validate(operation));
   }
 
   private List<Validator<PatchOperation>> getPathValidators(String path){
     if(Strings.isNullOrEmpty(path)){
-      return new ArrayList<>();
+      return Collections.emptyList();
     }
 
-    List<Validator<PatchOperation>> validators = new ArrayList<>();
-
-    if(isOperationPathContainsValueFilter(path)){
-      validators.add(new ValuePathAttributesValidator(requiredSchemas, schemaAPI, coreSchemaId));
-      validators.add(new ValuePathStructureValidator());
-      validators.add(new ValuePathRestrictionsValidator());
-    } else {
-      validators.add(new PathSchemaExistenceValidator(requiredSchemas));
-      validators.add(new PathAttributeExistenceValidator(schemaAPI));
-      validators.add(new PathMutabilityValidator(schemaAPI));
-      validators.add(new PathRemoveRequiredAttributeValidator(schemaAPI, resourceTypesAPI, resourceType));
-    }
-
-    return validators;
+    return isOperationPathContainsValueFilter(path) ? valuePathValidators : attributePathValidators;
   }
 
   private boolean isOperationPathContainsValueFilter(String path){
@@ -119,19 +117,21 @@ public class PatchValidationFramework {
 
   public static PatchValidationFramework groupsFramework(final SchemasCallback schemaAPI, final ResourceTypesCallback resourceTypesAPI, final
       GroupsCallback groupsAPI) {
-    String coreSchemaId = Group.SCHEMA;
-    String resourceType = Group.RESOURCE_TYPE_GROUP;
-
-    Map<String, Schema> requiredSchemas = getRequiredSchemas(schemaAPI, groupsAPI.getSchemaIdsAllowingPatch());
-    return new PatchValidationFramework(schemaAPI, resourceTypesAPI, requiredSchemas, coreSchemaId, resourceType);
+    return create(schemaAPI, schemaAPI.getAttributeIndex(), resourceTypesAPI.getSchemaExtensions(Group.RESOURCE_TYPE_GROUP),
+        groupsAPI.getSchemaIdsAllowingPatch(), Group.SCHEMA, Group.RESOURCE_TYPE_GROUP);
   }
 
   public static PatchValidationFramework usersFramework(final SchemasCallback schemaAPI, final ResourceTypesCallback resourceTypesAPI, final UsersCallback usersAPI) {
-    String coreSchemaId = User.SCHEMA;
-    String resourceType = User.RESOURCE_TYPE_USER;
+    return create(schemaAPI, schemaAPI.getAttributeIndex(), resourceTypesAPI.getSchemaExtensions(User.RESOURCE_TYPE_USER),
+        usersAPI.getSchemaIdsAllowingPatch(), User.SCHEMA, User.RESOURCE_TYPE_USER);
+  }
 
-    Map<String, Schema> requiredSchemas = getRequiredSchemas(schemaAPI, usersAPI.getSchemaIdsAllowingPatch());
-    return new PatchValidationFramework(schemaAPI, resourceTypesAPI, requiredSchemas, coreSchemaId, resourceType);
+  static PatchValidationFramework create(final SchemasCallback schemaAPI, final SchemaAttributeIndex schemas,
+      final List<SchemaExtension> schemaExtensions, final Set<String> schemaIdsAllowingPatch, final String coreSchemaId,
+      final String resourceType) {
+    Map<String, Schema> requiredSchemas = getRequiredSchemas(schemaAPI, schemaIdsAllowingPatch);
+    return new PatchValidationFramework(new IndexedSchemas(schemas), new ResourceTypeExtensions(resourceType, schemaExtensions),
+        requiredSchemas, coreSchemaId, resourceType);
   }
 
   private static Map<String, Schema> getRequiredSchemas(final SchemasCallback schemaAPI, final Set<String> requiredSchemaIds) {
@@ -141,7 +141,87 @@ public class PatchValidationFramework {
         .filter(schema -> requiredSchemaIds.contains(schema.getId()))
         .collect(Collectors.toMap(Schema::getId, schema -> schema)));
     // @formatter:on
-    return requiredSchemas;
+    return Collections.unmodifiableMap(requiredSchemas);
+  }
+
+  /**
+   * Read-only {@link SchemasCallback} over the schemas of an index, so that the validators do not hold the request-scoped callback.
+   */
+  private static class IndexedSchemas implements SchemasCallback {
+    private final SchemaAttributeIndex schemas;
+
+    private IndexedSchemas(final SchemaAttributeIndex schemas) {
+      this.schemas = schemas;
+    }
+
+    @Override
+    public Schema getCustomSchema(final String schemaId) {
+      return SchemasCallback.isCustomSchema(schemaId) ? getSchema(schemaId) : null;
+    }
+
+    @Override
+    public Schema getSchema(final String schemaId) {
+      Schema schema = schemas.getSchema(schemaId);
+      return schema != null && schema.getId().equals(schemaId) ? schema : null;
+    }
+
+    @Override
+    public List<Schema> getCustomSchemas() {
+      return schemas.getSchemas().stream().filter(schema -> SchemasCallback.isCustomSchema(schema.getId())).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Schema> getSchemas() {
+      return new ArrayList<>(schemas.getSchemas());
+    }
+
+    @Override
+    public SchemaAttributeIndex getAttributeIndex() {
+      return schemas;
+    }
+
+    @Override
+    public void createCustomSchema(final Schema schema) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deleteCustomSchema(final String schemaId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isValidSchemaName(final String schemaName) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * {@link ResourceTypesCallback} returning the schema extensions of the resource type the framework was created for.
+   */
+  private static class ResourceTypeExtensions implements ResourceTypesCallback {
+    private final String resourceType;
+    private final List<SchemaExtension> schemaExtensions;
+
+    private ResourceTypeExtensions(final String resourceType, final List<SchemaExtension> schemaExtensions) {
+      this.resourceType = resourceType;
+      this.schemaExtensions = Collections.unmodifiableList(new ArrayList<>(schemaExtensions));
+    }
+
+    @Override
+    public PagedResult<ResourceType> getCustomResourceTypes() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResourceType getCustomResourceType(final String typeId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<SchemaExtension> getSchemaExtensions(final String resourceTypeId) {
+      return resourceType.equals(resourceTypeId) ? schemaExtensions : Collections.emptyList();
+    }
   }
 
 }
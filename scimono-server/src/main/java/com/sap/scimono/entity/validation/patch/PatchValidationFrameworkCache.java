@@ -0,0 +1,138 @@
+package com.sap.scimono.entity.validation.patch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.sap.scimono.callback.groups.GroupsCallback;
+import com.sap.scimono.callback.resourcetype.ResourceTypesCallback;
+import com.sap.scimono.callback.schemas.SchemaAttributeIndex;
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.callback.users.UsersCallback;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.schema.SchemaExtension;
+
+/**
+ * Shares {@link PatchValidationFramework} instances between requests.
+ * <p>
+ * Frameworks are kept in a bounded LRU cache per version of the schemas, which is the {@link SchemaAttributeIndex} returned by
+ * {@link SchemasCallback#getAttributeIndex()}, the schema extensions of the resource type and the schemas allowing PATCH. A
+ * {@link com.sap.scimono.callback.schemas.CachingSchemasCallback} shared between requests returns the same index until the schemas change,
+ * so the framework is prepared once per version of the schemas. Schemas callbacks indexing the schemas on every call get a new framework
+ * for every request.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class PatchValidationFrameworkCache {
+  public static final int DEFAULT_CACHE_SIZE = 16;
+
+  private static final PatchValidationFrameworkCache DEFAULT = new PatchValidationFrameworkCache(DEFAULT_CACHE_SIZE);
+
+  private final Map<FrameworkKey, PatchValidationFramework> cache;
+
+  /**
+   * @param cacheSize maximum number of frameworks to keep, 0 disables the cache
+   */
+  public PatchValidationFrameworkCache(final int cacheSize) {
+    if (cacheSize < 0) {
+      throw new IllegalArgumentException("cacheSize must not be negative");
+    }
+    this.cache = Collections.synchronizedMap(new LinkedHashMap<FrameworkKey, PatchValidationFramework>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<FrameworkKey, PatchValidationFramework> eldest) {
+        return size() > cacheSize;
+      }
+    });
+  }
+
+  /**
+   * @return cache of {@link #DEFAULT_CACHE_SIZE} frameworks
+   */
+  public static PatchValidationFrameworkCache getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * @return the framework validating PATCH requests on users, see {@link PatchValidationFramework#usersFramework}
+   */
+  public PatchValidationFramework getUsersFramework(final SchemasCallback schemaAPI, final ResourceTypesCallback resourceTypesAPI,
+      final UsersCallback usersAPI) {
+    return getFramework(schemaAPI, resourceTypesAPI, usersAPI.getSchemaIdsAllowingPatch(), User.SCHEMA, User.RESOURCE_TYPE_USER);
+  }
+
+  /**
+   * @return the framework validating PATCH requests on groups, see {@link PatchValidationFramework#groupsFramework}
+   */
+  public PatchValidationFramework getGroupsFramework(final SchemasCallback schemaAPI, final ResourceTypesCallback resourceTypesAPI,
+      final GroupsCallback groupsAPI) {
+    return getFramework(schemaAPI, resourceTypesAPI, groupsAPI.getSchemaIdsAllowingPatch(), Group.SCHEMA, Group.RESOURCE_TYPE_GROUP);
+  }
+
+  /**
+   * @return number of frameworks currently cached
+   */
+  public int getCachedFrameworksCount() {
+    return cache.size();
+  }
+
+  public void clearCache() {
+    cache.clear();
+  }
+
+  private PatchValidationFramework getFramework(final SchemasCallback schemaAPI, final ResourceTypesCallback resourceTypesAPI,
+      final Set<String> schemaIdsAllowingPatch, final String coreSchemaId, final String resourceType) {
+    SchemaAttributeIndex schemas = schemaAPI.getAttributeIndex();
+    List<SchemaExtension> schemaExtensions = resourceTypesAPI.getSchemaExtensions(resourceType);
+    FrameworkKey key = new FrameworkKey(schemas, schemaExtensions, schemaIdsAllowingPatch, coreSchemaId);
+
+    PatchValidationFramework framework = cache.get(key);
+    if (framework == null) {
+      framework = PatchValidationFramework.create(schemaAPI, schemas, schemaExtensions, schemaIdsAllowingPatch, coreSchemaId,
+          resourceType);
+      cache.put(key, framework);
+    }
+    return framework;
+  }
+
+  private static class FrameworkKey {
+    private final SchemaAttributeIndex schemas;
+    private final List<SchemaExtension> schemaExtensions;
+    private final Set<String> schemaIdsAllowingPatch;
+    private final String coreSchemaId;
+
+    private FrameworkKey(final SchemaAttributeIndex schemas, final List<SchemaExtension> schemaExtensions,
+        final Set<String> schemaIdsAllowingPatch, final String coreSchemaId) {
+      this.schemas = schemas;
+      this.schemaExtensions = new ArrayList<>(schemaExtensions);
+      this.schemaIdsAllowingPatch = new HashSet<>(schemaIdsAllowingPatch);
+      this.coreSchemaId = coreSchemaId;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(schemas), schemaExtensions, schemaIdsAllowingPatch, coreSchemaId);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof FrameworkKey)) {
+        return false;
+      }
+      FrameworkKey other = (FrameworkKey) obj;
+      // the index is replaced whenever the schemas change, so it is compared by identity
+      return schemas == other.schemas && Objects.equals(schemaExtensions, other.schemaExtensions)
+          && Objects.equals(schemaIdsAllowingPatch, other.schemaIdsAllowingPatch) && Objects.equals(coreSchemaId, other.coreSchemaId);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.sap.scimono.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import com.sap.scimono.SCIMFilterBaseVisitor;
+import com.sap.scimono.SCIMFilterParser;
+import com.sap.scimono.filter.expression.AttributePath;
+import com.sap.scimono.filter.expression.ComparisonExpression;
+import com.sap.scimono.filter.expression.ComparisonOperator;
+import com.sap.scimono.filter.expression.FilterExpression;
+import com.sap.scimono.filter.expression.FilterLiterals;
+import com.sap.scimono.filter.expression.LogicalExpression;
+import com.sap.scimono.filter.expression.LogicalOperator;
+import com.sap.scimono.filter.expression.NotExpression;
+import com.sap.scimono.filter.expression.PresentExpression;
+import com.sap.scimono.filter.expression.ValuePathExpression;
+
+/**
+ * Converts the parse tree of a filter into a {@link FilterExpression}.
+ */
+class FilterExpressionBuilder extends SCIMFilterBaseVisitor<FilterExpression> {
+
+  @Override
+  public FilterExpression visitParse(final SCIMFilterParser.ParseContext ctx) {
+    return visit(ctx.filter());
+  }
+
+  @Override
+  public FilterExpression visitAttrExpression(final SCIMFilterParser.AttrExpressionContext ctx) {
+    return visit(ctx.attrExp());
+  }
+
+  @Override
+  public FilterExpression visitValuePathExpression(final SCIMFilterParser.ValuePathExpressionContext ctx) {
+    return visit(ctx.valuePath());
+  }
+
+  @Override
+  public FilterExpression visitAndExpression(final SCIMFilterParser.AndExpressionContext ctx) {
+    return new LogicalExpression(LogicalOperator.AND, visit(ctx.filter(0)), visit(ctx.filter(1)));
+  }
+
+  @Override
+  public FilterExpression visitOrExpression(final SCIMFilterParser.OrExpressionContext ctx) {
+    return new LogicalExpression(LogicalOperator.OR, visit(ctx.filter(0)), visit(ctx.filter(1)));
+  }
+
+  @Override
+  public FilterExpression visitBraceExpression(final SCIMFilterParser.BraceExpressionContext ctx) {
+    return negateIfRequested(ctx.NOT(), visit(ctx.filter()));
+  }
+
+  @Override
+  public FilterExpression visitPresentExpression(final SCIMFilterParser.PresentExpressionContext ctx) {
+    return new PresentExpression(toAttributePath(ctx.attrPath()));
+  }
+
+  @Override
+  public FilterExpression visitLogExpression(final SCIMFilterParser.LogExpressionContext ctx) {
+    ComparisonOperator operator = ComparisonOperator.fromString(ctx.OPERATOR().getText());
+    return new ComparisonExpression(toAttributePath(ctx.attrPath()), operator, FilterLiterals.parse(ctx.PARAM().getText()));
+  }
+
+  @Override
+  public FilterExpression visitValuePath(final SCIMFilterParser.ValuePathContext ctx) {
+    FilterExpression valueFilter = null;
+    Map<String, String> pagingParameters = new LinkedHashMap<>();
+
+    if (ctx.valFilter() != null) {
+      valueFilter = visit(ctx.valFilter());
+    } else {
+      SCIMFilterParser.ValExpressionContext valExpression = ctx.valExpression();
+      if (valExpression.valFilter() != null) {
+        valueFilter = visit(valExpression.valFilter());
+      }
+      for (TerminalNode assignment : valExpression.pagingQuery().PAGING_ASSIGNMENT()) {
+        String[] parameter = assignment.getText().split("=", 2);
+        pagingParameters.put(parameter[0], parameter[1]);
+      }
+    }
+
+    return new ValuePathExpression(toAttributePath(ctx.attrPath()), valueFilter, withoutLeadingDot(ctx.SUBATTRNAME()), pagingParameters);
+  }
+
+  @Override
+  public FilterExpression visitValAttrExpression(final SCIMFilterParser.ValAttrExpressionContext ctx) {
+    return visit(ctx.attrExp());
+  }
+
+  @Override
+  public FilterExpression visitValValuePathExpression(final SCIMFilterParser.ValValuePathExpressionContext ctx) {
+    return visit(ctx.valuePath());
+  }
+
+  @Override
+  public FilterExpression visitValAndExpression(final SCIMFilterParser.ValAndExpressionContext ctx) {
+    return new LogicalExpression(LogicalOperator.AND, visit(ctx.valFilter(0)), visit(ctx.valFilter(1)));
+  }
+
+  @Override
+  public FilterExpression visitValOrExpression(final SCIMFilterParser.ValOrExpressionContext ctx) {
+    return new LogicalExpression(LogicalOperator.OR, visit(ctx.valFilter(0)), visit(ctx.valFilter(1)));
+  }
+
+  @Override
+  public FilterExpression visitValBraceExpression(final SCIMFilterParser.ValBraceExpressionContext ctx) {
+    return negateIfRequested(ctx.NOT(), visit(ctx.valFilter()));
+  }
+
+  private static FilterExpression negateIfRequested(final TerminalNode not, final FilterExpression expression) {
+    return not == null ? expression : new NotExpression(expression);
+  }
+
+  private static AttributePath toAttributePath(final SCIMFilterParser.AttrPathContext ctx) {
+    String schema = null;
+    if (ctx.URI() != null) {
+      String uri = ctx.URI().getText();
+      schema = uri.substring(0, uri.length() - 1);
+    }
+    return new AttributePath(schema, ctx.ATTRNAME().getText(), withoutLeadingDot(ctx.SUBATTRNAME()));
+  }
+
+  private static String withoutLeadingDot(final TerminalNode subAttributeName) {
+    return subAttributeName == null ? null : subAttributeName.getText().substring(1);
+  }
+}
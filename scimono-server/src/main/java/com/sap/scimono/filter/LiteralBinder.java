@@ -0,0 +1,60 @@
+package com.sap.scimono.filter;
+
+import java.util.Iterator;
+
+import com.sap.scimono.filter.expression.ComparisonExpression;
+import com.sap.scimono.filter.expression.FilterExpression;
+import com.sap.scimono.filter.expression.FilterExpressionVisitor;
+import com.sap.scimono.filter.expression.FilterLiterals;
+import com.sap.scimono.filter.expression.LogicalExpression;
+import com.sap.scimono.filter.expression.NotExpression;
+import com.sap.scimono.filter.expression.PresentExpression;
+import com.sap.scimono.filter.expression.ValuePathExpression;
+
+/**
+ * Copies a cached filter expression, replacing its literal values in order of appearance with the literals of another filter of the same
+ * structure.
+ */
+class LiteralBinder implements FilterExpressionVisitor<FilterExpression> {
+  private final Iterator<String> literals;
+
+  LiteralBinder(final Iterator<String> literals) {
+    this.literals = literals;
+  }
+
+  @Override
+  public FilterExpression visitComparison(final ComparisonExpression expression) {
+    Object value = FilterLiterals.parse(literals.next());
+    return value.equals(expression.getValue()) ? expression : expression.withValue(value);
+  }
+
+  @Override
+  public FilterExpression visitPresent(final PresentExpression expression) {
+    return expression;
+  }
+
+  @Override
+  public FilterExpression visitLogical(final LogicalExpression expression) {
+    FilterExpression left = expression.getLeft().accept(this);
+    FilterExpression right = expression.getRight().accept(this);
+    if (left == expression.getLeft() && right == expression.getRight()) {
+      return expression;
+    }
+    return new LogicalExpression(expression.getOperator(), left, right);
+  }
+
+  @Override
+  public FilterExpression visitNot(final NotExpression expression) {
+    FilterExpression negated = expression.getExpression().accept(this);
+    return negated == expression.getExpression() ? expression : new NotExpression(negated);
+  }
+
+  @Override
+  public FilterExpression visitValuePath(final ValuePathExpression expression) {
+    if (expression.getValueFilter() == null) {
+      return expression;
+    }
+    FilterExpression valueFilter = expression.getValueFilter().accept(this);
+    return valueFilter == expression.getValueFilter() ? expression : expression.withValueFilter(valueFilter);
+  }
+}
@@ -0,0 +1,61 @@
+package com.sap.scimono.filter;
+
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.filter.expression.FilterExpression;
+
+/**
+ * Value of the filter query parameter as handed to the callbacks. The filter is compiled on first access to {@link #getExpression()}, so
+ * callbacks which pass the raw text on to their backend do not pay for parsing.
+ */
+public final class QueryFilter {
+  private final String text;
+  private final QueryFilterCompiler compiler;
+  private volatile FilterExpression expression;
+
+  private QueryFilter(final String text, final QueryFilterCompiler compiler) {
+    this.text = text;
+    this.compiler = compiler;
+  }
+
+  /**
+   * @param text the incoming filter query (needs to be decoded)
+   * @return the filter or null if no filter is provided
+   */
+  public static QueryFilter of(final String text) {
+    return of(text, QueryFilterCompiler.getDefault());
+  }
+
+  /**
+   * @param text the incoming filter query (needs to be decoded)
+   * @param compiler compiler used to compile the filter
+   * @return the filter or null if no filter is provided
+   */
+  public static QueryFilter of(final String text, final QueryFilterCompiler compiler) {
+    return text == null ? null : new QueryFilter(text, compiler);
+  }
+
+  /**
+   * @return the unparsed filter text
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * @return the compiled filter
+   * @throws InvalidFilterException if the filter is not valid
+   */
+  public FilterExpression getExpression() {
+    FilterExpression compiledExpression = expression;
+    if (compiledExpression == null) {
+      compiledExpression = compiler.compile(text);
+      expression = compiledExpression;
+    }
+    return compiledExpression;
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+}
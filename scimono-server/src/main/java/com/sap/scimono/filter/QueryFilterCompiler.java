@@ -0,0 +1,131 @@
+package com.sap.scimono.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+
+import com.sap.scimono.SCIMFilterLexer;
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.filter.expression.FilterExpression;
+
+/**
+ * Compiles SCIM filters into immutable {@link FilterExpression} trees.
+ * <p>
+ * Compiled filters are kept in a bounded LRU cache. The cache key is the token sequence of the filter with all literal values replaced by
+ * a placeholder, so {@code userName eq "bjensen"} and {@code userName eq "jsmith"} share a single entry and only the first of them is
+ * parsed. For the others only the lexer runs and the cached expression is copied with the new literal values.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class QueryFilterCompiler {
+  public static final int DEFAULT_CACHE_SIZE = 1000;
+
+  private static final QueryFilterCompiler DEFAULT = new QueryFilterCompiler(DEFAULT_CACHE_SIZE, false);
+  private static final char LITERAL_PLACEHOLDER = '?';
+
+  private final boolean twoStageParsing;
+  private final Map<String, FilterExpression> cache;
+
+  /**
+   * @param cacheSize maximum number of filter structures to keep compiled, 0 disables the cache
+   * @param twoStageParsing if true filters are parsed with SLL prediction first, falling back to full LL prediction only if that fails
+   */
+  public QueryFilterCompiler(final int cacheSize, final boolean twoStageParsing) {
+    if (cacheSize < 0) {
+      throw new IllegalArgumentException("cacheSize must not be negative");
+    }
+    this.twoStageParsing = twoStageParsing;
+    this.cache = Collections.synchronizedMap(new LinkedHashMap<String, FilterExpression>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, FilterExpression> eldest) {
+        return size() > cacheSize;
+      }
+    });
+  }
+
+  /**
+   * @return compiler with a cache of {@link #DEFAULT_CACHE_SIZE} filters and single stage LL parsing
+   */
+  public static QueryFilterCompiler getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * @param filter the incoming filter query (needs to be decoded)
+   * @return the compiled filter or null if no filter is provided
+   * @throws InvalidFilterException if the filter is not valid
+   */
+  public FilterExpression compile(final String filter) {
+    if (filter == null) {
+      return null;
+    }
+
+    CommonTokenStream tokens = new CommonTokenStream(new SCIMFilterLexer(CharStreams.fromString(filter.trim())));
+    tokens.fill();
+
+    List<String> literals = new ArrayList<>();
+    String cacheKey = toCacheKey(tokens.getTokens(), literals);
+
+    FilterExpression cachedExpression = cache.get(cacheKey);
+    if (cachedExpression != null) {
+      return cachedExpression.accept(new LiteralBinder(literals.iterator()));
+    }
+
+    FilterExpression expression = QueryFilterParser.parse(tokens, twoStageParsing).accept(new FilterExpressionBuilder());
+    cache.put(cacheKey, expression);
+    return expression;
+  }
+
+  public boolean isTwoStageParsing() {
+    return twoStageParsing;
+  }
+
+  /**
+   * @return number of filter structures currently cached
+   */
+  public int getCachedFiltersCount() {
+    return cache.size();
+  }
+
+  public void clearCache() {
+    cache.clear();
+  }
+
+  private static String toCacheKey(final List<Token> tokens, final List<String> literals) {
+    StringBuilder cacheKey = new StringBuilder();
+    for (Token token : tokens) {
+      int type = token.getType();
+      if (type == Token.EOF) {
+        break;
+      }
+
+      // the parse tree depends only on the token types, so the type is part of the key and separates adjacent tokens
+      cacheKey.append((char) type);
+      switch (type) {
+        case SCIMFilterLexer.PARAM:
+          literals.add(token.getText());
+          cacheKey.append(LITERAL_PLACEHOLDER);
+          break;
+        case SCIMFilterLexer.AND:
+        case SCIMFilterLexer.OR:
+        case SCIMFilterLexer.NOT:
+        case SCIMFilterLexer.PRESENT:
+        case SCIMFilterLexer.OPERATOR:
+          cacheKey.append(token.getText().toLowerCase());
+          break;
+        default:
+          cacheKey.append(token.getText());
+          break;
+      }
+    }
+    return cacheKey.toString();
+  }
+}
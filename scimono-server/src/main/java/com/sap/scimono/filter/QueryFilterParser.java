@@ -1,16 +1,17 @@
-
 package com.sap.scimono.filter;
 
 import com.sap.scimono.SCIMFilterBaseVisitor;
 import com.sap.scimono.SCIMFilterLexer;
 import com.sap.scimono.SCIMFilterParser;
+import com.sap.scimono.filter.expression.FilterExpression;
 import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
 public class QueryFilterParser {
-  private static final boolean TWO_STAGE_PARSING = false;
 
   private QueryFilterParser() {
   }
@@ -20,25 +21,54 @@ public class QueryFilterParser {
    * @param filter the incoming filter query (needs to be decoded)
    * @param visitor
    */
-
-
   public static <T extends SCIMFilterBaseVisitor<U>, U> U parse(final String filter, final T visitor) {
+    return parse(filter, visitor, false);
+  }
+
+  /**
+   * Parse the provided filter and traverse the resulting expression tree using the provided visitor implementation.
+   * @param filter the incoming filter query (needs to be decoded)
+   * @param visitor
+   * @param twoStageParsing if true the filter is parsed with SLL prediction first, falling back to full LL prediction only if that fails
+   */
+  public static <T extends SCIMFilterBaseVisitor<U>, U> U parse(final String filter, final T visitor, final boolean twoStageParsing) {
     if (filter == null || visitor == null) {
       return null;
     }
 
     SCIMFilterLexer lexer = new SCIMFilterLexer(CharStreams.fromString(filter.trim()));
-    SCIMFilterParser parser = new SCIMFilterParser(new CommonTokenStream(lexer));
+    return visitor.visit(parse(new CommonTokenStream(lexer), twoStageParsing));
+  }
 
-    if (TWO_STAGE_PARSING) {
+  /**
+   * Compiles the provided filter with the default {@link QueryFilterCompiler}, reusing the cached expression of filters with the same
+   * structure.
+   * @param filter the incoming filter query (needs to be decoded)
+   * @return the compiled filter or null if no filter is provided
+   */
+  public static FilterExpression compile(final String filter) {
+    return QueryFilterCompiler.getDefault().compile(filter);
+  }
+
+  static SCIMFilterParser.ParseContext parse(final CommonTokenStream tokens, final boolean twoStageParsing) {
+    SCIMFilterParser parser = new SCIMFilterParser(tokens);
+
+    if (twoStageParsing) {
       parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
-      parser.setErrorHandler(new BailErrorStrategy());
-    } else {
       parser.removeErrorListeners();
-      parser.addErrorListener(new QueryFilterErrorHandler());
+      parser.setErrorHandler(new BailErrorStrategy());
+      try {
+        return parser.parse();
+      } catch (ParseCancellationException e) {
+        // SLL prediction is not sufficient or the filter is invalid, the second stage reports the actual error
+        parser.reset();
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        parser.setErrorHandler(new DefaultErrorStrategy());
+      }
     }
 
-    SCIMFilterParser.ParseContext parseTree = parser.parse();
-    return visitor.visit(parseTree);
+    parser.removeErrorListeners();
+    parser.addErrorListener(new QueryFilterErrorHandler());
+    return parser.parse();
   }
 }
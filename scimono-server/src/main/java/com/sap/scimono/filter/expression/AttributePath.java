@@ -0,0 +1,77 @@
+package com.sap.scimono.filter.expression;
+
+import java.util.Objects;
+
+/**
+ * Attribute referenced by a filter, e.g. {@code userName}, {@code name.givenName} or
+ * {@code urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:manager.value}.
+ */
+public final class AttributePath {
+  private final String schema;
+  private final String attributeName;
+  private final String subAttributeName;
+
+  public AttributePath(final String schema, final String attributeName, final String subAttributeName) {
+    this.schema = schema;
+    this.attributeName = Objects.requireNonNull(attributeName, "attributeName must not be null");
+    this.subAttributeName = subAttributeName;
+  }
+
+  /**
+   * @return the schema URN given in front of the attribute name (without the trailing colon) or null if the attribute is not fully
+   *         qualified
+   */
+  public String getSchema() {
+    return schema;
+  }
+
+  public String getAttributeName() {
+    return attributeName;
+  }
+
+  /**
+   * @return the sub-attribute name (without the leading dot) or null if the path references a top level attribute
+   */
+  public String getSubAttributeName() {
+    return subAttributeName;
+  }
+
+  public boolean hasSchema() {
+    return schema != null;
+  }
+
+  public boolean hasSubAttribute() {
+    return subAttributeName != null;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    AttributePath that = (AttributePath) o;
+    return Objects.equals(schema, that.schema) && attributeName.equals(that.attributeName) && Objects.equals(subAttributeName,
+        that.subAttributeName);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(schema, attributeName, subAttributeName);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder path = new StringBuilder();
+    if (schema != null) {
+      path.append(schema).append(':');
+    }
+    path.append(attributeName);
+    if (subAttributeName != null) {
+      path.append('.').append(subAttributeName);
+    }
+    return path.toString();
+  }
+}
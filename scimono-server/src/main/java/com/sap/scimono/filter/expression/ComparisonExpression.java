@@ -0,0 +1,68 @@
+package com.sap.scimono.filter.expression;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Attribute compared to a literal value, e.g. {@code userName eq "bjensen"}.
+ * <p>
+ * The value is a {@link String} for string literals (with escape sequences resolved), a {@link Boolean} for {@code true}/{@code false}
+ * and a {@link BigDecimal} for integer and decimal literals.
+ */
+public final class ComparisonExpression implements FilterExpression {
+  private final AttributePath attributePath;
+  private final ComparisonOperator operator;
+  private final Object value;
+
+  public ComparisonExpression(final AttributePath attributePath, final ComparisonOperator operator, final Object value) {
+    this.attributePath = Objects.requireNonNull(attributePath, "attributePath must not be null");
+    this.operator = Objects.requireNonNull(operator, "operator must not be null");
+    this.value = Objects.requireNonNull(value, "value must not be null");
+  }
+
+  public AttributePath getAttributePath() {
+    return attributePath;
+  }
+
+  public ComparisonOperator getOperator() {
+    return operator;
+  }
+
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * @return a copy of this expression comparing against another value
+   */
+  public ComparisonExpression withValue(final Object newValue) {
+    return new ComparisonExpression(attributePath, operator, newValue);
+  }
+
+  @Override
+  public <R> R accept(final FilterExpressionVisitor<R> visitor) {
+    return visitor.visitComparison(this);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ComparisonExpression that = (ComparisonExpression) o;
+    return attributePath.equals(that.attributePath) && operator == that.operator && value.equals(that.value);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(attributePath, operator, value);
+  }
+
+  @Override
+  public String toString() {
+    return attributePath + " " + operator + " " + FilterLiterals.format(value);
+  }
+}
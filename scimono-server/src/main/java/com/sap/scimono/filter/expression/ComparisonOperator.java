@@ -0,0 +1,21 @@
+package com.sap.scimono.filter.expression;
+
+import com.sap.scimono.exception.InvalidFilterException;
+
+public enum ComparisonOperator {
+  EQ, NE, CO, SW, EW, GT, GE, LT, LE;
+
+  public static ComparisonOperator fromString(final String operator) {
+    for (ComparisonOperator comparisonOperator : values()) {
+      if (comparisonOperator.name().equalsIgnoreCase(operator)) {
+        return comparisonOperator;
+      }
+    }
+    throw new InvalidFilterException(String.format("Unsupported filter operator '%s'", operator));
+  }
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+}
@@ -0,0 +1,10 @@
+package com.sap.scimono.filter.expression;
+
+/**
+ * Node of a compiled SCIM filter. Compiled filters are immutable and do not reference the ANTLR parse tree, so they can be cached and
+ * shared between requests and threads.
+ */
+public interface FilterExpression {
+
+  <R> R accept(FilterExpressionVisitor<R> visitor);
+}
@@ -0,0 +1,19 @@
+package com.sap.scimono.filter.expression;
+
+/**
+ * Visitor over a compiled SCIM filter.
+ *
+ * @param <R> the result type
+ */
+public interface FilterExpressionVisitor<R> {
+
+  R visitComparison(ComparisonExpression expression);
+
+  R visitPresent(PresentExpression expression);
+
+  R visitLogical(LogicalExpression expression);
+
+  R visitNot(NotExpression expression);
+
+  R visitValuePath(ValuePathExpression expression);
+}
@@ -0,0 +1,129 @@
+package com.sap.scimono.filter.expression;
+
+import java.math.BigDecimal;
+
+import com.sap.scimono.exception.InvalidFilterException;
+
+/**
+ * Conversion between the literal values of a SCIM filter and their Java representation, see {@link ComparisonExpression#getValue()}.
+ */
+public final class FilterLiterals {
+
+  private FilterLiterals() {
+  }
+
+  /**
+   * @param literal the literal as written in the filter, e.g. {@code "bjensen"}, {@code true} or {@code 42}
+   * @return the value of the literal
+   */
+  public static Object parse(final String literal) {
+    if (literal.startsWith("\"")) {
+      return unescape(literal.substring(1, literal.length() - 1));
+    }
+    if ("true".equalsIgnoreCase(literal)) {
+      return Boolean.TRUE;
+    }
+    if ("false".equalsIgnoreCase(literal)) {
+      return Boolean.FALSE;
+    }
+    try {
+      return new BigDecimal(literal.startsWith("+") ? literal.substring(1) : literal);
+    } catch (NumberFormatException e) {
+      throw new InvalidFilterException(String.format("Invalid filter value '%s'", literal));
+    }
+  }
+
+  /**
+   * @param value a value as returned by {@link #parse(String)}
+   * @return the literal representing the value in a filter
+   */
+  public static String format(final Object value) {
+    if (value instanceof String) {
+      return escape((String) value);
+    }
+    if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).toString();
+    }
+    return String.valueOf(value);
+  }
+
+  private static String unescape(final String content) {
+    if (content.indexOf('\\') < 0) {
+      return content;
+    }
+
+    StringBuilder value = new StringBuilder(content.length());
+    for (int i = 0; i < content.length(); i++) {
+      char current = content.charAt(i);
+      if (current != '\\') {
+        value.append(current);
+        continue;
+      }
+
+      char escaped = content.charAt(++i);
+      switch (escaped) {
+        case 'b':
+          value.append('\b');
+          break;
+        case 'f':
+          value.append('\f');
+          break;
+        case 'n':
+          value.append('\n');
+          break;
+        case 'r':
+          value.append('\r');
+          break;
+        case 't':
+          value.append('\t');
+          break;
+        case 'u':
+          value.append((char) Integer.parseInt(content.substring(i + 1, i + 5), 16));
+          i += 4;
+          break;
+        default:
+          value.append(escaped);
+          break;
+      }
+    }
+    return value.toString();
+  }
+
+  private static String escape(final String value) {
+    StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char current = value.charAt(i);
+      switch (current) {
+        case '"':
+          literal.append("\\\"");
+          break;
+        case '\\':
+          literal.append("\\\\");
+          break;
+        case '\b':
+          literal.append("\\b");
+          break;
+        case '\f':
+          literal.append("\\f");
+          break;
+        case '\n':
+          literal.append("\\n");
+          break;
+        case '\r':
+          literal.append("\\r");
+          break;
+        case '\t':
+          literal.append("\\t");
+          break;
+        default:
+          if (current < 0x20) {
+            literal.append(String.format("\\u%04x", (int) current));
+          } else {
+            literal.append(current);
+          }
+          break;
+      }
+    }
+    return literal.append('"').toString();
+  }
+}
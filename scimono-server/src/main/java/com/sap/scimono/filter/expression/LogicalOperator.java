@@ -0,0 +1,10 @@
+package com.sap.scimono.filter.expression;
+
+public enum LogicalOperator {
+  AND, OR;
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+}
@@ -0,0 +1,45 @@
+package com.sap.scimono.filter.expression;
+
+import java.util.Objects;
+
+/**
+ * Negated filter, e.g. {@code not (userType eq "Employee")}.
+ */
+public final class NotExpression implements FilterExpression {
+  private final FilterExpression expression;
+
+  public NotExpression(final FilterExpression expression) {
+    this.expression = Objects.requireNonNull(expression, "expression must not be null");
+  }
+
+  public FilterExpression getExpression() {
+    return expression;
+  }
+
+  @Override
+  public <R> R accept(final FilterExpressionVisitor<R> visitor) {
+    return visitor.visitNot(this);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return expression.equals(((NotExpression) o).expression);
+  }
+
+  @Override
+  public int hashCode() {
+    return expression.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    // logical expressions are already written in parentheses
+    return expression instanceof LogicalExpression ? "not " + expression : "not (" + expression + ")";
+  }
+}
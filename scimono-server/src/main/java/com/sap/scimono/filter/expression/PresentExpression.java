@@ -0,0 +1,44 @@
+package com.sap.scimono.filter.expression;
+
+import java.util.Objects;
+
+/**
+ * Presence check of an attribute, e.g. {@code title pr}.
+ */
+public final class PresentExpression implements FilterExpression {
+  private final AttributePath attributePath;
+
+  public PresentExpression(final AttributePath attributePath) {
+    this.attributePath = Objects.requireNonNull(attributePath, "attributePath must not be null");
+  }
+
+  public AttributePath getAttributePath() {
+    return attributePath;
+  }
+
+  @Override
+  public <R> R accept(final FilterExpressionVisitor<R> visitor) {
+    return visitor.visitPresent(this);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return attributePath.equals(((PresentExpression) o).attributePath);
+  }
+
+  @Override
+  public int hashCode() {
+    return attributePath.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return attributePath + " pr";
+  }
+}
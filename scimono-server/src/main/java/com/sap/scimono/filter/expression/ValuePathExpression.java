@@ -0,0 +1,102 @@
+package com.sap.scimono.filter.expression;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Filter applied to the values of a multi-valued attribute, e.g. {@code emails[type eq "work" and value co "@example.com"]}, optionally
+ * followed by a sub-attribute as in PATCH paths ({@code emails[type eq "work"].value}).
+ * <p>
+ * Besides a value filter the brackets can hold paging parameters ({@code members[startIndex=1&count=100]}), which are exposed through
+ * {@link #getPagingParameters()}.
+ */
+public final class ValuePathExpression implements FilterExpression {
+  private final AttributePath attributePath;
+  private final FilterExpression valueFilter;
+  private final String subAttributeName;
+  private final Map<String, String> pagingParameters;
+
+  public ValuePathExpression(final AttributePath attributePath, final FilterExpression valueFilter, final String subAttributeName,
+      final Map<String, String> pagingParameters) {
+    this.attributePath = Objects.requireNonNull(attributePath, "attributePath must not be null");
+    this.valueFilter = valueFilter;
+    this.subAttributeName = subAttributeName;
+    this.pagingParameters = pagingParameters == null || pagingParameters.isEmpty() ? Collections.emptyMap()
+        : Collections.unmodifiableMap(new LinkedHashMap<>(pagingParameters));
+  }
+
+  public AttributePath getAttributePath() {
+    return attributePath;
+  }
+
+  /**
+   * @return the filter in the brackets or null if the brackets hold only paging parameters
+   */
+  public FilterExpression getValueFilter() {
+    return valueFilter;
+  }
+
+  /**
+   * @return the sub-attribute following the closing bracket (without the leading dot) or null
+   */
+  public String getSubAttributeName() {
+    return subAttributeName;
+  }
+
+  public Map<String, String> getPagingParameters() {
+    return pagingParameters;
+  }
+
+  /**
+   * @return a copy of this expression with another value filter
+   */
+  public ValuePathExpression withValueFilter(final FilterExpression newValueFilter) {
+    return new ValuePathExpression(attributePath, newValueFilter, subAttributeName, pagingParameters);
+  }
+
+  @Override
+  public <R> R accept(final FilterExpressionVisitor<R> visitor) {
+    return visitor.visitValuePath(this);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ValuePathExpression that = (ValuePathExpression) o;
+    return attributePath.equals(that.attributePath) && Objects.equals(valueFilter, that.valueFilter) && Objects.equals(subAttributeName,
+        that.subAttributeName) && pagingParameters.equals(that.pagingParameters);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(attributePath, valueFilter, subAttributeName, pagingParameters);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder valuePath = new StringBuilder().append(attributePath).append('[');
+    if (valueFilter != null) {
+      valuePath.append(valueFilter);
+    }
+    if (!pagingParameters.isEmpty()) {
+      if (valueFilter != null) {
+        valuePath.append('&');
+      }
+      valuePath.append(pagingParameters.entrySet().stream().map(parameter -> parameter.getKey() + "=" + parameter.getValue())
+          .collect(Collectors.joining("&")));
+    }
+    valuePath.append(']');
+    if (subAttributeName != null) {
+      valuePath.append('.').append(subAttributeName);
+    }
+    return valuePath.toString();
+  }
+}
@@ -92,7 +92,7 @@ public class ValuePathAttributesValidationVisitor extends QueryFilterVisitor<Voi
 
     SchemasCallback schemaAPI = valuePathValidator.getSchemaAPI();
     String targetAttrSchema = schemaAPI.getSchemaIdFromAttributeNotation(targetAttr);
-    return parentAttr.startsWith(targetAttrSchema);
+    return targetAttrSchema != null && parentAttr.startsWith(targetAttrSchema);
   }
 
   @Override
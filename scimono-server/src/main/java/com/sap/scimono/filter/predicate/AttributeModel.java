@@ -0,0 +1,150 @@
+package com.sap.scimono.filter.predicate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.sap.scimono.entity.Manager;
+import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.entity.schema.AttributeDataType;
+import com.sap.scimono.exception.InvalidFilterException;
+
+/**
+ * Describes how the values of an attribute are read from its owner (a resource or the value of the parent attribute) and how they are
+ * compared.
+ */
+final class AttributeModel {
+  private static final String VALUE_SUB_ATTRIBUTE = "value";
+
+  private final String name;
+  private final AttributeDataType type;
+  private final boolean caseExact;
+  private final Function<Object, Object> reader;
+  private final Map<String, AttributeModel> subAttributes;
+
+  AttributeModel(final String name, final AttributeDataType type, final boolean caseExact, final Function<Object, Object> reader,
+      final Map<String, AttributeModel> subAttributes) {
+    this.name = name;
+    this.type = type;
+    this.caseExact = caseExact;
+    this.reader = reader;
+    this.subAttributes = subAttributes;
+  }
+
+  /**
+   * Creates the model of an attribute described by a schema, whose complex values are read as maps or as {@link Manager}.
+   */
+  static AttributeModel fromSchema(final Attribute attribute, final Function<Object, Object> reader) {
+    Map<String, AttributeModel> subAttributes = new HashMap<>();
+    for (Attribute subAttribute : attribute.getSubAttributes()) {
+      String subAttributeName = subAttribute.getName();
+      subAttributes.put(key(subAttributeName), fromSchema(subAttribute, complexValue -> readSubAttribute(complexValue, subAttributeName)));
+    }
+    return new AttributeModel(attribute.getName(), typeOf(attribute), attribute.isCaseExact(), reader, subAttributes);
+  }
+
+  /**
+   * Creates the model of an attribute which is not described by any known schema. Its values are compared according to their runtime
+   * type and strings are compared case-insensitively.
+   */
+  static AttributeModel dynamic(final String name, final Function<Object, Object> reader) {
+    return new AttributeModel(name, null, false, reader, Collections.emptyMap());
+  }
+
+  static String key(final String attributeName) {
+    return attributeName.toLowerCase(Locale.ROOT);
+  }
+
+  static AttributeDataType typeOf(final Attribute attribute) {
+    try {
+      return AttributeDataType.of(attribute.getType());
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  String getName() {
+    return name;
+  }
+
+  /**
+   * @return the type of the attribute or null if it is not known upfront
+   */
+  AttributeDataType getType() {
+    return type;
+  }
+
+  boolean isCaseExact() {
+    return caseExact;
+  }
+
+  Function<Object, Object> getReader() {
+    return reader;
+  }
+
+  boolean isDynamic() {
+    return type == null;
+  }
+
+  boolean isComplex() {
+    return type == AttributeDataType.COMPLEX || !subAttributes.isEmpty();
+  }
+
+  AttributeModel getSubAttribute(final String subAttributeName) {
+    AttributeModel subAttribute = subAttributes.get(key(subAttributeName));
+    if (subAttribute != null) {
+      return subAttribute;
+    }
+    if (isDynamic()) {
+      return dynamic(subAttributeName, complexValue -> readSubAttribute(complexValue, subAttributeName));
+    }
+    throw new InvalidFilterException(String.format("Attribute '%s.%s' is not supported in filters", name, subAttributeName));
+  }
+
+  /**
+   * @return the sub-attribute compared when a filter compares the complex attribute itself, e.g. {@code emails co "@example.com"}
+   */
+  AttributeModel getDefaultSubAttribute() {
+    if (isDynamic()) {
+      return dynamic(VALUE_SUB_ATTRIBUTE, value -> value instanceof Map ? readSubAttribute(value, VALUE_SUB_ATTRIBUTE) : value);
+    }
+    if (!subAttributes.containsKey(VALUE_SUB_ATTRIBUTE)) {
+      throw new InvalidFilterException(String.format("Complex attribute '%s' can not be compared to a value", name));
+    }
+    return subAttributes.get(VALUE_SUB_ATTRIBUTE);
+  }
+
+  private static Object readSubAttribute(final Object complexValue, final String subAttributeName) {
+    if (complexValue instanceof Map) {
+      Map<?, ?> attributes = (Map<?, ?>) complexValue;
+      Object value = attributes.get(subAttributeName);
+      if (value != null) {
+        return value;
+      }
+      for (Map.Entry<?, ?> attribute : attributes.entrySet()) {
+        if (subAttributeName.equalsIgnoreCase(String.valueOf(attribute.getKey()))) {
+          return attribute.getValue();
+        }
+      }
+      return null;
+    }
+
+    if (complexValue instanceof Manager) {
+      Manager manager = (Manager) complexValue;
+      switch (key(subAttributeName)) {
+        case "value":
+          return manager.getValue();
+        case "displayname":
+          return manager.getDisplayName();
+        case "$ref":
+          return manager.getReference();
+        default:
+          return null;
+      }
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,108 @@
+package com.sap.scimono.filter.predicate;
+
+import java.util.function.Predicate;
+
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.filter.QueryFilterParser;
+import com.sap.scimono.filter.expression.FilterExpression;
+
+/**
+ * Compiles SCIM filters into predicates which are evaluated directly against the getters of {@link User} and {@link Group} and the
+ * attributes of their extensions. This allows callbacks to filter resources held in memory, e.g.
+ *
+ * <pre>
+ * Predicate&lt;User&gt; predicate = FilterPredicates.forUsers(filter);
+ * List&lt;User&gt; matchingUsers = users.stream().filter(predicate).collect(Collectors.toList());
+ * </pre>
+ *
+ * Attributes are compared as defined by their schema: strings honor {@code caseExact}, {@code dateTime} attributes are compared as
+ * instants and numbers numerically. A comparison with a multi-valued attribute matches if any of its values matches, and a complex
+ * multi-valued attribute without a sub-attribute (e.g. {@code emails co "@example.com"}) is compared by its {@code value} sub-attribute.
+ * Attributes of extensions whose schema is not known are compared according to the runtime type of their values.
+ * <p>
+ * A compiled predicate is immutable and can be used concurrently. Compile the filter once and reuse the predicate for all resources.
+ */
+public final class FilterPredicates {
+
+  private FilterPredicates() {
+  }
+
+  /**
+   * Compiles a user filter using the schemas shipped with the library.
+   *
+   * @param filter the incoming filter query (needs to be decoded) or null
+   * @return the predicate, which matches all users if no filter is provided
+   * @throws InvalidFilterException if the filter is not valid or references attributes which do not exist
+   */
+  public static Predicate<User> forUsers(final String filter) {
+    return forUsers(QueryFilterParser.compile(filter));
+  }
+
+  /**
+   * Compiles a user filter using the schemas shipped with the library.
+   *
+   * @param filter the compiled filter or null
+   * @return the predicate, which matches all users if no filter is provided
+   * @throws InvalidFilterException if the filter references attributes which do not exist
+   */
+  public static Predicate<User> forUsers(final FilterExpression filter) {
+    return compile(filter, ResourceModels.users());
+  }
+
+  /**
+   * Compiles a user filter using the schemas provided by the schemas callback, e.g. to support custom schema extensions.
+   *
+   * @param filter the compiled filter or null
+   * @param schemasCallback provides the definitions of the core schema and the schema extensions
+   * @return the predicate, which matches all users if no filter is provided
+   * @throws InvalidFilterException if the filter references attributes which do not exist
+   */
+  public static Predicate<User> forUsers(final FilterExpression filter, final SchemasCallback schemasCallback) {
+    return compile(filter, ResourceModels.users(schemasCallback::getSchema));
+  }
+
+  /**
+   * Compiles a group filter using the schemas shipped with the library.
+   *
+   * @param filter the incoming filter query (needs to be decoded) or null
+   * @return the predicate, which matches all groups if no filter is provided
+   * @throws InvalidFilterException if the filter is not valid or references attributes which do not exist
+   */
+  public static Predicate<Group> forGroups(final String filter) {
+    return forGroups(QueryFilterParser.compile(filter));
+  }
+
+  /**
+   * Compiles a group filter using the schemas shipped with the library.
+   *
+   * @param filter the compiled filter or null
+   * @return the predicate, which matches all groups if no filter is provided
+   * @throws InvalidFilterException if the filter references attributes which do not exist
+   */
+  public static Predicate<Group> forGroups(final FilterExpression filter) {
+    return compile(filter, ResourceModels.groups());
+  }
+
+  /**
+   * Compiles a group filter using the schemas provided by the schemas callback, e.g. to support custom schema extensions.
+   *
+   * @param filter the compiled filter or null
+   * @param schemasCallback provides the definitions of the core schema and the schema extensions
+   * @return the predicate, which matches all groups if no filter is provided
+   * @throws InvalidFilterException if the filter references attributes which do not exist
+   */
+  public static Predicate<Group> forGroups(final FilterExpression filter, final SchemasCallback schemasCallback) {
+    return compile(filter, ResourceModels.groups(schemasCallback::getSchema));
+  }
+
+  private static <T> Predicate<T> compile(final FilterExpression filter, final ResourceModel resourceModel) {
+    if (filter == null) {
+      return resource -> true;
+    }
+    Predicate<Object> predicate = filter.accept(new PredicateCompiler(resourceModel));
+    return predicate::test;
+  }
+}
@@ -0,0 +1,116 @@
+package com.sap.scimono.filter.predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.filter.expression.AttributePath;
+import com.sap.scimono.filter.expression.ComparisonExpression;
+import com.sap.scimono.filter.expression.ComparisonOperator;
+import com.sap.scimono.filter.expression.FilterExpressionVisitor;
+import com.sap.scimono.filter.expression.LogicalExpression;
+import com.sap.scimono.filter.expression.LogicalOperator;
+import com.sap.scimono.filter.expression.NotExpression;
+import com.sap.scimono.filter.expression.PresentExpression;
+import com.sap.scimono.filter.expression.ValuePathExpression;
+
+/**
+ * Compiles a filter expression into a predicate over a resource or, for the filter of a value path, over a value of a multi-valued
+ * attribute.
+ */
+class PredicateCompiler implements FilterExpressionVisitor<Predicate<Object>> {
+  private final ResourceModel resourceModel;
+  private final AttributeModel valuePathAttribute;
+
+  PredicateCompiler(final ResourceModel resourceModel) {
+    this(resourceModel, null);
+  }
+
+  private PredicateCompiler(final ResourceModel resourceModel, final AttributeModel valuePathAttribute) {
+    this.resourceModel = resourceModel;
+    this.valuePathAttribute = valuePathAttribute;
+  }
+
+  @Override
+  public Predicate<Object> visitComparison(final ComparisonExpression expression) {
+    ResolvedPath path = resolve(expression.getAttributePath(), true);
+
+    if (expression.getOperator() == ComparisonOperator.NE) {
+      return path.anyValue(ValueMatchers.comparison(ComparisonOperator.EQ, expression.getValue(), path.attribute)).negate();
+    }
+    return path.anyValue(ValueMatchers.comparison(expression.getOperator(), expression.getValue(), path.attribute));
+  }
+
+  @Override
+  public Predicate<Object> visitPresent(final PresentExpression expression) {
+    return resolve(expression.getAttributePath(), false).anyValue(ValueMatchers.present());
+  }
+
+  @Override
+  public Predicate<Object> visitLogical(final LogicalExpression expression) {
+    Predicate<Object> left = expression.getLeft().accept(this);
+    Predicate<Object> right = expression.getRight().accept(this);
+    return expression.getOperator() == LogicalOperator.AND ? left.and(right) : left.or(right);
+  }
+
+  @Override
+  public Predicate<Object> visitNot(final NotExpression expression) {
+    return expression.getExpression().accept(this).negate();
+  }
+
+  @Override
+  public Predicate<Object> visitValuePath(final ValuePathExpression expression) {
+    if (valuePathAttribute != null) {
+      throw new InvalidFilterException("Value paths can not be nested");
+    }
+
+    // paging parameters and the sub-attribute following the brackets select parts of the matching values and do not affect matching
+    ResolvedPath path = resolve(expression.getAttributePath(), false);
+    if (expression.getValueFilter() == null) {
+      return path.anyValue(ValueMatchers.present());
+    }
+    return path.anyValue(expression.getValueFilter().accept(new PredicateCompiler(resourceModel, path.attribute)));
+  }
+
+  private ResolvedPath resolve(final AttributePath attributePath, final boolean comparedToValue) {
+    AttributeModel attribute;
+    if (valuePathAttribute == null) {
+      attribute = resourceModel.getAttribute(attributePath.getSchema(), attributePath.getAttributeName());
+    } else {
+      attribute = valuePathAttribute.getSubAttribute(attributePath.getAttributeName());
+    }
+
+    ResolvedPath path = new ResolvedPath(attribute);
+    if (attributePath.hasSubAttribute()) {
+      path.append(attribute.getSubAttribute(attributePath.getSubAttributeName()));
+    }
+    if (comparedToValue && path.attribute.isComplex()) {
+      path.append(path.attribute.getDefaultSubAttribute());
+    }
+    return path;
+  }
+
+  private static class ResolvedPath {
+    private final List<Function<Object, Object>> readers = new ArrayList<>();
+    private AttributeModel attribute;
+
+    private ResolvedPath(final AttributeModel attribute) {
+      append(attribute);
+    }
+
+    private void append(final AttributeModel nextAttribute) {
+      readers.add(nextAttribute.getReader());
+      attribute = nextAttribute;
+    }
+
+    private Predicate<Object> anyValue(final Predicate<Object> matcher) {
+      Predicate<Object> predicate = matcher;
+      for (int i = readers.size() - 1; i >= 0; i--) {
+        predicate = ValueMatchers.anyValue(readers.get(i), predicate);
+      }
+      return predicate;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.sap.scimono.filter.predicate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.entity.schema.AttributeDataType;
+import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.exception.InvalidFilterException;
+
+/**
+ * Attributes of a resource type which can be referenced in filters: the attributes of the core schema, read through the getters of the
+ * entity, and the attributes of the schema extensions, read from the {@link com.sap.scimono.entity.base.Extension} of the resource.
+ */
+final class ResourceModel {
+  private final String schemaId;
+  private final Map<String, AttributeModel> attributes;
+  private final List<String> extensionSchemaIds;
+  private final Function<String, Schema> schemas;
+
+  private ResourceModel(final String schemaId, final Map<String, AttributeModel> attributes, final List<String> extensionSchemaIds,
+      final Function<String, Schema> schemas) {
+    this.schemaId = schemaId;
+    this.attributes = attributes;
+    this.extensionSchemaIds = extensionSchemaIds;
+    this.schemas = schemas;
+  }
+
+  /**
+   * @param schemaId the core schema of the resource type
+   * @param extensionSchemaIds schema extensions whose attributes can be referenced without the schema URN
+   * @param schemas provides the definitions of the core schema and the schema extensions, returns null for unknown schemas
+   * @param coreAttributes defines the readers of the core attributes
+   */
+  static ResourceModel create(final String schemaId, final List<String> extensionSchemaIds, final Function<String, Schema> schemas,
+      final Consumer<AttributesBuilder> coreAttributes) {
+    Schema schema = schemas.apply(schemaId);
+    AttributesBuilder attributesBuilder = new AttributesBuilder(schema == null ? Collections.emptyList() : schema.getAttributes());
+    coreAttributes.accept(attributesBuilder);
+    return new ResourceModel(schemaId, attributesBuilder.build(), extensionSchemaIds, schemas);
+  }
+
+  /**
+   * @param attributeSchemaId the schema URN given in the filter or null
+   * @param attributeName the attribute name given in the filter
+   * @return the model of the referenced attribute
+   * @throws InvalidFilterException if the attribute does not exist
+   */
+  AttributeModel getAttribute(final String attributeSchemaId, final String attributeName) {
+    if (attributeSchemaId == null || attributeSchemaId.equalsIgnoreCase(schemaId)) {
+      AttributeModel attribute = attributes.get(AttributeModel.key(attributeName));
+      if (attribute != null) {
+        return attribute;
+      }
+
+      if (attributeSchemaId == null) {
+        for (String extensionSchemaId : extensionSchemaIds) {
+          Schema extensionSchema = schemas.apply(extensionSchemaId);
+          Attribute extensionAttribute = extensionSchema == null ? null : findAttribute(extensionSchema, attributeName);
+          if (extensionAttribute != null) {
+            return AttributeModel.fromSchema(extensionAttribute, extensionAttributeReader(extensionSchemaId, extensionAttribute.getName()));
+          }
+        }
+      }
+      throw unsupportedAttribute(attributeSchemaId, attributeName);
+    }
+
+    Schema extensionSchema = schemas.apply(attributeSchemaId);
+    if (extensionSchema == null) {
+      return AttributeModel.dynamic(attributeName, extensionAttributeReader(attributeSchemaId, attributeName));
+    }
+
+    Attribute extensionAttribute = findAttribute(extensionSchema, attributeName);
+    if (extensionAttribute == null) {
+      throw unsupportedAttribute(attributeSchemaId, attributeName);
+    }
+    return AttributeModel.fromSchema(extensionAttribute, extensionAttributeReader(extensionSchema.getId(), extensionAttribute.getName()));
+  }
+
+  private static Attribute findAttribute(final Schema schema, final String attributeName) {
+    return schema.getAttributes().stream().filter(attribute -> attribute.getName().equalsIgnoreCase(attributeName)).findFirst().orElse(null);
+  }
+
+  private static Function<Object, Object> extensionAttributeReader(final String extensionSchemaId, final String attributeName) {
+    return resource -> {
+      Resource<?> owner = (Resource<?>) resource;
+      return owner.isExtensionPresent(extensionSchemaId) ? owner.getExtension(extensionSchemaId).getAttribute(attributeName) : null;
+    };
+  }
+
+  private static InvalidFilterException unsupportedAttribute(final String attributeSchemaId, final String attributeName) {
+    String attribute = attributeSchemaId == null ? attributeName : attributeSchemaId + ":" + attributeName;
+    return new InvalidFilterException(String.format("Attribute '%s' is not supported in filters", attribute));
+  }
+
+  /**
+   * Collects the readers of the attributes of an entity. Type, case exactness and sub-attributes are taken from the schema definition
+   * where available.
+   */
+  static final class AttributesBuilder {
+    private final Map<String, Attribute> schemaAttributes = new HashMap<>();
+    private final Map<String, AttributeModel> attributes = new HashMap<>();
+
+    private AttributesBuilder(final List<Attribute> schemaAttributes) {
+      schemaAttributes.forEach(attribute -> this.schemaAttributes.put(AttributeModel.key(attribute.getName()), attribute));
+    }
+
+    <T> AttributesBuilder attribute(final String name, final Function<T, ?> reader) {
+      return attribute(name, AttributeDataType.STRING, false, reader);
+    }
+
+    /**
+     * @param defaultType type of the attribute if it is not defined by the schema
+     * @param defaultCaseExact case exactness of the attribute if it is not defined by the schema
+     */
+    <T> AttributesBuilder attribute(final String name, final AttributeDataType defaultType, final boolean defaultCaseExact,
+        final Function<T, ?> reader) {
+      Attribute schemaAttribute = schemaAttributes.get(AttributeModel.key(name));
+      AttributeDataType type = schemaAttribute == null ? defaultType : AttributeModel.typeOf(schemaAttribute);
+      boolean caseExact = schemaAttribute == null ? defaultCaseExact : schemaAttribute.isCaseExact();
+
+      attributes.put(AttributeModel.key(name), new AttributeModel(name, type, caseExact, toObjectReader(reader), Collections.emptyMap()));
+      return this;
+    }
+
+    <T> AttributesBuilder complex(final String name, final Function<T, ?> reader, final Consumer<AttributesBuilder> subAttributes) {
+      Attribute schemaAttribute = schemaAttributes.get(AttributeModel.key(name));
+      AttributesBuilder subAttributesBuilder = new AttributesBuilder(
+          schemaAttribute == null ? Collections.emptyList() : schemaAttribute.getSubAttributes());
+      subAttributes.accept(subAttributesBuilder);
+
+      attributes.put(AttributeModel.key(name),
+          new AttributeModel(name, AttributeDataType.COMPLEX, false, toObjectReader(reader), subAttributesBuilder.build()));
+      return this;
+    }
+
+    private Map<String, AttributeModel> build() {
+      return Collections.unmodifiableMap(attributes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Function<Object, Object> toObjectReader(final Function<T, ?> reader) {
+      return (Function<Object, Object>) reader;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.sap.scimono.filter.predicate;
+
+import static com.sap.scimono.entity.schema.AttributeDataType.BOOLEAN;
+import static com.sap.scimono.entity.schema.AttributeDataType.DATE_TIME;
+import static com.sap.scimono.entity.schema.AttributeDataType.REFERENCE;
+import static com.sap.scimono.entity.schema.AttributeDataType.STRING;
+
+import java.util.Collections;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.sap.scimono.entity.Address;
+import com.sap.scimono.entity.Email;
+import com.sap.scimono.entity.EnterpriseExtension;
+import com.sap.scimono.entity.Entitlement;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.GroupRef;
+import com.sap.scimono.entity.Im;
+import com.sap.scimono.entity.MemberRef;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.Name;
+import com.sap.scimono.entity.PhoneNumber;
+import com.sap.scimono.entity.Photo;
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.Role;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.X509Certificate;
+import com.sap.scimono.entity.base.MultiValuedAttribute;
+import com.sap.scimono.entity.base.MultiValuedAttributeType;
+import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.entity.schema.resources.SchemaCSVReader;
+
+/**
+ * Models of the attributes of users and groups, mapping the attributes of the core schemas to the getters of {@link User} and
+ * {@link Group}.
+ */
+final class ResourceModels {
+  private static final Function<String, Schema> CSV_SCHEMAS = schemaId -> SchemaCSVReader.getImportedSchemasFromCSVs().get(schemaId);
+
+  private ResourceModels() {
+  }
+
+  static ResourceModel users() {
+    return UsersHolder.MODEL;
+  }
+
+  static ResourceModel groups() {
+    return GroupsHolder.MODEL;
+  }
+
+  static ResourceModel users(final Function<String, Schema> schemas) {
+    // @formatter:off
+    return ResourceModel.create(User.SCHEMA, Collections.singletonList(EnterpriseExtension.ENTERPRISE_URN), schemas, attributes -> {
+      commonAttributes(attributes);
+      attributes
+          .attribute("userName", User::getUserName)
+          .complex("name", User::getName, name -> name
+              .attribute("formatted", Name::getFormatted)
+              .attribute("familyName", Name::getFamilyName)
+              .attribute("givenName", Name::getGivenName)
+              .attribute("middleName", Name::getMiddleName)
+              .attribute("honorificPrefix", Name::getHonorificPrefix)
+              .attribute("honorificSuffix", Name::getHonorificSuffix))
+          .attribute("displayName", User::getDisplayName)
+          .attribute("nickName", User::getNickName)
+          .attribute("profileUrl", REFERENCE, false, User::getProfileUrl)
+          .attribute("title", User::getTitle)
+          .attribute("userType", User::getUserType)
+          .attribute("preferredLanguage", User::getPreferredLanguage)
+          .attribute("locale", User::getLocale)
+          .attribute("timezone", User::getTimezone)
+          .attribute("active", BOOLEAN, false, User::isActive)
+          .complex("emails", User::getEmails, multiValuedAttribute(Email::getType))
+          .complex("phoneNumbers", User::getPhoneNumbers, multiValuedAttribute(PhoneNumber::getType))
+          .complex("ims", User::getIms, multiValuedAttribute(Im::getType))
+          .complex("photos", User::getPhotos, multiValuedAttribute(Photo::getType))
+          .complex("addresses", User::getAddresses, address -> multiValuedAttribute(Address::getType).accept(address
+              .attribute("formatted", Address::getFormatted)
+              .attribute("streetAddress", Address::getStreetAddress)
+              .attribute("locality", Address::getLocality)
+              .attribute("region", Address::getRegion)
+              .attribute("postalCode", Address::getPostalCode)
+              .attribute("country", Address::getCountry)))
+          .complex("groups", User::getGroups, multiValuedAttribute(GroupRef::getType))
+          .complex("entitlements", User::getEntitlements, multiValuedAttribute(Entitlement::getType))
+          .complex("roles", User::getRoles, multiValuedAttribute(Role::getType))
+          .complex("x509Certificates", User::getX509Certificates, multiValuedAttribute(X509Certificate::getType));
+    });
+    // @formatter:on
+  }
+
+  static ResourceModel groups(final Function<String, Schema> schemas) {
+    // @formatter:off
+    return ResourceModel.create(Group.SCHEMA, Collections.emptyList(), schemas, attributes -> {
+      commonAttributes(attributes);
+      attributes
+          .attribute("displayName", Group::getDisplayName)
+          .complex("members", Group::getMembers, multiValuedAttribute(MemberRef::getType));
+    });
+    // @formatter:on
+  }
+
+  private static void commonAttributes(final ResourceModel.AttributesBuilder attributes) {
+    // @formatter:off
+    attributes
+        .attribute("id", STRING, true, (Resource<?> resource) -> resource.getId())
+        .attribute("externalId", STRING, true, (Resource<?> resource) -> resource.getExternalId())
+        .attribute("schemas", REFERENCE, false, (Resource<?> resource) -> resource.getSchemas())
+        .complex("meta", (Resource<?> resource) -> resource.getMeta(), meta -> meta
+            .attribute("resourceType", STRING, true, Meta::getResourceType)
+            .attribute("created", DATE_TIME, false, Meta::getCreated)
+            .attribute("lastModified", DATE_TIME, false, Meta::getLastModified)
+            .attribute("location", REFERENCE, true, Meta::getLocation)
+            .attribute("version", STRING, true, Meta::getVersion));
+    // @formatter:on
+  }
+
+  private static <T extends MultiValuedAttribute> Consumer<ResourceModel.AttributesBuilder> multiValuedAttribute(
+      final Function<T, MultiValuedAttributeType> typeReader) {
+    // @formatter:off
+    return attribute -> attribute
+        .attribute("value", (T value) -> value.getValue())
+        .attribute("display", (T value) -> value.getDisplay())
+        .attribute("type", (T value) -> typeValue(typeReader.apply(value)))
+        .attribute("primary", BOOLEAN, false, (T value) -> value.isPrimary())
+        .attribute("$ref", REFERENCE, false, (T value) -> value.getReference());
+    // @formatter:on
+  }
+
+  private static String typeValue(final MultiValuedAttributeType type) {
+    return type == null ? null : type.getValue();
+  }
+
+  private static class UsersHolder {
+    private static final ResourceModel MODEL = users(CSV_SCHEMAS);
+  }
+
+  private static class GroupsHolder {
+    private static final ResourceModel MODEL = groups(CSV_SCHEMAS);
+  }
+}
@@ -0,0 +1,305 @@
+package com.sap.scimono.filter.predicate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.Resource;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.base.MultiValuedAttribute;
+import com.sap.scimono.entity.paging.PageCursor;
+import com.sap.scimono.entity.paging.SortInfo;
+import com.sap.scimono.entity.schema.AttributeDataType;
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.exception.InvalidInputException;
+
+/**
+ * Compiles the requested sort order into comparators which read the sorted attribute directly through the getters of {@link User} and
+ * {@link Group} and the attributes of their extensions, for callbacks sorting resources held in memory, e.g. with
+ * {@link com.sap.scimono.entity.paging.TopKSorter}.
+ * <p>
+ * Values are compared as defined by the schema of the attribute: strings honor {@code caseExact}, {@code dateTime} attributes are compared
+ * as instants and numbers numerically. A multi-valued attribute is sorted by its primary value, or else by its first value, and a complex
+ * attribute without a sub-attribute by its {@code value} sub-attribute. Resources without a value are sorted last in ascending order and
+ * first in descending order. Resources with equal values are ordered by id, so that consecutive pages do not overlap.
+ * <p>
+ * The sort value readers return the value a resource is compared by, e.g. to build the cursor of the page after a resource.
+ */
+public final class SortComparators {
+  private static final String PRIMARY_SUB_ATTRIBUTE = "primary";
+  private static final Comparator<Resource<?>> BY_ID = Comparator.comparing(Resource::getId,
+      Comparator.nullsLast(Comparator.naturalOrder()));
+
+  private SortComparators() {
+  }
+
+  /**
+   * Compiles a user comparator using the schemas shipped with the library.
+   *
+   * @throws InvalidInputException if users can not be sorted by the attribute
+   */
+  public static Comparator<User> forUsers(final SortInfo sortInfo) {
+    return compile(sortInfo, ResourceModels.users());
+  }
+
+  /**
+   * Compiles a user comparator using the schemas provided by the schemas callback, e.g. to support custom schema extensions.
+   *
+   * @throws InvalidInputException if users can not be sorted by the attribute
+   */
+  public static Comparator<User> forUsers(final SortInfo sortInfo, final SchemasCallback schemasCallback) {
+    return compile(sortInfo, ResourceModels.users(schemasCallback::getSchema));
+  }
+
+  /**
+   * Compiles a group comparator using the schemas shipped with the library.
+   *
+   * @throws InvalidInputException if groups can not be sorted by the attribute
+   */
+  public static Comparator<Group> forGroups(final SortInfo sortInfo) {
+    return compile(sortInfo, ResourceModels.groups());
+  }
+
+  /**
+   * Compiles a group comparator using the schemas provided by the schemas callback, e.g. to support custom schema extensions.
+   *
+   * @throws InvalidInputException if groups can not be sorted by the attribute
+   */
+  public static Comparator<Group> forGroups(final SortInfo sortInfo, final SchemasCallback schemasCallback) {
+    return compile(sortInfo, ResourceModels.groups(schemasCallback::getSchema));
+  }
+
+  /**
+   * Compiles a reader of the value users are sorted by, using the schemas shipped with the library.
+   *
+   * @return function returning the sort value of a user, see {@link SortAttribute}
+   * @throws InvalidInputException if users can not be sorted by the attribute
+   */
+  public static Function<User, Object> sortValuesOfUsers(final SortInfo sortInfo) {
+    return sortValueReader(sortInfo, ResourceModels.users())::apply;
+  }
+
+  /**
+   * Compiles a reader of the value users are sorted by, using the schemas provided by the schemas callback.
+   *
+   * @return function returning the sort value of a user, see {@link SortAttribute}
+   * @throws InvalidInputException if users can not be sorted by the attribute
+   */
+  public static Function<User, Object> sortValuesOfUsers(final SortInfo sortInfo, final SchemasCallback schemasCallback) {
+    return sortValueReader(sortInfo, ResourceModels.users(schemasCallback::getSchema))::apply;
+  }
+
+  /**
+   * Compiles a reader of the value groups are sorted by, using the schemas shipped with the library.
+   *
+   * @return function returning the sort value of a group, see {@link SortAttribute}
+   * @throws InvalidInputException if groups can not be sorted by the attribute
+   */
+  public static Function<Group, Object> sortValuesOfGroups(final SortInfo sortInfo) {
+    return sortValueReader(sortInfo, ResourceModels.groups())::apply;
+  }
+
+  /**
+   * Compiles a reader of the value groups are sorted by, using the schemas provided by the schemas callback.
+   *
+   * @return function returning the sort value of a group, see {@link SortAttribute}
+   * @throws InvalidInputException if groups can not be sorted by the attribute
+   */
+  public static Function<Group, Object> sortValuesOfGroups(final SortInfo sortInfo, final SchemasCallback schemasCallback) {
+    return sortValueReader(sortInfo, ResourceModels.groups(schemasCallback::getSchema))::apply;
+  }
+
+  /**
+   * Returns the comparator of single values of the sorted attribute, e.g. to order the keys of an index in the requested order.
+   *
+   * @return comparator in the requested direction, sorting null values last in ascending order and first in descending order
+   */
+  public static Comparator<Object> forValues(final SortInfo sortInfo) {
+    AttributeDataType type = AttributeModel.typeOf(sortInfo.getAttribute());
+    return inDirection(nullsLastBy(keyConverter(type), keyComparator(type, sortInfo.isCaseExact())), sortInfo);
+  }
+
+  /**
+   * Compiles the condition of the resources following the position of a cursor, i.e. the resources which come after the last resource of
+   * the previous page in the order of the comparators of this class.
+   *
+   * @param cursor the position of the page
+   * @param sortInfo the requested order, or null if the resources are ordered by id
+   * @param sortValues the reader of the sort value, see e.g. {@link #sortValuesOfUsers(SortInfo)}, ignored without a sort order
+   * @return predicate selecting the resources after the position, all resources for the first page
+   */
+  public static <T extends Resource<T>> Predicate<T> after(final PageCursor cursor, final SortInfo sortInfo,
+      final Function<? super T, Object> sortValues) {
+    if (cursor.isInitial()) {
+      return resource -> true;
+    }
+
+    String lastId = cursor.getLastId();
+    if (sortInfo == null) {
+      return resource -> resource.getId() != null && resource.getId().compareTo(lastId) > 0;
+    }
+
+    Comparator<Object> values = forValues(sortInfo);
+    Object lastSortValue = cursor.getLastSortValue();
+    return resource -> {
+      int comparison = values.compare(sortValues.apply(resource), lastSortValue);
+      return comparison > 0 || comparison == 0 && resource.getId() != null && resource.getId().compareTo(lastId) > 0;
+    };
+  }
+
+  private static <T extends Resource<T>> Comparator<T> compile(final SortInfo sortInfo, final ResourceModel resourceModel) {
+    SortAttribute sortAttribute = new SortAttribute(sortInfo, resourceModel);
+    Function<Object, Object> valueReader = sortAttribute.valueReader;
+    Comparator<Object> values = inDirection(keyComparator(sortAttribute.attribute.getType(), sortAttribute.attribute.isCaseExact()),
+        sortInfo);
+    Comparator<T> byValue = (first, second) -> values.compare(valueReader.apply(first), valueReader.apply(second));
+    return byValue.thenComparing(BY_ID);
+  }
+
+  private static Function<Object, Object> sortValueReader(final SortInfo sortInfo, final ResourceModel resourceModel) {
+    return new SortAttribute(sortInfo, resourceModel).valueReader;
+  }
+
+  private static Function<Object, Object> subAttributeReader(final Function<Object, Object> parentReader,
+      final AttributeModel subAttribute) {
+    Function<Object, Object> reader = subAttribute.getReader();
+    return owner -> {
+      Object parentValue = selectValue(parentReader.apply(owner));
+      return parentValue == null ? null : reader.apply(parentValue);
+    };
+  }
+
+  private static Comparator<Object> inDirection(final Comparator<Object> ascending, final SortInfo sortInfo) {
+    Comparator<Object> nullsLast = Comparator.nullsLast(ascending);
+    return sortInfo.isAscending() ? nullsLast : nullsLast.reversed();
+  }
+
+  /**
+   * @return the value a multi-valued attribute is sorted by: its primary value, or else its first value
+   */
+  private static Object selectValue(final Object value) {
+    if (!(value instanceof Collection)) {
+      return value;
+    }
+
+    Collection<?> values = (Collection<?>) value;
+    for (Object singleValue : values) {
+      if (isPrimary(singleValue)) {
+        return singleValue;
+      }
+    }
+    return values.isEmpty() ? null : values.iterator().next();
+  }
+
+  private static boolean isPrimary(final Object value) {
+    if (value instanceof MultiValuedAttribute) {
+      return Boolean.TRUE.equals(((MultiValuedAttribute) value).isPrimary());
+    }
+    if (value instanceof Map) {
+      return Boolean.TRUE.equals(((Map<?, ?>) value).get(PRIMARY_SUB_ATTRIBUTE));
+    }
+    return false;
+  }
+
+  /**
+   * @param type the type of the attribute, or null if it is not known upfront
+   * @return converter to the key a value is sorted by, values which can not be converted to the type of the attribute are converted to null
+   */
+  private static Function<Object, Object> keyConverter(final AttributeDataType type) {
+    if (type == null) {
+      return SortComparators::asDynamicKey;
+    }
+
+    switch (type) {
+      case DATE_TIME:
+        return ValueMatchers::asInstant;
+      case INTEGER:
+      case DECIMAL:
+        return ValueMatchers::asDecimal;
+      case BOOLEAN:
+        return value -> value instanceof Boolean ? value : null;
+      default:
+        return ValueMatchers::asString;
+    }
+  }
+
+  /**
+   * @return comparator of non-null keys returned by {@link #keyConverter(AttributeDataType)}
+   */
+  private static Comparator<Object> keyComparator(final AttributeDataType type, final boolean caseExact) {
+    if (type == null) {
+      return SortComparators::compareDynamicKeys;
+    }
+
+    switch (type) {
+      case DATE_TIME:
+        return (first, second) -> ((Instant) first).compareTo((Instant) second);
+      case INTEGER:
+      case DECIMAL:
+        return (first, second) -> ((BigDecimal) first).compareTo((BigDecimal) second);
+      case BOOLEAN:
+        return (first, second) -> ((Boolean) first).compareTo((Boolean) second);
+      default:
+        Comparator<String> strings = caseExact ? Comparator.naturalOrder() : String.CASE_INSENSITIVE_ORDER;
+        return (first, second) -> strings.compare((String) first, (String) second);
+    }
+  }
+
+  private static <K> Comparator<Object> nullsLastBy(final Function<Object, K> keyReader, final Comparator<K> keyComparator) {
+    return Comparator.comparing(keyReader, Comparator.nullsLast(keyComparator));
+  }
+
+  /**
+   * Numbers of extensions without a known schema are compared numerically, any other values as case insensitive strings.
+   */
+  private static Object asDynamicKey(final Object value) {
+    return value instanceof Number ? ValueMatchers.asDecimal(value) : ValueMatchers.asString(value);
+  }
+
+  private static int compareDynamicKeys(final Object first, final Object second) {
+    if (first instanceof BigDecimal && second instanceof BigDecimal) {
+      return ((BigDecimal) first).compareTo((BigDecimal) second);
+    }
+    if (first instanceof BigDecimal || second instanceof BigDecimal) {
+      return first instanceof BigDecimal ? -1 : 1;
+    }
+    return String.CASE_INSENSITIVE_ORDER.compare((String) first, (String) second);
+  }
+
+  /**
+   * The sorted attribute, resolved to a single-valued attribute, and the reader of its value. The read value is a {@link String}, a
+   * {@link BigDecimal}, a {@link Boolean} or an {@link Instant} as defined by the schema of the attribute, or null if the resource has no
+   * value or the value does not match the schema.
+   */
+  private static final class SortAttribute {
+    private final AttributeModel attribute;
+    private final Function<Object, Object> valueReader;
+
+    private SortAttribute(final SortInfo sortInfo, final ResourceModel resourceModel) {
+      AttributeModel resolvedAttribute;
+      Function<Object, Object> reader;
+      try {
+        resolvedAttribute = resourceModel.getAttribute(sortInfo.getSchemaId(), sortInfo.getAttributeName());
+        reader = resolvedAttribute.getReader();
+        if (sortInfo.getSubAttributeName() != null) {
+          resolvedAttribute = resolvedAttribute.getSubAttribute(sortInfo.getSubAttributeName());
+          reader = subAttributeReader(reader, resolvedAttribute);
+        } else if (resolvedAttribute.isComplex()) {
+          resolvedAttribute = resolvedAttribute.getDefaultSubAttribute();
+          reader = subAttributeReader(reader, resolvedAttribute);
+        }
+      } catch (InvalidFilterException e) {
+        throw new InvalidInputException(String.format("Sorting by attribute '%s' is not supported", sortInfo.getAttributePath()));
+      }
+
+      this.attribute = resolvedAttribute;
+      this.valueReader = reader.andThen(SortComparators::selectValue).andThen(keyConverter(resolvedAttribute.getType()));
+    }
+  }
+}
@@ -0,0 +1,270 @@
+package com.sap.scimono.filter.predicate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.sap.scimono.entity.Manager;
+import com.sap.scimono.entity.Name;
+import com.sap.scimono.entity.base.MultiValuedAttributeType;
+import com.sap.scimono.entity.schema.AttributeDataType;
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.filter.expression.ComparisonOperator;
+
+/**
+ * Predicates testing single attribute values. All comparisons are prepared when the filter is compiled, so that testing a value does not
+ * allocate.
+ */
+final class ValueMatchers {
+  private static final Predicate<Object> PRESENT = ValueMatchers::isPresent;
+
+  private ValueMatchers() {
+  }
+
+  /**
+   * @return predicate which is true if any of the values read from the owner matches; null values and multi-valued attributes without
+   *         values never match
+   */
+  static Predicate<Object> anyValue(final Function<Object, Object> reader, final Predicate<Object> matcher) {
+    return owner -> {
+      Object value = reader.apply(owner);
+      if (value instanceof List && value instanceof RandomAccess) {
+        List<?> values = (List<?>) value;
+        for (int i = 0; i < values.size(); i++) {
+          Object element = values.get(i);
+          if (element != null && matcher.test(element)) {
+            return true;
+          }
+        }
+        return false;
+      }
+      if (value instanceof Collection) {
+        for (Object element : (Collection<?>) value) {
+          if (element != null && matcher.test(element)) {
+            return true;
+          }
+        }
+        return false;
+      }
+      return value != null && matcher.test(value);
+    };
+  }
+
+  static Predicate<Object> present() {
+    return PRESENT;
+  }
+
+  /**
+   * @param operator any comparison operator except {@link ComparisonOperator#NE}, which is evaluated as negated {@link ComparisonOperator#EQ}
+   * @param literal the value from the filter
+   * @param attribute the compared attribute
+   */
+  static Predicate<Object> comparison(final ComparisonOperator operator, final Object literal, final AttributeModel attribute) {
+    if (literal instanceof Boolean) {
+      return booleanComparison(operator, (Boolean) literal, attribute);
+    }
+    if (literal instanceof BigDecimal) {
+      return numberComparison(operator, (BigDecimal) literal, attribute);
+    }
+    if (attribute.getType() == AttributeDataType.DATE_TIME && isOrdering(operator)) {
+      return dateTimeComparison(operator, (String) literal);
+    }
+    return stringComparison(operator, (String) literal, attribute.isCaseExact());
+  }
+
+  private static Predicate<Object> stringComparison(final ComparisonOperator operator, final String literal, final boolean caseExact) {
+    boolean ignoreCase = !caseExact;
+    int length = literal.length();
+
+    switch (operator) {
+      case EQ:
+        return value -> {
+          String string = asString(value);
+          return string != null && string.length() == length && string.regionMatches(ignoreCase, 0, literal, 0, length);
+        };
+      case CO:
+        return value -> {
+          String string = asString(value);
+          if (string == null) {
+            return false;
+          }
+          for (int i = 0; i <= string.length() - length; i++) {
+            if (string.regionMatches(ignoreCase, i, literal, 0, length)) {
+              return true;
+            }
+          }
+          return false;
+        };
+      case SW:
+        return value -> {
+          String string = asString(value);
+          return string != null && string.regionMatches(ignoreCase, 0, literal, 0, length);
+        };
+      case EW:
+        return value -> {
+          String string = asString(value);
+          return string != null && string.regionMatches(ignoreCase, string.length() - length, literal, 0, length);
+        };
+      default:
+        Comparator<String> order = caseExact ? Comparator.naturalOrder() : String.CASE_INSENSITIVE_ORDER;
+        return value -> {
+          String string = asString(value);
+          return string != null && matchesOrder(operator, order.compare(string, literal));
+        };
+    }
+  }
+
+  private static Predicate<Object> dateTimeComparison(final ComparisonOperator operator, final String literal) {
+    Instant instant;
+    try {
+      instant = Instant.parse(literal);
+    } catch (DateTimeParseException e) {
+      throw new InvalidFilterException(String.format("Invalid dateTime value '%s'", literal));
+    }
+
+    return value -> {
+      Instant dateTime = asInstant(value);
+      return dateTime != null && matchesOrder(operator, dateTime.compareTo(instant));
+    };
+  }
+
+  private static Predicate<Object> booleanComparison(final ComparisonOperator operator, final Boolean literal,
+      final AttributeModel attribute) {
+    if (operator != ComparisonOperator.EQ) {
+      throw unsupportedOperator(operator, attribute);
+    }
+
+    String literalText = literal.toString();
+    return value -> value instanceof Boolean ? literal.equals(value) : literalText.equalsIgnoreCase(asString(value));
+  }
+
+  private static Predicate<Object> numberComparison(final ComparisonOperator operator, final BigDecimal literal,
+      final AttributeModel attribute) {
+    if (!isOrdering(operator)) {
+      throw unsupportedOperator(operator, attribute);
+    }
+
+    Long integralLiteral = toLongExact(literal);
+    return value -> {
+      if (integralLiteral != null && (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)) {
+        return matchesOrder(operator, Long.compare(((Number) value).longValue(), integralLiteral));
+      }
+      BigDecimal number = asDecimal(value);
+      return number != null && matchesOrder(operator, number.compareTo(literal));
+    };
+  }
+
+  private static boolean isOrdering(final ComparisonOperator operator) {
+    switch (operator) {
+      case EQ:
+      case GT:
+      case GE:
+      case LT:
+      case LE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean matchesOrder(final ComparisonOperator operator, final int comparison) {
+    switch (operator) {
+      case EQ:
+        return comparison == 0;
+      case GT:
+        return comparison > 0;
+      case GE:
+        return comparison >= 0;
+      case LT:
+        return comparison < 0;
+      case LE:
+        return comparison <= 0;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isPresent(final Object value) {
+    if (value instanceof String) {
+      return !((String) value).isEmpty();
+    }
+    if (value instanceof Map) {
+      return !((Map<?, ?>) value).isEmpty();
+    }
+    if (value instanceof Name) {
+      return !((Name) value).isEmpty();
+    }
+    if (value instanceof Manager) {
+      return !((Manager) value).isEmpty();
+    }
+    return true;
+  }
+
+  static String asString(final Object value) {
+    if (value instanceof String) {
+      return (String) value;
+    }
+    if (value instanceof MultiValuedAttributeType) {
+      return ((MultiValuedAttributeType) value).getValue();
+    }
+    return value == null ? null : value.toString();
+  }
+
+  static Instant asInstant(final Object value) {
+    if (value instanceof Instant) {
+      return (Instant) value;
+    }
+    if (value instanceof String) {
+      try {
+        return Instant.parse((String) value);
+      } catch (DateTimeParseException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  static BigDecimal asDecimal(final Object value) {
+    if (value instanceof BigDecimal) {
+      return (BigDecimal) value;
+    }
+    if (value instanceof BigInteger) {
+      return new BigDecimal((BigInteger) value);
+    }
+    if (value instanceof Double || value instanceof Float) {
+      return BigDecimal.valueOf(((Number) value).doubleValue());
+    }
+    if (value instanceof Number) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    }
+    if (value instanceof String) {
+      try {
+        return new BigDecimal((String) value);
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private static Long toLongExact(final BigDecimal literal) {
+    try {
+      return literal.longValueExact();
+    } catch (ArithmeticException e) {
+      return null;
+    }
+  }
+
+  private static InvalidFilterException unsupportedOperator(final ComparisonOperator operator, final AttributeModel attribute) {
+    return new InvalidFilterException(String.format("Operator '%s' is not supported for the value compared to attribute '%s'", operator,
+        attribute.getName()));
+  }
+}
@@ -22,6 +22,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -46,6 +47,13 @@ public class ResourceLocationService {
     return rootUriBuilder().path(endpoint).build();
   }
 
+  /**
+   * @return the locations of the users and groups, which are added to the response while it is written
+   */
+  public ResourceLocations getResourceLocations() {
+    return new ResourceLocations(rootUriBuilder().build());
+  }
+
   public <T> T addLocation(final Resource<T> resource, final URI resourceLocation) {
     return addMetaLocation(resource, resourceLocation.toString());
   }
@@ -102,7 +110,7 @@ public class ResourceLocationService {
                 .build()
                 .toString()
             ).build();})
-        .collect(Collectors.toSet());
+        .collect(Collectors.toCollection(LinkedHashSet::new));
     // @formatter:on
 
     return new Group.Builder(group).setMembers(memberRefsWithLocation).build();
@@ -142,7 +150,7 @@ public class ResourceLocationService {
 
     // @formatter:off
     Manager managerWithLocation = new Manager.Builder(manager)
-        .setReference(rootUriBuilder().path(API.USERS).path(encodePath(manager.getValue())).toString()).build();
+        .setReference(rootUriBuilder().path(API.USERS).path(encodePath(manager.getValue())).build().toString()).build();
     // @formatter:on
 
     userBuilder.removeExtension(EnterpriseExtension.ENTERPRISE_URN);
@@ -0,0 +1,67 @@
+package com.sap.scimono.helper;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import com.sap.scimono.api.API;
+import com.sap.scimono.exception.InternalScimonoException;
+
+/**
+ * Locations of the users and groups of one request, derived from precomputed URI prefixes. While the response of a request is written,
+ * the locations are bound to the writing thread, so that the location of a resource and the {@code $ref} values of its references are
+ * added during the serialization instead of copying the resources upfront.
+ */
+public final class ResourceLocations {
+  private static final ThreadLocal<ResourceLocations> threadLocal = new ThreadLocal<>();
+
+  private final String rootPrefix;
+  private final String usersPrefix;
+  private final String groupsPrefix;
+
+  ResourceLocations(final URI root) {
+    String rootLocation = root.toString();
+    this.rootPrefix = rootLocation.endsWith("/") ? rootLocation : rootLocation + "/";
+    this.usersPrefix = rootPrefix + API.USERS + "/";
+    this.groupsPrefix = rootPrefix + API.GROUPS + "/";
+  }
+
+  public static void bind(final ResourceLocations locations) {
+    threadLocal.set(locations);
+  }
+
+  public static void remove() {
+    threadLocal.remove();
+  }
+
+  /**
+   * @return the locations bound to the current thread, null if the locations are not added during the serialization
+   */
+  public static ResourceLocations current() {
+    return threadLocal.get();
+  }
+
+  public String getUserLocation(final String userId) {
+    return usersPrefix + encodePath(userId);
+  }
+
+  public String getGroupLocation(final String groupId) {
+    return groupsPrefix + encodePath(groupId);
+  }
+
+  /**
+   * @return the location of a resource directly below the API root
+   */
+  public String getRootLocation(final String path) {
+    return rootPrefix + encodePath(path);
+  }
+
+  private static String encodePath(final String path) {
+    try {
+      return URLEncoder.encode(path, StandardCharsets.UTF_8.name());
+    } catch (UnsupportedEncodingException e) {
+      throw new InternalScimonoException("Unrecognized encoding", e);
+    }
+  }
+}
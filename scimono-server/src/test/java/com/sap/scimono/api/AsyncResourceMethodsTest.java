@@ -0,0 +1,268 @@
+package com.sap.scimono.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.api.request.RequestedResourceAttributes;
+import com.sap.scimono.callback.groups.DefaultGroupsCallback;
+import com.sap.scimono.callback.groups.GroupsCallback;
+import com.sap.scimono.callback.users.AsyncUsersCallback;
+import com.sap.scimono.callback.users.DefaultUsersCallback;
+import com.sap.scimono.callback.users.UsersCallback;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.exception.ResourceNotFoundException;
+import com.sap.scimono.filter.QueryFilter;
+
+class AsyncResourceMethodsTest {
+  private final List<String> deletedIds = new ArrayList<>();
+
+  private final UsersCallback usersCallback = new DefaultUsersCallback() {
+    @Override
+    public User getUser(final String userId) {
+      return null;
+    }
+
+    @Override
+    public PagedResult<User> getUsers(final PageInfo pageInfo, final String filter) {
+      List<User> users = new ArrayList<>();
+      for (int i = 0; i < Math.min(pageInfo.getEntityCount(), 3); i++) {
+        users.add(new User.Builder("user" + i).setId(String.valueOf(i)).build());
+      }
+      return PagedResult.withUnknownTotal(users);
+    }
+
+    @Override
+    public void deleteUser(final String userId) {
+      deletedIds.add(userId);
+    }
+  };
+
+  private final GroupsCallback groupsCallback = new DefaultGroupsCallback() {
+    @Override
+    public Group getGroup(final String groupId) {
+      return null;
+    }
+
+    @Override
+    public PagedResult<Group> getGroups(final PageInfo pageInfo, final String filter) {
+      return new PagedResult<>(7, Collections.emptyList());
+    }
+
+    @Override
+    public void deleteGroup(final String groupId) {
+      deletedIds.add(groupId);
+    }
+  };
+
+  private final DeferredUsersCallback asyncUsersCallback = new DeferredUsersCallback(AsyncUsersCallback.of(usersCallback));
+
+  private final SCIMApplication application = new SCIMApplication() {
+    @Override
+    public UsersCallback getUsersCallback() {
+      return usersCallback;
+    }
+
+    @Override
+    public AsyncUsersCallback getAsyncUsersCallback() {
+      return asyncUsersCallback;
+    }
+
+    @Override
+    public GroupsCallback getGroupsCallback() {
+      return groupsCallback;
+    }
+  };
+
+  @Test
+  void testRequestIsResumedOnceTheAsyncCallbackCompletes() {
+    SuspendedResponse response = new SuspendedResponse();
+    new AsyncUsers(application, null).deleteUser("1", response.asyncResponse());
+
+    assertFalse(response.isResumed());
+    assertTrue(deletedIds.isEmpty());
+
+    CompletableFuture.runAsync(asyncUsersCallback::release).join();
+
+    assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.get().getStatus());
+    assertEquals(Collections.singletonList("1"), deletedIds);
+  }
+
+  @Test
+  void testRequestIsResumedWithTheExceptionOfTheResponseBuilder() {
+    SuspendedResponse response = new SuspendedResponse();
+    new AsyncUsers(application, null).getUser("1", null, null, null, response.asyncResponse());
+    asyncUsersCallback.release();
+
+    assertThrows(ResourceNotFoundException.class, response::get);
+  }
+
+  @Test
+  void testSynchronousCallbackResumesTheRequestBeforeTheResourceMethodReturns() {
+    SuspendedResponse deleted = new SuspendedResponse();
+    new AsyncGroups(application, null).deleteGroup("1", deleted.asyncResponse());
+    SuspendedResponse notFound = new SuspendedResponse();
+    new AsyncGroups(application, null).getGroup("2", null, null, null, notFound.asyncResponse());
+
+    assertEquals(Response.Status.NO_CONTENT.getStatusCode(), deleted.get().getStatus());
+    assertEquals(Collections.singletonList("1"), deletedIds);
+    assertThrows(ResourceNotFoundException.class, notFound::get);
+  }
+
+  @Test
+  void testCountOnlyRequestThroughSynchronousCallback() throws IOException {
+    SuspendedResponse response = new SuspendedResponse();
+    new AsyncGroups(application, null).getGroups("1", "0", null, null, null, null, null, null, null, response.asyncResponse());
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((StreamingOutput) response.get().getEntity()).write(output);
+    assertEquals(7, new ObjectMapper().readTree(output.toByteArray()).get("totalResults").asInt());
+  }
+
+  @Test
+  void testCountOnlyRequestWithUnknownTotalCountsTheUsers() throws IOException {
+    SuspendedResponse response = new SuspendedResponse();
+    new AsyncUsers(application, null).getUsers("1", "0", null, null, null, null, null, null, null, response.asyncResponse());
+    asyncUsersCallback.release();
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((StreamingOutput) response.get().getEntity()).write(output);
+    assertEquals(3, new ObjectMapper().readTree(output.toByteArray()).get("totalResults").asInt());
+  }
+
+  @Test
+  void testServletRequestIsBoundToTheResumingThreadOnly() {
+    HttpServletRequest servletRequest = (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+        new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> null);
+    SuspendedResponse response = new SuspendedResponse();
+
+    ContextResolver.bind(servletRequest);
+    try {
+      new AsyncUsers(application, null).deleteUser("1", response.asyncResponse());
+      assertNull(ContextResolver.resolve(request -> request));
+    } finally {
+      ContextResolver.remove();
+    }
+
+    HttpServletRequest requestAfterResume = CompletableFuture.supplyAsync(() -> {
+      asyncUsersCallback.release();
+      return ContextResolver.resolve(request -> request);
+    }).join();
+
+    assertSame(servletRequest, response.getRequestOnResume());
+    assertNull(requestAfterResume);
+  }
+
+  @Test
+  void testResultIsClosedWhenTheResponseBuilderFails() {
+    AtomicBoolean closed = new AtomicBoolean();
+    StreamedResult<User> users = new StreamedResult<>(1, Stream.<User> empty().onClose(() -> closed.set(true)));
+
+    CompletionStage<Response> response = AsyncResponses.respond(CompletableFuture.completedFuture(users), result -> {
+      throw new IllegalStateException();
+    });
+
+    assertThrows(IllegalStateException.class, () -> AsyncResponses.join(response));
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void testSuspendedResourcesAreRegisteredForAsyncCallbacksOnly() {
+    Set<Class<?>> resources = application.getClasses();
+    assertTrue(resources.contains(AsyncUsers.class));
+    assertFalse(resources.contains(Users.class));
+    assertTrue(resources.contains(Groups.class));
+    assertFalse(resources.contains(AsyncGroups.class));
+
+    Set<Class<?>> synchronousResources = new SCIMApplication() {
+    }.getClasses();
+    assertTrue(synchronousResources.contains(Users.class));
+    assertFalse(synchronousResources.contains(AsyncUsers.class));
+  }
+
+  /**
+   * Completes the stages of the delegate only after {@link #release()} is called.
+   */
+  private static class DeferredUsersCallback implements AsyncUsersCallback {
+    private final AsyncUsersCallback usersCallback;
+    private final CompletableFuture<Void> released = new CompletableFuture<>();
+
+    DeferredUsersCallback(final AsyncUsersCallback usersCallback) {
+      this.usersCallback = usersCallback;
+    }
+
+    void release() {
+      released.complete(null);
+    }
+
+    @Override
+    public CompletionStage<User> getUserByUsername(final String userName) {
+      return deferred(() -> usersCallback.getUserByUsername(userName));
+    }
+
+    @Override
+    public CompletionStage<User> getUser(final String userId) {
+      return deferred(() -> usersCallback.getUser(userId));
+    }
+
+    @Override
+    public CompletionStage<StreamedResult<User>> streamUsers(final PageInfo pageInfo, final QueryFilter filter,
+        final RequestedResourceAttributes additionalAttributes) {
+      return deferred(() -> usersCallback.streamUsers(pageInfo, filter, additionalAttributes));
+    }
+
+    @Override
+    public CompletionStage<User> createUser(final User user) {
+      return deferred(() -> usersCallback.createUser(user));
+    }
+
+    @Override
+    public CompletionStage<User> updateUser(final User user) {
+      return deferred(() -> usersCallback.updateUser(user));
+    }
+
+    @Override
+    public CompletionStage<Void> patchUser(final String userId, final PatchBody patchBody, final Meta userMeta) {
+      return deferred(() -> usersCallback.patchUser(userId, patchBody, userMeta));
+    }
+
+    @Override
+    public CompletionStage<Void> deleteUser(final String userId) {
+      return deferred(() -> usersCallback.deleteUser(userId));
+    }
+
+    private <T> CompletionStage<T> deferred(final Supplier<CompletionStage<T>> call) {
+      return released.thenCompose(nothing -> call.get());
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.sap.scimono.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
+import com.sap.scimono.callback.bulk.StreamingBulkRequestCallback;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+
+class BulkResponseStreamingOutputTest {
+  private static final ObjectMapper MAPPER = ObjectMapperRegistry.getDefault().getObjectMapper();
+  private static final UnaryOperator<ResponseOperation> ADD_LOCATION = operation -> operation.builder()
+      .withLocation("https://example.com/Users/" + operation.getResourceId()).build();
+
+  @Test
+  void testOutputMatchesBulkResponse() throws IOException {
+    List<RequestOperation> operations = Arrays.asList(deleteOperation("1"), deleteOperation("2"));
+    StreamingBulkRequestCallback bulkAPI = (bulkRequest, responseConsumer) -> IntStream.range(0, bulkRequest.getOperations().size())
+        .forEach(index -> responseConsumer.accept(bulkRequest.getOperations().get(index).successfulResponse().build(), index));
+
+    JsonNode streamed = write(new BulkResponseStreamingOutput(bulkAPI, BulkBody.forRequest(operations), ADD_LOCATION,
+        ObjectMapperRegistry.getDefault().getStreamingWriter(), null));
+
+    List<ResponseOperation> expectedOperations = operations.stream()
+        .map(operation -> ADD_LOCATION.apply(operation.successfulResponse().build())).collect(Collectors.toList());
+    assertEquals(MAPPER.valueToTree(BulkBody.forResponse(expectedOperations)), streamed);
+  }
+
+  @Test
+  void testOutputWithoutOperations() throws IOException {
+    StreamingBulkRequestCallback bulkAPI = (bulkRequest, responseConsumer) -> {
+    };
+
+    JsonNode streamed = write(new BulkResponseStreamingOutput(bulkAPI, BulkBody.forRequest(Collections.emptyList()), ADD_LOCATION,
+        ObjectMapperRegistry.getDefault().getStreamingWriter(), null));
+
+    assertEquals(MAPPER.valueToTree(BulkBody.forResponse(Collections.emptyList())), streamed);
+  }
+
+  private static RequestOperation deleteOperation(String userId) {
+    return new RequestOperation.Builder().setMethod(RequestMethod.DELETE).setPath("/Users/" + userId).build();
+  }
+
+  private static JsonNode write(BulkResponseStreamingOutput output) throws IOException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    output.write(stream);
+    return MAPPER.readTree(stream.toByteArray());
+  }
+}
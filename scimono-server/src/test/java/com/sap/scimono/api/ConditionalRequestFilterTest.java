@@ -0,0 +1,140 @@
+package com.sap.scimono.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.sap.scimono.SCIMApplication;
+import com.sap.scimono.callback.config.DefaultSCIMConfigurationCallback;
+import com.sap.scimono.callback.config.SCIMConfigurationCallback;
+import com.sap.scimono.callback.users.UsersCallback;
+import com.sap.scimono.exception.SCIMException;
+
+public class ConditionalRequestFilterTest {
+  private static final String USER_ID = "user-1";
+
+  private final UsersCallback usersCallback = Mockito.mock(UsersCallback.class);
+  private final ConditionalRequestFilter filter = new ConditionalRequestFilter();
+  private boolean eTagSupported = true;
+
+  @BeforeEach
+  public void setup() {
+    filter.application = new SCIMApplication() {
+
+      @Override
+      public UsersCallback getUsersCallback() {
+        return usersCallback;
+      }
+
+      @Override
+      public SCIMConfigurationCallback getConfigurationCallback() {
+        return new DefaultSCIMConfigurationCallback() {
+
+          @Override
+          public boolean getETagSupportedSetting() {
+            return eTagSupported;
+          }
+        };
+      }
+    };
+
+    MultivaluedHashMap<String, String> pathParameters = new MultivaluedHashMap<>();
+    pathParameters.putSingle("id", USER_ID);
+    filter.uriInfo = Mockito.mock(UriInfo.class);
+    Mockito.doReturn(pathParameters).when(filter.uriInfo).getPathParameters();
+    filter.resourceInfo = Mockito.mock(ResourceInfo.class);
+    Mockito.doReturn(Users.class).when(filter.resourceInfo).getResourceClass();
+    Mockito.doReturn(Optional.of("2")).when(usersCallback).getUserVersion(USER_ID);
+  }
+
+  @Test
+  public void testReadOfUnmodifiedResourceIsAborted() throws Exception {
+    ContainerRequestContext requestContext = request(HttpMethod.GET, HttpHeaders.IF_NONE_MATCH, "W/\"1\", \"2\"");
+
+    filter.filter(requestContext);
+
+    ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+    Mockito.verify(requestContext).abortWith(response.capture());
+    assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getValue().getStatus());
+    assertEquals("2", response.getValue().getEntityTag().getValue());
+    Mockito.verify(usersCallback, Mockito.never()).getUser(Mockito.any());
+  }
+
+  @Test
+  public void testReadOfModifiedResourceIsPassed() throws Exception {
+    ContainerRequestContext requestContext = request(HttpMethod.GET, HttpHeaders.IF_NONE_MATCH, "\"1\"");
+
+    filter.filter(requestContext);
+
+    Mockito.verify(requestContext, Mockito.never()).abortWith(Mockito.any());
+  }
+
+  @Test
+  public void testModificationOfModifiedResourceIsRejected() {
+    ContainerRequestContext requestContext = request(HttpMethod.PUT, HttpHeaders.IF_MATCH, "\"1\"");
+
+    SCIMException exception = assertThrows(SCIMException.class, () -> filter.filter(requestContext));
+    assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), exception.getResponse().getStatus());
+    assertEquals(SCIMException.Type.INVALID_VERSION.toJson(), exception.getScimType());
+  }
+
+  @Test
+  public void testModificationWithWeakEntityTagIsRejected() {
+    ContainerRequestContext requestContext = request(HttpMethod.PATCH, HttpHeaders.IF_MATCH, "W/\"2\"");
+
+    SCIMException exception = assertThrows(SCIMException.class, () -> filter.filter(requestContext));
+    assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), exception.getResponse().getStatus());
+  }
+
+  @Test
+  public void testConditionsAreIgnoredWithoutETagSupport() throws Exception {
+    eTagSupported = false;
+    ContainerRequestContext requestContext = request(HttpMethod.DELETE, HttpHeaders.IF_MATCH, "\"1\"");
+
+    filter.filter(requestContext);
+
+    Mockito.verify(usersCallback, Mockito.never()).getUserVersion(Mockito.any());
+  }
+
+  @Test
+  public void testEntityTagsAreMatched() {
+    assertTrue(ConditionalRequestFilter.matches("\"2\"", "2", true));
+    assertTrue(ConditionalRequestFilter.matches("W/\"2\"", "2", true));
+    assertTrue(ConditionalRequestFilter.matches("\"1\" ,W/\"2\"", "2", true));
+    assertTrue(ConditionalRequestFilter.matches("*", "2", true));
+    assertFalse(ConditionalRequestFilter.matches("\"1\"", "2", true));
+    assertFalse(ConditionalRequestFilter.matches("2", "2", true));
+    assertFalse(ConditionalRequestFilter.matches("\"2\" garbage", "2", true));
+  }
+
+  @Test
+  public void testEntityTagsAreMatchedStrongly() {
+    assertTrue(ConditionalRequestFilter.matches("\"2\"", "2", false));
+    assertTrue(ConditionalRequestFilter.matches("W/\"1\", \"2\"", "2", false));
+    assertTrue(ConditionalRequestFilter.matches("*", "2", false));
+    assertFalse(ConditionalRequestFilter.matches("W/\"2\"", "2", false));
+  }
+
+  private static ContainerRequestContext request(final String method, final String header, final String entityTags) {
+    ContainerRequestContext requestContext = Mockito.mock(ContainerRequestContext.class);
+    Mockito.doReturn(method).when(requestContext).getMethod();
+    Mockito.doReturn(entityTags).when(requestContext).getHeaderString(header);
+    return requestContext;
+  }
+}
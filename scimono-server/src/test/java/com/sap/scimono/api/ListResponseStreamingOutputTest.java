@@ -0,0 +1,147 @@
+package com.sap.scimono.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PagedByCursorSearchResult;
+import com.sap.scimono.entity.paging.PagedByIdentitySearchResult;
+import com.sap.scimono.entity.paging.PagedByIndexSearchResult;
+import com.sap.scimono.entity.paging.StreamedResult;
+import com.sap.scimono.entity.paging.TotalResultsAccuracy;
+
+class ListResponseStreamingOutputTest {
+  private static final Instant CREATED = Instant.parse("2020-01-01T00:00:00Z");
+  private static final ObjectMapper MAPPER = ObjectMapperRegistry.getDefault().getObjectMapper();
+  private static final UnaryOperator<User> ADD_LOCATION = user -> user.builder()
+      .setMeta(new Meta.Builder(CREATED, CREATED).setLocation("https://example.com/Users/" + user.getId()).build()).build();
+
+  @Test
+  void testPagedByIndexOutputMatchesListResponse() throws IOException {
+    List<User> users = users("1", "2", "3");
+
+    JsonNode streamed = write(ListResponseStreamingOutput.pagedByIndex(new StreamedResult<>(10, users.stream()), ADD_LOCATION,
+        ObjectMapperRegistry.getDefault().getStreamingWriter(), 10, 3, 1));
+
+    List<User> usersWithLocation = users.stream().map(ADD_LOCATION).collect(Collectors.toList());
+    JsonNode expected = MAPPER.valueToTree(new PagedByIndexSearchResult<>(usersWithLocation, 10, 3, 1));
+    assertEquals(expected, streamed);
+  }
+
+  @Test
+  void testPagedByIdentityOutputReturnsIdOfTheResourceAfterThePage() throws IOException {
+    JsonNode streamed = write(ListResponseStreamingOutput.pagedByIdentity(new StreamedResult<>(10, users("1", "2", "3").stream()), ADD_LOCATION,
+        ObjectMapperRegistry.getDefault().getStreamingWriter(), 10, 2, "initial"));
+
+    List<User> usersWithLocation = users("1", "2").stream().map(ADD_LOCATION).collect(Collectors.toList());
+    JsonNode expected = MAPPER.valueToTree(new PagedByIdentitySearchResult<>(usersWithLocation, 10, 2, "initial", "3"));
+    assertEquals(expected, streamed);
+  }
+
+  @Test
+  void testPagedByIdentityOutputOfLastPage() throws IOException {
+    JsonNode streamed = write(ListResponseStreamingOutput.pagedByIdentity(new StreamedResult<>(2, users("1", "2").stream()), ADD_LOCATION,
+        ObjectMapperRegistry.getDefault().getStreamingWriter(), 2, 2, "initial"));
+
+    assertEquals(PagedByIdentitySearchResult.PAGINATION_BY_ID_END_PARAM, streamed.get("nextId").asText());
+    assertEquals(2, streamed.get("Resources").size());
+  }
+
+  @Test
+  void testPagedByCursorOutputReturnsCursorAfterTheLastResourceOfAFullPage() throws IOException {
+    StreamedResult<User> users = new StreamedResult<>(10, users("1", "2", "3").stream());
+    JsonNode streamed = write(ListResponseStreamingOutput.pagedByCursor(users, ADD_LOCATION, ObjectMapperRegistry.getDefault().getStreamingWriter(),
+        10, 2, user -> "after-" + user.getId()));
+
+    List<User> usersWithLocation = users("1", "2").stream().map(ADD_LOCATION).collect(Collectors.toList());
+    JsonNode expected = MAPPER.valueToTree(new PagedByCursorSearchResult<>(usersWithLocation, 10, 2, "after-2"));
+    assertEquals(expected, streamed);
+    assertFalse(streamed.has("startIndex"));
+  }
+
+  @Test
+  void testPagedByCursorOutputOfLastPage() throws IOException {
+    JsonNode streamed = write(ListResponseStreamingOutput.pagedByCursor(new StreamedResult<>(3, users("3").stream()), ADD_LOCATION,
+        ObjectMapperRegistry.getDefault().getStreamingWriter(), 3, 2, user -> "after-" + user.getId()));
+
+    assertFalse(streamed.has("nextCursor"));
+    assertEquals(1, streamed.get("Resources").size());
+  }
+
+  @Test
+  void testUnknownTotalCountsTheListedResources() throws IOException {
+    JsonNode fullPage = write(ListResponseStreamingOutput.pagedByIndex(StreamedResult.withUnknownTotal(users("3", "4").stream()),
+        ADD_LOCATION, ObjectMapperRegistry.getDefault().getStreamingWriter(), 0, 2, 3)
+        .withTotalResultsAccuracy(TotalResultsAccuracy.UNKNOWN));
+    JsonNode lastPage = write(ListResponseStreamingOutput.pagedByIndex(StreamedResult.withUnknownTotal(users("5").stream()),
+        ADD_LOCATION, ObjectMapperRegistry.getDefault().getStreamingWriter(), 0, 2, 5)
+        .withTotalResultsAccuracy(TotalResultsAccuracy.UNKNOWN));
+
+    assertEquals(5, fullPage.get("totalResults").asInt());
+    assertEquals(2, fullPage.get("Resources").size());
+    assertEquals(5, lastPage.get("totalResults").asInt());
+  }
+
+  @Test
+  void testEstimatedTotalIsNotLowerThanTheListedResources() throws IOException {
+    JsonNode estimated = write(ListResponseStreamingOutput.pagedByIndex(StreamedResult.withEstimatedTotal(1000, users("1").stream()),
+        ADD_LOCATION, ObjectMapperRegistry.getDefault().getStreamingWriter(), 1000, 2, 1)
+        .withTotalResultsAccuracy(TotalResultsAccuracy.ESTIMATED));
+    JsonNode tooLow = write(ListResponseStreamingOutput.pagedByIdentity(StreamedResult.withEstimatedTotal(1, users("1", "2", "3").stream()),
+        ADD_LOCATION, ObjectMapperRegistry.getDefault().getStreamingWriter(), 1, 2, "initial")
+        .withTotalResultsAccuracy(TotalResultsAccuracy.ESTIMATED));
+
+    assertEquals(1000, estimated.get("totalResults").asInt());
+    assertEquals(3, tooLow.get("totalResults").asInt());
+    assertEquals("3", tooLow.get("nextId").asText());
+  }
+
+  @Test
+  void testEmptyPageOmitsResources() throws IOException {
+    JsonNode streamed = write(ListResponseStreamingOutput.pagedByIndex(new StreamedResult<>(0, Stream.empty()), ADD_LOCATION,
+        ObjectMapperRegistry.getDefault().getStreamingWriter(), 0, 100, 1));
+
+    JsonNode expected = MAPPER.valueToTree(new PagedByIndexSearchResult<User>(Collections.emptyList(), 0, 100, 1));
+    assertEquals(expected, streamed);
+    assertFalse(streamed.has("Resources"));
+  }
+
+  @Test
+  void testStreamIsClosedAfterWriting() throws IOException {
+    AtomicBoolean closed = new AtomicBoolean();
+    Stream<User> users = users("1").stream().onClose(() -> closed.set(true));
+
+    write(ListResponseStreamingOutput.pagedByIndex(new StreamedResult<>(1, users), ADD_LOCATION,
+        ObjectMapperRegistry.getDefault().getStreamingWriter(), 1, 100, 1));
+
+    assertTrue(closed.get());
+  }
+
+  private static JsonNode write(ListResponseStreamingOutput<User> output) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    output.write(outputStream);
+    return MAPPER.readTree(outputStream.toByteArray());
+  }
+
+  private static List<User> users(String... ids) {
+    return Arrays.stream(ids).map(id -> new User.Builder("user" + id).setId(id).build()).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,104 @@
+package com.sap.scimono.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.api.helper.CursorSettings;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PageCursor;
+import com.sap.scimono.exception.SCIMException;
+
+public class PageCursorCodecTest {
+  private static final Instant NOW = Instant.parse("2020-01-15T10:00:00.123Z");
+  private static final CursorSettings SETTINGS = new CursorSettings.Builder(key((byte) 1)).setTimeToLive(Duration.ofMinutes(5)).build();
+  private static final int SIGNATURE_LENGTH = 32;
+  private static final String QUERY = PageCursorCodec.describeQuery(User.RESOURCE_TYPE_USER, "userName sw \"a\"", null);
+
+  private final PageCursorCodec codec = new PageCursorCodec(SETTINGS, Clock.fixed(NOW, ZoneOffset.UTC));
+
+  @Test
+  public void testEmptyCursorStartsAtFirstPage() {
+    PageCursor cursor = codec.decode("", QUERY);
+
+    assertTrue(cursor.isInitial());
+    assertEquals(NOW, cursor.getSnapshot());
+  }
+
+  @Test
+  public void testCursorIsDecodedWithSortValue() {
+    PageCursor first = PageCursor.initial(NOW.minusSeconds(30));
+    List<Object> sortValues = Arrays.asList(null, "Jensen", new BigDecimal("-12.50"), true, Instant.parse("2019-05-01T08:30:00.5Z"));
+    for (Object sortValue : sortValues) {
+      PageCursor cursor = first.after("id-1", sortValue);
+
+      assertEquals(cursor, codec.decode(codec.encode(cursor, QUERY), QUERY));
+    }
+  }
+
+  @Test
+  public void testChangedCursorIsRejected() {
+    String token = codec.encode(PageCursor.initial(NOW).after("id-1", "Jensen"), QUERY);
+    char[] changed = token.toCharArray();
+    changed[4] = changed[4] == 'A' ? 'B' : 'A';
+
+    assertInvalid(new String(changed), QUERY);
+    assertInvalid(token.substring(0, token.length() - 2), QUERY);
+    assertInvalid("not a cursor!", QUERY);
+    assertInvalid(token, PageCursorCodec.describeQuery(User.RESOURCE_TYPE_USER, null, null));
+    assertThrows(SCIMException.class, () -> new PageCursorCodec(new CursorSettings.Builder(key((byte) 2)).build()).decode(token, QUERY));
+  }
+
+  @Test
+  public void testCursorExpires() {
+    String token = codec.encode(PageCursor.initial(NOW).after("id-1", null), QUERY);
+    PageCursorCodec later = new PageCursorCodec(SETTINGS, Clock.fixed(NOW.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+
+    SCIMException exception = assertThrows(SCIMException.class, () -> later.decode(token, QUERY));
+    assertEquals(SCIMException.Type.EXPIRED_CURSOR.toJson(), exception.getScimType());
+  }
+
+  @Test
+  public void testCursorWithTrailingBytesIsRejected() throws GeneralSecurityException {
+    byte[] token = Base64.getUrlDecoder().decode(codec.encode(PageCursor.initial(NOW).after("id-1", null), QUERY));
+    byte[] payload = Arrays.copyOf(token, token.length - SIGNATURE_LENGTH + 1);
+
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(SETTINGS.getSigningKey(), "HmacSHA256"));
+    mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(payload.length).array());
+    mac.update(payload);
+    byte[] signature = mac.doFinal(QUERY.getBytes(StandardCharsets.UTF_8));
+
+    byte[] changedToken = Arrays.copyOf(payload, payload.length + signature.length);
+    System.arraycopy(signature, 0, changedToken, payload.length, signature.length);
+    assertInvalid(Base64.getUrlEncoder().withoutPadding().encodeToString(changedToken), QUERY);
+  }
+
+  private void assertInvalid(final String token, final String query) {
+    SCIMException exception = assertThrows(SCIMException.class, () -> codec.decode(token, query));
+    assertEquals(SCIMException.Type.INVALID_CURSOR.toJson(), exception.getScimType());
+  }
+
+  private static byte[] key(final byte value) {
+    byte[] key = new byte[CursorSettings.MIN_SIGNING_KEY_LENGTH];
+    Arrays.fill(key, value);
+    return key;
+  }
+}
@@ -0,0 +1,66 @@
+package com.sap.scimono.api;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+
+/**
+ * Records the response or the exception a suspended request is resumed with.
+ */
+class SuspendedResponse {
+  private final AtomicReference<Object> resumedWith = new AtomicReference<>();
+  private final AtomicReference<HttpServletRequest> requestOnResume = new AtomicReference<>();
+  private final AsyncResponse asyncResponse = (AsyncResponse) Proxy.newProxyInstance(AsyncResponse.class.getClassLoader(),
+      new Class<?>[] { AsyncResponse.class }, (proxy, method, args) -> invoke(method, args));
+
+  AsyncResponse asyncResponse() {
+    return asyncResponse;
+  }
+
+  boolean isResumed() {
+    return resumedWith.get() != null;
+  }
+
+  /**
+   * @return the servlet request bound to the thread resuming the request
+   */
+  HttpServletRequest getRequestOnResume() {
+    return requestOnResume.get();
+  }
+
+  /**
+   * @return the response the request was resumed with
+   * @throws RuntimeException the exception the request was resumed with
+   */
+  Response get() {
+    Object result = resumedWith.get();
+    if (result == null) {
+      throw new AssertionError("The request was not resumed");
+    }
+    if (result instanceof RuntimeException) {
+      throw (RuntimeException) result;
+    }
+    if (result instanceof Throwable) {
+      throw new AssertionError("The request was resumed with an exception", (Throwable) result);
+    }
+    return (Response) result;
+  }
+
+  private Object invoke(final Method method, final Object[] args) {
+    switch (method.getName()) {
+      case "resume":
+        requestOnResume.compareAndSet(null, ContextResolver.resolve(request -> request));
+        return resumedWith.compareAndSet(null, args[0]);
+      case "isSuspended":
+        return !isResumed();
+      case "isDone":
+        return isResumed();
+      default:
+        throw new UnsupportedOperationException(method.getName());
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.sap.scimono.api.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ContentEncodingTest {
+
+  @Test
+  public void testNegotiation() {
+    assertEquals(Optional.of(ContentEncoding.GZIP), ContentEncoding.negotiate("gzip, deflate, br"));
+    assertEquals(Optional.of(ContentEncoding.DEFLATE), ContentEncoding.negotiate("gzip;q=0.5, DEFLATE"));
+    assertEquals(Optional.of(ContentEncoding.DEFLATE), ContentEncoding.negotiate("gzip;q=0, *;q=0.1"));
+    assertEquals(Optional.of(ContentEncoding.GZIP), ContentEncoding.negotiate("*"));
+    assertFalse(ContentEncoding.negotiate("identity, br").isPresent());
+    assertFalse(ContentEncoding.negotiate("gzip;q=0, deflate;q=0").isPresent());
+    assertFalse(ContentEncoding.negotiate(null).isPresent());
+  }
+
+  @Test
+  public void testContentEncodingIsParsed() {
+    assertEquals(Optional.of(ContentEncoding.GZIP), ContentEncoding.fromContentEncoding(" GZIP "));
+    assertFalse(ContentEncoding.fromContentEncoding("identity").isPresent());
+    assertThrows(IllegalArgumentException.class, () -> ContentEncoding.fromContentEncoding("br"));
+  }
+
+  @Test
+  public void testCompressedDataIsRestored() throws IOException {
+    byte[] data = repeat("{\"userName\":\"bjensen\"}", 100);
+    for (ContentEncoding encoding : ContentEncoding.values()) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      DeflaterOutputStream compressingOutput = encoding.compress(compressed, Deflater.BEST_SPEED);
+      compressingOutput.write(data);
+      compressingOutput.finish();
+
+      assertArrayEquals(data, readAll(encoding.decompress(new ByteArrayInputStream(compressed.toByteArray()))));
+    }
+  }
+
+  @Test
+  public void testSmallDataIsNotCompressed() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    boolean[] compressed = new boolean[1];
+    ThresholdCompressingOutputStream thresholdOutput = new ThresholdCompressingOutputStream(output, ContentEncoding.GZIP,
+        Deflater.DEFAULT_COMPRESSION, 1024, false, () -> compressed[0] = true);
+    byte[] data = repeat("a", 1023);
+    thresholdOutput.write(data);
+    thresholdOutput.flush();
+    assertEquals(0, output.size());
+    thresholdOutput.finish();
+
+    assertFalse(compressed[0]);
+    assertArrayEquals(data, output.toByteArray());
+  }
+
+  @Test
+  public void testLargeDataIsCompressed() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    boolean[] compressed = new boolean[1];
+    ThresholdCompressingOutputStream thresholdOutput = new ThresholdCompressingOutputStream(output, ContentEncoding.GZIP,
+        Deflater.DEFAULT_COMPRESSION, 1024, false, () -> compressed[0] = true);
+    byte[] data = repeat("a", 1024);
+    thresholdOutput.write(data, 0, 1000);
+    thresholdOutput.write(data, 1000, 24);
+    thresholdOutput.finish();
+
+    assertTrue(compressed[0]);
+    assertArrayEquals(data, readAll(ContentEncoding.GZIP.decompress(new ByteArrayInputStream(output.toByteArray()))));
+  }
+
+  @Test
+  public void testFlushOfProgressiveStreamStartsCompression() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    boolean[] compressed = new boolean[1];
+    ThresholdCompressingOutputStream thresholdOutput = new ThresholdCompressingOutputStream(output, ContentEncoding.GZIP,
+        Deflater.DEFAULT_COMPRESSION, 1024, true, () -> compressed[0] = true);
+    byte[] data = repeat("a", 100);
+    thresholdOutput.flush();
+    assertFalse(compressed[0]);
+
+    thresholdOutput.write(data);
+    thresholdOutput.flush();
+    assertTrue(compressed[0]);
+    assertTrue(output.size() > 0);
+    thresholdOutput.finish();
+
+    assertArrayEquals(data, readAll(ContentEncoding.GZIP.decompress(new ByteArrayInputStream(output.toByteArray()))));
+  }
+
+  @Test
+  public void testReleasedStreamWritesNothing() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ThresholdCompressingOutputStream thresholdOutput = new ThresholdCompressingOutputStream(output, ContentEncoding.DEFLATE,
+        Deflater.DEFAULT_COMPRESSION, 10, false, () -> {
+        });
+    thresholdOutput.write(repeat("a", 100));
+    int writtenSize = output.size();
+    thresholdOutput.release();
+    thresholdOutput.finish();
+
+    assertEquals(writtenSize, output.size());
+    assertThrows(IOException.class, () -> thresholdOutput.write(1));
+  }
+
+  private static byte[] repeat(final String value, final int times) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < times; i++) {
+      builder.append(value);
+    }
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] readAll(final InputStream input) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    byte[] buffer = new byte[512];
+    int readBytes;
+    while ((readBytes = input.read(buffer)) != -1) {
+      output.write(buffer, 0, readBytes);
+    }
+    return output.toByteArray();
+  }
+}
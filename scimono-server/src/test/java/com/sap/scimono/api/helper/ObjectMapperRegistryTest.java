@@ -0,0 +1,43 @@
+package com.sap.scimono.api.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.entity.User;
+
+class ObjectMapperRegistryTest {
+
+  @Test
+  void testRegistryIsSharedPerProfile() {
+    assertSame(ObjectMapperRegistry.forProfile(SerializationProfile.COMPACT), ObjectMapperRegistry.forProfile(SerializationProfile.COMPACT));
+    assertSame(ObjectMapperRegistry.getDefault(), ObjectMapperRegistry.forProfile(SerializationProfile.PRETTY));
+    assertSame(ObjectMapperRegistry.getDefault(), ObjectMapperRegistry.forProfile(null));
+  }
+
+  @Test
+  void testReadersAndWritersAreCached() {
+    ObjectMapperRegistry registry = ObjectMapperRegistry.getDefault();
+
+    assertSame(registry.readerFor(User.class), registry.readerFor(User.class));
+    assertSame(registry.writerFor(User.class), registry.writerFor(User.class));
+  }
+
+  @Test
+  void testCompactProfileDoesNotIndentOutput() throws IOException {
+    User user = new User.Builder("bjensen").build();
+
+    String compact = ObjectMapperRegistry.forProfile(SerializationProfile.COMPACT).writerFor(User.class).writeValueAsString(user);
+    String pretty = ObjectMapperRegistry.forProfile(SerializationProfile.PRETTY).writerFor(User.class).writeValueAsString(user);
+
+    assertFalse(compact.contains("\n"));
+    assertTrue(pretty.contains("\n"));
+    assertEquals(ObjectMapperRegistry.getDefault().getObjectMapper().readTree(pretty),
+        ObjectMapperRegistry.getDefault().getObjectMapper().readTree(compact));
+  }
+}
@@ -0,0 +1,103 @@
+package com.sap.scimono.api.request;
+
+import static com.sap.scimono.entity.EnterpriseExtension.ENTERPRISE_URN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
+import com.sap.scimono.entity.Email;
+import com.sap.scimono.entity.EnterpriseExtension;
+import com.sap.scimono.entity.Manager;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.Name;
+import com.sap.scimono.entity.User;
+
+public class AttributeProjectionTest {
+  private static final ObjectMapper MAPPER = ObjectMapperRegistry.getDefault().getObjectMapper();
+
+  // @formatter:off
+  private final User user = new User.Builder("bjensen")
+      .setId("user-1")
+      .setMeta(new Meta.Builder(Instant.EPOCH, Instant.EPOCH).setVersion("1").build())
+      .setName(new Name.Builder().setGivenName("Barbara").setFamilyName("Jensen").build())
+      .addEmail(new Email.Builder().setValue("bjensen@example.com").setType(Email.Type.WORK).build())
+      .addEmail(new Email.Builder().setValue("babs@example.com").setType(Email.Type.HOME).build())
+      .addExtension(new EnterpriseExtension.Builder().setCostCenter("4130")
+          .setManager(new Manager.Builder().setValue("manager-1").setDisplayName("John Smith").build()).build())
+      .build();
+  // @formatter:on
+
+  @Test
+  public void testOnlyRequestedAttributesAreWritten() {
+    JsonNode writtenUser = write(user, "userName", null);
+
+    List<String> fieldNames = new ArrayList<>();
+    writtenUser.fieldNames().forEachRemaining(fieldNames::add);
+    assertEquals(Arrays.asList("id", "schemas", "userName"), fieldNames);
+  }
+
+  @Test
+  public void testSubAttributesAndExtensionAttributesAreProjected() {
+    JsonNode writtenUser = write(user, "name.givenName,EMAILS.value," + ENTERPRISE_URN + ":manager.value", null);
+
+    assertEquals("Barbara", writtenUser.get("name").get("givenName").textValue());
+    assertFalse(writtenUser.get("name").has("familyName"));
+    assertEquals(2, writtenUser.get("emails").size());
+    assertEquals("babs@example.com", writtenUser.get("emails").get(1).get("value").textValue());
+    assertFalse(writtenUser.get("emails").get(1).has("type"));
+    assertEquals("manager-1", writtenUser.get(ENTERPRISE_URN).get("manager").get("value").textValue());
+    assertFalse(writtenUser.get(ENTERPRISE_URN).has("costCenter"));
+    assertFalse(writtenUser.has("meta"));
+  }
+
+  @Test
+  public void testExcludedAttributesAreNotWritten() {
+    JsonNode writtenUser = write(user, null, "emails,name.familyName,id," + ENTERPRISE_URN);
+
+    assertEquals("user-1", writtenUser.get("id").textValue());
+    assertEquals("bjensen", writtenUser.get("userName").textValue());
+    assertEquals("Barbara", writtenUser.get("name").get("givenName").textValue());
+    assertFalse(writtenUser.get("name").has("familyName"));
+    assertFalse(writtenUser.has("emails"));
+    assertFalse(writtenUser.has(ENTERPRISE_URN));
+    assertTrue(writtenUser.has("meta"));
+  }
+
+  @Test
+  public void testProjectionIsResolvedAgainstTheSchema() {
+    RequestedResourceAttributes requestedAttributes = RequestedResourceAttributesParser.parse(User.SCHEMA, "userName,password,name", null);
+    AttributeProjection projection = requestedAttributes.getProjection().get();
+
+    assertSame(requestedAttributes, RequestedResourceAttributesParser.parse(User.SCHEMA, "userName,password,name", null));
+    assertTrue(projection.isRestricted());
+    assertTrue(projection.isReturned("id"));
+    assertTrue(projection.isReturned(User.SCHEMA + ":NAME.givenName"));
+    assertFalse(projection.isReturned("password"));
+    assertFalse(projection.isReturned("emails"));
+    assertEquals(4, projection.getReturnedAttributes().size());
+    assertTrue(projection.getReturnedAttributes().contains(User.SCHEMA + ":userName"));
+    assertFalse(RequestedResourceAttributesParser.parse(User.SCHEMA, null, null).getProjection().get().isRestricted());
+  }
+
+  private static JsonNode write(final User user, final String attributes, final String excludedAttributes) {
+    AttributeProjections.bind(new AttributeProjections(attributes, excludedAttributes));
+    try {
+      return MAPPER.readTree(MAPPER.writeValueAsString(user));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    } finally {
+      AttributeProjections.remove();
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package com.sap.scimono.callback.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.MemberRef;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.exception.ResourceNotFoundException;
+
+public class BatchCallbackBulkOperationHandlerTest {
+  private final RecordingBatchCallback batchAPI = new RecordingBatchCallback();
+  private final ParallelBulkRequestCallback bulkCallback = new ParallelBulkRequestCallback.Builder(
+      new BatchCallbackBulkOperationHandler(batchAPI)).build();
+
+  @Test
+  public void testConsecutiveOperationsAreBatched() {
+    // @formatter:off
+    List<RequestOperation> operations = Arrays.asList(
+        userOperation("u1"),
+        userOperation("u2"),
+        userOperation("u3"),
+        groupOperation("g1", "bulkId:u1"),
+        deleteOperation("/Users/1"),
+        deleteOperation("/Users/2"));
+    // @formatter:on
+
+    List<ResponseOperation> responses = bulkCallback.handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertTrue(responses.stream().allMatch(ResponseOperation::isSuccessful));
+    assertEquals(Arrays.asList("id-u1", "id-u2", "id-u3"), responses.subList(0, 3).stream().map(ResponseOperation::getResourceId)
+        .collect(Collectors.toList()));
+    assertEquals(new HashSet<>(Arrays.asList("createUsers 3", "createGroups 1", "deleteUsers 2")), new HashSet<>(batchAPI.calls));
+    assertEquals(3, batchAPI.calls.size());
+    assertEquals("id-u1", batchAPI.createdGroups.get(0).getMembers().iterator().next().getValue());
+  }
+
+  @Test
+  public void testFailedItemsAreReportedPerOperation() {
+    List<RequestOperation> operations = Arrays.asList(deleteOperation("/Users/1"),
+        deleteOperation("/Users/" + RecordingBatchCallback.MISSING_ID), deleteOperation("/Users/3"));
+
+    List<ResponseOperation> responses = bulkCallback.handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertEquals(Collections.singletonList("deleteUsers 3"), batchAPI.calls);
+    assertTrue(responses.get(0).isSuccessful());
+    assertFalse(responses.get(1).isSuccessful());
+    assertEquals(String.valueOf(Response.Status.NOT_FOUND.getStatusCode()), responses.get(1).getStatus());
+    assertTrue(responses.get(2).isSuccessful());
+  }
+
+  private static RequestOperation userOperation(final String bulkId) {
+    User user = new User.Builder("user-" + bulkId).build();
+    return new RequestOperation.Builder().setMethod(RequestMethod.POST).setBulkId(bulkId).setPath("/Users").setData(user).build();
+  }
+
+  private static RequestOperation groupOperation(final String bulkId, final String member) {
+    Group group = new Group.Builder(bulkId).addMember(new MemberRef.Builder().setValue(member).build()).build();
+    return new RequestOperation.Builder().setMethod(RequestMethod.POST).setBulkId(bulkId).setPath("/Groups").setData(group).build();
+  }
+
+  private static RequestOperation deleteOperation(final String path) {
+    return new RequestOperation.Builder().setMethod(RequestMethod.DELETE).setPath(path).build();
+  }
+
+  private static class RecordingBatchCallback implements BulkBatchCallback {
+    private static final String MISSING_ID = "missing";
+
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private final List<Group> createdGroups = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public List<BatchResult<User>> createUsers(final List<User> users) {
+      calls.add("createUsers " + users.size());
+      return users.stream().map(user -> BatchResult.success(new User.Builder(user).setId("id-" + user.getUserName().substring(5)).build()))
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BatchResult<User>> updateUsers(final List<User> users) {
+      calls.add("updateUsers " + users.size());
+      return users.stream().map(BatchResult::success).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BatchResult<Void>> patchUsers(final Map<String, PatchBody> patches) {
+      calls.add("patchUsers " + patches.size());
+      return patches.keySet().stream().map(id -> BatchResult.<Void> success(null)).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BatchResult<Void>> deleteUsers(final Collection<String> userIds) {
+      calls.add("deleteUsers " + userIds.size());
+      return userIds.stream()
+          .map(id -> MISSING_ID.equals(id) ? BatchResult.<Void> failure(new ResourceNotFoundException(User.RESOURCE_TYPE_USER, id))
+              : BatchResult.<Void> success(null))
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BatchResult<Group>> createGroups(final List<Group> groups) {
+      calls.add("createGroups " + groups.size());
+      createdGroups.addAll(groups);
+      return groups.stream().map(group -> BatchResult.success(new Group.Builder(group).setId("id-" + group.getDisplayName()).build()))
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BatchResult<Group>> updateGroups(final List<Group> groups) {
+      calls.add("updateGroups " + groups.size());
+      return groups.stream().map(BatchResult::success).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BatchResult<Void>> patchGroups(final Map<String, PatchBody> patches) {
+      calls.add("patchGroups " + patches.size());
+      return patches.keySet().stream().map(id -> BatchResult.<Void> success(null)).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BatchResult<Void>> deleteGroups(final Collection<String> groupIds) {
+      calls.add("deleteGroups " + groupIds.size());
+      return groupIds.stream().map(id -> BatchResult.<Void> success(null)).collect(Collectors.toList());
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.sap.scimono.callback.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.BulkJob;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.exception.SCIMException;
+
+public class BulkJobServiceTest {
+  private static final String SUBMITTER = "bjensen";
+
+  private final BulkJobService jobService = new BulkJobService(new InMemoryBulkJobStore(), 1, 1);
+
+  @AfterEach
+  public void shutdown() {
+    jobService.shutdown();
+  }
+
+  @Test
+  public void testProgressIsVisibleWhileJobRuns() throws InterruptedException {
+    CountDownLatch firstOperationDone = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    StreamingBulkRequestCallback bulkAPI = (bulkRequest, responseConsumer) -> {
+      responseConsumer.accept(bulkRequest.getOperations().get(1).successfulResponse().build(), 1);
+      firstOperationDone.countDown();
+      await(release);
+      responseConsumer.accept(bulkRequest.getOperations().get(0).successfulResponse().build(), 0);
+    };
+
+    BulkJob submitted = jobService.submit(request(deleteOperation("1"), deleteOperation("2")), bulkAPI, SUBMITTER);
+    assertEquals(2, submitted.getTotalOperations());
+
+    await(firstOperationDone);
+    BulkJob running = jobService.getJob(submitted.getId(), SUBMITTER);
+    assertEquals(BulkJob.Status.RUNNING, running.getStatus());
+    assertEquals(1, running.getCompletedOperations());
+
+    release.countDown();
+    BulkJob completed = awaitFinished(submitted.getId());
+    assertEquals(BulkJob.Status.COMPLETED, completed.getStatus());
+    assertEquals(Arrays.asList("1", "2"), completed.getResponse().getOperations().stream().map(ResponseOperation::getResourceId)
+        .collect(Collectors.toList()));
+    assertNull(completed.getError());
+  }
+
+  @Test
+  public void testFailedJob() throws InterruptedException {
+    BulkRequestCallback bulkAPI = bulkRequest -> {
+      throw new IllegalStateException("failure");
+    };
+
+    BulkJob submitted = jobService.submit(request(deleteOperation("1")), bulkAPI, SUBMITTER);
+
+    BulkJob failed = awaitFinished(submitted.getId());
+    assertEquals(BulkJob.Status.FAILED, failed.getStatus());
+    assertNotNull(failed.getError());
+    assertTrue(failed.getResponse().getOperations().isEmpty());
+  }
+
+  @Test
+  public void testJobsAreRejectedWhenQueueIsFull() {
+    CountDownLatch release = new CountDownLatch(1);
+    BulkRequestCallback blockingAPI = bulkRequest -> {
+      await(release);
+      return BulkBody.forResponse(Collections.emptyList());
+    };
+
+    try {
+      jobService.submit(request(deleteOperation("1")), blockingAPI, SUBMITTER);
+      jobService.submit(request(deleteOperation("2")), blockingAPI, SUBMITTER);
+      SCIMException exception = assertThrows(SCIMException.class,
+          () -> jobService.submit(request(deleteOperation("3")), blockingAPI, SUBMITTER));
+      assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), exception.getResponse().getStatus());
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testUnknownJob() {
+    assertNull(jobService.getJob("unknown", SUBMITTER));
+  }
+
+  @Test
+  public void testJobIsOnlyVisibleToSubmitter() throws InterruptedException {
+    BulkRequestCallback bulkAPI = bulkRequest -> BulkBody.forResponse(Collections.emptyList());
+
+    BulkJob submitted = jobService.submit(request(deleteOperation("1")), bulkAPI, SUBMITTER);
+
+    assertNotNull(awaitFinished(submitted.getId()));
+    assertNull(jobService.getJob(submitted.getId(), "jsmith"));
+    assertNull(jobService.getJob(submitted.getId(), null));
+  }
+
+  private BulkJob awaitFinished(final String jobId) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    BulkJob job = jobService.getJob(jobId, SUBMITTER);
+    while (!job.isFinished() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      job = jobService.getJob(jobId, SUBMITTER);
+    }
+    return job;
+  }
+
+  private static void await(final CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static BulkBody<RequestOperation> request(final RequestOperation... operations) {
+    List<RequestOperation> requestOperations = Arrays.asList(operations);
+    return BulkBody.forRequest(requestOperations);
+  }
+
+  private static RequestOperation deleteOperation(final String userId) {
+    return new RequestOperation.Builder().setMethod(RequestMethod.DELETE).setPath("/Users/" + userId).build();
+  }
+}
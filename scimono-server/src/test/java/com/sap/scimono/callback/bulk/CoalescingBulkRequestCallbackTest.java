@@ -0,0 +1,174 @@
+package com.sap.scimono.callback.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.callback.groups.DefaultGroupsCallback;
+import com.sap.scimono.callback.resourcetype.DefaultResourceTypesCallback;
+import com.sap.scimono.callback.schemas.DefaultSchemasCallback;
+import com.sap.scimono.callback.users.DefaultUsersCallback;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.patch.PatchOperation;
+import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.entity.validation.patch.PatchValidationFramework;
+import com.sap.scimono.exception.ResourceNotFoundException;
+
+public class CoalescingBulkRequestCallbackTest {
+  private static final PatchValidationFramework USER_PATCH_VALIDATOR = PatchValidationFramework.usersFramework(
+      new CoreSchemasCallback(), new DefaultResourceTypesCallback(), new DefaultUsersCallback());
+  private static final PatchValidationFramework GROUP_PATCH_VALIDATOR = PatchValidationFramework.groupsFramework(
+      new CoreSchemasCallback(), new DefaultResourceTypesCallback(), new DefaultGroupsCallback());
+
+  private final List<RequestOperation> executedOperations = new ArrayList<>();
+
+  @Test
+  public void testConsecutivePatchOperationsAreMerged() {
+    // @formatter:off
+    List<RequestOperation> operations = Arrays.asList(
+        patchOperation("p1", "/Groups/1", "members[value eq \"a\"]"),
+        patchOperation("p2", "/Groups/1", "members[value eq \"b\"]"),
+        patchOperation("p3", "/Groups/1", "members[value eq \"c\"]"),
+        patchOperation("p4", "/Groups/2", "members[value eq \"a\"]"),
+        patchOperation("p5", "/Groups/1", "members[value eq \"d\"]"));
+    // @formatter:on
+
+    List<ResponseOperation> responses = coalescingCallback(null).handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertEquals(3, executedOperations.size());
+    assertEquals(3, executedOperations.get(0).getDataAsPatch().getOperations().size());
+    assertEquals(Arrays.asList("members[value eq \"a\"]", "members[value eq \"b\"]", "members[value eq \"c\"]"),
+        executedOperations.get(0).getDataAsPatch().getOperations().stream().map(PatchOperation::getPath).collect(Collectors.toList()));
+    assertEquals(1, executedOperations.get(2).getDataAsPatch().getOperations().size());
+    assertEquals(Arrays.asList("p1", "p2", "p3", "p4", "p5"), bulkIds(responses));
+    assertTrue(responses.stream().allMatch(ResponseOperation::isSuccessful));
+    assertTrue(responses.stream().limit(3).allMatch(response -> "1".equals(response.getResourceId())));
+  }
+
+  @Test
+  public void testOperationsSupersededByDeleteAreDropped() {
+    // @formatter:off
+    List<RequestOperation> operations = Arrays.asList(
+        patchOperation("p1", "/Users/1", "name.givenName"),
+        patchOperation("p2", "/Users/2", "name.givenName"),
+        patchOperation("p3", "/Users/1", "name.familyName"),
+        deleteOperation("d1", "/Users/1"),
+        patchOperation("p4", "/Users/3", "name.givenName"),
+        deleteOperation("d3", "/Users/3"));
+    // @formatter:on
+
+    List<ResponseOperation> responses = coalescingCallback("3").handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertEquals(Arrays.asList("PATCH /Users/2", "DELETE /Users/1", "DELETE /Users/3"),
+        executedOperations.stream().map(operation -> operation.getMethod() + " " + operation.getPath()).collect(Collectors.toList()));
+    assertEquals(6, responses.size());
+    assertEquals(Arrays.asList("p1", "p2", "p3", "d1", "p4", "d3"), bulkIds(responses));
+    assertTrue(responses.stream().limit(4).allMatch(ResponseOperation::isSuccessful));
+    assertFalse(responses.get(4).isSuccessful());
+    assertEquals(RequestMethod.PATCH, responses.get(4).getMethod());
+    assertEquals(String.valueOf(Response.Status.NOT_FOUND.getStatusCode()), responses.get(4).getStatus());
+    assertFalse(responses.get(5).isSuccessful());
+  }
+
+  @Test
+  public void testVersionedDeleteDoesNotSupersedeOperations() {
+    RequestOperation versionedDelete = deleteOperation("d1", "/Users/1").builder().setVersion("W/\"1\"").build();
+    List<RequestOperation> operations = Arrays.asList(patchOperation("p1", "/Users/1", "name.givenName"), versionedDelete);
+
+    List<ResponseOperation> responses = coalescingCallback(null).handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertEquals(operations, executedOperations);
+    assertEquals(Arrays.asList("p1", "d1"), bulkIds(responses));
+  }
+
+  @Test
+  public void testInvalidMergedPatchIsExecutedOneByOne() {
+    List<RequestOperation> operations = Arrays.asList(patchOperation("p1", "/Users/1", "name.givenName"),
+        patchOperation("p2", "/Users/1", "userName"));
+
+    List<ResponseOperation> responses = coalescingCallback(null).handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertEquals(operations, executedOperations);
+    assertEquals(Arrays.asList("p1", "p2"), bulkIds(responses));
+  }
+
+  @Test
+  public void testResponsesAreStreamedInRequestOrder() {
+    // @formatter:off
+    List<RequestOperation> operations = Arrays.asList(
+        patchOperation("p1", "/Users/1", "name.givenName"),
+        patchOperation("p2", "/Users/2", "name.givenName"),
+        deleteOperation("d1", "/Users/1"));
+    // @formatter:on
+    List<Integer> streamedIndexes = new ArrayList<>();
+
+    coalescingCallback(null).handleBulkRequest(BulkBody.forRequest(operations), (response, index) -> {
+      assertEquals(operations.get(index).getBulkId(), response.getBulkId());
+      streamedIndexes.add(index);
+    });
+
+    assertEquals(Arrays.asList(0, 1, 2), streamedIndexes);
+  }
+
+  @Test
+  public void testOperationsWithoutBulkIdKeepTheirResponses() {
+    List<RequestOperation> operations = Arrays.asList(patchOperation(null, "/Users/1", "name.givenName"),
+        deleteOperation(null, "/Users/2"));
+
+    List<ResponseOperation> responses = coalescingCallback("2").handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertEquals(Arrays.asList(null, null), bulkIds(responses));
+    assertTrue(responses.get(0).isSuccessful());
+    assertEquals(RequestMethod.DELETE, responses.get(1).getMethod());
+    assertFalse(responses.get(1).isSuccessful());
+  }
+
+  private CoalescingBulkRequestCallback coalescingCallback(final String missingResourceId) {
+    BulkRequestCallback bulkAPI = bulkRequest -> {
+      executedOperations.addAll(bulkRequest.getOperations());
+      List<ResponseOperation> responses = bulkRequest.getOperations().stream()
+          .map(operation -> operation.getResourceId().get().equals(missingResourceId)
+              ? operation.errorResponse(new ResourceNotFoundException(operation.getResourceType(), missingResourceId)).build()
+              : operation.successfulResponse().build())
+          .collect(Collectors.toList());
+      return BulkBody.forResponse(responses);
+    };
+    return new CoalescingBulkRequestCallback(bulkAPI, USER_PATCH_VALIDATOR, GROUP_PATCH_VALIDATOR);
+  }
+
+  private static List<String> bulkIds(final List<ResponseOperation> responses) {
+    return responses.stream().map(ResponseOperation::getBulkId).collect(Collectors.toList());
+  }
+
+  private static RequestOperation patchOperation(final String bulkId, final String path, final String attributePath) {
+    PatchOperation patchOperation = new PatchOperation.Builder().setOp(PatchOperation.Type.REMOVE).setPath(attributePath).build();
+    PatchBody patchBody = new PatchBody.Builder().addOperation(patchOperation).build();
+    return new RequestOperation.Builder().setMethod(RequestMethod.PATCH).setBulkId(bulkId).setPath(path).setData(patchBody).build();
+  }
+
+  private static RequestOperation deleteOperation(final String bulkId, final String path) {
+    return new RequestOperation.Builder().setMethod(RequestMethod.DELETE).setBulkId(bulkId).setPath(path).build();
+  }
+
+  private static class CoreSchemasCallback extends DefaultSchemasCallback {
+
+    @Override
+    public List<Schema> getCustomSchemas() {
+      return Collections.emptyList();
+    }
+  }
+}
@@ -0,0 +1,199 @@
+package com.sap.scimono.callback.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.sap.scimono.api.ContextResolver;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.MemberRef;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.bulk.BulkBody;
+import com.sap.scimono.entity.bulk.RequestMethod;
+import com.sap.scimono.entity.bulk.RequestOperation;
+import com.sap.scimono.entity.bulk.ResponseOperation;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.patch.PatchOperation;
+import com.sap.scimono.exception.ResourceNotFoundException;
+
+public class ParallelBulkRequestCallbackTest {
+  private final RecordingOperationHandler operationHandler = new RecordingOperationHandler();
+  private final ParallelBulkRequestCallback bulkCallback = new ParallelBulkRequestCallback.Builder(operationHandler).build();
+
+  @Test
+  public void testBulkIdReferencesAreResolved() {
+    // @formatter:off
+    List<RequestOperation> operations = Arrays.asList(
+        groupOperation("g1", new MemberRef.Builder().setValue("bulkId:u1").build()),
+        userOperation("u1", "bjensen"),
+        new RequestOperation.Builder().setMethod(RequestMethod.DELETE).setPath("/Users/bulkId:u1").build());
+    // @formatter:on
+
+    List<ResponseOperation> responses = bulkCallback.handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertEquals(3, responses.size());
+    assertTrue(responses.stream().allMatch(ResponseOperation::isSuccessful));
+    assertEquals("g1", responses.get(0).getBulkId());
+    assertEquals("id-u1", responses.get(1).getResourceId());
+
+    Group createdGroup = operationHandler.handledOperations.stream().filter(operation -> "g1".equals(operation.getBulkId())).findFirst()
+        .get().getDataAsGroup();
+    assertEquals("id-u1", createdGroup.getMembers().iterator().next().getValue());
+    RequestOperation deleteOperation = operationHandler.handledOperations.stream()
+        .filter(operation -> operation.getMethod() == RequestMethod.DELETE).findFirst().get();
+    assertEquals("/Users/id-u1", deleteOperation.getPath());
+  }
+
+  @Test
+  public void testOperationsOnSameResourceKeepRequestOrder() {
+    List<RequestOperation> operations = Arrays.asList(patchOperation("/Users/1", "first"), patchOperation("/Groups/1", "other"),
+        patchOperation("/Users/1", "second"), patchOperation("/Users/1", "third"));
+
+    new ParallelBulkRequestCallback.Builder(operationHandler).setMaxConcurrency(4).build()
+        .handleBulkRequest(BulkBody.forRequest(operations));
+
+    List<String> userPatches = operationHandler.handledOperations.stream().filter(operation -> operation.getPath().equals("/Users/1"))
+        .map(operation -> operation.getDataAsPatch().getOperations().get(0).getValue().textValue()).collect(Collectors.toList());
+    assertEquals(Arrays.asList("first", "second", "third"), userPatches);
+  }
+
+  @Test
+  public void testUnknownAndFailedReferencesAreConflicts() {
+    // @formatter:off
+    List<RequestOperation> operations = Arrays.asList(
+        groupOperation("g1", new MemberRef.Builder().setValue("bulkId:unknown").build()),
+        userOperation("u1", RecordingOperationHandler.FAILING_USER_NAME),
+        groupOperation("g2", new MemberRef.Builder().setValue("bulkId:u1").build()));
+    // @formatter:on
+
+    List<ResponseOperation> responses = bulkCallback.handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertEquals(String.valueOf(Response.Status.CONFLICT.getStatusCode()), responses.get(0).getStatus());
+    assertEquals(String.valueOf(Response.Status.NOT_FOUND.getStatusCode()), responses.get(1).getStatus());
+    assertEquals(String.valueOf(Response.Status.CONFLICT.getStatusCode()), responses.get(2).getStatus());
+    assertEquals(1, operationHandler.handledOperations.size());
+  }
+
+  @Test
+  public void testFailOnErrorsStopsProcessing() {
+    List<RequestOperation> operations = Arrays.asList(userOperation("u1", RecordingOperationHandler.FAILING_USER_NAME),
+        userOperation("u2", "bjensen"), userOperation("u3", "jsmith"));
+
+    List<ResponseOperation> responses = new ParallelBulkRequestCallback.Builder(operationHandler).setMaxConcurrency(1).build()
+        .handleBulkRequest(BulkBody.forRequest(1, operations)).getOperations();
+
+    assertEquals(1, responses.size());
+    assertFalse(responses.get(0).isSuccessful());
+  }
+
+  @Test
+  public void testCircularReferencesAreConflicts() {
+    List<RequestOperation> operations = Arrays.asList(groupOperation("g1", new MemberRef.Builder().setValue("bulkId:g2").build()),
+        groupOperation("g2", new MemberRef.Builder().setValue("bulkId:g1").build()), userOperation("u1", "bjensen"));
+
+    List<ResponseOperation> responses = bulkCallback.handleBulkRequest(BulkBody.forRequest(operations)).getOperations();
+
+    assertEquals(String.valueOf(Response.Status.CONFLICT.getStatusCode()), responses.get(0).getStatus());
+    assertEquals(String.valueOf(Response.Status.CONFLICT.getStatusCode()), responses.get(1).getStatus());
+    assertTrue(responses.get(2).isSuccessful());
+  }
+
+  @Test
+  public void testResponsesAreStreamedOnCallingThread() {
+    List<RequestOperation> operations = Arrays.asList(userOperation("u1", "bjensen"), userOperation("u2", "jsmith"),
+        patchOperation("/Users/bulkId:u1", "title"));
+    Thread callingThread = Thread.currentThread();
+    List<ResponseOperation> streamedResponses = new ArrayList<>();
+
+    bulkCallback.handleBulkRequest(BulkBody.forRequest(operations), (response, index) -> {
+      assertSame(callingThread, Thread.currentThread());
+      assertEquals(operations.get(index).getMethod(), response.getMethod());
+      assertEquals(operations.get(index).getBulkId(), response.getBulkId());
+      streamedResponses.add(response);
+    });
+
+    List<String> streamedOperations = streamedResponses.stream()
+        .map(response -> response.getMethod() == RequestMethod.PATCH ? "patch" : response.getBulkId()).collect(Collectors.toList());
+    assertEquals(3, streamedOperations.size());
+    assertTrue(streamedOperations.indexOf("u1") < streamedOperations.indexOf("patch"));
+  }
+
+  @Test
+  public void testOperationsAreHandledInRequestContext() {
+    HttpServletRequest servletRequest = mock(HttpServletRequest.class);
+    List<HttpServletRequest> boundRequests = new ArrayList<>();
+    BulkOperationHandler contextRecordingHandler = operation -> {
+      synchronized (boundRequests) {
+        boundRequests.add(ContextResolver.resolve(request -> request));
+      }
+      return operationHandler.handle(operation);
+    };
+    List<RequestOperation> operations = Arrays.asList(userOperation("u1", "bjensen"), userOperation("u2", "jsmith"));
+
+    ContextResolver.bind(servletRequest);
+    try {
+      new ParallelBulkRequestCallback.Builder(contextRecordingHandler).build().handleBulkRequest(BulkBody.forRequest(operations));
+    } finally {
+      ContextResolver.remove();
+    }
+
+    assertEquals(Arrays.asList(servletRequest, servletRequest), boundRequests);
+  }
+
+  private static RequestOperation userOperation(final String bulkId, final String userName) {
+    User user = new User.Builder(userName).build();
+    return new RequestOperation.Builder().setMethod(RequestMethod.POST).setBulkId(bulkId).setPath("/Users").setData(user).build();
+  }
+
+  private static RequestOperation groupOperation(final String bulkId, final MemberRef member) {
+    Group group = new Group.Builder(bulkId).addMember(member).build();
+    return new RequestOperation.Builder().setMethod(RequestMethod.POST).setBulkId(bulkId).setPath("/Groups").setData(group).build();
+  }
+
+  private static RequestOperation patchOperation(final String path, final String title) {
+    PatchOperation operation = new PatchOperation.Builder().setOp(PatchOperation.Type.REPLACE).setPath("title")
+        .setValue(TextNode.valueOf(title)).build();
+    PatchBody patchBody = new PatchBody.Builder().addOperation(operation).build();
+    return new RequestOperation.Builder().setMethod(RequestMethod.PATCH).setPath(path).setData(patchBody).build();
+  }
+
+  private static class RecordingOperationHandler implements BulkOperationHandler {
+    private static final String FAILING_USER_NAME = "missing";
+
+    private final Queue<RequestOperation> handledOperations = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public ResponseOperation handle(final RequestOperation operation) {
+      handledOperations.add(operation);
+      if (operation.getMethod() != RequestMethod.POST) {
+        return operation.successfulResponse().build();
+      }
+
+      if (operation.getData() instanceof User) {
+        User user = operation.getDataAsUser();
+        if (FAILING_USER_NAME.equals(user.getUserName())) {
+          throw new ResourceNotFoundException(User.RESOURCE_TYPE_USER, user.getUserName());
+        }
+        User createdUser = new User.Builder(user).setId("id-" + operation.getBulkId()).build();
+        return operation.builder().setData(createdUser).build().successfulResponse().build();
+      }
+      Group createdGroup = new Group.Builder(operation.getDataAsGroup()).setId("id-" + operation.getBulkId()).build();
+      return operation.builder().setData(createdGroup).build().successfulResponse().build();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.sap.scimono.callback.schemas;
+
+import static com.sap.scimono.entity.schema.AttributeDataType.COMPLEX;
+import static com.sap.scimono.entity.schema.AttributeDataType.STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.entity.EnterpriseExtension;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.entity.schema.Schema;
+
+class SchemaAttributeIndexTest {
+  private static final String CUSTOM_SCHEMA_ID = "urn:sap:cloud:scim:schemas:extension:custom:2.0:Badge";
+
+  @Test
+  void testCoreAttributePaths() {
+    SchemaAttributeIndex index = SchemaAttributeIndex.core();
+
+    assertEquals(User.SCHEMA, index.getSchemaId(User.SCHEMA + ":name.givenName"));
+    assertEquals(EnterpriseExtension.ENTERPRISE_URN, index.getSchemaId(EnterpriseExtension.ENTERPRISE_URN + ":manager.value"));
+    assertEquals(User.SCHEMA, index.getSchemaId(User.SCHEMA.toLowerCase()));
+    assertEquals(EnterpriseExtension.ENTERPRISE_URN, index.getSchema(EnterpriseExtension.ENTERPRISE_URN.toUpperCase()).getId());
+
+    assertEquals("name,givenName", names(index.getAttributePath(User.SCHEMA + ":NAME.givenname")));
+    assertEquals("manager,value", names(index.getAttributePath(EnterpriseExtension.ENTERPRISE_URN + ":manager.value")));
+    assertTrue(index.getAttributePath(User.SCHEMA + ":name.unknown").isEmpty());
+    assertTrue(index.getAttributePath(User.SCHEMA).isEmpty());
+    assertNull(index.getSchemaId("urn:ietf:params:scim:schemas:core:2.0:Unknown:name"));
+  }
+
+  @Test
+  void testCustomSchemasAreIndexedOnceUntilChanged() {
+    CountingSchemasCallback customSchemas = new CountingSchemasCallback();
+    customSchemas.createCustomSchema(customSchema(CUSTOM_SCHEMA_ID));
+    CachingSchemasCallback schemasCallback = new CachingSchemasCallback(customSchemas);
+
+    assertEquals(User.SCHEMA, schemasCallback.getSchemaIdFromAttributeNotation(User.SCHEMA + ":userName"));
+    assertEquals("userName", schemasCallback.getAttribute(User.SCHEMA + ":userName").getName());
+    assertEquals(1, customSchemas.reads);
+
+    assertEquals(CUSTOM_SCHEMA_ID, schemasCallback.getSchemaIdFromAttributeNotation(CUSTOM_SCHEMA_ID + ":holder.level"));
+    assertEquals("holder,level", names(schemasCallback.getComplexAttributePath(CUSTOM_SCHEMA_ID + ":holder.level")));
+    assertEquals(1, customSchemas.reads);
+
+    String otherSchemaId = CUSTOM_SCHEMA_ID + "Extra";
+    assertNull(schemasCallback.getSchemaIdFromAttributeNotation(otherSchemaId + ":holder"));
+    schemasCallback.createCustomSchema(customSchema(otherSchemaId));
+
+    assertEquals(otherSchemaId, schemasCallback.getSchemaIdFromAttributeNotation(otherSchemaId + ":holder"));
+    assertEquals(CUSTOM_SCHEMA_ID, schemasCallback.getSchemaIdFromAttributeNotation(CUSTOM_SCHEMA_ID + ":holder"));
+    assertEquals(2, customSchemas.reads);
+  }
+
+  @Test
+  void testSchemasOfTheCallbackAreResolved() {
+    Schema userSchema = new Schema.Builder().setId(User.SCHEMA).name("User")
+        .addAttribute(new Attribute.Builder().name("badge").type(STRING.toString()).build()).build();
+    SchemasCallback schemasCallback = new CountingSchemasCallback() {
+      @Override
+      public List<Schema> getSchemas() {
+        return Collections.singletonList(userSchema);
+      }
+    };
+
+    assertEquals(User.SCHEMA, schemasCallback.getSchemaIdFromAttributeNotation(User.SCHEMA + ":badge"));
+    assertEquals("badge", schemasCallback.getAttribute(User.SCHEMA + ":badge").getName());
+    assertNull(schemasCallback.getAttribute(User.SCHEMA + ":userName"));
+    assertNull(schemasCallback.getSchemaIdFromAttributeNotation(EnterpriseExtension.ENTERPRISE_URN + ":manager"));
+  }
+
+  private static Schema customSchema(final String schemaId) {
+    Attribute holder = new Attribute.Builder().name("holder").type(COMPLEX.toString())
+        .addSubAttribute(new Attribute.Builder().name("level").type(STRING.toString()).build()).build();
+    return new Schema.Builder().setId(schemaId).name("Badge").addAttribute(holder).build();
+  }
+
+  private static String names(final List<Attribute> attributes) {
+    return attributes.stream().map(Attribute::getName).collect(Collectors.joining(","));
+  }
+
+  private static class CountingSchemasCallback implements SchemasCallback {
+    private final List<Schema> customSchemas = new ArrayList<>();
+    private int reads;
+
+    @Override
+    public Schema getCustomSchema(final String schemaId) {
+      return customSchemas.stream().filter(schema -> schema.getId().equals(schemaId)).findAny().orElse(null);
+    }
+
+    @Override
+    public void createCustomSchema(final Schema schema) {
+      customSchemas.add(schema);
+    }
+
+    @Override
+    public List<Schema> getCustomSchemas() {
+      reads++;
+      return new ArrayList<>(customSchemas);
+    }
+
+    @Override
+    public void deleteCustomSchema(final String schemaId) {
+      customSchemas.removeIf(schema -> schema.getId().equals(schemaId));
+    }
+
+    @Override
+    public boolean isValidSchemaName(final String schemaName) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.sap.scimono.entity.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
+import com.sap.scimono.callback.config.DefaultSCIMConfigurationCallback;
+import com.sap.scimono.entity.bulk.validation.BulkOperationsValidator;
+import com.sap.scimono.entity.config.BulkSetting;
+import com.sap.scimono.exception.InvalidInputException;
+import com.sap.scimono.exception.SCIMException;
+
+public class BulkRequestReaderTest {
+  private static final String USER_OPERATION = "{\"method\": \"POST\", \"bulkId\": \"%s\", \"path\": \"/Users\", "
+      + "\"data\": {\"userName\": \"%s\"}}";
+
+  private final BulkRequestReader reader = new BulkRequestReader(ObjectMapperRegistry.getDefault().getObjectMapper(),
+      new BulkOperationsValidator(new BulkSettingCallback(3)));
+
+  @Test
+  public void testOperationsAreProcessedInRequestOrder() throws IOException {
+    // @formatter:off
+    String body = "{\"schemas\": [\"" + BulkBody.BULK_REQUEST_SCHEMA + "\"], \"unknown\": {\"a\": [1]}, \"Operations\": ["
+        + String.format(USER_OPERATION, "u1", "bjensen") + ", "
+        + "{\"method\": \"DELETE\", \"path\": \"/Users/1\"}, "
+        + "{\"method\": \"GET\", \"path\": \"/Users/2\"}"
+        + "], \"failOnErrors\": 2}";
+    // @formatter:on
+    List<RequestOperation> processedOperations = new ArrayList<>();
+
+    BulkBody<RequestOperation> bulkRequest = reader.read(stream(body), operation -> {
+      processedOperations.add(operation);
+      return operation;
+    });
+
+    assertEquals(Integer.valueOf(2), bulkRequest.getFailOnErrors());
+    assertEquals(processedOperations, bulkRequest.getOperations());
+    assertEquals("u1", processedOperations.get(0).getBulkId());
+    assertEquals("bjensen", processedOperations.get(0).getRawData().get("userName").textValue());
+    assertFalse(processedOperations.get(1).hasValidationError());
+    assertTrue(processedOperations.get(2).hasValidationError());
+  }
+
+  @Test
+  public void testOperationsAreProcessedInParallelInRequestOrder() throws IOException, InterruptedException {
+    StringBuilder body = new StringBuilder("{\"schemas\": [\"" + BulkBody.BULK_REQUEST_SCHEMA + "\"], \"Operations\": [");
+    for (int i = 0; i < 3; i++) {
+      body.append(i == 0 ? "" : ", ").append(String.format(USER_OPERATION, "u" + i, "user" + i));
+    }
+    body.append("]}");
+    List<String> processingThreads = Collections.synchronizedList(new ArrayList<>());
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    try {
+      BulkBody<RequestOperation> bulkRequest = reader.read(stream(body.toString()), operation -> {
+        processingThreads.add(Thread.currentThread().getName());
+        sleep(30 * (3 - Integer.parseInt(operation.getBulkId().substring(1))));
+        return operation.builder().setVersion("processed").build();
+      }, executor);
+
+      assertEquals(Arrays.asList("u0", "u1", "u2"), bulkRequest.getOperations().stream().map(RequestOperation::getBulkId)
+          .collect(Collectors.toList()));
+      assertTrue(bulkRequest.getOperations().stream().allMatch(operation -> "processed".equals(operation.getVersion())));
+      assertFalse(processingThreads.contains(Thread.currentThread().getName()));
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testOperationsInFlightAreBounded() throws IOException, InterruptedException {
+    StringBuilder body = new StringBuilder("{\"schemas\": [\"" + BulkBody.BULK_REQUEST_SCHEMA + "\"], \"Operations\": [");
+    for (int i = 0; i < 3; i++) {
+      body.append(i == 0 ? "" : ", ").append(String.format(USER_OPERATION, "u" + i, "user" + i));
+    }
+    body.append("]}");
+    AtomicInteger operationsInFlight = new AtomicInteger();
+    AtomicInteger maxOperationsInFlight = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    try {
+      BulkBody<RequestOperation> bulkRequest = reader.read(stream(body.toString()), operation -> {
+        maxOperationsInFlight.accumulateAndGet(operationsInFlight.incrementAndGet(), Math::max);
+        sleep(20);
+        operationsInFlight.decrementAndGet();
+        return operation;
+      }, executor, 1);
+
+      assertEquals(Arrays.asList("u0", "u1", "u2"), bulkRequest.getOperations().stream().map(RequestOperation::getBulkId)
+          .collect(Collectors.toList()));
+      assertEquals(1, maxOperationsInFlight.get());
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testInvalidRequests() {
+    String schemas = "\"schemas\": [\"" + BulkBody.BULK_REQUEST_SCHEMA + "\"]";
+    String duplicateBulkIds = "{" + schemas + ", \"Operations\": [" + String.format(USER_OPERATION, "u1", "bjensen") + ", "
+        + String.format(USER_OPERATION, "u1", "jsmith") + "]}";
+    assertThrows(InvalidInputException.class, () -> reader.read(stream(duplicateBulkIds), operation -> operation));
+    assertThrows(InvalidInputException.class, () -> reader.read(stream("{" + schemas + "}"), operation -> operation));
+    assertThrows(InvalidInputException.class,
+        () -> reader.read(stream("{" + schemas + ", \"failOnErrors\": 0, \"Operations\": []}"), operation -> operation));
+    assertThrows(InvalidInputException.class, () -> reader.read(stream("[]"), operation -> operation));
+
+    SCIMException nonIntegerFailOnErrors = assertThrows(SCIMException.class,
+        () -> reader.read(stream("{" + schemas + ", \"failOnErrors\": \"all\", \"Operations\": []}"), operation -> operation));
+    assertEquals(SCIMException.Type.INVALID_SYNTAX.toJson(), nonIntegerFailOnErrors.getScimType());
+  }
+
+  @Test
+  public void testTooManyOperationsAreRejectedWhileReading() {
+    List<RequestOperation> processedOperations = new ArrayList<>();
+    StringBuilder body = new StringBuilder("{\"schemas\": [\"" + BulkBody.BULK_REQUEST_SCHEMA + "\"], \"Operations\": [");
+    for (int i = 0; i < 5; i++) {
+      body.append(i == 0 ? "" : ", ").append(String.format(USER_OPERATION, "u" + i, "user" + i));
+    }
+    body.append("]}");
+
+    SCIMException exception = assertThrows(SCIMException.class, () -> reader.read(stream(body.toString()), operation -> {
+      processedOperations.add(operation);
+      return operation;
+    }));
+
+    assertEquals(Response.Status.REQUEST_ENTITY_TOO_LARGE.getStatusCode(), exception.getResponse().getStatus());
+    assertEquals(3, processedOperations.size());
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static InputStream stream(final String body) {
+    return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static class BulkSettingCallback extends DefaultSCIMConfigurationCallback {
+    private final int maxOperations;
+
+    private BulkSettingCallback(final int maxOperations) {
+      this.maxOperations = maxOperations;
+    }
+
+    @Override
+    public BulkSetting getBulkSetting() {
+      return new BulkSetting(true, maxOperations, 1024 * 1024);
+    }
+  }
+}
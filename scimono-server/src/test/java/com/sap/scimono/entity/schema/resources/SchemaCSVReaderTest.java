@@ -0,0 +1,41 @@
+package com.sap.scimono.entity.schema.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.schema.Attribute;
+import com.sap.scimono.entity.schema.Schema;
+
+class SchemaCSVReaderTest {
+
+  @Test
+  void testSchemasAreImportedOnce() {
+    assertSame(SchemaCSVReader.getImportedSchemasFromCSVs(), SchemaCSVReader.getImportedSchemasFromCSVs());
+    assertEquals(6, SchemaCSVReader.getImportedSchemasFromCSVs().size());
+  }
+
+  @Test
+  void testAttributesKeepCSVOrderAndQuotedValues() {
+    Schema groupSchema = SchemaCSVReader.getImportedSchemasFromCSVs().get(Group.SCHEMA);
+
+    assertEquals("displayName,members,externalId", names(groupSchema.getAttributes()));
+
+    Attribute members = groupSchema.getAttributes().get(1);
+    assertEquals("value,$ref,type,display", names(members.getSubAttributes()));
+
+    Attribute type = members.getSubAttributes().get(2);
+    assertEquals("\"A label indicating the type of resource, e.g., User or Group.\"", type.getDescription());
+    assertEquals(2, type.getCanonicalValues().size());
+    assertEquals(2, members.getSubAttributes().get(1).getReferenceTypes().size());
+  }
+
+  private static String names(final List<Attribute> attributes) {
+    return attributes.stream().map(Attribute::getName).collect(Collectors.joining(","));
+  }
+}
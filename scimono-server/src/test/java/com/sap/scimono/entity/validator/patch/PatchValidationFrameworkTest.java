@@ -0,0 +1,109 @@
+package com.sap.scimono.entity.validator.patch;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.sap.scimono.callback.groups.DefaultGroupsCallback;
+import com.sap.scimono.callback.resourcetype.DefaultResourceTypesCallback;
+import com.sap.scimono.callback.schemas.CachingSchemasCallback;
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.callback.users.DefaultUsersCallback;
+import com.sap.scimono.entity.EnterpriseExtension;
+import com.sap.scimono.entity.patch.PatchBody;
+import com.sap.scimono.entity.patch.PatchOperation;
+import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.entity.validation.patch.PatchValidationException;
+import com.sap.scimono.entity.validation.patch.PatchValidationFramework;
+import com.sap.scimono.entity.validation.patch.PatchValidationFrameworkCache;
+import com.sap.scimono.exception.InvalidInputException;
+
+public class PatchValidationFrameworkTest {
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+  private final PatchValidationFramework framework = PatchValidationFramework.usersFramework(new CoreSchemasCallback(),
+      new DefaultResourceTypesCallback(), new DefaultUsersCallback());
+
+  @Test
+  public void testValidOperationsShareTheFramework() {
+    // @formatter:off
+    PatchBody patchBody = new PatchBody.Builder()
+        .addOperation(operation(PatchOperation.Type.REPLACE, "USERNAME", NODES.textNode("bjensen")))
+        .addOperation(operation(PatchOperation.Type.REPLACE, "emails[type eq \"work\"].value", NODES.textNode("bjensen@example.com")))
+        .addOperation(operation(PatchOperation.Type.ADD, EnterpriseExtension.ENTERPRISE_URN + ":department", NODES.textNode("Sales")))
+        .addOperation(operation(PatchOperation.Type.REMOVE, "title", null))
+        .build();
+    // @formatter:on
+
+    assertDoesNotThrow(() -> framework.validate(patchBody));
+    assertDoesNotThrow(() -> framework.validate(patchBody));
+  }
+
+  @Test
+  public void testInvalidOperations() {
+    assertThrows(PatchValidationException.class, () -> framework.validate(body(operation(PatchOperation.Type.REPLACE, "nickNames",
+        NODES.textNode("bj")))));
+    assertThrows(PatchValidationException.class, () -> framework.validate(body(operation(PatchOperation.Type.REPLACE,
+        "emails[kind eq \"work\"].value", NODES.textNode("bjensen@example.com")))));
+    assertThrows(InvalidInputException.class, () -> framework.validate(body(operation(PatchOperation.Type.REMOVE, "userName", null))));
+  }
+
+  @Test
+  public void testFrameworkIsSharedUntilTheSchemasChange() {
+    PatchValidationFrameworkCache cache = new PatchValidationFrameworkCache(PatchValidationFrameworkCache.DEFAULT_CACHE_SIZE);
+    CachingSchemasCallback schemasCallback = new CachingSchemasCallback(new CoreSchemasCallback());
+    DefaultResourceTypesCallback resourceTypesCallback = new DefaultResourceTypesCallback();
+    DefaultUsersCallback usersCallback = new DefaultUsersCallback();
+
+    PatchValidationFramework usersFramework = cache.getUsersFramework(schemasCallback, resourceTypesCallback, usersCallback);
+    assertSame(usersFramework, cache.getUsersFramework(schemasCallback, resourceTypesCallback, usersCallback));
+    assertNotSame(usersFramework, cache.getGroupsFramework(schemasCallback, resourceTypesCallback, new DefaultGroupsCallback()));
+
+    schemasCallback.invalidate();
+    PatchValidationFramework rebuiltFramework = cache.getUsersFramework(schemasCallback, resourceTypesCallback, usersCallback);
+    assertNotSame(usersFramework, rebuiltFramework);
+    assertSame(rebuiltFramework, cache.getUsersFramework(schemasCallback, resourceTypesCallback, usersCallback));
+  }
+
+  private static PatchBody body(final PatchOperation operation) {
+    return new PatchBody.Builder().addOperation(operation).build();
+  }
+
+  private static PatchOperation operation(final PatchOperation.Type type, final String path, final JsonNode value) {
+    return new PatchOperation.Builder().setOp(type).setPath(path).setValue(value).build();
+  }
+
+  private static class CoreSchemasCallback implements SchemasCallback {
+
+    @Override
+    public Schema getCustomSchema(final String schemaId) {
+      return null;
+    }
+
+    @Override
+    public void createCustomSchema(final Schema schema) {
+    }
+
+    @Override
+    public List<Schema> getCustomSchemas() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void deleteCustomSchema(final String schemaId) {
+    }
+
+    @Override
+    public boolean isValidSchemaName(final String schemaName) {
+      return true;
+    }
+  }
+}
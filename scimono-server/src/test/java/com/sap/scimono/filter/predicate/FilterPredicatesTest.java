@@ -0,0 +1,164 @@
+package com.sap.scimono.filter.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.entity.Email;
+import com.sap.scimono.entity.EnterpriseExtension;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.Manager;
+import com.sap.scimono.entity.MemberRef;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.Name;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.base.Extension;
+import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.exception.InvalidFilterException;
+
+class FilterPredicatesTest {
+  private static final String CUSTOM_EXTENSION_URN = Schema.EXTENSION_SCHEMA_URN + "Custom";
+  private static final Instant CREATED = Instant.parse("2020-01-15T10:00:00Z");
+
+  private final User user = createUser();
+  private final Group group = createGroup();
+
+  @Test
+  void testStringComparisonHonorsCaseExactness() {
+    assertTrue(matches("userName eq \"BJENSEN\""));
+    assertTrue(matches("externalId eq \"ext-Bjensen\""));
+    assertFalse(matches("externalId eq \"EXT-BJENSEN\""));
+  }
+
+  @Test
+  void testStringOperators() {
+    assertTrue(matches("userName sw \"bj\""));
+    assertTrue(matches("userName ew \"SEN\""));
+    assertTrue(matches("name.familyName co \"ens\""));
+    assertTrue(matches("userName gt \"a\" and userName lt \"c\""));
+    assertTrue(matches("userName ne \"jsmith\""));
+    assertFalse(matches("userName ne \"bjensen\""));
+    assertFalse(matches("userName sw \"jensen\""));
+  }
+
+  @Test
+  void testPresence() {
+    assertTrue(matches("name pr and userName pr"));
+    assertFalse(matches("title pr"));
+    assertFalse(matches("phoneNumbers pr"));
+  }
+
+  @Test
+  void testBooleanAndDateTimeComparison() {
+    assertTrue(matches("active eq true"));
+    assertFalse(matches("active eq false"));
+    assertTrue(matches("meta.created eq \"2020-01-15T10:00:00Z\""));
+    assertTrue(matches("meta.lastModified gt \"2020-01-01T00:00:00Z\""));
+    assertFalse(matches("meta.lastModified lt \"2020-01-01T00:00:00Z\""));
+  }
+
+  @Test
+  void testMultiValuedAttributes() {
+    assertTrue(matches("emails co \"@example.org\""));
+    assertTrue(matches("emails.type eq \"home\""));
+    assertTrue(matches("emails[type eq \"work\" and value co \"@example.com\"]"));
+    assertFalse(matches("emails[type eq \"home\" and value co \"@example.com\"]"));
+    assertTrue(matches("urn:ietf:params:scim:schemas:core:2.0:User:emails[type eq \"work\" and primary eq true]"));
+    assertTrue(matches("schemas eq \"" + User.SCHEMA + "\""));
+  }
+
+  @Test
+  void testLogicalOperators() {
+    assertTrue(matches("title pr or userName eq \"bjensen\""));
+    assertFalse(matches("title pr and userName eq \"bjensen\""));
+    assertTrue(matches("not (title pr) and (active eq false or userType eq \"employee\")"));
+  }
+
+  @Test
+  void testEnterpriseExtensionAttributes() {
+    assertTrue(matches(EnterpriseExtension.ENTERPRISE_URN + ":department eq \"identity\""));
+    assertTrue(matches(EnterpriseExtension.ENTERPRISE_URN + ":manager.value eq \"boss\""));
+    assertTrue(matches("costCenter eq \"CC-1\""));
+    assertFalse(matches(EnterpriseExtension.ENTERPRISE_URN + ":division pr"));
+  }
+
+  @Test
+  void testCustomExtensionAttributesAreComparedByRuntimeType() {
+    assertTrue(matches(CUSTOM_EXTENSION_URN + ":level ge 3"));
+    assertFalse(matches(CUSTOM_EXTENSION_URN + ":level gt 3.5"));
+    assertTrue(matches(CUSTOM_EXTENSION_URN + ":location.city eq \"walldorf\""));
+    assertTrue(matches(CUSTOM_EXTENSION_URN + ":external eq false"));
+  }
+
+  @Test
+  void testGroupFilters() {
+    assertTrue(FilterPredicates.forGroups("displayName sw \"admin\"").test(group));
+    assertTrue(FilterPredicates.forGroups("members[value eq \"user-2\" and type eq \"User\"]").test(group));
+    assertTrue(FilterPredicates.forGroups("members eq \"group-1\"").test(group));
+    assertFalse(FilterPredicates.forGroups("members[value eq \"user-3\"]").test(group));
+  }
+
+  @Test
+  void testMissingFilterMatchesAll() {
+    assertTrue(FilterPredicates.forUsers((String) null).test(user));
+    assertTrue(FilterPredicates.forGroups((String) null).test(group));
+  }
+
+  @Test
+  void testInvalidFiltersAreRejected() {
+    assertThrows(InvalidFilterException.class, () -> FilterPredicates.forUsers("unknownAttribute eq \"x\""));
+    assertThrows(InvalidFilterException.class, () -> FilterPredicates.forUsers("name.unknown eq \"x\""));
+    assertThrows(InvalidFilterException.class, () -> FilterPredicates.forUsers("name eq \"x\""));
+    assertThrows(InvalidFilterException.class, () -> FilterPredicates.forUsers("active gt true"));
+    assertThrows(InvalidFilterException.class, () -> FilterPredicates.forUsers("meta.created gt \"yesterday\""));
+    assertThrows(InvalidFilterException.class, () -> FilterPredicates.forGroups("userName eq \"x\""));
+  }
+
+  private boolean matches(final String filter) {
+    return FilterPredicates.forUsers(filter).test(user);
+  }
+
+  private static User createUser() {
+    Map<String, Object> location = new HashMap<>();
+    location.put("city", "Walldorf");
+
+    // @formatter:off
+    return new User.Builder("bjensen")
+        .setId("user-1")
+        .setExternalId("ext-Bjensen")
+        .setActive(true)
+        .setUserType("Employee")
+        .setName(new Name.Builder().setGivenName("Barbara").setFamilyName("Jensen").build())
+        .addEmail(new Email.Builder().setValue("bjensen@example.com").setType(Email.Type.WORK).setPrimary(true).build())
+        .addEmail(new Email.Builder().setValue("babs@example.org").setType(Email.Type.HOME).build())
+        .setMeta(new Meta.Builder(CREATED, CREATED).setResourceType(User.RESOURCE_TYPE_USER).build())
+        .addExtension(new EnterpriseExtension.Builder()
+            .setDepartment("Identity")
+            .setCostCenter("CC-1")
+            .setManager(new Manager.Builder().setValue("boss").build())
+            .build())
+        .addExtension(new Extension.Builder(CUSTOM_EXTENSION_URN)
+            .setAttribute("level", 3)
+            .setAttribute("external", false)
+            .setAttribute("location", location)
+            .build())
+        .build();
+    // @formatter:on
+  }
+
+  private static Group createGroup() {
+    // @formatter:off
+    return new Group.Builder("Administrators")
+        .setId("group-0")
+        .addMember(new MemberRef.Builder().setValue("user-2").setType(MemberRef.Type.USER).build())
+        .addMember(new MemberRef.Builder().setValue("group-1").setType(MemberRef.Type.GROUP).build())
+        .build();
+    // @formatter:on
+  }
+}
@@ -0,0 +1,99 @@
+package com.sap.scimono.filter.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.api.SortParamsParser;
+import com.sap.scimono.callback.schemas.DefaultSchemasCallback;
+import com.sap.scimono.callback.schemas.SchemasCallback;
+import com.sap.scimono.entity.Email;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.Name;
+import com.sap.scimono.entity.User;
+import com.sap.scimono.entity.paging.PageInfo;
+import com.sap.scimono.entity.paging.PagedResult;
+import com.sap.scimono.entity.paging.SortInfo;
+import com.sap.scimono.entity.paging.TopKSorter;
+import com.sap.scimono.entity.schema.Schema;
+import com.sap.scimono.exception.InvalidInputException;
+
+class SortComparatorsTest {
+  private static final Instant CREATED = Instant.parse("2020-01-15T10:00:00Z");
+
+  private final SchemasCallback schemasCallback = new DefaultSchemasCallback() {
+    @Override
+    public List<Schema> getCustomSchemas() {
+      return Collections.emptyList();
+    }
+  };
+
+  // @formatter:off
+  private final List<User> users = Arrays.asList(
+      user("id-1", "bjensen", "Jensen", "z@example.com", 3),
+      user("id-2", "Adams", null, "a@example.com", 1),
+      user("id-3", "cmiller", "miller", null, 2),
+      user("id-4", "ADAMS", "Adams", "m@example.com", 0));
+  // @formatter:on
+
+  @Test
+  void testStringsAreComparedCaseInsensitiveUnlessCaseExact() {
+    assertEquals(Arrays.asList("id-2", "id-4", "id-1", "id-3"), sort("userName", "ascending"));
+    assertEquals(Arrays.asList("id-4", "id-3", "id-2", "id-1"), sort("id", "DESCENDING"));
+  }
+
+  @Test
+  void testResourcesWithoutValueAreSortedLastInAscendingOrder() {
+    assertEquals(Arrays.asList("id-4", "id-1", "id-3", "id-2"), sort("name.familyName", null));
+    assertEquals(Arrays.asList("id-2", "id-3", "id-1", "id-4"), sort("name.familyName", "descending"));
+  }
+
+  @Test
+  void testMultiValuedAttributesAreSortedByPrimaryValue() {
+    assertEquals(Arrays.asList("id-2", "id-4", "id-1", "id-3"), sort("emails", null));
+    assertEquals(Arrays.asList("id-4", "id-2", "id-3", "id-1"), sort("meta.created", null));
+  }
+
+  @Test
+  void testUnknownAttributesAreRejected() {
+    assertThrows(InvalidInputException.class, () -> sort("unknown", null));
+    assertThrows(InvalidInputException.class, () -> sort("userName", "up"));
+    assertThrows(InvalidInputException.class, () -> sort("name", null));
+  }
+
+  @Test
+  void testTopKSorterReturnsThePageInSortOrder() {
+    SortInfo sortInfo = SortParamsParser.parse(User.SCHEMA, "userName", "descending", schemasCallback);
+    PagedResult<User> page = TopKSorter.page(users, SortComparators.forUsers(sortInfo), PageInfo.getInstance(2, 1, null, sortInfo));
+
+    assertEquals(4, page.getTotalResourceCount());
+    assertEquals(Arrays.asList("id-1", "id-2"), page.getResources().stream().map(User::getId).collect(Collectors.toList()));
+    assertEquals(0, TopKSorter.page(users, SortComparators.forUsers(sortInfo), PageInfo.getInstance(2, 4, null)).getResourcesCount());
+  }
+
+  private List<String> sort(final String sortBy, final String sortOrder) {
+    SortInfo sortInfo = SortParamsParser.parse(User.SCHEMA, sortBy, sortOrder, schemasCallback);
+    return users.stream().sorted(SortComparators.forUsers(sortInfo)).map(User::getId).collect(Collectors.toList());
+  }
+
+  private static User user(final String id, final String userName, final String familyName, final String primaryEmail,
+      final int createdDays) {
+    User.Builder user = new User.Builder(userName).setId(id)
+        .setMeta(new Meta.Builder(CREATED.plusSeconds(86400L * createdDays), CREATED).setVersion("1").build());
+    if (familyName != null) {
+      user.setName(new Name.Builder().setFamilyName(familyName).build());
+    }
+    if (primaryEmail != null) {
+      user.addEmail(new Email.Builder().setValue("b@example.com").build());
+      user.addEmail(new Email.Builder().setValue(primaryEmail).setPrimary(true).build());
+    }
+    return user.build();
+  }
+}
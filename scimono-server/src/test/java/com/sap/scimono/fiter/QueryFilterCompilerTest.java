@@ -0,0 +1,166 @@
+package com.sap.scimono.fiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.scimono.exception.InvalidFilterException;
+import com.sap.scimono.filter.QueryFilter;
+import com.sap.scimono.filter.QueryFilterCompiler;
+import com.sap.scimono.filter.expression.AttributePath;
+import com.sap.scimono.filter.expression.ComparisonExpression;
+import com.sap.scimono.filter.expression.ComparisonOperator;
+import com.sap.scimono.filter.expression.FilterExpression;
+import com.sap.scimono.filter.expression.LogicalExpression;
+import com.sap.scimono.filter.expression.LogicalOperator;
+import com.sap.scimono.filter.expression.NotExpression;
+import com.sap.scimono.filter.expression.PresentExpression;
+import com.sap.scimono.filter.expression.ValuePathExpression;
+
+class QueryFilterCompilerTest {
+  private static final String ENTERPRISE_URN = "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User";
+
+  private QueryFilterCompiler compiler;
+
+  @BeforeEach
+  void setUp() {
+    compiler = new QueryFilterCompiler(QueryFilterCompiler.DEFAULT_CACHE_SIZE, false);
+  }
+
+  @Test
+  void testCompileComparison() {
+    FilterExpression expression = compiler.compile("userName eq \"bjensen\"");
+
+    assertEquals(new ComparisonExpression(path("userName"), ComparisonOperator.EQ, "bjensen"), expression);
+  }
+
+  @Test
+  void testCompileFullyQualifiedAttributes() {
+    FilterExpression expression = compiler.compile(ENTERPRISE_URN + ":manager.value pr");
+
+    assertEquals(new PresentExpression(new AttributePath(ENTERPRISE_URN, "manager", "value")), expression);
+  }
+
+  @Test
+  void testCompileLiteralTypes() {
+    assertEquals("O'Malley \"Jr\"\\", value(compiler.compile("name.familyName eq \"O'Malley \\\"Jr\\\"\\\\\"")));
+    assertEquals("\u00e9", value(compiler.compile("name.familyName eq \"\\u00e9\"")));
+    assertEquals(Boolean.FALSE, value(compiler.compile("active eq False")));
+    assertEquals(new BigDecimal("42"), value(compiler.compile("age gt +42")));
+    assertEquals(new BigDecimal("-1.5e3"), value(compiler.compile("age le -1.5e3")));
+  }
+
+  @Test
+  void testCompileLogicalExpressions() {
+    FilterExpression expression = compiler.compile("title pr and userType eq \"Employee\" or not (active eq true)");
+
+    FilterExpression and = new LogicalExpression(LogicalOperator.AND, new PresentExpression(path("title")),
+        new ComparisonExpression(path("userType"), ComparisonOperator.EQ, "Employee"));
+    FilterExpression not = new NotExpression(new ComparisonExpression(path("active"), ComparisonOperator.EQ, Boolean.TRUE));
+    assertEquals(new LogicalExpression(LogicalOperator.OR, and, not), expression);
+  }
+
+  @Test
+  void testCompileValuePath() {
+    FilterExpression expression = compiler.compile("emails[type eq \"work\" and value co \"@example.com\"].value");
+
+    FilterExpression valueFilter = new LogicalExpression(LogicalOperator.AND, new ComparisonExpression(path("type"), ComparisonOperator.EQ,
+        "work"), new ComparisonExpression(path("value"), ComparisonOperator.CO, "@example.com"));
+    assertEquals(new ValuePathExpression(path("emails"), valueFilter, "value", Collections.emptyMap()), expression);
+  }
+
+  @Test
+  void testCompileValuePathWithPagingParameters() {
+    ValuePathExpression expression = (ValuePathExpression) compiler.compile("members[startIndex=1&count=100]");
+
+    assertNull(expression.getValueFilter());
+    assertEquals("1", expression.getPagingParameters().get("startIndex"));
+    assertEquals("100", expression.getPagingParameters().get("count"));
+  }
+
+  @Test
+  void testFiltersWithSameStructureShareCacheEntry() {
+    FilterExpression first = compiler.compile("userName eq \"bjensen\" and active eq true");
+    FilterExpression second = compiler.compile("userName EQ \"jsmith\" AND active eq false");
+
+    assertEquals(1, compiler.getCachedFiltersCount());
+    assertEquals("(userName eq \"bjensen\" and active eq true)", first.toString());
+    assertEquals("(userName eq \"jsmith\" and active eq false)", second.toString());
+  }
+
+  @Test
+  void testCachedExpressionIsReusedForSameFilter() {
+    FilterExpression first = compiler.compile("emails[type eq \"work\"]");
+    FilterExpression second = compiler.compile(" emails[type eq \"work\"] ");
+
+    assertSame(first, second);
+  }
+
+  @Test
+  void testFiltersWithDifferentAttributesDoNotShareCacheEntry() {
+    compiler.compile("userName eq \"bjensen\"");
+    FilterExpression expression = compiler.compile("externalId eq \"bjensen\"");
+
+    assertEquals(2, compiler.getCachedFiltersCount());
+    assertEquals(path("externalId"), ((ComparisonExpression) expression).getAttributePath());
+  }
+
+  @Test
+  void testLeastRecentlyUsedFilterIsEvicted() {
+    QueryFilterCompiler smallCacheCompiler = new QueryFilterCompiler(2, false);
+
+    FilterExpression userName = smallCacheCompiler.compile("userName eq \"bjensen\"");
+    smallCacheCompiler.compile("externalId eq \"bjensen\"");
+    smallCacheCompiler.compile("userName eq \"bjensen\"");
+    smallCacheCompiler.compile("displayName eq \"bjensen\"");
+
+    assertEquals(2, smallCacheCompiler.getCachedFiltersCount());
+    assertSame(userName, smallCacheCompiler.compile("userName eq \"bjensen\""));
+  }
+
+  @Test
+  void testInvalidFilterIsRejectedAndNotCached() {
+    assertThrows(InvalidFilterException.class, () -> compiler.compile("userName eqs \"bjensen\""));
+    assertThrows(InvalidFilterException.class, () -> compiler.compile(""));
+
+    assertEquals(0, compiler.getCachedFiltersCount());
+  }
+
+  @Test
+  void testTwoStageParsingProducesSameExpressions() {
+    QueryFilterCompiler twoStageCompiler = new QueryFilterCompiler(0, true);
+    String filter = "userType eq \"Employee\" and (emails[type eq \"work\" and value co \"@example.com\"] or not (title pr))";
+
+    assertEquals(compiler.compile(filter), twoStageCompiler.compile(filter));
+    assertThrows(InvalidFilterException.class, () -> twoStageCompiler.compile("userType eq \"Employee\" ands (emails.type eq \"work\")"));
+    assertEquals(0, twoStageCompiler.getCachedFiltersCount());
+  }
+
+  @Test
+  void testQueryFilterCompilesLazily() {
+    QueryFilter invalidFilter = QueryFilter.of("userName eqs \"bjensen\"", compiler);
+    QueryFilter filter = QueryFilter.of("userName eq \"bjensen\"", compiler);
+
+    assertEquals("userName eqs \"bjensen\"", invalidFilter.getText());
+    assertThrows(InvalidFilterException.class, invalidFilter::getExpression);
+    assertSame(filter.getExpression(), filter.getExpression());
+    assertNull(QueryFilter.of(null, compiler));
+    assertTrue(filter.getExpression() instanceof ComparisonExpression);
+  }
+
+  private static AttributePath path(final String attributeName) {
+    return new AttributePath(null, attributeName, null);
+  }
+
+  private static Object value(final FilterExpression expression) {
+    return ((ComparisonExpression) expression).getValue();
+  }
+}
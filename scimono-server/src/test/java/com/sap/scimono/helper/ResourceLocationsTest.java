@@ -0,0 +1,96 @@
+package com.sap.scimono.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.scimono.api.API;
+import com.sap.scimono.api.helper.ObjectMapperRegistry;
+import com.sap.scimono.callback.config.DefaultSCIMConfigurationCallback;
+import com.sap.scimono.entity.EnterpriseExtension;
+import com.sap.scimono.entity.Group;
+import com.sap.scimono.entity.GroupRef;
+import com.sap.scimono.entity.Manager;
+import com.sap.scimono.entity.MemberRef;
+import com.sap.scimono.entity.Meta;
+import com.sap.scimono.entity.User;
+
+class ResourceLocationsTest {
+  private static final ObjectMapper MAPPER = ObjectMapperRegistry.getDefault().getObjectMapper();
+
+  private final ResourceLocationService usersLocationService = new ResourceLocationService(null, new RedirectConfiguration(), API.USERS);
+  private final ResourceLocationService groupsLocationService = new ResourceLocationService(null, new RedirectConfiguration(), API.GROUPS);
+
+  @Test
+  void testUserLocationsAreAddedWhileWriting() {
+    // @formatter:off
+    User user = new User.Builder("bjensen")
+        .setId("user 1")
+        .setMeta(new Meta.Builder(Instant.EPOCH, Instant.EPOCH).setVersion("1").build())
+        .addGroup(new GroupRef.Builder().setValue("group/1").build())
+        .addExtension(new EnterpriseExtension.Builder().setManager(new Manager.Builder().setValue("manager-1").build()).build())
+        .build();
+    // @formatter:on
+    User userWithLocations = usersLocationService.addRelationalEntitiesLocation(usersLocationService.addLocation(user, user.getId()));
+
+    JsonNode writtenUser = writeWithLocations(user);
+
+    assertEquals(MAPPER.valueToTree(userWithLocations), writtenUser);
+    assertEquals("https://example.com/scim/Users/user+1", writtenUser.get("meta").get("location").textValue());
+    assertEquals("https://example.com/scim/Users/manager-1",
+        writtenUser.get(EnterpriseExtension.ENTERPRISE_URN).get("manager").get("$ref").textValue());
+    assertFalse(MAPPER.valueToTree(user).get("meta").has("location"));
+  }
+
+  @Test
+  void testGroupLocationsAreAddedWhileWriting() {
+    List<MemberRef> members = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      members.add(new MemberRef.Builder().setValue("member-" + i).setType(i % 2 == 0 ? MemberRef.Type.USER : MemberRef.Type.GROUP).build());
+    }
+    members.add(new MemberRef.Builder().setValue("untyped").build());
+    // @formatter:off
+    Group group = new Group.Builder("admins")
+        .setId("group-1")
+        .setMeta(new Meta.Builder(Instant.EPOCH, Instant.EPOCH).setVersion("1").build())
+        .setMembers(new LinkedHashSet<>(members))
+        .build();
+    // @formatter:on
+    Group groupWithLocations = groupsLocationService.addMembersLocation(groupsLocationService.addLocation(group, group.getId()));
+
+    JsonNode writtenGroup = writeWithLocations(group);
+
+    assertEquals(MAPPER.valueToTree(groupWithLocations), writtenGroup);
+    assertEquals("https://example.com/scim/Groups/member-1", writtenGroup.get("members").get(1).get("$ref").textValue());
+    assertEquals("member-0", writtenGroup.get("members").get(0).get("value").textValue());
+    assertFalse(writtenGroup.get("members").get(20).has("$ref"));
+  }
+
+  private JsonNode writeWithLocations(final Object resource) {
+    ResourceLocations.bind(usersLocationService.getResourceLocations());
+    try {
+      return MAPPER.readTree(MAPPER.writeValueAsString(resource));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    } finally {
+      ResourceLocations.remove();
+    }
+  }
+
+  private static class RedirectConfiguration extends DefaultSCIMConfigurationCallback {
+
+    @Override
+    public URI getRedirectApiRoot() {
+      return URI.create("https://example.com/scim/");
+    }
+  }
+}